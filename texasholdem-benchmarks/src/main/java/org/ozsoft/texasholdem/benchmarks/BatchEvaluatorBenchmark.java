@@ -0,0 +1,169 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.BatchEvaluator;
+import org.ozsoft.texasholdem.LookupEvaluator;
+
+/**
+ * Benchmark of the throughput of the batch evaluator against evaluating 7-card
+ * hands one at a time. <br />
+ * <br />
+ *
+ * Each invocation evaluates a fixed set of random hands, so the score is the
+ * number of hands evaluated per second.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchEvaluatorBenchmark {
+
+    /** The number of hands evaluated per invocation. */
+    static final int NO_OF_HANDS = 4096;
+
+    /** The hands as card masks. */
+    private long[] masks;
+
+    /** The hands as card columns. */
+    private int[][] cards;
+
+    /** The common board. */
+    private long board;
+
+    /** The hole cards against the common board. */
+    private long[] holeCards;
+
+    /** The hand values. */
+    private final int[] values = new int[NO_OF_HANDS];
+
+    /** The lookup table evaluator. */
+    private final LookupEvaluator lookupEvaluator = new LookupEvaluator();
+
+    /** The batch evaluator. */
+    private final BatchEvaluator batchEvaluator = new BatchEvaluator();
+
+    /**
+     * Generates the random hands.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(EvaluatorBenchmark.SEED);
+        masks = new long[NO_OF_HANDS];
+        cards = new int[7][NO_OF_HANDS];
+        for (int h = 0; h < NO_OF_HANDS; h++) {
+            masks[h] = EvaluatorBenchmark.randomMask(random, 7);
+            int i = 0;
+            for (long mask = masks[h]; mask != 0L; mask &= mask - 1L) {
+                cards[i++][h] = Long.numberOfTrailingZeros(mask);
+            }
+        }
+        board = EvaluatorBenchmark.randomMask(random, 5);
+        holeCards = new long[NO_OF_HANDS];
+        for (int h = 0; h < NO_OF_HANDS; h++) {
+            long hand;
+            do {
+                hand = EvaluatorBenchmark.randomMask(random, 2);
+            } while ((hand & board) != 0L);
+            holeCards[h] = hand;
+        }
+    }
+
+    /**
+     * Evaluates the card masks one at a time.
+     *
+     * @return The hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int[] single() {
+        for (int h = 0; h < NO_OF_HANDS; h++) {
+            values[h] = lookupEvaluator.getValue(masks[h]);
+        }
+        return values;
+    }
+
+    /**
+     * Evaluates the card masks in a batch.
+     *
+     * @return The hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int[] batchMasks() {
+        batchEvaluator.evaluate(masks, values, 0, NO_OF_HANDS);
+        return values;
+    }
+
+    /**
+     * Evaluates the card columns in a batch.
+     *
+     * @return The hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int[] batchColumns() {
+        batchEvaluator.evaluate(cards, 7, values, 0, NO_OF_HANDS);
+        return values;
+    }
+
+    /**
+     * Evaluates the hole cards against the common board one at a time.
+     *
+     * @return The hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int[] singleBoard() {
+        for (int h = 0; h < NO_OF_HANDS; h++) {
+            values[h] = lookupEvaluator.getValue(board | holeCards[h]);
+        }
+        return values;
+    }
+
+    /**
+     * Evaluates the hole cards against the common board in a batch.
+     *
+     * @return The hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int[] batchBoard() {
+        batchEvaluator.evaluate(board, holeCards, values, 0, NO_OF_HANDS);
+        return values;
+    }
+
+}
@@ -0,0 +1,164 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.CachingEvaluator;
+import org.ozsoft.texasholdem.HandEvaluator;
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Benchmark of the throughput of the caching evaluator (with the default
+ * capacity) against evaluating each 7-card hand. <br />
+ * <br />
+ *
+ * The hands are drawn at random from a pool of distinct hands. The cache pays
+ * off when the pool fits in the cache (most lookups are hits), and only costs
+ * a little when it does not.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingEvaluatorBenchmark {
+
+    /** The number of hands evaluated per invocation. */
+    static final int NO_OF_HANDS = 1024;
+
+    /** The length of the sequence of hands. */
+    static final int SEQUENCE_LENGTH = 1 << 20;
+
+    /** The number of distinct hands. */
+    @Param({ "1024", "65536", "1048576" })
+    public int noOfDistinctHands;
+
+    /** The sequence of hands (card masks). */
+    private long[] masks;
+
+    /** The position in the sequence. */
+    private int position;
+
+    /** The lookup table evaluator. */
+    private final LookupEvaluator lookupEvaluator = new LookupEvaluator();
+
+    /** The caching evaluator. */
+    private final CachingEvaluator cachingEvaluator = new CachingEvaluator();
+
+    /**
+     * Generates the pool and the sequence of hands.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(EvaluatorBenchmark.SEED);
+        long[] pool = new long[noOfDistinctHands];
+        for (int i = 0; i < noOfDistinctHands; i++) {
+            pool[i] = EvaluatorBenchmark.randomMask(random, 7);
+        }
+        masks = new long[SEQUENCE_LENGTH];
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            masks[i] = pool[random.nextInt(noOfDistinctHands)];
+        }
+    }
+
+    /**
+     * Prints the hit rate of the cache (if used).
+     */
+    @TearDown
+    public void tearDown() {
+        if (cachingEvaluator.getHits() + cachingEvaluator.getMisses() > 0L) {
+            System.out.format("%nHit rate: %.1f%%%n", cachingEvaluator.getHitRate() * 100.0);
+        }
+    }
+
+    /**
+     * Evaluates the hands with a new hand evaluator each.
+     *
+     * @return The sum of the hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int handEvaluator() {
+        int sum = 0;
+        for (int i = 0; i < NO_OF_HANDS; i++) {
+            sum += new HandEvaluator(CardUtils.toHand(next())).getValue();
+        }
+        return sum;
+    }
+
+    /**
+     * Evaluates the hands with the caching evaluator.
+     *
+     * @return The sum of the hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int cachingEvaluator() {
+        int sum = 0;
+        for (int i = 0; i < NO_OF_HANDS; i++) {
+            sum += cachingEvaluator.getValue(next());
+        }
+        return sum;
+    }
+
+    /**
+     * Evaluates the hands with the lookup table evaluator.
+     *
+     * @return The sum of the hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int lookupEvaluator() {
+        int sum = 0;
+        for (int i = 0; i < NO_OF_HANDS; i++) {
+            sum += lookupEvaluator.getValue(next());
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the next hand of the sequence.
+     *
+     * @return The card mask.
+     */
+    private long next() {
+        long mask = masks[position];
+        position = (position + 1) & (SEQUENCE_LENGTH - 1);
+        return mask;
+    }
+
+}
@@ -0,0 +1,97 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmarks;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ozsoft.texasholdem.Deck;
+
+/**
+ * Benchmark of shuffling the deck and dealing a full hand (the hole cards of
+ * each player and the board), with a secure or a splittable random number
+ * generator, and eager or lazy shuffling.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    /** The number of players. */
+    @Param({ "2", "9" })
+    public int noOfPlayers;
+
+    /** Whether to use a splittable instead of a secure random number generator. */
+    @Param({ "false", "true" })
+    public boolean splittable;
+
+    /** Whether to draw the cards lazily when dealt. */
+    @Param({ "false", "true" })
+    public boolean lazy;
+
+    /** The deck. */
+    private Deck deck;
+
+    /**
+     * Creates the deck.
+     */
+    @Setup
+    public void setUp() {
+        if (splittable) {
+            deck = new Deck(new SplittableRandom(), lazy);
+        } else {
+            deck = new Deck(new SecureRandom(), lazy);
+        }
+    }
+
+    /**
+     * Shuffles the deck and deals the cards of a hand.
+     *
+     * @param blackhole
+     *            The blackhole consuming the cards.
+     */
+    @Benchmark
+    public void shuffleAndDeal(Blackhole blackhole) {
+        deck.shuffle();
+        for (int i = 0; i < noOfPlayers; i++) {
+            blackhole.consume(deck.deal(2));
+        }
+        blackhole.consume(deck.deal(3));
+        blackhole.consume(deck.deal());
+        blackhole.consume(deck.deal());
+    }
+
+}
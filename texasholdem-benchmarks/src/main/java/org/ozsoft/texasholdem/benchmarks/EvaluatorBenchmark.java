@@ -0,0 +1,155 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.Hand;
+import org.ozsoft.texasholdem.HandEvaluator;
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Benchmark of the throughput of the hand evaluators with 5, 6 and 7 cards.
+ * <br />
+ * <br />
+ *
+ * Each invocation evaluates a fixed set of random hands, so the score is the
+ * number of hands evaluated per second.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    /** The number of hands evaluated per invocation. */
+    static final int NO_OF_HANDS = 1024;
+
+    /** The seed of the random number generator. */
+    static final long SEED = 42L;
+
+    /** The number of cards per hand. */
+    @Param({ "5", "6", "7" })
+    public int noOfCards;
+
+    /** The hands. */
+    private Hand[] hands;
+
+    /** The hands as card masks. */
+    private long[] masks;
+
+    /** The lookup table evaluator. */
+    private final LookupEvaluator lookupEvaluator = new LookupEvaluator();
+
+    /**
+     * Generates the random hands.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(SEED);
+        hands = new Hand[NO_OF_HANDS];
+        masks = new long[NO_OF_HANDS];
+        for (int i = 0; i < NO_OF_HANDS; i++) {
+            long mask = randomMask(random, noOfCards);
+            masks[i] = mask;
+            hands[i] = CardUtils.toHand(mask);
+        }
+    }
+
+    /**
+     * Evaluates the hands with the original hand evaluator.
+     *
+     * @return The sum of the hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int handEvaluator() {
+        int sum = 0;
+        for (Hand hand : hands) {
+            sum += new HandEvaluator(hand).getValue();
+        }
+        return sum;
+    }
+
+    /**
+     * Evaluates the hands with the lookup table evaluator.
+     *
+     * @return The sum of the hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int lookupEvaluator() {
+        int sum = 0;
+        for (Hand hand : hands) {
+            sum += lookupEvaluator.getValue(hand);
+        }
+        return sum;
+    }
+
+    /**
+     * Evaluates the card masks with the lookup table evaluator.
+     *
+     * @return The sum of the hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(NO_OF_HANDS)
+    public int lookupEvaluatorMask() {
+        int sum = 0;
+        for (long mask : masks) {
+            sum += lookupEvaluator.getValue(mask);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns a random card mask.
+     *
+     * @param random
+     *            The random number generator.
+     * @param noOfCards
+     *            The number of cards.
+     *
+     * @return The card mask.
+     */
+    static long randomMask(Random random, int noOfCards) {
+        long mask = 0L;
+        while (Long.bitCount(mask) < noOfCards) {
+            mask |= 1L << random.nextInt(CardUtils.NO_OF_CARDS);
+        }
+        return mask;
+    }
+
+}
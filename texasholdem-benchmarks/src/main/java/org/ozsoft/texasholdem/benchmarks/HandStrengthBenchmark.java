@@ -0,0 +1,82 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.equity.HandStrength;
+import org.ozsoft.texasholdem.equity.HandStrengthCalculator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Benchmark of the latency of a hand strength and potential calculation per
+ * street.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandStrengthBenchmark {
+
+    /** The board. */
+    @Param({ "Kh 9h 2c", "Kh 9h 2c 7s", "Kh 9h 2c 7s 3d" })
+    public String board;
+
+    /** The hole cards. */
+    private final long holeCards = CardUtils.parseMask("Ah 5h");
+
+    /** The board as card mask. */
+    private long boardMask;
+
+    /** The calculator. */
+    private final HandStrengthCalculator calculator = new HandStrengthCalculator();
+
+    /**
+     * Parses the board.
+     */
+    @Setup
+    public void setup() {
+        boardMask = CardUtils.parseMask(board);
+    }
+
+    /**
+     * Calculates the hand strength and potential.
+     *
+     * @return The result.
+     */
+    @Benchmark
+    public HandStrength calculate() {
+        return calculator.calculate(holeCards, boardMask);
+    }
+
+}
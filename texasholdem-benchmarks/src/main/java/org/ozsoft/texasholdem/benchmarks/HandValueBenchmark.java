@@ -0,0 +1,104 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.ozsoft.texasholdem.Evaluator;
+import org.ozsoft.texasholdem.Hand;
+import org.ozsoft.texasholdem.HandValue;
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Benchmark of the construction of <code>HandValue</code> objects from 7-card
+ * hands, as done at each showdown.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandValueBenchmark {
+
+    /** The number of cards per hand. */
+    private static final int NO_OF_CARDS = 7;
+
+    /** The hands. */
+    private Hand[] hands;
+
+    /** The lookup table evaluator. */
+    private final Evaluator lookupEvaluator = new LookupEvaluator();
+
+    /**
+     * Generates the random hands.
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(EvaluatorBenchmark.SEED);
+        hands = new Hand[EvaluatorBenchmark.NO_OF_HANDS];
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = CardUtils.toHand(EvaluatorBenchmark.randomMask(random, NO_OF_CARDS));
+        }
+    }
+
+    /**
+     * Constructs hand values with the original hand evaluator.
+     *
+     * @param blackhole
+     *            The blackhole consuming the hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(EvaluatorBenchmark.NO_OF_HANDS)
+    public void handEvaluator(Blackhole blackhole) {
+        for (Hand hand : hands) {
+            blackhole.consume(new HandValue(hand));
+        }
+    }
+
+    /**
+     * Constructs hand values with the lookup table evaluator.
+     *
+     * @param blackhole
+     *            The blackhole consuming the hand values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(EvaluatorBenchmark.NO_OF_HANDS)
+    public void lookupEvaluator(Blackhole blackhole) {
+        for (Hand hand : hands) {
+            blackhole.consume(new HandValue(hand, lookupEvaluator));
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.util.CardUtils;
+import org.ozsoft.texasholdem.util.MaskDeck;
+
+/**
+ * Benchmark of dealing the unknown cards of a Monte Carlo trial (the rest of
+ * the board and the hole cards of the opponents) from a {@link MaskDeck} with
+ * the known cards removed.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaskDeckBenchmark {
+
+    /** The known cards (hero's hole cards and the flop). */
+    private static final long KNOWN_CARDS = CardUtils.parseMask("As Ks Qh 7d 2c");
+
+    /** The number of opponents. */
+    @Param({ "1", "8" })
+    public int noOfOpponents;
+
+    /** The deck. */
+    private final MaskDeck deck = new MaskDeck(new SplittableRandom(EvaluatorBenchmark.SEED));
+
+    /**
+     * Deals the unknown cards of a trial.
+     *
+     * @return The dealt cards (card mask).
+     */
+    @Benchmark
+    public long deal() {
+        deck.reset(KNOWN_CARDS);
+        long cards = deck.deal(2);
+        for (int i = 0; i < noOfOpponents; i++) {
+            cards |= deck.deal(2);
+        }
+        return cards;
+    }
+
+}
@@ -0,0 +1,127 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.Table;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.bots.BasicBot;
+
+/**
+ * Benchmark of playing single hands at a Fixed-Limit table with bots. <br />
+ * <br />
+ *
+ * The players start each iteration with a deep stack, so nobody busts during
+ * an iteration. The table's console output (if any) is discarded. In
+ * simulation mode the bots only subscribe to the events they need.
+ *
+ * @author Oscar Stigter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableBenchmark {
+
+    /** The size of the big blind. */
+    private static final int BIG_BLIND = 10;
+
+    /** The starting cash of each player. */
+    private static final int STARTING_CASH = 100000000;
+
+    /** The number of players. */
+    @Param({ "2", "6" })
+    public int noOfPlayers;
+
+    /** Whether to run the table in (headless) simulation mode. */
+    @Param({ "false", "true" })
+    public boolean simulationMode;
+
+    /** The table. */
+    private Table table;
+
+    /**
+     * Discards the console output of the table and the players.
+     */
+    @Setup(Level.Trial)
+    public void discardOutput() {
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // Discard.
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // Discard.
+            }
+        }));
+    }
+
+    /**
+     * Creates the table with the players.
+     */
+    @Setup(Level.Iteration)
+    public void setup() {
+        table = new Table(TableType.FIXED_LIMIT, BIG_BLIND);
+        table.setSimulationMode(simulationMode);
+        List<Player> players = new ArrayList<Player>();
+        for (int i = 0; i < noOfPlayers; i++) {
+            BasicBot bot = new BasicBot(i * 10, 50);
+            Player player = new Player("Bot " + (i + 1), STARTING_CASH, bot);
+            players.add(player);
+            if (simulationMode) {
+                table.addPlayer(player, bot.getSubscribedEvents());
+            } else {
+                table.addPlayer(player);
+            }
+        }
+        for (Player player : players) {
+            player.getClient().joinedTable(TableType.FIXED_LIMIT, BIG_BLIND, players);
+        }
+    }
+
+    /**
+     * Plays a single hand.
+     */
+    @Benchmark
+    public void playHand() {
+        table.playHand();
+    }
+
+}
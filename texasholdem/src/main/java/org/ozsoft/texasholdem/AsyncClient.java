@@ -0,0 +1,58 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.ozsoft.texasholdem.actions.Action;
+
+/**
+ * A player client deciding on its actions asynchronously. <br />
+ * <br />
+ *
+ * Instead of blocking the table until it has decided, the client returns a
+ * future that it completes with the selected action from any thread (e.g. when
+ * a remote player's reply arrives). The table waits for the action at most the
+ * decision timeout plus the player's time bank (see
+ * {@link Table#setTimeLimits(long, long)}), and otherwise continues with a
+ * default action; a late action is ignored. An asynchronous client can
+ * therefore only join a table with a decision timeout.
+ *
+ * @author Oscar Stigter
+ */
+public interface AsyncClient extends Client {
+
+    /**
+     * Requests this player to act, selecting one of the allowed actions. <br />
+     * <br />
+     *
+     * The returned future is cancelled when the player runs out of time.
+     *
+     * @param minBet
+     *            The minimum bet.
+     * @param currentBet
+     *            The current bet.
+     * @param allowedActions
+     *            The allowed actions.
+     *
+     * @return The future completed with the selected action.
+     */
+    CompletableFuture<Action> actAsync(int minBet, int currentBet, Set<Action> allowedActions);
+
+}
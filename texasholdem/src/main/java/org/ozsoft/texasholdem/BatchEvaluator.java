@@ -0,0 +1,219 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * Evaluator of many hands per call, based on the tables of the
+ * {@link LookupEvaluator}. <br />
+ * <br />
+ *
+ * The hands are passed as parallel primitive arrays (one element per hand) and
+ * the values are written into an <code>int[]</code>. Instead of evaluating one
+ * hand after the other, each step is applied to a block of hands in a simple
+ * loop over the arrays. The table lookups of a single hand depend on each
+ * other, but those of different hands do not, so the processor can overlap
+ * them, and the loops without lookups can be vectorized by the JIT compiler.
+ * <br />
+ * <br />
+ *
+ * The common case of many hole cards against the same board (a showdown or a
+ * rollout trial) only needs to process the board once. <br />
+ * <br />
+ *
+ * Evaluating does not allocate any objects. Instances keep scratch arrays and
+ * are therefore <b>not</b> thread-safe; use one instance per thread.
+ *
+ * @author Oscar Stigter
+ */
+public class BatchEvaluator {
+
+    /** The number of hands processed per block. */
+    public static final int BLOCK_SIZE = 256;
+
+    /** The maximum number of cards in a hand. */
+    private static final int MAX_NO_OF_CARDS = 7;
+
+    /** The maximum number of board cards. */
+    private static final int MAX_NO_OF_BOARD_CARDS = 5;
+
+    /** The rank distribution states of the current block. */
+    private final int[] states = new int[BLOCK_SIZE];
+
+    /** The rank masks per suit of the current block (16 bits per suit). */
+    private final long[] suitRanks = new long[BLOCK_SIZE];
+
+    /** The remaining cards of the current block (card masks). */
+    private final long[] remaining = new long[BLOCK_SIZE];
+
+    /**
+     * Evaluates hands given as card columns: <code>cards[i][h]</code> is the
+     * i-th card of hand h.
+     *
+     * The result is undefined if a hand contains the same card twice.
+     *
+     * @param cards
+     *            The card columns (at least <code>noOfCards</code>).
+     * @param noOfCards
+     *            The number of cards per hand (at most 7).
+     * @param values
+     *            The array to store the hand values in.
+     * @param offset
+     *            The index of the first hand.
+     * @param length
+     *            The number of hands.
+     */
+    public void evaluate(int[][] cards, int noOfCards, int[] values, int offset, int length) {
+        if (noOfCards < 0 || noOfCards > MAX_NO_OF_CARDS || cards.length < noOfCards) {
+            throw new IllegalArgumentException("Invalid number of cards: " + noOfCards);
+        }
+        checkRange(values.length, offset, length);
+        for (int i = 0; i < noOfCards; i++) {
+            checkRange(cards[i].length, offset, length);
+        }
+        for (int start = offset; start < offset + length; start += BLOCK_SIZE) {
+            int n = Math.min(BLOCK_SIZE, offset + length - start);
+            for (int h = 0; h < n; h++) {
+                states[h] = 0;
+                suitRanks[h] = 0L;
+            }
+            for (int i = 0; i < noOfCards; i++) {
+                int[] column = cards[i];
+                for (int h = 0; h < n; h++) {
+                    states[h] = LookupEvaluator.nextState(states[h], column[start + h]);
+                }
+                for (int h = 0; h < n; h++) {
+                    suitRanks[h] |= LookupEvaluator.getSuitRank(column[start + h]);
+                }
+            }
+            for (int h = 0; h < n; h++) {
+                values[start + h] = LookupEvaluator.getValue(states[h], suitRanks[h], noOfCards);
+            }
+        }
+    }
+
+    /**
+     * Evaluates hands given as card masks (see
+     * {@link org.ozsoft.texasholdem.util.CardUtils}).
+     *
+     * @param masks
+     *            The card masks (at most 7 cards each).
+     * @param values
+     *            The array to store the hand values in.
+     * @param offset
+     *            The index of the first hand.
+     * @param length
+     *            The number of hands.
+     */
+    public void evaluate(long[] masks, int[] values, int offset, int length) {
+        checkRange(values.length, offset, length);
+        checkRange(masks.length, offset, length);
+        for (int start = offset; start < offset + length; start += BLOCK_SIZE) {
+            int n = Math.min(BLOCK_SIZE, offset + length - start);
+            int maxNoOfCards = 0;
+            for (int h = 0; h < n; h++) {
+                long mask = masks[start + h];
+                int noOfCards = Long.bitCount(mask);
+                if (noOfCards > MAX_NO_OF_CARDS) {
+                    throw new IllegalArgumentException("Too many cards");
+                }
+                maxNoOfCards = Math.max(maxNoOfCards, noOfCards);
+                remaining[h] = mask;
+                states[h] = 0;
+                suitRanks[h] = 0L;
+            }
+            // Add the lowest remaining card of each hand at a time.
+            for (int i = 0; i < maxNoOfCards; i++) {
+                for (int h = 0; h < n; h++) {
+                    long mask = remaining[h];
+                    if (mask != 0L) {
+                        int card = Long.numberOfTrailingZeros(mask);
+                        states[h] = LookupEvaluator.nextState(states[h], card);
+                        suitRanks[h] |= LookupEvaluator.getSuitRank(card);
+                        remaining[h] = mask & (mask - 1L);
+                    }
+                }
+            }
+            for (int h = 0; h < n; h++) {
+                values[start + h] = LookupEvaluator.getValue(states[h], suitRanks[h], Long.bitCount(masks[start + h]));
+            }
+        }
+    }
+
+    /**
+     * Evaluates hole cards against a common board.
+     *
+     * The result is undefined if hole cards overlap with the board.
+     *
+     * @param board
+     *            The board (card mask, at most 5 cards).
+     * @param holeCards
+     *            The hole cards per hand (card masks with 2 cards each).
+     * @param values
+     *            The array to store the hand values in.
+     * @param offset
+     *            The index of the first hand.
+     * @param length
+     *            The number of hands.
+     */
+    public void evaluate(long board, long[] holeCards, int[] values, int offset, int length) {
+        int noOfBoardCards = Long.bitCount(board);
+        if (noOfBoardCards > MAX_NO_OF_BOARD_CARDS) {
+            throw new IllegalArgumentException("Too many board cards");
+        }
+        checkRange(values.length, offset, length);
+        checkRange(holeCards.length, offset, length);
+        int boardState = 0;
+        long boardSuitRanks = 0L;
+        for (long mask = board; mask != 0L; mask &= mask - 1L) {
+            int card = Long.numberOfTrailingZeros(mask);
+            boardState = LookupEvaluator.nextState(boardState, card);
+            boardSuitRanks |= LookupEvaluator.getSuitRank(card);
+        }
+        int noOfCards = noOfBoardCards + 2;
+        for (int start = offset; start < offset + length; start += BLOCK_SIZE) {
+            int n = Math.min(BLOCK_SIZE, offset + length - start);
+            for (int h = 0; h < n; h++) {
+                long mask = holeCards[start + h];
+                int card1 = Long.numberOfTrailingZeros(mask);
+                int card2 = 63 - Long.numberOfLeadingZeros(mask);
+                states[h] = LookupEvaluator.nextState(LookupEvaluator.nextState(boardState, card1), card2);
+                suitRanks[h] = boardSuitRanks | LookupEvaluator.getSuitRank(card1) | LookupEvaluator.getSuitRank(card2);
+            }
+            for (int h = 0; h < n; h++) {
+                values[start + h] = LookupEvaluator.getValue(states[h], suitRanks[h], noOfCards);
+            }
+        }
+    }
+
+    /**
+     * Checks a range of hands against the length of an array.
+     *
+     * @param arrayLength
+     *            The length of the array.
+     * @param offset
+     *            The index of the first hand.
+     * @param length
+     *            The number of hands.
+     */
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > arrayLength) {
+            throw new IllegalArgumentException("Invalid range: " + offset + " + " + length);
+        }
+    }
+
+}
@@ -0,0 +1,272 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Evaluator caching the hand values of another evaluator, keyed by the card
+ * mask of the hand. <br />
+ * <br />
+ *
+ * The cache is bounded by a fixed number of entries and can be shared by many
+ * concurrently running tables. Each entry is a single <code>long</code>
+ * holding both the key (the index of the combination of up to 7 cards) and
+ * the hand value, so entries are read and written atomically without locks.
+ * An entry is evicted when another hand maps to the same position. <br />
+ * <br />
+ *
+ * A hit costs a few arithmetic operations and one array access, which is far
+ * cheaper than a {@link HandEvaluator}, but not cheaper than a
+ * {@link LookupEvaluator}. The number of hits and misses is counted for tuning
+ * the capacity.
+ *
+ * @author Oscar Stigter
+ */
+public class CachingEvaluator implements Evaluator {
+
+    /** The default capacity (number of entries). */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** The maximum number of cards in a cached hand. */
+    private static final int MAX_NO_OF_CARDS = 7;
+
+    /** The number of bits of the hand value in an entry. */
+    private static final int VALUE_BITS = 22;
+
+    /** The bit mask of the hand value in an entry. */
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1L;
+
+    /** The binomial coefficients (card, number of cards). */
+    private static final long[][] BINOMIALS = new long[CardUtils.NO_OF_CARDS + 1][MAX_NO_OF_CARDS + 1];
+
+    /** The first key per number of cards. */
+    private static final long[] KEY_OFFSETS = new long[MAX_NO_OF_CARDS + 1];
+
+    static {
+        for (int n = 0; n <= CardUtils.NO_OF_CARDS; n++) {
+            BINOMIALS[n][0] = 1L;
+            for (int k = 1; k <= Math.min(n, MAX_NO_OF_CARDS); k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+        for (int k = 1; k <= MAX_NO_OF_CARDS; k++) {
+            KEY_OFFSETS[k] = KEY_OFFSETS[k - 1] + BINOMIALS[CardUtils.NO_OF_CARDS][k - 1];
+        }
+    }
+
+    /** The evaluator calculating the hand values on a miss. */
+    private final Evaluator evaluator;
+
+    /** The entries (key + 1 and hand value, or 0 if empty). */
+    private final AtomicLongArray entries;
+
+    /** The number of bits of the position of an entry. */
+    private final int indexBits;
+
+    /** The number of hits. */
+    private final LongAdder hits = new LongAdder();
+
+    /** The number of misses. */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor caching a {@link BasicEvaluator} with the default capacity.
+     */
+    public CachingEvaluator() {
+        this(new BasicEvaluator(), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param evaluator
+     *            The evaluator to cache.
+     * @param capacity
+     *            The maximum number of entries (rounded up to a power of 2).
+     */
+    public CachingEvaluator(Evaluator evaluator, int capacity) {
+        if (evaluator == null) {
+            throw new IllegalArgumentException("Null evaluator");
+        }
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.evaluator = evaluator;
+        indexBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(capacity - 1));
+        entries = new AtomicLongArray(1 << indexBits);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getValue(Hand hand) {
+        long key = getKey(hand.getMask()) + 1L;
+        int index = getIndex(key);
+        long entry = entries.get(index);
+        if ((entry >>> VALUE_BITS) == key) {
+            hits.increment();
+            return (int) (entry & VALUE_MASK);
+        }
+        misses.increment();
+        int value = evaluator.getValue(hand);
+        store(index, key, value);
+        return value;
+    }
+
+    /**
+     * Returns the value of a hand encoded as a card mask (see
+     * {@link CardUtils}).
+     *
+     * @param mask
+     *            The card mask.
+     *
+     * @return The hand value.
+     */
+    public int getValue(long mask) {
+        if (Long.bitCount(mask) > MAX_NO_OF_CARDS) {
+            return evaluator.getValue(CardUtils.toHand(mask));
+        }
+        long key = getKey(mask) + 1L;
+        int index = getIndex(key);
+        long entry = entries.get(index);
+        if ((entry >>> VALUE_BITS) == key) {
+            hits.increment();
+            return (int) (entry & VALUE_MASK);
+        }
+        misses.increment();
+        int value = evaluator.getValue(CardUtils.toHand(mask));
+        store(index, key, value);
+        return value;
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * Returns the current number of entries. <br />
+     * <br />
+     *
+     * This counts all entries, so it should not be called frequently.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < entries.length(); i++) {
+            if (entries.get(i) != 0L) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of hits.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of misses.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups that were hits.
+     *
+     * @return The hit rate, or 0 without lookups.
+     */
+    public double getHitRate() {
+        long noOfHits = hits.sum();
+        long total = noOfHits + misses.sum();
+        return (total > 0L) ? (double) noOfHits / total : 0.0;
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, 0L);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Stores an entry, replacing the previous entry at the same position.
+     *
+     * @param index
+     *            The position.
+     * @param key
+     *            The key (plus 1).
+     * @param value
+     *            The hand value.
+     */
+    private void store(int index, long key, int value) {
+        if (value >= 0 && value <= VALUE_MASK) {
+            entries.lazySet(index, (key << VALUE_BITS) | value);
+        }
+    }
+
+    /**
+     * Returns the key of a card mask: the index of its combination among all
+     * combinations of up to 7 cards (less than 2^28).
+     *
+     * @param mask
+     *            The card mask (at most 7 cards).
+     *
+     * @return The key.
+     */
+    private static long getKey(long mask) {
+        long key = KEY_OFFSETS[Long.bitCount(mask)];
+        for (int k = 1; mask != 0L; k++, mask &= mask - 1L) {
+            key += BINOMIALS[Long.numberOfTrailingZeros(mask)][k];
+        }
+        return key;
+    }
+
+    /**
+     * Returns the position of the entry of a key.
+     *
+     * @param key
+     *            The key.
+     *
+     * @return The position.
+     */
+    private int getIndex(long key) {
+        return (int) ((key * 0x9e3779b97f4a7c15L) >>> (64 - indexBits));
+    }
+
+}
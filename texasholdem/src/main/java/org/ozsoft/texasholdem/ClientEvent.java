@@ -0,0 +1,51 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * The table events a client can subscribe to, one per notification method of
+ * the {@link Client} interface. <br />
+ * <br />
+ * 
+ * Clients are always notified of joining a table and asked to act.
+ * 
+ * @author Oscar Stigter
+ */
+public enum ClientEvent {
+    
+    /** A game message ({@link Client#messageReceived(String)}). */
+    MESSAGE_RECEIVED,
+    
+    /** The start of a new hand ({@link Client#handStarted(Player)}). */
+    HAND_STARTED,
+    
+    /** The rotation of the actor ({@link Client#actorRotated(Player)}). */
+    ACTOR_ROTATED,
+    
+    /** An update of a player ({@link Client#playerUpdated(Player)}). */
+    PLAYER_UPDATED,
+    
+    /** An update of the board ({@link Client#boardUpdated(java.util.List, int, int)}). */
+    BOARD_UPDATED,
+    
+    /** A player acting ({@link Client#playerActed(Player)}). */
+    PLAYER_ACTED,
+    
+    ;
+
+}
@@ -21,10 +21,23 @@ import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * A standard, generic deck of game cards without jokers. <br />
  * <br />
+ * 
+ * The random number generator is pluggable: a {@link SecureRandom} (the
+ * default) for real games, or a seeded {@link Random} or
+ * {@link SplittableRandom} for fast, reproducible simulations. <br />
+ * <br />
+ * 
+ * In lazy mode the deck is not shuffled up front, but each card is drawn at
+ * random from the remaining cards when dealt (a partial Fisher-Yates shuffle),
+ * so a hand only costs one random number per card actually dealt. Note that
+ * the amount of randomness consumed per hand then depends on the number of
+ * cards dealt; use eager mode to keep multiple seeded decks in lockstep. <br />
+ * <br />
  *
  * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
  * 
@@ -41,15 +54,88 @@ public class Deck {
     /** The index of the next card to deal. */
     private int nextCardIndex = 0;
     
-    /** Random number generator (crypographical quality). */
-    private Random random = new SecureRandom();
+    /** Random number generator (null if a splittable one is used). */
+    private final Random random;
+    
+    /** Splittable random number generator (null if a regular one is used). */
+    private final SplittableRandom splittableRandom;
+    
+    /** Whether the cards are drawn at random when dealt. */
+    private final boolean lazy;
 
     /**
-     * Constructor.
+     * Constructor with a random number generator of cryptographical quality.
      * 
      * Starts as a full, ordered deck.
      */
     public Deck() {
+        this(new SecureRandom());
+    }
+    
+    /**
+     * Constructor with a specific random number generator, e.g. a seeded one
+     * for reproducible simulations.
+     * 
+     * Starts as a full, ordered deck.
+     * 
+     * @param random
+     *            The random number generator.
+     */
+    public Deck(Random random) {
+        this(random, false);
+    }
+    
+    /**
+     * Constructor with a specific random number generator.
+     * 
+     * Starts as a full, ordered deck.
+     * 
+     * @param random
+     *            The random number generator.
+     * @param lazy
+     *            Whether to draw the cards at random when dealt, instead of
+     *            shuffling the whole deck.
+     */
+    public Deck(Random random, boolean lazy) {
+        this(random, null, lazy);
+        if (random == null) {
+            throw new IllegalArgumentException("Null random number generator");
+        }
+    }
+    
+    /**
+     * Constructor with a splittable random number generator, the fastest
+     * option for simulations.
+     * 
+     * Starts as a full, ordered deck.
+     * 
+     * @param random
+     *            The random number generator.
+     * @param lazy
+     *            Whether to draw the cards at random when dealt, instead of
+     *            shuffling the whole deck.
+     */
+    public Deck(SplittableRandom random, boolean lazy) {
+        this(null, random, lazy);
+        if (random == null) {
+            throw new IllegalArgumentException("Null random number generator");
+        }
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param random
+     *            The random number generator, or null.
+     * @param splittableRandom
+     *            The splittable random number generator, or null.
+     * @param lazy
+     *            Whether to draw the cards at random when dealt.
+     */
+    private Deck(Random random, SplittableRandom splittableRandom, boolean lazy) {
+        this.random = random;
+        this.splittableRandom = splittableRandom;
+        this.lazy = lazy;
         cards = new Card[NO_OF_CARDS];
         int index = 0;
         for (int suit = Card.NO_OF_SUITS - 1; suit >= 0; suit--) {
@@ -59,15 +145,26 @@ public class Deck {
         }
     }
     
+    /**
+     * Returns whether the cards are drawn at random when dealt.
+     * 
+     * @return True if in lazy mode, otherwise false.
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+    
     /**
      * Shuffles the deck.
+     * 
+     * In lazy mode this only returns the dealt cards to the deck.
      */
     public void shuffle() {
-        for (int oldIndex = 0; oldIndex < NO_OF_CARDS; oldIndex++) {
-            int newIndex = random.nextInt(NO_OF_CARDS);
-            Card tempCard = cards[oldIndex];
-            cards[oldIndex] = cards[newIndex];
-            cards[newIndex] = tempCard;
+        if (!lazy) {
+            // Fisher-Yates shuffle.
+            for (int index = NO_OF_CARDS - 1; index > 0; index--) {
+                swap(index, nextInt(index + 1));
+            }
         }
         nextCardIndex = 0;
     }
@@ -75,7 +172,8 @@ public class Deck {
     /**
      * Resets the deck.
      * 
-     * Does not re-order the cards.
+     * Does not re-order the cards; in lazy mode, the cards are drawn again
+     * when dealt.
      */
     public void reset() {
         nextCardIndex = 0;
@@ -90,7 +188,7 @@ public class Deck {
         if (nextCardIndex + 1 >= NO_OF_CARDS) {
             throw new IllegalStateException("No cards left in deck");
         }
-        return cards[nextCardIndex++];
+        return next();
     }
     
     /**
@@ -115,7 +213,7 @@ public class Deck {
         }
         List<Card> dealtCards = new ArrayList<Card>();
         for (int i = 0; i < noOfCards; i++) {
-            dealtCards.add(cards[nextCardIndex++]);
+            dealtCards.add(next());
         }
         return dealtCards;
     }
@@ -146,16 +244,51 @@ public class Deck {
             }
         }
         if (index != -1) {
-            if (index != nextCardIndex) {
-                Card nextCard = cards[nextCardIndex];
-                cards[nextCardIndex] = cards[index];
-                cards[index] = nextCard;
-            }
-            card = deal();
+            swap(nextCardIndex, index);
+            card = cards[nextCardIndex++];
         }
         return card;
     }
     
+    /**
+     * Deals the next card, drawing it at random from the remaining cards in
+     * lazy mode.
+     * 
+     * @return The card.
+     */
+    private Card next() {
+        if (lazy) {
+            swap(nextCardIndex, nextCardIndex + nextInt(NO_OF_CARDS - nextCardIndex));
+        }
+        return cards[nextCardIndex++];
+    }
+    
+    /**
+     * Swaps two cards.
+     * 
+     * @param index1
+     *            The index of the first card.
+     * @param index2
+     *            The index of the second card.
+     */
+    private void swap(int index1, int index2) {
+        Card card = cards[index1];
+        cards[index1] = cards[index2];
+        cards[index2] = card;
+    }
+    
+    /**
+     * Returns a uniformly distributed random number.
+     * 
+     * @param bound
+     *            The upper bound (exclusive).
+     * 
+     * @return The random number.
+     */
+    private int nextInt(int bound) {
+        return (random != null) ? random.nextInt(bound) : splittableRandom.nextInt(bound);
+    }
+    
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -0,0 +1,204 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.List;
+
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Reusable context for evaluating multiple hands sharing the same board, e.g.
+ * at the showdown. <br />
+ * <br />
+ *
+ * The board is added once, after which the value of each player's hand is
+ * calculated by layering the hole cards on top of it. With a
+ * {@link LookupEvaluator} the board is kept as an intermediate evaluation
+ * state, so each hand only costs one state transition per hole card; with any
+ * other evaluator a reusable hand is evaluated instead. Either way, no objects
+ * are allocated after construction. <br />
+ * <br />
+ *
+ * This class is not thread-safe; use a separate context per thread.
+ *
+ * @author Oscar Stigter
+ */
+public class EvaluationContext {
+
+    /** The maximum number of cards in a hand. */
+    private static final int MAX_NO_OF_CARDS = 7;
+
+    /** The evaluator used if it is not a lookup evaluator, otherwise null. */
+    private final Evaluator evaluator;
+
+    /** The board cards. */
+    private final Hand board;
+
+    /** The reusable hand with the board and hole cards (generic evaluators only). */
+    private final Hand hand;
+
+    /** The rank distribution state of the board (lookup evaluator only). */
+    private int boardState;
+
+    /** The rank masks of each suit of the board (lookup evaluator only). */
+    private long boardSuitRanks;
+
+    /**
+     * Constructor using a {@link LookupEvaluator}.
+     */
+    public EvaluationContext() {
+        this(new LookupEvaluator());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param evaluator
+     *            The evaluator.
+     */
+    public EvaluationContext(Evaluator evaluator) {
+        if (evaluator == null) {
+            throw new IllegalArgumentException("Null evaluator");
+        }
+        this.evaluator = (evaluator instanceof LookupEvaluator) ? null : evaluator;
+        board = new Hand();
+        hand = new Hand();
+    }
+
+    /**
+     * Clears the board.
+     */
+    public void reset() {
+        board.removeAllCards();
+        boardState = 0;
+        boardSuitRanks = 0L;
+    }
+
+    /**
+     * Adds a card to the board.
+     *
+     * @param card
+     *            The card.
+     */
+    public void addBoardCard(Card card) {
+        if (board.size() >= MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        board.addCard(card);
+        if (evaluator == null) {
+            int encoded = card.hashCode();
+            boardState = LookupEvaluator.nextState(boardState, encoded);
+            boardSuitRanks |= LookupEvaluator.getSuitRank(encoded);
+        }
+    }
+
+    /**
+     * Sets the board, replacing any previous board cards.
+     *
+     * @param cards
+     *            The board cards.
+     */
+    public void setBoard(List<Card> cards) {
+        reset();
+        for (int i = 0; i < cards.size(); i++) {
+            addBoardCard(cards.get(i));
+        }
+    }
+
+    /**
+     * Returns the number of board cards.
+     *
+     * @return The number of board cards.
+     */
+    public int getBoardSize() {
+        return board.size();
+    }
+
+    /**
+     * Returns the value of the board combined with a player's hole cards.
+     *
+     * @param holeCards
+     *            The hole cards.
+     *
+     * @return The hand value.
+     */
+    public int getValue(Hand holeCards) {
+        int noOfCards = board.size() + holeCards.size();
+        if (noOfCards > MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        if (evaluator == null) {
+            int state = boardState;
+            long suitRanks = boardSuitRanks;
+            for (int i = 0; i < holeCards.size(); i++) {
+                int card = holeCards.getCard(i).hashCode();
+                state = LookupEvaluator.nextState(state, card);
+                suitRanks |= LookupEvaluator.getSuitRank(card);
+            }
+            return LookupEvaluator.getValue(state, suitRanks, noOfCards);
+        } else {
+            copyBoard();
+            for (int i = 0; i < holeCards.size(); i++) {
+                hand.addCard(holeCards.getCard(i));
+            }
+            return evaluator.getValue(hand);
+        }
+    }
+
+    /**
+     * Returns the value of the board combined with a player's hole cards.
+     *
+     * @param holeCards
+     *            The hole cards (card mask, see {@link CardUtils}).
+     *
+     * @return The hand value.
+     */
+    public int getValue(long holeCards) {
+        int noOfCards = board.size() + Long.bitCount(holeCards);
+        if (noOfCards > MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        if (evaluator == null) {
+            int state = boardState;
+            long suitRanks = boardSuitRanks;
+            for (long mask = holeCards; mask != 0L; mask &= mask - 1L) {
+                int card = Long.numberOfTrailingZeros(mask);
+                state = LookupEvaluator.nextState(state, card);
+                suitRanks |= LookupEvaluator.getSuitRank(card);
+            }
+            return LookupEvaluator.getValue(state, suitRanks, noOfCards);
+        } else {
+            copyBoard();
+            for (long mask = holeCards; mask != 0L; mask &= mask - 1L) {
+                hand.addCard(CardUtils.toCard(Long.numberOfTrailingZeros(mask)));
+            }
+            return evaluator.getValue(hand);
+        }
+    }
+
+    /**
+     * Fills the reusable hand with the board cards.
+     */
+    private void copyBoard() {
+        hand.removeAllCards();
+        for (int i = 0; i < board.size(); i++) {
+            hand.addCard(board.getCard(i));
+        }
+    }
+
+}
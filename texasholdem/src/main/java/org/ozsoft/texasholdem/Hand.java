@@ -41,6 +41,9 @@ public class Hand {
     /** The current number of cards in this hand. */
     private int noOfCards = 0;
     
+    /** The card mask of this hand (see {@link org.ozsoft.texasholdem.util.CardUtils}). */
+    private long mask = 0L;
+    
     /**
      * Constructor for an empty hand.
      */
@@ -149,6 +152,7 @@ public class Hand {
             cards[insertIndex] = card;
             noOfCards++;
         }
+        mask |= 1L << card.hashCode();
     }
     
     /**
@@ -193,6 +197,21 @@ public class Hand {
         }
     }
     
+    /**
+     * Returns a single card.
+     * 
+     * @param index
+     *            The index of the card (0 is the highest card).
+     * 
+     * @return The card.
+     */
+    public Card getCard(int index) {
+        if (index < 0 || index >= noOfCards) {
+            throw new IllegalArgumentException("Invalid index");
+        }
+        return cards[index];
+    }
+    
     /**
      * Returns the cards.
      *
@@ -204,11 +223,22 @@ public class Hand {
         return dest;
     }
     
+    /**
+     * Returns the card mask, with bit <i>n</i> set for the card with
+     * {@link Card#hashCode()} <i>n</i>.
+     * 
+     * @return The card mask.
+     */
+    public long getMask() {
+        return mask;
+    }
+    
     /**
      * Removes all cards.
      */
     public void removeAllCards() {
         noOfCards = 0;
+        mask = 0L;
     }
     
     /** {@inheritDoc} */
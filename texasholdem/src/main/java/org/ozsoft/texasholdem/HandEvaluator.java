@@ -21,6 +21,11 @@ package org.ozsoft.texasholdem;
  * Evaluator for calculating the value of a poker hand. <br />
  * <br />
  *
+ * While evaluating, the (up to) five cards that form the best combination are
+ * collected as well, with the cards of the combination first and the kickers
+ * last (see {@link #getBestCards()}). <br />
+ * <br />
+ *
  * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
  * 
  * @author Oscar Stigter
@@ -36,6 +41,12 @@ public class HandEvaluator {
     /** The ranking factors (powers of 13, the number of ranks). */
     private static final int[] RANKING_FACTORS = {371293, 28561, 2197, 169, 13, 1};
     
+    /** The rank mask of a Five-high Straight (5-4-3-2-A). */
+    private static final int WHEEL_MASK = 0x100f;
+    
+    /** The number of cards in the best combination. */
+    private static final int NO_OF_BEST_CARDS = 5;
+    
     /** The hand value type. */
     private HandValueType type;
     
@@ -60,15 +71,9 @@ public class HandEvaluator {
     /** The suit of the Flush. */
     private int flushSuit = -1;
     
-    /** The rank of the Flush. */
-    private int flushRank = -1;
-    
     /** The rank of the Straight. */
     private int straightRank = -1;
     
-    /** Whether we have a Straight with a wheeling Ace. */
-    private boolean wheelingAce = false;
-    
     /** The rank of the Three-of-a-Kind. */
     private int tripleRank = -1;
     
@@ -77,6 +82,12 @@ public class HandEvaluator {
     
     /** The weighed components of the hand value (highest first). */
     private int[] rankings = new int[NO_OF_RANKINGS];
+    
+    /** The cards forming the best combination. */
+    private final Card[] bestCards = new Card[NO_OF_BEST_CARDS];
+    
+    /** The number of cards forming the best combination. */
+    private int noOfBestCards = 0;
 
     /**
      * Constructor.
@@ -132,6 +143,21 @@ public class HandEvaluator {
         return value;
     }
     
+    /**
+     * Returns the cards that form the best combination: the cards of the hand
+     * value type (e.g. the pair) first, followed by the kickers. <br />
+     * <br />
+     * 
+     * Hands with less than five cards return all of their cards.
+     * 
+     * @return The best cards.
+     */
+    public Card[] getBestCards() {
+        Card[] dest = new Card[noOfBestCards];
+        System.arraycopy(bestCards, 0, dest, 0, noOfBestCards);
+        return dest;
+    }
+    
     /**
      * Calculates the rank and suit distributions.
      */
@@ -149,14 +175,6 @@ public class HandEvaluator {
         for (int i = 0; i < Card.NO_OF_SUITS; i++) {
             if (suitDist[i] >= 5) {
                 flushSuit = i;
-                for (Card card : cards) {
-                    if (card.getSuit() == flushSuit) {
-                        if (!wheelingAce || card.getRank() != Card.ACE) {
-                            flushRank = card.getRank();
-                            break;
-                        }
-                    }
-                }
                 break;
             }
         }
@@ -191,7 +209,6 @@ public class HandEvaluator {
         }
         // Special case for the 'Steel Wheel' (Five-high Straight with a 'wheeling Ace') .
         if ((count == 4) && (rank == Card.FIVE) && (rankDist[Card.ACE] > 0)) {
-            wheelingAce = true;
             straightRank = rank;
         }
     }
@@ -206,7 +223,12 @@ public class HandEvaluator {
             if (rankDist[i] == 4) {
                 quadRank = i;
             } else if (rankDist[i] == 3) {
-                tripleRank = i;
+                if (tripleRank == -1) {
+                    tripleRank = i;
+                } else if (noOfPairs < MAX_NO_OF_PAIRS) {
+                    // Second (lower) triple counts as the pair of a Full House.
+                    pairs[noOfPairs++] = i;
+                }
             } else if (rankDist[i] == 2) {
                 if (noOfPairs < MAX_NO_OF_PAIRS) {
                     pairs[noOfPairs++] = i;
@@ -225,6 +247,7 @@ public class HandEvaluator {
         int index = 1;
         for (Card card : cards) {
             rankings[index++] = card.getRank();
+            bestCards[noOfBestCards++] = card;
             if (index > 5) {
                 break;
             }
@@ -246,18 +269,19 @@ public class HandEvaluator {
             // Get the rank of the pair.
             int pairRank = pairs[0];
             rankings[1] = pairRank;
-            // Get the three kickers.
+            // Get the pair and the three kickers.
             int index = 2;
+            int pairIndex = 0;
             for (Card card : cards) {
                 int rank = card.getRank();
-                if (rank != pairRank) {
-                    rankings[index++] = rank;
-                    if (index > 4) {
-                        // We don't need any more kickers.
-                        break;
-                    }
+                if (rank == pairRank) {
+                    bestCards[pairIndex++] = card;
+                } else if (index <= 4) {
+                    rankings[index] = rank;
+                    bestCards[index++] = card;
                 }
             }
+            noOfBestCards = index;
             return true;
         } else {
             return false;
@@ -282,12 +306,19 @@ public class HandEvaluator {
             int lowRank  = pairs[1];
             rankings[1] = highRank;
             rankings[2] = lowRank;
-            // Get the kicker card.
+            // Get the pairs and the kicker card.
+            int highIndex = 0;
+            int lowIndex = 2;
+            noOfBestCards = 4;
             for (Card card : cards) {
                 int rank = card.getRank();
-                if ((rank != highRank) && (rank != lowRank)) {
+                if (rank == highRank) {
+                    bestCards[highIndex++] = card;
+                } else if (rank == lowRank) {
+                    bestCards[lowIndex++] = card;
+                } else if (noOfBestCards == 4) {
                     rankings[3] = rank;
-                    break;
+                    bestCards[noOfBestCards++] = card;
                 }
             }
             return true;
@@ -309,18 +340,19 @@ public class HandEvaluator {
             type = HandValueType.THREE_OF_A_KIND;
             rankings[0] = type.getValue();
             rankings[1] = tripleRank;
-            // Get the remaining two cards as kickers.
+            // Get the triple and the remaining two cards as kickers.
             int index = 2;
+            int tripleIndex = 0;
             for (Card card : cards) {
                 int rank = card.getRank();
-                if (rank != tripleRank) {
-                    rankings[index++] = rank;
-                    if (index > 3) {
-                        // We don't need any more kickers.
-                        break;
-                    }
+                if (rank == tripleRank) {
+                    bestCards[tripleIndex++] = card;
+                } else if (index <= 3) {
+                    rankings[index] = rank;
+                    bestCards[++index] = card;
                 }
             }
+            noOfBestCards = index + 1;
             return true;
         } else {
             return false;
@@ -340,6 +372,7 @@ public class HandEvaluator {
             type = HandValueType.STRAIGHT;
             rankings[0] = type.getValue();
             rankings[1] = straightRank;
+            findStraightCards(straightRank, -1);
             return true;
         } else {
             return false;
@@ -361,11 +394,8 @@ public class HandEvaluator {
             int index = 1;
             for (Card card : cards) {
                 if (card.getSuit() == flushSuit) {
-                    int rank = card.getRank();
-                    if (index == 1) {
-                        flushRank = rank;
-                    }
-                    rankings[index++] = rank;
+                    rankings[index++] = card.getRank();
+                    bestCards[noOfBestCards++] = card;
                     if (index > 5) {
                         // We don't need more kickers.
                         break;
@@ -392,6 +422,18 @@ public class HandEvaluator {
             rankings[0] = type.getValue();
             rankings[1] = tripleRank;
             rankings[2] = pairs[0];
+            // Get the triple and (two cards of) the highest pair.
+            int tripleIndex = 0;
+            int pairIndex = 3;
+            for (Card card : cards) {
+                int rank = card.getRank();
+                if (rank == tripleRank) {
+                    bestCards[tripleIndex++] = card;
+                } else if (rank == pairs[0] && pairIndex < NO_OF_BEST_CARDS) {
+                    bestCards[pairIndex++] = card;
+                }
+            }
+            noOfBestCards = NO_OF_BEST_CARDS;
             return true;
         } else {
             return false;
@@ -411,13 +453,16 @@ public class HandEvaluator {
             type = HandValueType.FOUR_OF_A_KIND;
             rankings[0] = type.getValue();
             rankings[1] = quadRank;
-            // Get the remaining card as kicker.
-            int index = 2;
+            // Get the quad and the remaining card as kicker.
+            int quadIndex = 0;
+            noOfBestCards = 4;
             for (Card card : cards) {
                 int rank = card.getRank();
-                if (rank != quadRank) {
-                    rankings[index++] = rank;
-                    break;
+                if (rank == quadRank) {
+                    bestCards[quadIndex++] = card;
+                } else if (noOfBestCards == 4) {
+                    rankings[2] = rank;
+                    bestCards[noOfBestCards++] = card;
                 }
             }
             return true;
@@ -435,67 +480,45 @@ public class HandEvaluator {
      * The value of a (non-Royal Flush) Straight Flush is based on the rank of
      * the highest card of the Straight. There are no kickers.
      * 
+     * Only the cards of the Flush suit are considered, so the Straight Flush is
+     * found regardless of any other cards in the hand.
+     * 
      * @return True if this hand contains a Straight Flush.
      */
     private boolean isStraightFlush() {
-        if (straightRank != -1 && flushRank == straightRank) {
+        if (straightRank != -1 && flushSuit != -1) {
             // Flush and Straight (possibly separate); check for Straight Flush.
-            int straightRank2 = -1;
-            int lastSuit = -1;
-            int lastRank = -1;
-            int inStraight = 1;
-            int inFlush = 1;
+            int flushRanks = 0;
             for (Card card : cards) {
-                int rank = card.getRank();
-                int suit = card.getSuit();
-                if (lastRank != -1) {
-                    int rankDiff = lastRank - rank;
-                    if (rankDiff == 1) {
-                        // Consecutive rank; possible straight!
-                        inStraight++;
-                        if (straightRank2 == -1) {
-                            straightRank2 = lastRank;
-                        }
-                        if (suit == lastSuit) {
-                            inFlush++;
-                        } else {
-                            inFlush = 1;
-                        }
-                        if (inStraight >= 5 && inFlush >= 5) {
-                            // Straight!
-                            break;
-                        }
-                    } else if (rankDiff == 0) {
-                        // Duplicate rank; skip.
-                    } else {
-                        // Non-consecutive; reset.
-                        straightRank2 = -1;
-                        inStraight = 1;
-                        inFlush = 1;
-                    }
+                if (card.getSuit() == flushSuit) {
+                    flushRanks |= 1 << card.getRank();
                 }
-                lastRank = rank;
-                lastSuit = suit;
             }
-            
-            if (inStraight >= 5 && inFlush >= 5) {
-                if (straightRank == Card.ACE) {
-                    // Royal Flush.
-                    type = HandValueType.ROYAL_FLUSH;
-                    rankings[0] = type.getValue();
-                    return true;
-                } else {
-                    // Straight Flush.
-                    type = HandValueType.STRAIGHT_FLUSH;
-                    rankings[0] = type.getValue();
-                    rankings[1] = straightRank2;
-                    return true;
+            int straightFlushRank = -1;
+            for (int rank = Card.ACE; rank >= Card.SIX; rank--) {
+                int mask = 0x1f << (rank - 4);
+                if ((flushRanks & mask) == mask) {
+                    straightFlushRank = rank;
+                    break;
                 }
-            } else if (wheelingAce && inStraight >= 4 && inFlush >= 4) {
+            }
+            if (straightFlushRank == -1 && (flushRanks & WHEEL_MASK) == WHEEL_MASK) {
                 // Steel Wheel (Straight Flush with wheeling Ace).
+                straightFlushRank = Card.FIVE;
+            }
+            
+            if (straightFlushRank == Card.ACE) {
+                // Royal Flush.
+                type = HandValueType.ROYAL_FLUSH;
+                rankings[0] = type.getValue();
+                findStraightCards(straightFlushRank, flushSuit);
+                return true;
+            } else if (straightFlushRank != -1) {
+                // Straight Flush.
                 type = HandValueType.STRAIGHT_FLUSH;
                 rankings[0] = type.getValue();
-                rankings[1] = straightRank2;
+                rankings[1] = straightFlushRank;
+                findStraightCards(straightFlushRank, flushSuit);
                 return true;
             } else {
                 return false;
@@ -505,4 +528,28 @@ public class HandEvaluator {
         }
     }
     
+    /**
+     * Collects the cards of a Straight (highest first), taking one card per
+     * rank.
+     * 
+     * @param highRank
+     *            The rank of the highest card of the Straight.
+     * @param suit
+     *            The suit of the cards (for a Straight Flush), or -1 for any
+     *            suit.
+     */
+    private void findStraightCards(int highRank, int suit) {
+        for (Card card : cards) {
+            if (suit == -1 || card.getSuit() == suit) {
+                int rank = card.getRank();
+                // The Ace is the lowest card of a Five-high Straight.
+                int index = (highRank == Card.FIVE && rank == Card.ACE) ? NO_OF_BEST_CARDS - 1 : highRank - rank;
+                if (index >= 0 && index < NO_OF_BEST_CARDS && bestCards[index] == null) {
+                    bestCards[index] = card;
+                }
+            }
+        }
+        noOfBestCards = NO_OF_BEST_CARDS;
+    }
+    
 }
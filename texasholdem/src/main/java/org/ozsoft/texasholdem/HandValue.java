@@ -22,7 +22,11 @@ package org.ozsoft.texasholdem;
  * <br />
  * 
  * Implements the <code>Comparable</code> interface with <b>reversed</b>
- * (descending sort) order.
+ * (descending sort) order. <br />
+ * <br />
+ * 
+ * Besides the value, the five cards that form the best combination are
+ * available (see {@link #getBestCards()}).
  * 
  * @author Oscar Stigter
  */
@@ -37,6 +41,9 @@ public class HandValue implements Comparable<HandValue> {
     /** The exact, numeric hand value. */
     private final int value;
     
+    /** The cards forming the best combination (null until needed). */
+    private Card[] bestCards;
+    
     /**
      * Constructor.
      * 
@@ -48,6 +55,25 @@ public class HandValue implements Comparable<HandValue> {
 	HandEvaluator evaluator = new HandEvaluator(hand);
 	type = evaluator.getType();
 	value = evaluator.getValue();
+	bestCards = evaluator.getBestCards();
+    }
+    
+    /**
+     * Constructor with a specific evaluator. <br />
+     * <br />
+     * 
+     * The best cards are only determined (with a {@link HandEvaluator}) when
+     * requested.
+     * 
+     * @param hand
+     *            The hand.
+     * @param evaluator
+     *            The evaluator.
+     */
+    public HandValue(Hand hand, Evaluator evaluator) {
+	this.hand = hand;
+	value = evaluator.getValue(hand);
+	type = HandValueType.forHandValue(value);
     }
     
     /**
@@ -86,6 +112,19 @@ public class HandValue implements Comparable<HandValue> {
 	return value;
     }
     
+    /**
+     * Returns the cards that form the best combination: the cards of the hand
+     * value type first, followed by the kickers (at most five cards in total).
+     * 
+     * @return The best cards.
+     */
+    public Card[] getBestCards() {
+	if (bestCards == null) {
+	    bestCards = new HandEvaluator(hand).getBestCards();
+	}
+	return bestCards.clone();
+    }
+    
     /** {@inheritDoc} */
     @Override
     public int hashCode() {
@@ -56,6 +56,18 @@ public enum HandValueType {
 
     ;
     
+    /** The weight of the hand value type in a numeric hand value (13^5). */
+    private static final int TYPE_FACTOR = 371293;
+    
+    /** The hand value types, indexed by their hand value. */
+    private static final HandValueType[] TYPES = new HandValueType[values().length];
+    
+    static {
+        for (HandValueType type : values()) {
+            TYPES[type.value] = type;
+        }
+    }
+    
     /** The description. */
     private String description;
 
@@ -93,4 +105,17 @@ public enum HandValueType {
         return value;
     }
     
+    /**
+     * Returns the hand value type of a numeric hand value.
+     * 
+     * @param handValue
+     *            The numeric hand value, as calculated by the
+     *            {@link HandEvaluator}.
+     * 
+     * @return The hand value type.
+     */
+    public static HandValueType forHandValue(int handValue) {
+        return TYPES[handValue / TYPE_FACTOR];
+    }
+    
 }
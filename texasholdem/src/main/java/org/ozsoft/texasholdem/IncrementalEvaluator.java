@@ -0,0 +1,336 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+/**
+ * Incremental hand evaluator, keeping the rank and suit distributions of a
+ * growing (or shrinking) set of cards. <br />
+ * <br />
+ *
+ * Adding or removing a card takes constant time, and the best hand value type
+ * of the current cards can be read off at any moment, e.g. after each street,
+ * without re-evaluating the cards from scratch. The rank counts, suit counts
+ * and rank masks (for Straights) are available as well, for example to detect
+ * draws. <br />
+ * <br />
+ *
+ * Cards are encoded as <code>rank * 4 + suit</code> (see
+ * {@link org.ozsoft.texasholdem.util.CardUtils}). <br />
+ * <br />
+ *
+ * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
+ *
+ * @author Oscar Stigter
+ */
+public class IncrementalEvaluator {
+
+    /** The number of cards needed for a Straight or Flush. */
+    private static final int FIVE_CARDS = 5;
+
+    /** The rank mask of a Five-high Straight (5-4-3-2-A). */
+    private static final int WHEEL_MASK = 0x100f;
+
+    /** The maximum number of cards for a numeric hand value. */
+    private static final int MAX_NO_OF_CARDS = 7;
+
+    /** The lookup evaluator for the numeric hand value. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /** The number of cards per rank. */
+    private final int[] rankCounts = new int[Card.NO_OF_RANKS];
+
+    /** The number of cards per suit. */
+    private final int[] suitCounts = new int[Card.NO_OF_SUITS];
+
+    /** The rank mask per suit. */
+    private final int[] suitRanks = new int[Card.NO_OF_SUITS];
+
+    /** The number of ranks per number of cards of that rank (0 to 4). */
+    private final int[] multiples = new int[Card.NO_OF_SUITS + 1];
+
+    /** The mask of the ranks present. */
+    private int rankMask;
+
+    /** The cards (card mask). */
+    private long mask;
+
+    /** The number of cards. */
+    private int noOfCards;
+
+    /**
+     * Constructor, starting without any cards.
+     */
+    public IncrementalEvaluator() {
+        multiples[0] = Card.NO_OF_RANKS;
+    }
+
+    /**
+     * Removes all cards.
+     */
+    public void reset() {
+        for (int i = 0; i < Card.NO_OF_RANKS; i++) {
+            rankCounts[i] = 0;
+        }
+        for (int i = 0; i < Card.NO_OF_SUITS; i++) {
+            suitCounts[i] = 0;
+            suitRanks[i] = 0;
+            multiples[i + 1] = 0;
+        }
+        multiples[0] = Card.NO_OF_RANKS;
+        rankMask = 0;
+        mask = 0L;
+        noOfCards = 0;
+    }
+
+    /**
+     * Adds a card.
+     *
+     * @param card
+     *            The card.
+     */
+    public void addCard(Card card) {
+        addCard(card.hashCode());
+    }
+
+    /**
+     * Adds a card.
+     *
+     * @param card
+     *            The encoded card.
+     *
+     * @throws IllegalArgumentException
+     *             If the card has already been added.
+     */
+    public void addCard(int card) {
+        long cardMask = 1L << card;
+        if ((mask & cardMask) != 0L) {
+            throw new IllegalArgumentException("Duplicate card: " + card);
+        }
+        int rank = card >> 2;
+        int suit = card & 3;
+        int count = rankCounts[rank]++;
+        multiples[count]--;
+        multiples[count + 1]++;
+        suitCounts[suit]++;
+        suitRanks[suit] |= 1 << rank;
+        rankMask |= 1 << rank;
+        mask |= cardMask;
+        noOfCards++;
+    }
+
+    /**
+     * Removes a card.
+     *
+     * @param card
+     *            The card.
+     */
+    public void removeCard(Card card) {
+        removeCard(card.hashCode());
+    }
+
+    /**
+     * Removes a card.
+     *
+     * @param card
+     *            The encoded card.
+     *
+     * @throws IllegalArgumentException
+     *             If the card is not present.
+     */
+    public void removeCard(int card) {
+        long cardMask = 1L << card;
+        if ((mask & cardMask) == 0L) {
+            throw new IllegalArgumentException("Card not present: " + card);
+        }
+        int rank = card >> 2;
+        int suit = card & 3;
+        int count = rankCounts[rank]--;
+        multiples[count]--;
+        multiples[count - 1]++;
+        suitCounts[suit]--;
+        suitRanks[suit] &= ~(1 << rank);
+        if (count == 1) {
+            rankMask &= ~(1 << rank);
+        }
+        mask &= ~cardMask;
+        noOfCards--;
+    }
+
+    /**
+     * Returns the number of cards.
+     *
+     * @return The number of cards.
+     */
+    public int size() {
+        return noOfCards;
+    }
+
+    /**
+     * Returns the cards.
+     *
+     * @return The cards (card mask).
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Returns the number of cards of a rank.
+     *
+     * @param rank
+     *            The rank.
+     *
+     * @return The number of cards.
+     */
+    public int getRankCount(int rank) {
+        return rankCounts[rank];
+    }
+
+    /**
+     * Returns the number of cards of a suit.
+     *
+     * @param suit
+     *            The suit.
+     *
+     * @return The number of cards.
+     */
+    public int getSuitCount(int suit) {
+        return suitCounts[suit];
+    }
+
+    /**
+     * Returns the mask of the ranks present (bit <i>n</i> for rank <i>n</i>).
+     *
+     * @return The rank mask.
+     */
+    public int getRankMask() {
+        return rankMask;
+    }
+
+    /**
+     * Returns the mask of the ranks present in a suit.
+     *
+     * @param suit
+     *            The suit.
+     *
+     * @return The rank mask.
+     */
+    public int getSuitRanks(int suit) {
+        return suitRanks[suit];
+    }
+
+    /**
+     * Returns the suit with at least five cards.
+     *
+     * @return The suit of the Flush, or -1 if none.
+     */
+    public int getFlushSuit() {
+        for (int suit = 0; suit < Card.NO_OF_SUITS; suit++) {
+            if (suitCounts[suit] >= FIVE_CARDS) {
+                return suit;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the rank of the highest card of the best Straight.
+     *
+     * @return The rank of the Straight, or -1 if none.
+     */
+    public int getStraightRank() {
+        return getStraightRank(rankMask);
+    }
+
+    /**
+     * Returns the best hand value type of the current cards.
+     *
+     * @return The hand value type.
+     */
+    public HandValueType getType() {
+        int flushSuit = getFlushSuit();
+        if (flushSuit != -1) {
+            int straightFlushRank = getStraightRank(suitRanks[flushSuit]);
+            if (straightFlushRank == Card.ACE) {
+                return HandValueType.ROYAL_FLUSH;
+            } else if (straightFlushRank != -1) {
+                return HandValueType.STRAIGHT_FLUSH;
+            }
+        }
+        if (multiples[4] > 0) {
+            return HandValueType.FOUR_OF_A_KIND;
+        }
+        if (multiples[3] > 1 || (multiples[3] == 1 && multiples[2] > 0)) {
+            return HandValueType.FULL_HOUSE;
+        }
+        if (flushSuit != -1) {
+            return HandValueType.FLUSH;
+        }
+        if (getStraightRank(rankMask) != -1) {
+            return HandValueType.STRAIGHT;
+        }
+        if (multiples[3] > 0) {
+            return HandValueType.THREE_OF_A_KIND;
+        }
+        if (multiples[2] > 1) {
+            return HandValueType.TWO_PAIRS;
+        }
+        if (multiples[2] > 0) {
+            return HandValueType.ONE_PAIR;
+        }
+        return HandValueType.HIGH_CARD;
+    }
+
+    /**
+     * Returns the numeric hand value of the current cards (see
+     * {@link HandEvaluator}).
+     *
+     * @return The hand value.
+     *
+     * @throws IllegalStateException
+     *             If there are more than 7 cards.
+     */
+    public int getValue() {
+        if (noOfCards > MAX_NO_OF_CARDS) {
+            throw new IllegalStateException("Too many cards");
+        }
+        return EVALUATOR.getValue(mask);
+    }
+
+    /**
+     * Returns the rank of the highest card of the best Straight in a rank
+     * mask.
+     *
+     * @param ranks
+     *            The rank mask.
+     *
+     * @return The rank of the Straight, or -1 if none.
+     */
+    private static int getStraightRank(int ranks) {
+        // Bit n is set if ranks n-4 to n are all present.
+        int straights = ranks & (ranks << 1) & (ranks << 2) & (ranks << 3) & (ranks << 4);
+        if (straights != 0) {
+            return 31 - Integer.numberOfLeadingZeros(straights);
+        } else if ((ranks & WHEEL_MASK) == WHEEL_MASK) {
+            return Card.FIVE;
+        } else {
+            return -1;
+        }
+    }
+
+}
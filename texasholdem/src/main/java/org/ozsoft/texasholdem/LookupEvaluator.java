@@ -0,0 +1,189 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.nio.IntBuffer;
+
+/**
+ * Table-driven evaluator for hands of up to 7 cards. <br />
+ * <br />
+ *
+ * Cards are encoded as integers (rank * 4 + suit, see {@link Card#hashCode()}).
+ * Without a Flush, the value of a hand only depends on its rank distribution,
+ * which is tracked by a state machine with one array lookup per card. With a
+ * Flush, the value only depends on the ranks of the Flush suit, which are
+ * looked up in a second table. <br />
+ * <br />
+ *
+ * The tables are generated with {@link HandEvaluator}, so both evaluators
+ * return exactly the same values. They are memory-mapped from a file if it
+ * exists, or generated in-process otherwise (see {@link LookupTableGenerator}).
+ * Evaluating a hand does not allocate any objects, and instances are
+ * thread-safe. <br />
+ * <br />
+ *
+ * <b>NOTE:</b> This class is implemented with the focus on performance (instead of clean design).
+ *
+ * @author Oscar Stigter
+ */
+public class LookupEvaluator implements Evaluator {
+
+    /** The maximum number of cards in a hand. */
+    private static final int MAX_NO_OF_CARDS = LookupTables.MAX_NO_OF_CARDS;
+
+    /** The minimum number of cards of the same suit for a Flush. */
+    private static final int FLUSH_SIZE = LookupTables.FLUSH_SIZE;
+
+    /** The bit mask with all ranks of a single suit. */
+    private static final int RANK_MASK = LookupTables.RANK_MASK;
+
+    /** The lookup tables, loaded on class initialization. */
+    private static final LookupTables TABLES = LookupTables.load();
+
+    /** The rank distribution state transitions (state * 13 + rank). */
+    private static final IntBuffer RANK_STATES = TABLES.rankStates;
+
+    /** The hand value per rank distribution state (without a Flush). */
+    private static final IntBuffer RANK_VALUES = TABLES.rankValues;
+
+    /** The hand value per rank mask of the Flush suit. */
+    private static final IntBuffer FLUSH_VALUES = TABLES.flushValues;
+
+    /** {@inheritDoc} */
+    @Override
+    public int getValue(Hand hand) {
+        int noOfCards = hand.size();
+        if (noOfCards > MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        int state = 0;
+        long suitRanks = 0L;
+        for (int i = 0; i < noOfCards; i++) {
+            int card = hand.getCard(i).hashCode();
+            int rank = card >> 2;
+            state = RANK_STATES.get(state * Card.NO_OF_RANKS + rank);
+            suitRanks |= 1L << (((card & 3) << 4) + rank);
+        }
+        return getValue(state, suitRanks, noOfCards);
+    }
+
+    /**
+     * Returns the value of a hand with encoded cards.
+     *
+     * The result is undefined if the hand contains the same card twice.
+     *
+     * @param cards
+     *            The cards (rank * 4 + suit).
+     * @param noOfCards
+     *            The number of cards to evaluate (at most 7).
+     *
+     * @return The hand value.
+     */
+    public int getValue(int[] cards, int noOfCards) {
+        if (noOfCards > MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        int state = 0;
+        long suitRanks = 0L;
+        for (int i = 0; i < noOfCards; i++) {
+            int card = cards[i];
+            int rank = card >> 2;
+            state = RANK_STATES.get(state * Card.NO_OF_RANKS + rank);
+            suitRanks |= 1L << (((card & 3) << 4) + rank);
+        }
+        return getValue(state, suitRanks, noOfCards);
+    }
+
+    /**
+     * Returns the value of a hand encoded as a card mask (see
+     * {@link org.ozsoft.texasholdem.util.CardUtils}).
+     *
+     * @param mask
+     *            The card mask (at most 7 cards).
+     *
+     * @return The hand value.
+     */
+    public int getValue(long mask) {
+        int noOfCards = Long.bitCount(mask);
+        if (noOfCards > MAX_NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards");
+        }
+        int state = 0;
+        long suitRanks = 0L;
+        while (mask != 0L) {
+            int card = Long.numberOfTrailingZeros(mask);
+            int rank = card >> 2;
+            state = RANK_STATES.get(state * Card.NO_OF_RANKS + rank);
+            suitRanks |= 1L << (((card & 3) << 4) + rank);
+            mask &= mask - 1L;
+        }
+        return getValue(state, suitRanks, noOfCards);
+    }
+
+    /**
+     * Returns the next rank distribution state after adding a card.
+     *
+     * @param state
+     *            The current rank distribution state (less than 7 cards).
+     * @param card
+     *            The encoded card.
+     *
+     * @return The next rank distribution state.
+     */
+    static int nextState(int state, int card) {
+        return RANK_STATES.get(state * Card.NO_OF_RANKS + (card >> 2));
+    }
+
+    /**
+     * Returns the rank mask of a card, positioned for its suit.
+     *
+     * @param card
+     *            The encoded card.
+     *
+     * @return The rank mask (16 bits per suit).
+     */
+    static long getSuitRank(int card) {
+        return 1L << (((card & 3) << 4) + (card >> 2));
+    }
+
+    /**
+     * Returns the hand value based on the rank distribution state and the rank
+     * masks of each suit.
+     *
+     * @param state
+     *            The rank distribution state.
+     * @param suitRanks
+     *            The rank masks of each suit (16 bits per suit).
+     * @param noOfCards
+     *            The number of cards.
+     *
+     * @return The hand value.
+     */
+    static int getValue(int state, long suitRanks, int noOfCards) {
+        if (noOfCards >= FLUSH_SIZE) {
+            for (int suit = 0; suit < Card.NO_OF_SUITS; suit++) {
+                int ranks = (int) (suitRanks >>> (suit << 4)) & RANK_MASK;
+                if (Integer.bitCount(ranks) >= FLUSH_SIZE) {
+                    return FLUSH_VALUES.get(ranks);
+                }
+            }
+        }
+        return RANK_VALUES.get(state);
+    }
+
+}
@@ -0,0 +1,79 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Generator of the file with the lookup tables of the {@link LookupEvaluator}.
+ * <br />
+ * <br />
+ *
+ * Usage: <code>LookupTableGenerator [file]</code> <br />
+ * <br />
+ *
+ * The file is memory-mapped read-only by the evaluator, so all JVMs on the
+ * same host share its pages through the operating system's page cache. The
+ * evaluator looks for the file set with the system property
+ * <code>texasholdem.lookupTables</code> (default:
+ * <code>lookup_tables.dat</code> in the working directory), and generates the
+ * tables in-process if the file does not exist. The file must be regenerated
+ * whenever the hand values change; an outdated file is detected by the
+ * checksum of its tables (see <code>LookupTables.CHECKSUM</code>) and, like any
+ * other invalid file, is ignored in favour of generating the tables
+ * in-process. The file is written to a temporary file first and then moved
+ * into place, so JVMs that have the old file mapped are not affected.
+ *
+ * @author Oscar Stigter
+ */
+public class LookupTableGenerator {
+
+    /**
+     * Generates the lookup tables and writes them to a file.
+     *
+     * @param file
+     *            The file.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    public static void generate(File file) throws IOException {
+        LookupTables.generate().write(file);
+    }
+
+    /**
+     * The application's entry point.
+     *
+     * @param args
+     *            The command line arguments: optionally the output file.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 1) {
+            System.err.println("Usage: LookupTableGenerator [file]");
+            System.exit(1);
+        }
+        File file = new File((args.length > 0) ? args[0] : LookupTables.DEFAULT_FILE);
+        generate(file);
+        System.out.format("Lookup tables written to '%s' (%d bytes)%n", file, file.length());
+    }
+
+}
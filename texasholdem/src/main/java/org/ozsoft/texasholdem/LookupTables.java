@@ -0,0 +1,367 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The lookup tables of the {@link LookupEvaluator}. <br />
+ * <br />
+ *
+ * The tables are stored outside the Java heap, either memory-mapped read-only
+ * from a file (see {@link LookupTableGenerator}) or generated in-process if the
+ * file does not exist. A mapped file is shared through the operating system's
+ * page cache by all JVMs on the same host. <br />
+ * <br />
+ *
+ * The file is set with the system property <code>texasholdem.lookupTables</code>
+ * (default: <code>lookup_tables.dat</code> in the working directory). It
+ * starts with a header (magic number, version, the size of each table and the
+ * CRC-32 checksum of the tables), followed by the tables as little-endian
+ * 32-bit integers. A file with tables other than those generated by this
+ * version (see {@link #CHECKSUM}) is rejected, and an invalid file is
+ * replaced by generating the tables in-process.
+ *
+ * @author Oscar Stigter
+ */
+final class LookupTables {
+
+    /** The system property with the path of the tables file. */
+    static final String FILE_PROPERTY = "texasholdem.lookupTables";
+
+    /** The default path of the tables file. */
+    static final String DEFAULT_FILE = "lookup_tables.dat";
+
+    /** The magic number identifying the tables file ("LKUP"). */
+    static final int MAGIC = 0x4c4b5550;
+
+    /** The version of the tables file format. */
+    static final int VERSION = 1;
+
+    /**
+     * The CRC-32 checksum of the generated tables. Must be updated whenever the
+     * generated tables change (verified by the unit tests), so files with
+     * outdated tables are rejected.
+     */
+    static final int CHECKSUM = 0x2411fbcc;
+
+    /** The size of the file header in bytes. */
+    static final int HEADER_SIZE = 24;
+
+    /** The maximum number of cards in a hand. */
+    static final int MAX_NO_OF_CARDS = 7;
+
+    /** The minimum number of cards of the same suit for a Flush. */
+    static final int FLUSH_SIZE = 5;
+
+    /** The bit mask with all ranks of a single suit. */
+    static final int RANK_MASK = (1 << Card.NO_OF_RANKS) - 1;
+
+    /** The rank distribution state transitions (state * 13 + rank). */
+    final IntBuffer rankStates;
+
+    /** The hand value per rank distribution state (without a Flush). */
+    final IntBuffer rankValues;
+
+    /** The hand value per rank mask of the Flush suit. */
+    final IntBuffer flushValues;
+
+    /** The CRC-32 checksum of the tables. */
+    final int checksum;
+
+    /**
+     * Constructor.
+     *
+     * @param rankStates
+     *            The rank distribution state transitions.
+     * @param rankValues
+     *            The hand value per rank distribution state.
+     * @param flushValues
+     *            The hand value per rank mask of the Flush suit.
+     * @param checksum
+     *            The CRC-32 checksum of the tables.
+     */
+    private LookupTables(IntBuffer rankStates, IntBuffer rankValues, IntBuffer flushValues, int checksum) {
+        this.rankStates = rankStates;
+        this.rankValues = rankValues;
+        this.flushValues = flushValues;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Loads the tables from the file set with the system property, or
+     * generates them if the file does not exist or is invalid. <br />
+     * <br />
+     *
+     * Never fails, since the evaluator loads the tables on class
+     * initialization.
+     *
+     * @return The tables.
+     */
+    static LookupTables load() {
+        File file = new File(System.getProperty(FILE_PROPERTY, DEFAULT_FILE));
+        if (file.isFile()) {
+            try {
+                return load(file);
+            } catch (IllegalStateException e) {
+                System.err.format("WARNING: %s; generating the lookup tables instead.%n", e.getMessage());
+            }
+        }
+        return generate();
+    }
+
+    /**
+     * Loads the tables from a file by mapping it read-only into memory.
+     *
+     * @param file
+     *            The file.
+     *
+     * @return The tables.
+     *
+     * @throws IllegalStateException
+     *             If the file could not be read, or is invalid, corrupt or
+     *             outdated.
+     */
+    static LookupTables load(File file) {
+        MappedByteBuffer buffer;
+        try {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                // The mapping remains valid after closing the channel.
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            } finally {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read lookup tables file: " + file, e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Invalid lookup tables file: " + file);
+        }
+        int noOfRankStates = buffer.getInt(8);
+        int noOfRankValues = buffer.getInt(12);
+        int noOfFlushValues = buffer.getInt(16);
+        long size = HEADER_SIZE + 4L * ((long) noOfRankStates + noOfRankValues + noOfFlushValues);
+        if (noOfRankStates < 0 || noOfRankValues < 0 || noOfFlushValues != RANK_MASK + 1 || size != buffer.limit()) {
+            throw new IllegalStateException("Invalid lookup tables file: " + file);
+        }
+        int checksum = buffer.getInt(20);
+        if (getChecksum(buffer) != checksum) {
+            throw new IllegalStateException("Corrupt lookup tables file (checksum mismatch): " + file);
+        }
+        if (checksum != CHECKSUM) {
+            throw new IllegalStateException("Outdated lookup tables file: " + file);
+        }
+        int offset = HEADER_SIZE;
+        IntBuffer rankStates = slice(buffer, offset, noOfRankStates);
+        offset += 4 * noOfRankStates;
+        IntBuffer rankValues = slice(buffer, offset, noOfRankValues);
+        offset += 4 * noOfRankValues;
+        IntBuffer flushValues = slice(buffer, offset, noOfFlushValues);
+        return new LookupTables(rankStates, rankValues, flushValues, checksum);
+    }
+
+    /**
+     * Generates the tables in-process with {@link HandEvaluator}.
+     *
+     * @return The tables.
+     */
+    static LookupTables generate() {
+        // Enumerate all rank distributions of up to 7 cards, encoded as a base-5
+        // number, grouped by number of cards.
+        List<Integer> stateKeys = new ArrayList<Integer>();
+        Map<Integer, Integer> stateIds = new HashMap<Integer, Integer>();
+        stateKeys.add(0);
+        stateIds.put(0, 0);
+        int levelStart = 0;
+        for (int noOfCards = 0; noOfCards < MAX_NO_OF_CARDS; noOfCards++) {
+            int levelEnd = stateKeys.size();
+            for (int state = levelStart; state < levelEnd; state++) {
+                int key = stateKeys.get(state);
+                for (int rank = 0, power = 1; rank < Card.NO_OF_RANKS; rank++, power *= 5) {
+                    if ((key / power) % 5 < Card.NO_OF_SUITS && !stateIds.containsKey(key + power)) {
+                        stateIds.put(key + power, stateKeys.size());
+                        stateKeys.add(key + power);
+                    }
+                }
+            }
+            levelStart = levelEnd;
+        }
+
+        // Link the states (only needed for states with less than 7 cards).
+        int[] rankStates = new int[levelStart * Card.NO_OF_RANKS];
+        Arrays.fill(rankStates, -1);
+        for (int state = 0; state < levelStart; state++) {
+            int key = stateKeys.get(state);
+            for (int rank = 0, power = 1; rank < Card.NO_OF_RANKS; rank++, power *= 5) {
+                if ((key / power) % 5 < Card.NO_OF_SUITS) {
+                    rankStates[state * Card.NO_OF_RANKS + rank] = stateIds.get(key + power);
+                }
+            }
+        }
+
+        // Evaluate each rank distribution, dealing the suits round robin to
+        // prevent a Flush.
+        int[] rankValues = new int[stateKeys.size()];
+        Hand hand = new Hand();
+        for (int state = 0; state < rankValues.length; state++) {
+            hand.removeAllCards();
+            int key = stateKeys.get(state);
+            int suit = 0;
+            for (int rank = 0; rank < Card.NO_OF_RANKS; rank++, key /= 5) {
+                for (int i = 0; i < key % 5; i++) {
+                    hand.addCard(new Card(rank, suit));
+                    suit = (suit + 1) % Card.NO_OF_SUITS;
+                }
+            }
+            rankValues[state] = new HandEvaluator(hand).getValue();
+        }
+
+        // Evaluate each possible Flush.
+        int[] flushValues = new int[RANK_MASK + 1];
+        for (int ranks = 0; ranks <= RANK_MASK; ranks++) {
+            int noOfCards = Integer.bitCount(ranks);
+            if (noOfCards >= FLUSH_SIZE && noOfCards <= MAX_NO_OF_CARDS) {
+                hand.removeAllCards();
+                for (int rank = 0; rank < Card.NO_OF_RANKS; rank++) {
+                    if ((ranks & (1 << rank)) != 0) {
+                        hand.addCard(new Card(rank, Card.SPADES));
+                    }
+                }
+                flushValues[ranks] = new HandEvaluator(hand).getValue();
+            }
+        }
+
+        // Store the tables in a single direct buffer with the same layout as
+        // the file, so the evaluator always reads the same kind of buffer.
+        int size = HEADER_SIZE + 4 * (rankStates.length + rankValues.length + flushValues.length);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putInt(rankStates.length).putInt(rankValues.length).putInt(flushValues.length);
+        buffer.putInt(0);
+        buffer.asIntBuffer().put(rankStates).put(rankValues).put(flushValues);
+        int checksum = getChecksum(buffer);
+        buffer.putInt(20, checksum);
+        int offset = HEADER_SIZE;
+        IntBuffer rankStatesBuffer = slice(buffer, offset, rankStates.length);
+        offset += 4 * rankStates.length;
+        IntBuffer rankValuesBuffer = slice(buffer, offset, rankValues.length);
+        offset += 4 * rankValues.length;
+        IntBuffer flushValuesBuffer = slice(buffer, offset, flushValues.length);
+        return new LookupTables(rankStatesBuffer, rankValuesBuffer, flushValuesBuffer, checksum);
+    }
+
+    /**
+     * Writes the tables to a file, including the header.
+     *
+     * @param file
+     *            The file.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    void write(File file) throws IOException {
+        int noOfRankStates = rankStates.capacity();
+        int noOfRankValues = rankValues.capacity();
+        int noOfFlushValues = flushValues.capacity();
+        int size = HEADER_SIZE + 4 * (noOfRankStates + noOfRankValues + noOfFlushValues);
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putInt(noOfRankStates).putInt(noOfRankValues).putInt(noOfFlushValues);
+        buffer.putInt(0);
+        IntBuffer payload = buffer.asIntBuffer();
+        payload.put(rankStates.duplicate()).put(rankValues.duplicate()).put(flushValues.duplicate());
+        buffer.putInt(20, getChecksum(buffer));
+        ((Buffer) buffer).clear();
+        // Never truncate the file in place, since other JVMs may have it mapped.
+        File tempFile = new File(file.getPath() + ".tmp");
+        FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the CRC-32 checksum of the tables (everything after the header).
+     *
+     * @param buffer
+     *            The buffer with the header and the tables.
+     *
+     * @return The checksum.
+     */
+    private static int getChecksum(ByteBuffer buffer) {
+        ByteBuffer tables = buffer.duplicate();
+        // Cast to Buffer to stay compatible with the Java 8 runtime.
+        ((Buffer) tables).clear();
+        ((Buffer) tables).position(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(tables);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Returns a table as a view on part of a buffer.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The offset of the table in bytes.
+     * @param length
+     *            The number of integers in the table.
+     *
+     * @return The table.
+     */
+    private static IntBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        ((Buffer) slice).clear();
+        ((Buffer) slice).position(offset);
+        ((Buffer) slice).limit(offset + 4 * length);
+        return slice.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+}
@@ -53,6 +53,12 @@ public class Player {
     /** Last action performed. */
     private Action action;
 
+    /** Remaining time bank in milliseconds. */
+    private long timeBank;
+
+    /** Reusable copy with only public information (see {@link #getPublicView()}). */
+    private Player publicView;
+
     /**
      * Constructor.
      * 
@@ -108,7 +114,6 @@ public class Player {
             if (cards.size() == 2) {
                 hand.addCards(cards);
                 hasCards = true;
-                System.out.format("[CHEAT] %s's cards:\t%s\n", name, hand);
             } else {
                 throw new IllegalArgumentException("Invalid number of cards");
             }
@@ -180,6 +185,26 @@ public class Player {
         this.action = action;
     }
 
+    /**
+     * Returns the player's remaining time bank, the extra time to act beyond
+     * the table's decision timeout.
+     * 
+     * @return The time bank in milliseconds.
+     */
+    public long getTimeBank() {
+        return timeBank;
+    }
+    
+    /**
+     * Sets the player's remaining time bank.
+     * 
+     * @param timeBank
+     *            The time bank in milliseconds.
+     */
+    public void setTimeBank(long timeBank) {
+        this.timeBank = timeBank;
+    }
+
     /**
      * Indicates whether this player is all-in.
      * 
@@ -198,6 +223,15 @@ public class Player {
         return hand.getCards();
     }
 
+    /**
+     * Returns the player's hole cards without copying them.
+     * 
+     * @return The hand with the hole cards.
+     */
+    Hand getHand() {
+        return hand;
+    }
+
     /**
      * Posts the small blind.
      * 
@@ -255,9 +289,45 @@ public class Player {
         clone.hasCards = hasCards;
         clone.bet = bet;
         clone.action = action;
+        clone.timeBank = timeBank;
         return clone;
     }
 
+    /**
+     * Returns a copy of this player, including the hole cards.
+     * 
+     * @return The copy.
+     */
+    Player copy() {
+        Player copy = publicClone();
+        if (hasCards) {
+            copy.hand.addCards(hand.getCards());
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a copy of this player with only public information, reusing the
+     * same copy each time. <br />
+     * <br />
+     * 
+     * Unlike {@link #publicClone()} this does not create a new player, but any
+     * copy returned earlier changes along with this player.
+     * 
+     * @return The updated copy.
+     */
+    Player getPublicView() {
+        if (publicView == null) {
+            publicView = new Player(name, cash, null);
+        }
+        publicView.cash = cash;
+        publicView.hasCards = hasCards;
+        publicView.bet = bet;
+        publicView.action = action;
+        publicView.timeBank = timeBank;
+        return publicView;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String toString() {
@@ -35,12 +35,19 @@
 package org.ozsoft.texasholdem;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.ozsoft.texasholdem.actions.Action;
 import org.ozsoft.texasholdem.actions.BetAction;
@@ -107,6 +114,24 @@ public class Table {
     /** Number of raises in the current betting round. */
     private int raises;
     
+    /** The evaluation context used at the showdown. */
+    private final EvaluationContext evaluationContext;
+    
+    /** The players subscribed to each client event. */
+    private final Map<ClientEvent, List<Player>> subscribers;
+    
+    /** The client called for each player (see {@link TimedClient}). */
+    private final Map<Player, Client> clients;
+    
+    /** Whether the table runs in (headless) simulation mode. */
+    private boolean simulationMode;
+    
+    /** The time in milliseconds a player has to act (0 for no limit). */
+    private long decisionTimeout;
+    
+    /** The initial time bank in milliseconds of each player. */
+    private long timeBank;
+    
     /**
      * Constructor.
      * 
@@ -114,23 +139,177 @@ public class Table {
      *            The size of the big blind.
      */
     public Table(TableType type, int bigBlind) {
+        this(type, bigBlind, new LookupEvaluator());
+    }
+    
+    /**
+     * Constructor with a specific hand evaluator.
+     * 
+     * @param type
+     *            The table type.
+     * @param bigBlind
+     *            The size of the big blind.
+     * @param evaluator
+     *            The evaluator used at the showdown.
+     */
+    public Table(TableType type, int bigBlind, Evaluator evaluator) {
+        this(type, bigBlind, evaluator, new Deck());
+    }
+    
+    /**
+     * Constructor with a specific hand evaluator and deck (e.g. with a seeded
+     * random number generator).
+     * 
+     * @param type
+     *            The table type.
+     * @param bigBlind
+     *            The size of the big blind.
+     * @param evaluator
+     *            The evaluator used at the showdown.
+     * @param deck
+     *            The deck of cards.
+     */
+    public Table(TableType type, int bigBlind, Evaluator evaluator, Deck deck) {
         this.tableType = type;
         this.bigBlind = bigBlind;
+        this.evaluationContext = new EvaluationContext(evaluator);
+        this.deck = deck;
         players = new ArrayList<Player>();
         activePlayers = new ArrayList<Player>();
-        deck = new Deck();
         board = new ArrayList<Card>();
         pots = new ArrayList<Pot>();
+        clients = new HashMap<Player, Client>();
+        subscribers = new EnumMap<ClientEvent, List<Player>>(ClientEvent.class);
+        for (ClientEvent event : ClientEvent.values()) {
+            subscribers.put(event, new ArrayList<Player>());
+        }
     }
     
     /**
-     * Adds a player.
+     * Adds a player, whose client is notified of all events.
      * 
      * @param player
      *            The player.
      */
     public void addPlayer(Player player) {
+        addPlayer(player, EnumSet.allOf(ClientEvent.class));
+    }
+    
+    /**
+     * Adds a player, whose client is only notified of specific events. <br />
+     * <br />
+     * 
+     * The client is always notified of joining the table and asked to act. An
+     * asynchronous client (see {@link AsyncClient}) can only join a table with
+     * a decision timeout (see {@link #setTimeLimits(long, long)}).
+     * 
+     * @param player
+     *            The player.
+     * @param events
+     *            The events the client subscribes to.
+     */
+    public void addPlayer(Player player, Set<ClientEvent> events) {
+        if (player.getClient() instanceof AsyncClient && decisionTimeout == 0L) {
+            throw new IllegalArgumentException("Asynchronous client requires a decision timeout");
+        }
         players.add(player);
+        player.setTimeBank(timeBank);
+        clients.put(player, createClient(player));
+        for (ClientEvent event : events) {
+            subscribers.get(event).add(player);
+        }
+    }
+    
+    /**
+     * Returns whether the table runs in (headless) simulation mode.
+     * 
+     * @return True if in simulation mode, otherwise false.
+     */
+    public boolean isSimulationMode() {
+        return simulationMode;
+    }
+    
+    /**
+     * Sets whether the table runs in (headless) simulation mode. <br />
+     * <br />
+     * 
+     * In simulation mode nothing is written to the console, game messages are
+     * only formatted if any client subscribed to them, and clients receive a
+     * reusable copy of the other players (see {@link Player#getPublicView()})
+     * instead of a new copy per event. Clients must therefore not keep these
+     * copies between events.
+     * 
+     * @param simulationMode
+     *            True for simulation mode, otherwise false.
+     */
+    public void setSimulationMode(boolean simulationMode) {
+        this.simulationMode = simulationMode;
+    }
+    
+    /**
+     * Returns the time a player has to act.
+     * 
+     * @return The decision timeout in milliseconds (0 for no limit).
+     */
+    public long getDecisionTimeout() {
+        return decisionTimeout;
+    }
+    
+    /**
+     * Returns the initial time bank of each player.
+     * 
+     * @return The time bank in milliseconds.
+     */
+    public long getTimeBank() {
+        return timeBank;
+    }
+    
+    /**
+     * Sets the time limits for acting, resetting the time bank of all players.
+     * <br />
+     * <br />
+     * 
+     * Without a decision timeout (the default), the table waits for each
+     * action as long as it takes. Otherwise a player has to act within the
+     * decision timeout, after which the player's time bank is used up. A
+     * player running out of time checks if possible, and otherwise folds. <br />
+     * <br />
+     * 
+     * With time limits, all calls to a synchronous client are made on a
+     * separate thread of its own (see {@link TimedClient}), so a slow client
+     * may still be deciding while the table continues. Such a client is never
+     * called concurrently: its notifications are delivered after it has acted,
+     * and while it is still deciding it is not asked to act again, but checks
+     * or folds right away. Asynchronous clients (see {@link AsyncClient}) are
+     * never waited for beyond the time limits either, and require a decision
+     * timeout.
+     * 
+     * @param decisionTimeout
+     *            The decision timeout in milliseconds (0 for no limit).
+     * @param timeBank
+     *            The time bank in milliseconds of each player.
+     */
+    public void setTimeLimits(long decisionTimeout, long timeBank) {
+        if (decisionTimeout < 0L || timeBank < 0L) {
+            throw new IllegalArgumentException("Invalid time limits");
+        }
+        if (decisionTimeout == 0L) {
+            for (Player player : players) {
+                if (player.getClient() instanceof AsyncClient) {
+                    throw new IllegalArgumentException("Asynchronous client requires a decision timeout");
+                }
+                Client client = getClient(player);
+                if (client instanceof TimedClient && ((TimedClient) client).isActing()) {
+                    throw new IllegalStateException(String.format("Player '%s' is still acting", player));
+                }
+            }
+        }
+        this.decisionTimeout = decisionTimeout;
+        this.timeBank = timeBank;
+        for (Player player : players) {
+            player.setTimeBank(timeBank);
+            clients.put(player, createClient(player));
+        }
     }
     
     /**
@@ -138,7 +317,7 @@ public class Table {
      */
     public void run() {
         for (Player player : players) {
-            player.getClient().joinedTable(tableType, bigBlind, players);
+            getClient(player).joinedTable(tableType, bigBlind, players);
         }
         dealerPosition = -1;
         actorPosition = -1;
@@ -170,8 +349,13 @@ public class Table {
     
     /**
      * Plays a single hand.
+     *
+     * Normally called from the main game loop, but can also be called directly
+     * (e.g. for simulations and benchmarks), as long as at least two players
+     * can afford the big blind. In that case the clients are not notified of
+     * joining the table.
      */
-    private void playHand() {
+    public void playHand() {
         resetHand();
         
         // Small blind.
@@ -263,8 +447,8 @@ public class Table {
         bet = minBet;
         
         // Notify all clients a new hand has started.
-        for (Player player : players) {
-            player.getClient().handStarted(dealer);
+        for (Player player : subscribers.get(ClientEvent.HAND_STARTED)) {
+            getClient(player).handStarted(dealer);
         }
         notifyPlayersUpdated(false);
         notifyMessage("New hand, %s is the dealer.", dealer);
@@ -276,8 +460,8 @@ public class Table {
     private void rotateActor() {
         actorPosition = (actorPosition + 1) % activePlayers.size();
         actor = activePlayers.get(actorPosition);
-        for (Player player : players) {
-            player.getClient().actorRotated(actor);
+        for (Player player : subscribers.get(ClientEvent.ACTOR_ROTATED)) {
+            getClient(player).actorRotated(actor);
         }
     }
     
@@ -307,9 +491,15 @@ public class Table {
      */
     private void dealHoleCards() {
         for (Player player : activePlayers) {
-            player.setCards(deck.deal(2));
+            List<Card> cards = deck.deal(2);
+            player.setCards(cards);
+            if (!simulationMode) {
+                System.out.format("[CHEAT] %s's cards:\t%s\n", player, new Hand(cards));
+            }
+        }
+        if (!simulationMode) {
+            System.out.println();
         }
-        System.out.println();
         notifyPlayersUpdated(false);
         notifyMessage("%s deals the hole cards.", dealer);
     }
@@ -365,7 +555,7 @@ public class Table {
             } else {
                 // Otherwise allow client to act.
                 Set<Action> allowedActions = getAllowedActions(actor);
-                action = actor.getClient().act(minBet, bet, allowedActions);
+                action = requestAction(allowedActions);
                 // Verify chosen action to guard against broken clients (accidental or on purpose).
                 if (!allowedActions.contains(action)) {
                     if (!(action instanceof BetAction && allowedActions.contains(Action.BET)) && !(action instanceof RaiseAction && allowedActions.contains(Action.RAISE))) {
@@ -463,6 +653,93 @@ public class Table {
         notifyPlayersUpdated(false);
     }
     
+    /**
+     * Requests the actor to act, within the time limits (if any).
+     * 
+     * @param allowedActions
+     *            The allowed actions.
+     * 
+     * @return The selected action, or the default action (check or fold) if
+     *         the actor ran out of time.
+     */
+    private Action requestAction(Set<Action> allowedActions) {
+        Client client = getClient(actor);
+        if (!(client instanceof AsyncClient)) {
+            // No time limits; the client acts on the table's thread.
+            return client.act(minBet, bet, allowedActions);
+        }
+        if (client instanceof TimedClient && ((TimedClient) client).isActing()) {
+            // Still deciding on an earlier action; never more than one at a time.
+            notifyMessage("%s is still deciding.", actor);
+            return getDefaultAction(allowedActions);
+        }
+        CompletableFuture<Action> future = ((AsyncClient) client).actAsync(minBet, bet, allowedActions);
+        long startTime = System.nanoTime();
+        try {
+            return future.get(decisionTimeout + actor.getTimeBank(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            notifyMessage("%s ran out of time.", actor);
+            return getDefaultAction(allowedActions);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted while waiting for player '%s' to act", actor), e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(String.format("Player '%s' failed to act", actor), e.getCause());
+        } finally {
+            // Any time beyond the decision timeout is taken from the time bank.
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            long overtime = Math.max(duration - decisionTimeout, 0L);
+            actor.setTimeBank(Math.max(actor.getTimeBank() - overtime, 0L));
+        }
+    }
+    
+    /**
+     * Returns the default action of a player running out of time.
+     * 
+     * @param allowedActions
+     *            The allowed actions.
+     * 
+     * @return Check if allowed, otherwise fold.
+     */
+    private static Action getDefaultAction(Set<Action> allowedActions) {
+        return allowedActions.contains(Action.CHECK) ? Action.CHECK : Action.FOLD;
+    }
+    
+    /**
+     * Returns the client to call for a player: the player's own client, or a
+     * wrapper calling it on a separate thread with time limits.
+     * 
+     * @param player
+     *            The player.
+     * 
+     * @return The client.
+     */
+    private Client createClient(Player player) {
+        Client client = player.getClient();
+        if (decisionTimeout > 0L && !(client instanceof AsyncClient)) {
+            Client current = clients.get(player);
+            if (current instanceof TimedClient) {
+                // Keep calling the client on the same thread.
+                return current;
+            }
+            return new TimedClient(player.getName(), client);
+        }
+        return client;
+    }
+    
+    /**
+     * Returns the client to call for a player.
+     * 
+     * @param player
+     *            The player.
+     * 
+     * @return The client.
+     */
+    private Client getClient(Player player) {
+        return clients.get(player);
+    }
+    
     /**
      * Returns the allowed actions of a specific player.
      * 
@@ -566,13 +843,14 @@ public class Table {
             pos = (pos + 1) % activePlayers.size();
         }
         
+        // Add the community cards once for all hand evaluations.
+        evaluationContext.setBoard(board);
+        
         // Players automatically show or fold in order.
         boolean firstToShow = true;
         int bestHandValue = -1;
         for (Player playerToShow : showingPlayers) {
-            Hand hand = new Hand(board);
-            hand.addCards(playerToShow.getCards());
-            HandValue handValue = new HandValue(hand);
+            int handValue = evaluationContext.getValue(playerToShow.getHand());
             boolean doShow = ALWAYS_CALL_SHOWDOWN;
             if (!doShow) {
                 if (playerToShow.isAllIn()) {
@@ -582,32 +860,34 @@ public class Table {
                 } else if (firstToShow) {
                     // First player must always show.
                     doShow = true;
-                    bestHandValue = handValue.getValue();
+                    bestHandValue = handValue;
                     firstToShow = false;
                 } else {
                     // Remaining players only show when having a chance to win.
-                    if (handValue.getValue() >= bestHandValue) {
+                    if (handValue >= bestHandValue) {
                         doShow = true;
-                        bestHandValue = handValue.getValue();
+                        bestHandValue = handValue;
                     }
                 }
             }
             if (doShow) {
                 // Show hand.
-                for (Player player : players) {
-                    player.getClient().playerUpdated(playerToShow);
+                for (Player player : subscribers.get(ClientEvent.PLAYER_UPDATED)) {
+                    getClient(player).playerUpdated(playerToShow);
+                }
+                if (hasSubscribers(ClientEvent.MESSAGE_RECEIVED)) {
+                    notifyMessage("%s has %s.", playerToShow, HandValueType.forHandValue(handValue).getDescription());
                 }
-                notifyMessage("%s has %s.", playerToShow, handValue.getDescription());
             } else {
                 // Fold.
                 playerToShow.setCards(null);
                 activePlayers.remove(playerToShow);
-                for (Player player : players) {
+                for (Player player : subscribers.get(ClientEvent.PLAYER_UPDATED)) {
                     if (player.equals(playerToShow)) {
-                        player.getClient().playerUpdated(playerToShow);
+                        getClient(player).playerUpdated(playerToShow);
                     } else {
                         // Hide secret information to other players.
-                        player.getClient().playerUpdated(playerToShow.publicClone());
+                        getClient(player).playerUpdated(getPublicInfo(playerToShow));
                     }
                 }
                 notifyMessage("%s folds.", playerToShow);
@@ -615,13 +895,11 @@ public class Table {
         }
         
         // Sort players by hand value (highest to lowest).
-        Map<HandValue, List<Player>> rankedPlayers = new TreeMap<HandValue, List<Player>>();
+        Map<Integer, List<Player>> rankedPlayers = new TreeMap<Integer, List<Player>>(Collections.<Integer>reverseOrder());
         for (Player player : activePlayers) {
-            // Create a hand with the community cards and the player's hole cards.
-            Hand hand = new Hand(board);
-            hand.addCards(player.getCards());
+            // Evaluate the community cards with the player's hole cards.
+            int handValue = evaluationContext.getValue(player.getHand());
             // Store the player together with other players with the same hand value.
-            HandValue handValue = new HandValue(hand);
 //            System.out.format("[DEBUG] %s: %s\n", player, handValue);
             List<Player> playerList = rankedPlayers.get(handValue);
             if (playerList == null) {
@@ -634,7 +912,7 @@ public class Table {
         // Per rank (single or multiple winners), calculate pot distribution.
         int totalPot = getTotalPot();
         Map<Player, Integer> potDivision = new HashMap<Player, Integer>();
-        for (HandValue handValue : rankedPlayers.keySet()) {
+        for (Integer handValue : rankedPlayers.keySet()) {
             List<Player> winners = rankedPlayers.get(handValue);
             for (Pot pot : pots) {
                 // Determine how many winners share this pot.
@@ -681,20 +959,25 @@ public class Table {
         }
         
         // Divide winnings.
+        boolean notifyWinners = hasSubscribers(ClientEvent.MESSAGE_RECEIVED);
         StringBuilder winnerText = new StringBuilder();
         int totalWon = 0;
         for (Player winner : potDivision.keySet()) {
             int potShare = potDivision.get(winner);
             winner.win(potShare);
             totalWon += potShare;
-            if (winnerText.length() > 0) {
-                winnerText.append(", ");
+            if (notifyWinners) {
+                if (winnerText.length() > 0) {
+                    winnerText.append(", ");
+                }
+                winnerText.append(String.format("%s wins $ %d", winner, potShare));
             }
-            winnerText.append(String.format("%s wins $ %d", winner, potShare));
             notifyPlayersUpdated(true);
         }
-        winnerText.append('.');
-        notifyMessage(winnerText.toString());
+        if (notifyWinners) {
+            winnerText.append('.');
+            notifyMessage(winnerText.toString());
+        }
         
         // Sanity check.
         if (totalWon != totalPot) {
@@ -711,9 +994,12 @@ public class Table {
      *            Any arguments.
      */
     private void notifyMessage(String message, Object... args) {
-        message = String.format(message, args);
-        for (Player player : players) {
-            player.getClient().messageReceived(message);
+        List<Player> subscribedPlayers = subscribers.get(ClientEvent.MESSAGE_RECEIVED);
+        if (!subscribedPlayers.isEmpty()) {
+            message = String.format(message, args);
+            for (Player player : subscribedPlayers) {
+                getClient(player).messageReceived(message);
+            }
         }
     }
     
@@ -721,12 +1007,43 @@ public class Table {
      * Notifies clients that the board has been updated.
      */
     private void notifyBoardUpdated() {
-        int pot = getTotalPot();
-        for (Player player : players) {
-            player.getClient().boardUpdated(board, bet, pot);
+        List<Player> subscribedPlayers = subscribers.get(ClientEvent.BOARD_UPDATED);
+        if (!subscribedPlayers.isEmpty()) {
+            int pot = getTotalPot();
+            for (Player player : subscribedPlayers) {
+                getClient(player).boardUpdated(board, bet, pot);
+            }
         }
     }
     
+    /**
+     * Returns whether any client subscribed to an event.
+     * 
+     * @param event
+     *            The event.
+     * 
+     * @return True if any client subscribed to the event, otherwise false.
+     */
+    private boolean hasSubscribers(ClientEvent event) {
+        return !subscribers.get(event).isEmpty();
+    }
+    
+    /**
+     * Returns a copy of a player with only public information. <br />
+     * <br />
+     * 
+     * In simulation mode the player's reusable copy is returned, otherwise a
+     * new copy.
+     * 
+     * @param player
+     *            The player.
+     * 
+     * @return The copy with only public information.
+     */
+    private Player getPublicInfo(Player player) {
+        return simulationMode ? player.getPublicView() : player.publicClone();
+    }
+    
     /**
      * Returns the total pot size.
      * 
@@ -751,13 +1068,13 @@ public class Table {
      *            Whether we are at the showdown phase.
      */
     private void notifyPlayersUpdated(boolean showdown) {
-        for (Player playerToNotify : players) {
+        for (Player playerToNotify : subscribers.get(ClientEvent.PLAYER_UPDATED)) {
             for (Player player : players) {
                 if (!showdown && !player.equals(playerToNotify)) {
                     // Hide secret information to other players.
-                    player = player.publicClone();
+                    player = getPublicInfo(player);
                 }
-                playerToNotify.getClient().playerUpdated(player);
+                getClient(playerToNotify).playerUpdated(player);
             }
         }
     }
@@ -766,9 +1083,9 @@ public class Table {
      * Notifies clients that a player has acted.
      */
     private void notifyPlayerActed() {
-        for (Player p : players) {
-            Player playerInfo = p.equals(actor) ? actor : actor.publicClone();
-            p.getClient().playerActed(playerInfo);
+        for (Player p : subscribers.get(ClientEvent.PLAYER_ACTED)) {
+            Player playerInfo = p.equals(actor) ? actor : getPublicInfo(actor);
+            getClient(p).playerActed(playerInfo);
         }
     }
     
@@ -0,0 +1,271 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.ozsoft.texasholdem.actions.Action;
+
+/**
+ * Asynchronous wrapper of a synchronous client, used by a table with time
+ * limits. <br />
+ * <br />
+ *
+ * All calls to the client, including acting, are made one after another on a
+ * single thread of the client's own, so a client that is not thread-safe is
+ * never called concurrently, not even while the table continues after the
+ * client ran out of time. Notifications are therefore delivered after any
+ * late action, with copies of their arguments taken at the time of the
+ * event. At most one action is requested at a time; while the client is
+ * still deciding, the table does not request another one (see
+ * {@link #isActing()}). <br />
+ * <br />
+ *
+ * At most {@link #MAX_QUEUED_CALLS} calls wait for the client. A client that
+ * falls that far behind (e.g. hangs while acting) misses any further
+ * notifications until it catches up, and runs out of time on any further
+ * action requested, so a hung client does not hold on to ever more
+ * notifications. <br />
+ * <br />
+ *
+ * The thread is stopped after a while without calls, so a wrapper does not
+ * need to be shut down.
+ *
+ * @author Oscar Stigter
+ */
+class TimedClient implements AsyncClient {
+
+    /** The maximum number of calls waiting for the client. */
+    static final int MAX_QUEUED_CALLS = 1000;
+
+    /** The time in seconds after which an idle thread is stopped. */
+    private static final long KEEP_ALIVE_TIME = 60L;
+
+    /** The wrapped client. */
+    private final Client client;
+
+    /** The executor calling the client. */
+    private final ThreadPoolExecutor executor;
+
+    /** Whether an action is requested and the client has not returned it yet. */
+    private final AtomicBoolean acting = new AtomicBoolean();
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            The player's name (for the name of the thread).
+     * @param client
+     *            The client.
+     */
+    TimedClient(final String name, Client client) {
+        this.client = client;
+        executor = new ThreadPoolExecutor(0, 1, KEEP_ALIVE_TIME, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(MAX_QUEUED_CALLS),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        // Must not keep the JVM alive because of a hung client.
+                        Thread thread = new Thread(runnable, "Client " + name);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    /**
+     * Returns the wrapped client.
+     *
+     * @return The client.
+     */
+    Client getClient() {
+        return client;
+    }
+
+    /**
+     * Returns whether the client is still deciding on a requested action
+     * (possibly after running out of time).
+     *
+     * @return True if acting, otherwise false.
+     */
+    boolean isActing() {
+        return acting.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void messageReceived(final String message) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                client.messageReceived(message);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void joinedTable(final TableType type, final int bigBlind, List<Player> players) {
+        final List<Player> copies = copy(players);
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                client.joinedTable(type, bigBlind, copies);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handStarted(Player dealer) {
+        final Player copy = dealer.copy();
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                client.handStarted(copy);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void actorRotated(Player actor) {
+        final Player copy = actor.copy();
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                client.actorRotated(copy);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void playerUpdated(Player player) {
+        final Player copy = player.copy();
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                client.playerUpdated(copy);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void boardUpdated(List<Card> cards, final int bet, final int pot) {
+        final List<Card> copy = new ArrayList<Card>(cards);
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                client.boardUpdated(copy, bet, pot);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void playerActed(Player player) {
+        final Player copy = player.copy();
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                client.playerActed(copy);
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Action act(int minBet, int currentBet, Set<Action> allowedActions) {
+        return actAsync(minBet, currentBet, allowedActions).join();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompletableFuture<Action> actAsync(final int minBet, final int currentBet,
+            final Set<Action> allowedActions) {
+        if (!acting.compareAndSet(false, true)) {
+            throw new IllegalStateException("Client is still acting");
+        }
+        final CompletableFuture<Action> future = new CompletableFuture<Action>();
+        Runnable call = new Runnable() {
+            @Override
+            public void run() {
+                Action action;
+                try {
+                    action = client.act(minBet, currentBet, allowedActions);
+                } catch (RuntimeException e) {
+                    acting.set(false);
+                    future.completeExceptionally(e);
+                    return;
+                }
+                // Done before completing, so the table can request the next action.
+                acting.set(false);
+                // Ignored if the table cancelled the future in the meantime.
+                future.complete(action);
+            }
+        };
+        try {
+            executor.execute(call);
+        } catch (RejectedExecutionException e) {
+            // Too far behind; never completed, so the client runs out of time.
+            acting.set(false);
+        }
+        return future;
+    }
+
+    /**
+     * Queues a notification, dropping it if the client is too far behind.
+     *
+     * @param call
+     *            The notification.
+     */
+    private void execute(Runnable call) {
+        try {
+            executor.execute(call);
+        } catch (RejectedExecutionException e) {
+            // Dropped.
+        }
+    }
+
+    /**
+     * Returns copies of players.
+     *
+     * @param players
+     *            The players.
+     *
+     * @return The copies.
+     */
+    private static List<Player> copy(List<Player> players) {
+        List<Player> copies = new ArrayList<Player>(players.size());
+        for (Player player : players) {
+            copies.add(player.copy());
+        }
+        return copies;
+    }
+
+}
@@ -17,10 +17,12 @@
 
 package org.ozsoft.texasholdem.bots;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
 import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.ClientEvent;
 import org.ozsoft.texasholdem.Player;
 import org.ozsoft.texasholdem.TableType;
 import org.ozsoft.texasholdem.actions.Action;
@@ -83,6 +85,13 @@ public class BasicBot extends Bot {
         this.aggression = aggression;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Set<ClientEvent> getSubscribedEvents() {
+        // Only needs to know its own hole cards.
+        return EnumSet.of(ClientEvent.HAND_STARTED, ClientEvent.PLAYER_UPDATED);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void joinedTable(TableType type, int bigBlind, List<Player> players) {
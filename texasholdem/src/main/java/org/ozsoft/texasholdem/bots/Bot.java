@@ -17,7 +17,11 @@
 
 package org.ozsoft.texasholdem.bots;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.ozsoft.texasholdem.Client;
+import org.ozsoft.texasholdem.ClientEvent;
 
 /**
  * Base class for all Texas Hold'em poker bot implementations.
@@ -29,4 +33,17 @@ public abstract class Bot implements Client {
     /** Number of hole cards. */
     protected static final int NO_OF_HOLE_CARDS = 2;
     
+    /**
+     * Returns the table events this bot needs to be notified of (see
+     * <code>Table.addPlayer(Player, Set)</code>). <br />
+     * <br />
+     * 
+     * By default a bot subscribes to all events.
+     * 
+     * @return The events.
+     */
+    public Set<ClientEvent> getSubscribedEvents() {
+        return EnumSet.allOf(ClientEvent.class);
+    }
+    
 }
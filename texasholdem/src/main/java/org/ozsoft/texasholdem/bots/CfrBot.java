@@ -0,0 +1,263 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.bots;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.ClientEvent;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.BetAction;
+import org.ozsoft.texasholdem.actions.RaiseAction;
+import org.ozsoft.texasholdem.solver.BettingTree;
+import org.ozsoft.texasholdem.solver.CardAbstraction;
+import org.ozsoft.texasholdem.solver.CfrStrategy;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Heads-up Fixed-Limit Texas Hold'em poker bot playing a strategy trained with
+ * the {@link org.ozsoft.texasholdem.solver.CfrTrainer}. <br />
+ * <br />
+ *
+ * The bot follows the actions of both players through the betting rounds of
+ * the {@link BettingTree}. On each decision it looks up the bucket of its
+ * cards (once per street) and picks an action with the probabilities of the
+ * strategy, which takes constant time. <br />
+ * <br />
+ *
+ * When the hand leaves the betting tree (more raises than the tree allows, an
+ * all-in player, or a table that is not heads-up Fixed-Limit), the bot simply
+ * checks or calls for the rest of the hand.
+ *
+ * @author Oscar Stigter
+ */
+public class CfrBot extends Bot {
+
+    /** The strategy. */
+    private final CfrStrategy strategy;
+
+    /** The betting tree. */
+    private final BettingTree tree;
+
+    /** The card abstraction. */
+    private final CardAbstraction abstraction;
+
+    /** The random number generator. */
+    private final SplittableRandom random;
+
+    /** The bucket of each street, or -1 if not determined yet. */
+    private final int[] buckets = new int[BettingTree.NO_OF_STREETS];
+
+    /** Whether the table is heads-up Fixed-Limit. */
+    private boolean supported;
+
+    /** The name of the dealer. */
+    private String dealerName;
+
+    /** The name of this bot's player. */
+    private String name;
+
+    /** The hole cards (card mask). */
+    private long holeCards;
+
+    /** The community cards (card mask). */
+    private long board;
+
+    /** The current node in the betting tree, or -1 when off the tree. */
+    private int node;
+
+    /** The contribution of each player before the current street (in small blinds). */
+    private int contribution;
+
+    /**
+     * Constructor with a random seed.
+     *
+     * @param strategy
+     *            The strategy.
+     * @param abstraction
+     *            The card abstraction the strategy was trained with.
+     */
+    public CfrBot(CfrStrategy strategy, CardAbstraction abstraction) {
+        this(strategy, abstraction, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param strategy
+     *            The strategy.
+     * @param abstraction
+     *            The card abstraction the strategy was trained with.
+     * @param seed
+     *            The seed of the random number generator.
+     */
+    public CfrBot(CfrStrategy strategy, CardAbstraction abstraction, long seed) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Null strategy");
+        }
+        if (abstraction == null) {
+            throw new IllegalArgumentException("Null abstraction");
+        }
+        for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+            if (abstraction.getNoOfBuckets(street) != strategy.getNoOfBuckets(street)) {
+                throw new IllegalArgumentException("Card abstraction does not match the strategy");
+            }
+        }
+        this.strategy = strategy;
+        this.abstraction = abstraction;
+        tree = strategy.getTree();
+        random = new SplittableRandom(seed);
+        node = -1;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<ClientEvent> getSubscribedEvents() {
+        return EnumSet.of(ClientEvent.HAND_STARTED, ClientEvent.PLAYER_UPDATED, ClientEvent.BOARD_UPDATED,
+                ClientEvent.PLAYER_ACTED);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void joinedTable(TableType type, int bigBlind, List<Player> players) {
+        supported = (type == TableType.FIXED_LIMIT) && (players.size() == BettingTree.NO_OF_PLAYERS);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void messageReceived(String message) {
+        // Not implemented.
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handStarted(Player dealer) {
+        dealerName = dealer.getName();
+        holeCards = 0L;
+        board = 0L;
+        node = supported ? tree.getRoot(0) : -1;
+        contribution = 0;
+        for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+            buckets[street] = -1;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void actorRotated(Player actor) {
+        // Not implemented.
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void boardUpdated(List<Card> cards, int bet, int pot) {
+        board = CardUtils.toMask(cards);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void playerUpdated(Player player) {
+        if (player.getCards().length == NO_OF_HOLE_CARDS && holeCards == 0L) {
+            // Only this bot's own player has visible hole cards before the showdown.
+            name = player.getName();
+            holeCards = CardUtils.toMask(player.getCards());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void playerActed(Player player) {
+        Action action = player.getAction();
+        if (node < 0 || action == Action.SMALL_BLIND || action == Action.BIG_BLIND) {
+            return;
+        }
+        int seat = player.getName().equals(dealerName) ? 0 : 1;
+        if (!tree.isDecision(node) || tree.getPlayer(node) != seat) {
+            node = -1;
+            return;
+        }
+        int treeAction;
+        if (action == Action.CHECK || action == Action.CALL) {
+            treeAction = BettingTree.CALL;
+        } else if (action instanceof BetAction || action instanceof RaiseAction) {
+            treeAction = BettingTree.RAISE;
+        } else if (action == Action.FOLD) {
+            treeAction = BettingTree.FOLD;
+        } else {
+            node = -1;
+            return;
+        }
+        int child = tree.getChild(node, treeAction);
+        if (child >= 0 && tree.isRoundEnd(child)) {
+            int street = tree.getStreet(child);
+            contribution += tree.getBet(child, 0);
+            child = (street < BettingTree.NO_OF_STREETS - 1) ? tree.getRoot(street + 1) : -1;
+        }
+        node = child;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Action act(int minBet, int currentBet, Set<Action> allowedActions) {
+        if (allowedActions.size() == 1) {
+            // No choice, must check.
+            return Action.CHECK;
+        }
+        int street = getStreet();
+        if (street < 0 || name == null || tree.getPlayer(node) != (name.equals(dealerName) ? 0 : 1)) {
+            // Off the betting tree.
+            node = -1;
+            return allowedActions.contains(Action.CALL) ? Action.CALL : Action.CHECK;
+        }
+        if (buckets[street] < 0) {
+            buckets[street] = abstraction.getBucket(street, holeCards, board);
+        }
+        int action = strategy.getAction(node, contribution, buckets[street], random.nextDouble());
+        if (action == BettingTree.FOLD && allowedActions.contains(Action.CALL)) {
+            return Action.FOLD;
+        } else if (action == BettingTree.RAISE && allowedActions.contains(Action.BET)) {
+            return new BetAction(minBet);
+        } else if (action == BettingTree.RAISE && allowedActions.contains(Action.RAISE)) {
+            return new RaiseAction(minBet);
+        } else {
+            return allowedActions.contains(Action.CALL) ? Action.CALL : Action.CHECK;
+        }
+    }
+
+    /**
+     * Returns the street of the current decision, checking that it matches
+     * the number of community cards.
+     *
+     * @return The street, or -1 when off the betting tree.
+     */
+    private int getStreet() {
+        if (node < 0 || !tree.isDecision(node) || holeCards == 0L) {
+            return -1;
+        }
+        int street = tree.getStreet(node);
+        int noOfBoardCards = Long.bitCount(board);
+        boolean valid = (street == 0) ? (noOfBoardCards == 0) : (noOfBoardCards == street + 2);
+        return valid ? street : -1;
+    }
+
+}
@@ -17,10 +17,12 @@
 
 package org.ozsoft.texasholdem.bots;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
 import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.ClientEvent;
 import org.ozsoft.texasholdem.Player;
 import org.ozsoft.texasholdem.TableType;
 import org.ozsoft.texasholdem.actions.Action;
@@ -35,6 +37,13 @@ import org.ozsoft.texasholdem.actions.Action;
  */
 public class DummyBot extends Bot {
 
+    /** {@inheritDoc} */
+    @Override
+    public Set<ClientEvent> getSubscribedEvents() {
+        // Does not need to know anything.
+        return EnumSet.noneOf(ClientEvent.class);
+    }
+
     /** {@inheritDoc} */
     @Override
     public void messageReceived(String message) {
@@ -0,0 +1,334 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.bots;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.ClientEvent;
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.BetAction;
+import org.ozsoft.texasholdem.actions.RaiseAction;
+import org.ozsoft.texasholdem.util.CardUtils;
+import org.ozsoft.texasholdem.util.MaskDeck;
+
+/**
+ * Texas Hold'em poker bot deciding on its equity from a Monte Carlo rollout.
+ * <br />
+ * <br />
+ *
+ * On each decision the bot estimates its equity against the remaining
+ * opponents (with random hole cards) by dealing out the rest of the board,
+ * and compares it to the pot odds from the last board update:
+ * <ul>
+ * <li>With a strong equity (well above its fair share of the pot) it bets or
+ * raises.</li>
+ * <li>Otherwise it calls if the equity is at least the pot odds, and checks or
+ * folds if not.</li>
+ * </ul>
+ *
+ * The rollout runs in small batches of trials until either the maximum number
+ * of trials or the time budget per decision is reached, so each decision
+ * takes at most the time budget plus a single batch (well below a
+ * millisecond). With a fixed seed and a generous time budget the bot is
+ * deterministic, which suits mass simulation.
+ *
+ * @author Oscar Stigter
+ */
+public class MonteCarloBot extends Bot {
+
+    /** The number of trials per batch between checking the time. */
+    private static final int BATCH_SIZE = 64;
+
+    /** The number of board cards. */
+    private static final int NO_OF_BOARD_CARDS = 5;
+
+    /** The minimum equity above the fair share of the pot to bet or raise. */
+    private static final double STRONG_MARGIN = 0.15;
+
+    /** The hand evaluator. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /** The time budget per decision in nanoseconds. */
+    private final long maxDecisionTime;
+
+    /** The maximum number of trials per decision. */
+    private final int maxNoOfTrials;
+
+    /** The deck for the rollouts. */
+    private final MaskDeck deck;
+
+    /** The names of the players still in the hand (including this bot). */
+    private final Set<String> activePlayers = new HashSet<String>();
+
+    /** Table type. */
+    private TableType tableType;
+
+    /** This bot's player, as of the last event about it. */
+    private Player player;
+
+    /** The hole cards (card mask). */
+    private long holeCards;
+
+    /** The community cards (card mask). */
+    private long board;
+
+    /** The current pot. */
+    private int pot;
+
+    /** The equity of the last decision. */
+    private double equity;
+
+    /** The number of trials of the last decision. */
+    private int noOfTrials;
+
+    /**
+     * Constructor with a random seed and at most 10,000 trials per decision.
+     *
+     * @param maxDecisionTime
+     *            The time budget per decision in milliseconds.
+     */
+    public MonteCarloBot(long maxDecisionTime) {
+        this(maxDecisionTime, 10000, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxDecisionTime
+     *            The time budget per decision in milliseconds.
+     * @param maxNoOfTrials
+     *            The maximum number of trials per decision.
+     * @param seed
+     *            The seed of the random number generator.
+     */
+    public MonteCarloBot(long maxDecisionTime, int maxNoOfTrials, long seed) {
+        if (maxDecisionTime < 1) {
+            throw new IllegalArgumentException("Invalid maximum decision time");
+        }
+        if (maxNoOfTrials < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of trials");
+        }
+        this.maxDecisionTime = maxDecisionTime * 1000000L;
+        this.maxNoOfTrials = maxNoOfTrials;
+        deck = new MaskDeck(new SplittableRandom(seed));
+    }
+
+    /**
+     * Returns the estimated equity of the last decision.
+     *
+     * @return The equity.
+     */
+    public double getEquity() {
+        return equity;
+    }
+
+    /**
+     * Returns the number of trials of the last decision.
+     *
+     * @return The number of trials.
+     */
+    public int getNoOfTrials() {
+        return noOfTrials;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<ClientEvent> getSubscribedEvents() {
+        return EnumSet.of(ClientEvent.HAND_STARTED, ClientEvent.PLAYER_UPDATED, ClientEvent.BOARD_UPDATED,
+                ClientEvent.PLAYER_ACTED);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void joinedTable(TableType type, int bigBlind, List<Player> players) {
+        this.tableType = type;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void messageReceived(String message) {
+        // Not implemented.
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handStarted(Player dealer) {
+        activePlayers.clear();
+        holeCards = 0L;
+        board = 0L;
+        pot = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void actorRotated(Player actor) {
+        // Not implemented.
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void boardUpdated(List<Card> cards, int bet, int pot) {
+        board = CardUtils.toMask(cards);
+        this.pot = pot;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void playerUpdated(Player player) {
+        if (player.getCards().length == NO_OF_HOLE_CARDS && holeCards == 0L) {
+            // Only this bot's own player has visible hole cards before the showdown.
+            this.player = player;
+            holeCards = CardUtils.toMask(player.getCards());
+        } else {
+            updatePlayer(player);
+        }
+        if (player.hasCards()) {
+            activePlayers.add(player.getName());
+        } else {
+            activePlayers.remove(player.getName());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void playerActed(Player player) {
+        updatePlayer(player);
+        if (!player.hasCards()) {
+            activePlayers.remove(player.getName());
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Action act(int minBet, int currentBet, Set<Action> allowedActions) {
+        if (allowedActions.size() == 1) {
+            // No choice, must check.
+            return Action.CHECK;
+        }
+        if (holeCards == 0L || player == null) {
+            // Unknown hole cards; should not happen.
+            return allowedActions.contains(Action.CHECK) ? Action.CHECK : Action.FOLD;
+        }
+
+        int noOfOpponents = Math.max(activePlayers.size() - 1, 1);
+        equity = rollout(noOfOpponents);
+        double fairShare = 1.0 / (noOfOpponents + 1);
+        boolean strong = equity >= fairShare + STRONG_MARGIN;
+        int amountToCall = Math.min(Math.max(currentBet - player.getBet(), 0), player.getCash());
+
+        if (amountToCall == 0) {
+            if (strong && allowedActions.contains(Action.BET)) {
+                return new BetAction(getAmount(minBet, player.getCash()));
+            } else if (strong && allowedActions.contains(Action.RAISE)) {
+                return new RaiseAction(getAmount(minBet, player.getCash()));
+            } else {
+                return Action.CHECK;
+            }
+        } else {
+            double potOdds = (double) amountToCall / (pot + amountToCall);
+            if (equity < potOdds) {
+                return Action.FOLD;
+            } else if (strong && allowedActions.contains(Action.RAISE) && player.getCash() > amountToCall) {
+                return new RaiseAction(getAmount(minBet, player.getCash() - amountToCall));
+            } else {
+                return Action.CALL;
+            }
+        }
+    }
+
+    /**
+     * Replaces this bot's player if the event is about it. The events may carry
+     * snapshots rather than the live player (e.g. with a decision timeout), so
+     * the bet and cash are only current as of the latest event.
+     *
+     * @param player
+     *            The player from the event.
+     */
+    private void updatePlayer(Player player) {
+        if (this.player != null && this.player.getName().equals(player.getName())) {
+            this.player = player;
+        }
+    }
+
+    /**
+     * Returns the amount to bet or raise: the minimum bet with Fixed-Limit,
+     * otherwise the size of the pot, limited by the available cash.
+     *
+     * @param minBet
+     *            The minimum bet.
+     * @param cash
+     *            The available cash.
+     *
+     * @return The amount.
+     */
+    private int getAmount(int minBet, int cash) {
+        if (tableType == TableType.FIXED_LIMIT) {
+            return minBet;
+        }
+        return Math.max(minBet, Math.min(pot, cash));
+    }
+
+    /**
+     * Estimates the equity against a number of opponents with random hole
+     * cards, within the time budget.
+     *
+     * @param noOfOpponents
+     *            The number of opponents.
+     *
+     * @return The equity.
+     */
+    private double rollout(int noOfOpponents) {
+        long deadline = System.nanoTime() + maxDecisionTime;
+        long knownCards = holeCards | board;
+        int noOfBoardCards = NO_OF_BOARD_CARDS - Long.bitCount(board);
+        double total = 0.0;
+        int trials = 0;
+        do {
+            int batchEnd = Math.min(trials + BATCH_SIZE, maxNoOfTrials);
+            for (; trials < batchEnd; trials++) {
+                deck.reset(knownCards);
+                long fullBoard = board | deck.deal(noOfBoardCards);
+                int heroValue = EVALUATOR.getValue(holeCards | fullBoard);
+                int noOfTies = 1;
+                boolean lost = false;
+                for (int i = 0; i < noOfOpponents && !lost; i++) {
+                    int value = EVALUATOR.getValue(fullBoard | deck.deal(NO_OF_HOLE_CARDS));
+                    if (value > heroValue) {
+                        lost = true;
+                    } else if (value == heroValue) {
+                        noOfTies++;
+                    }
+                }
+                if (!lost) {
+                    total += 1.0 / noOfTies;
+                }
+            }
+        } while (trials < maxNoOfTrials && System.nanoTime() < deadline);
+        noOfTrials = trials;
+        return total / trials;
+    }
+
+}
@@ -0,0 +1,415 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.bots;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.BetAction;
+import org.ozsoft.texasholdem.actions.RaiseAction;
+
+/**
+ * Statistics of the players at a table, for modeling the opponents' tightness,
+ * aggression and bluffing. <br />
+ * <br />
+ *
+ * A bot forwards its table events (see {@link org.ozsoft.texasholdem.Client})
+ * to the tracker, which updates the following statistics per player:
+ * <ul>
+ * <li>VPIP: the share of hands in which the player voluntarily put money in
+ * the pot Pre-Flop (tightness).</li>
+ * <li>PFR: the share of hands in which the player bet or raised Pre-Flop.</li>
+ * <li>Aggression factor: the number of bets and raises per call after the
+ * Flop.</li>
+ * <li>Fold to bet: the share of bets and raises faced after the Flop that the
+ * player folded to.</li>
+ * <li>Went to showdown: the share of hands seeing the Flop that the player
+ * played to the showdown.</li>
+ * <li>Won at showdown: the share of those showdowns that the player won chips
+ * at (a low share combined with a high aggression suggests bluffing).</li>
+ * </ul>
+ *
+ * The statistics are kept in primitive counters per seat. Updating them does
+ * not allocate any objects, and each query is a constant-time lookup, so a bot
+ * can query them on every decision. A hand is only counted for the showdown
+ * statistics when the next hand starts. A ratio without any observations is 0.
+ * <br />
+ * <br />
+ *
+ * Instances are not thread-safe; a table notifies its clients from a single
+ * thread.
+ *
+ * @author Oscar Stigter
+ */
+public class OpponentStats {
+
+    /** The number of board cards on the Flop. */
+    private static final int FLOP = 3;
+
+    /** The number of board cards on the River. */
+    private static final int RIVER = 5;
+
+    /** The seat of each player, by name. */
+    private final Map<String, Integer> seats = new HashMap<String, Integer>();
+
+    /** The number of hands dealt. */
+    private int[] hands = new int[0];
+
+    /** The number of hands voluntarily putting money in the pot Pre-Flop. */
+    private int[] vpips = new int[0];
+
+    /** The number of hands betting or raising Pre-Flop. */
+    private int[] pfrs = new int[0];
+
+    /** The number of bets and raises after the Flop. */
+    private int[] aggressions = new int[0];
+
+    /** The number of calls after the Flop. */
+    private int[] calls = new int[0];
+
+    /** The number of bets and raises faced after the Flop. */
+    private int[] betsFaced = new int[0];
+
+    /** The number of folds to a bet or raise after the Flop. */
+    private int[] foldsToBet = new int[0];
+
+    /** The number of hands seeing the Flop. */
+    private int[] flopsSeen = new int[0];
+
+    /** The number of hands played to the showdown. */
+    private int[] showdowns = new int[0];
+
+    /** The number of showdowns with chips won. */
+    private int[] showdownsWon = new int[0];
+
+    /** The cash at the start of the current hand. */
+    private int[] startCash = new int[0];
+
+    /** The last known cash. */
+    private int[] cash = new int[0];
+
+    /** Whether the player was dealt in the current hand. */
+    private boolean[] dealt = new boolean[0];
+
+    /** Whether the player voluntarily put money in the pot in the current hand. */
+    private boolean[] vpip = new boolean[0];
+
+    /** Whether the player bet or raised Pre-Flop in the current hand. */
+    private boolean[] pfr = new boolean[0];
+
+    /** Whether the player folded in the current hand. */
+    private boolean[] folded = new boolean[0];
+
+    /** The number of board cards in the current hand. */
+    private int noOfBoardCards;
+
+    /** Whether the River was dealt in the current hand. */
+    private boolean riverDealt;
+
+    /** Whether there was a bet or raise in the current betting round. */
+    private boolean betMade;
+
+    /**
+     * Handles joining a table, resetting all statistics.
+     *
+     * @param players
+     *            The players at the table.
+     */
+    public void joinedTable(List<Player> players) {
+        int noOfPlayers = players.size();
+        seats.clear();
+        for (int seat = 0; seat < noOfPlayers; seat++) {
+            seats.put(players.get(seat).getName(), seat);
+        }
+        hands = new int[noOfPlayers];
+        vpips = new int[noOfPlayers];
+        pfrs = new int[noOfPlayers];
+        aggressions = new int[noOfPlayers];
+        calls = new int[noOfPlayers];
+        betsFaced = new int[noOfPlayers];
+        foldsToBet = new int[noOfPlayers];
+        flopsSeen = new int[noOfPlayers];
+        showdowns = new int[noOfPlayers];
+        showdownsWon = new int[noOfPlayers];
+        startCash = new int[noOfPlayers];
+        cash = new int[noOfPlayers];
+        dealt = new boolean[noOfPlayers];
+        vpip = new boolean[noOfPlayers];
+        pfr = new boolean[noOfPlayers];
+        folded = new boolean[noOfPlayers];
+        for (int seat = 0; seat < noOfPlayers; seat++) {
+            cash[seat] = players.get(seat).getCash();
+            startCash[seat] = cash[seat];
+        }
+        noOfBoardCards = 0;
+        riverDealt = false;
+        betMade = false;
+    }
+
+    /**
+     * Handles the start of a new hand, completing the statistics of the
+     * previous hand.
+     */
+    public void handStarted() {
+        int noOfShowingPlayers = 0;
+        if (riverDealt) {
+            for (int seat = 0; seat < dealt.length; seat++) {
+                if (dealt[seat] && !folded[seat]) {
+                    noOfShowingPlayers++;
+                }
+            }
+        }
+        for (int seat = 0; seat < dealt.length; seat++) {
+            if (noOfShowingPlayers > 1 && dealt[seat] && !folded[seat]) {
+                showdowns[seat]++;
+                if (cash[seat] > startCash[seat]) {
+                    showdownsWon[seat]++;
+                }
+            }
+            startCash[seat] = cash[seat];
+        }
+        Arrays.fill(dealt, false);
+        Arrays.fill(vpip, false);
+        Arrays.fill(pfr, false);
+        Arrays.fill(folded, false);
+        noOfBoardCards = 0;
+        riverDealt = false;
+        betMade = false;
+    }
+
+    /**
+     * Handles an update of the board.
+     *
+     * @param cards
+     *            The community cards.
+     */
+    public void boardUpdated(List<Card> cards) {
+        int size = cards.size();
+        if (size != noOfBoardCards) {
+            // New betting round.
+            if (size >= FLOP && noOfBoardCards < FLOP) {
+                // Also counts players who are all-in and do not act anymore.
+                for (int seat = 0; seat < dealt.length; seat++) {
+                    if (dealt[seat] && !folded[seat]) {
+                        flopsSeen[seat]++;
+                    }
+                }
+            }
+            noOfBoardCards = size;
+            betMade = false;
+            if (size == RIVER) {
+                riverDealt = true;
+            }
+        }
+    }
+
+    /**
+     * Handles an update of a player.
+     *
+     * @param player
+     *            The player.
+     */
+    public void playerUpdated(Player player) {
+        Integer seat = seats.get(player.getName());
+        if (seat != null) {
+            cash[seat] = player.getCash();
+        }
+    }
+
+    /**
+     * Handles the event of a player acting.
+     *
+     * @param player
+     *            The player that has acted.
+     */
+    public void playerActed(Player player) {
+        Integer seatObject = seats.get(player.getName());
+        Action action = player.getAction();
+        if (seatObject == null || action == null) {
+            return;
+        }
+        int seat = seatObject;
+        cash[seat] = player.getCash();
+        boolean aggressive = action instanceof BetAction || action instanceof RaiseAction;
+        if (noOfBoardCards == 0) {
+            if (!dealt[seat]) {
+                dealt[seat] = true;
+                hands[seat]++;
+            }
+            if (!vpip[seat] && (aggressive || action == Action.CALL)) {
+                vpip[seat] = true;
+                vpips[seat]++;
+            }
+            if (!pfr[seat] && aggressive) {
+                pfr[seat] = true;
+                pfrs[seat]++;
+            }
+        } else if (dealt[seat]) {
+            if (betMade && action != Action.CHECK) {
+                // Checking is not possible when facing a bet.
+                betsFaced[seat]++;
+                if (action == Action.FOLD) {
+                    foldsToBet[seat]++;
+                }
+            }
+            if (aggressive) {
+                aggressions[seat]++;
+            } else if (action == Action.CALL) {
+                calls[seat]++;
+            }
+        }
+        if (aggressive) {
+            betMade = true;
+        }
+        if (action == Action.FOLD) {
+            folded[seat] = true;
+        }
+    }
+
+    /**
+     * Returns the number of hands dealt to a player.
+     *
+     * @param player
+     *            The player.
+     *
+     * @return The number of hands.
+     */
+    public int getNoOfHands(Player player) {
+        return hands[getSeat(player)];
+    }
+
+    /**
+     * Returns the share of hands in which a player voluntarily put money in the
+     * pot Pre-Flop (VPIP).
+     *
+     * @param player
+     *            The player.
+     *
+     * @return The share (0.0 to 1.0).
+     */
+    public double getVpip(Player player) {
+        int seat = getSeat(player);
+        return ratio(vpips[seat], hands[seat]);
+    }
+
+    /**
+     * Returns the share of hands in which a player bet or raised Pre-Flop
+     * (PFR).
+     *
+     * @param player
+     *            The player.
+     *
+     * @return The share (0.0 to 1.0).
+     */
+    public double getPfr(Player player) {
+        int seat = getSeat(player);
+        return ratio(pfrs[seat], hands[seat]);
+    }
+
+    /**
+     * Returns the aggression factor of a player: the number of bets and raises
+     * per call after the Flop. Without any calls, the number of bets and
+     * raises is returned.
+     *
+     * @param player
+     *            The player.
+     *
+     * @return The aggression factor.
+     */
+    public double getAggressionFactor(Player player) {
+        int seat = getSeat(player);
+        return (double) aggressions[seat] / Math.max(calls[seat], 1);
+    }
+
+    /**
+     * Returns the share of bets and raises after the Flop that a player folded
+     * to.
+     *
+     * @param player
+     *            The player.
+     *
+     * @return The share (0.0 to 1.0).
+     */
+    public double getFoldToBet(Player player) {
+        int seat = getSeat(player);
+        return ratio(foldsToBet[seat], betsFaced[seat]);
+    }
+
+    /**
+     * Returns the share of hands seeing the Flop that a player played to the
+     * showdown.
+     *
+     * @param player
+     *            The player.
+     *
+     * @return The share (0.0 to 1.0).
+     */
+    public double getWentToShowdown(Player player) {
+        int seat = getSeat(player);
+        return ratio(showdowns[seat], flopsSeen[seat]);
+    }
+
+    /**
+     * Returns the share of showdowns at which a player won chips.
+     *
+     * @param player
+     *            The player.
+     *
+     * @return The share (0.0 to 1.0).
+     */
+    public double getWonAtShowdown(Player player) {
+        int seat = getSeat(player);
+        return ratio(showdownsWon[seat], showdowns[seat]);
+    }
+
+    /**
+     * Returns the seat of a player.
+     *
+     * @param player
+     *            The player.
+     *
+     * @return The seat.
+     */
+    private int getSeat(Player player) {
+        Integer seat = seats.get(player.getName());
+        if (seat == null) {
+            throw new IllegalArgumentException("Unknown player: " + player);
+        }
+        return seat;
+    }
+
+    /**
+     * Returns a ratio, or 0 without any observations.
+     *
+     * @param count
+     *            The count.
+     * @param total
+     *            The number of observations.
+     *
+     * @return The ratio.
+     */
+    private static double ratio(int count, int total) {
+        return (total > 0) ? (double) count / total : 0.0;
+    }
+
+}
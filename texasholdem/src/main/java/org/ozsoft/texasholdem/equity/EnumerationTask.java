@@ -0,0 +1,279 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Fork/join task enumerating all remaining board runouts and all opponent
+ * hole cards. <br />
+ * <br />
+ *
+ * The root task forks one subtask per prefix card: the lowest card of the
+ * board runout, or the lowest hole card of the first opponent if the board is
+ * complete. Each subtask enumerates its part of the combination space with its
+ * own deck buffer, and the hero's hand is evaluated only once per runout. <br />
+ * <br />
+ *
+ * The opponents' hole cards are enumerated in seat order, so each combination
+ * of hole cards is counted once for every order it can be dealt in. This does
+ * not change any of the fractions. The results are summed in a fixed order, so
+ * the outcome is exactly the same for each run.
+ *
+ * @author Oscar Stigter
+ */
+class EnumerationTask extends RecursiveTask<Tally> {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The number of cards on a complete board. */
+    private static final int NO_OF_BOARD_CARDS = 5;
+
+    /** The hand evaluator. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /** The hero's hole cards (card mask). */
+    private final long holeCards;
+
+    /** The known community cards (card mask). */
+    private final long board;
+
+    /** Any other known cards no longer in the deck (card mask). */
+    private final long deadCards;
+
+    /** The number of opponents. */
+    private final int noOfOpponents;
+
+    /** The prefix card of this subtask, or -1 for the root task. */
+    private final int prefixCard;
+
+    /**
+     * Constructor.
+     *
+     * @param holeCards
+     *            The hero's hole cards (card mask).
+     * @param board
+     *            The known community cards (card mask).
+     * @param deadCards
+     *            Any other known cards no longer in the deck (card mask).
+     * @param noOfOpponents
+     *            The number of opponents.
+     * @param prefixCard
+     *            The prefix card of this subtask, or -1 for the root task.
+     */
+    EnumerationTask(long holeCards, long board, long deadCards, int noOfOpponents, int prefixCard) {
+        this.holeCards = holeCards;
+        this.board = board;
+        this.deadCards = deadCards;
+        this.noOfOpponents = noOfOpponents;
+        this.prefixCard = prefixCard;
+    }
+
+    /**
+     * Returns the number of outcomes to enumerate.
+     *
+     * @param holeCards
+     *            The hero's hole cards (card mask).
+     * @param board
+     *            The known community cards (card mask).
+     * @param deadCards
+     *            Any other known cards no longer in the deck (card mask).
+     * @param noOfOpponents
+     *            The number of opponents.
+     *
+     * @return The number of outcomes.
+     */
+    static double getNoOfOutcomes(long holeCards, long board, long deadCards, int noOfOpponents) {
+        int noOfLiveCards = CardUtils.NO_OF_CARDS - Long.bitCount(holeCards | board | deadCards);
+        int noOfBoardCards = NO_OF_BOARD_CARDS - Long.bitCount(board);
+        double noOfOutcomes = combinations(noOfLiveCards, noOfBoardCards);
+        noOfLiveCards -= noOfBoardCards;
+        for (int i = 0; i < noOfOpponents; i++) {
+            noOfOutcomes *= combinations(noOfLiveCards, 2);
+            noOfLiveCards -= 2;
+        }
+        return noOfOutcomes;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Tally compute() {
+        int[] deck = new int[CardUtils.NO_OF_CARDS];
+        int deckSize = fillDeck(deck);
+        if (prefixCard < 0) {
+            // Root task; fork a subtask per prefix card.
+            List<EnumerationTask> tasks = new ArrayList<EnumerationTask>();
+            for (int i = 0; i < deckSize; i++) {
+                tasks.add(new EnumerationTask(holeCards, board, deadCards, noOfOpponents, deck[i]));
+            }
+            invokeAll(tasks);
+            Tally tally = new Tally();
+            for (EnumerationTask task : tasks) {
+                tally.add(task.join());
+            }
+            return tally;
+        } else {
+            int start = 0;
+            while (deck[start] != prefixCard) {
+                start++;
+            }
+            start++;
+            Tally tally = new Tally();
+            long prefixMask = 1L << prefixCard;
+            int noOfBoardCards = NO_OF_BOARD_CARDS - Long.bitCount(board);
+            if (noOfBoardCards > 0) {
+                // Prefix card is the lowest card of the board runout.
+                enumerateBoard(deck, deckSize, start, noOfBoardCards - 1, board | prefixMask, tally);
+            } else {
+                // Prefix card is the lowest hole card of the first opponent.
+                int heroValue = EVALUATOR.getValue(holeCards | board);
+                for (int i = start; i < deckSize; i++) {
+                    long hand = prefixMask | (1L << deck[i]);
+                    int value = EVALUATOR.getValue(board | hand);
+                    enumerateOpponents(deck, deckSize, 1, board, board | hand, heroValue, value, 1, tally);
+                }
+            }
+            return tally;
+        }
+    }
+
+    /**
+     * Fills the deck with the live cards, lowest card first.
+     *
+     * @param deck
+     *            The deck buffer.
+     *
+     * @return The number of live cards.
+     */
+    private int fillDeck(int[] deck) {
+        long knownCards = holeCards | board | deadCards;
+        int deckSize = 0;
+        for (int card = 0; card < CardUtils.NO_OF_CARDS; card++) {
+            if ((knownCards & (1L << card)) == 0L) {
+                deck[deckSize++] = card;
+            }
+        }
+        return deckSize;
+    }
+
+    /**
+     * Enumerates the remaining cards of the board runout.
+     *
+     * @param deck
+     *            The live cards.
+     * @param deckSize
+     *            The number of live cards.
+     * @param start
+     *            The index of the lowest card allowed.
+     * @param noOfCards
+     *            The number of cards still to add.
+     * @param fullBoard
+     *            The board so far (card mask).
+     * @param tally
+     *            The tally to add the outcomes to.
+     */
+    private void enumerateBoard(int[] deck, int deckSize, int start, int noOfCards, long fullBoard, Tally tally) {
+        if (noOfCards == 0) {
+            int heroValue = EVALUATOR.getValue(holeCards | fullBoard);
+            enumerateOpponents(deck, deckSize, 0, fullBoard, fullBoard, heroValue, -1, 0, tally);
+        } else {
+            for (int i = start; i <= deckSize - noOfCards; i++) {
+                enumerateBoard(deck, deckSize, i + 1, noOfCards - 1, fullBoard | (1L << deck[i]), tally);
+            }
+        }
+    }
+
+    /**
+     * Enumerates the hole cards of the remaining opponents.
+     *
+     * @param deck
+     *            The live cards.
+     * @param deckSize
+     *            The number of live cards.
+     * @param opponent
+     *            The index of the next opponent.
+     * @param fullBoard
+     *            The complete board (card mask).
+     * @param usedCards
+     *            The board and the hole cards dealt so far (card mask).
+     * @param heroValue
+     *            The hand value of the hero.
+     * @param bestValue
+     *            The best hand value of the opponents so far.
+     * @param noOfBest
+     *            The number of opponents with the best hand value so far.
+     * @param tally
+     *            The tally to add the outcomes to.
+     */
+    private void enumerateOpponents(int[] deck, int deckSize, int opponent, long fullBoard, long usedCards,
+            int heroValue, int bestValue, int noOfBest, Tally tally) {
+        if (opponent == noOfOpponents) {
+            tally.add(heroValue, bestValue, noOfBest);
+        } else {
+            for (int i = 0; i < deckSize; i++) {
+                long card1 = 1L << deck[i];
+                if ((usedCards & card1) == 0L) {
+                    for (int j = i + 1; j < deckSize; j++) {
+                        long card2 = 1L << deck[j];
+                        if ((usedCards & card2) == 0L) {
+                            int value = EVALUATOR.getValue(fullBoard | card1 | card2);
+                            if (value > bestValue) {
+                                enumerateOpponents(deck, deckSize, opponent + 1, fullBoard, usedCards | card1 | card2,
+                                        heroValue, value, 1, tally);
+                            } else if (value == bestValue) {
+                                enumerateOpponents(deck, deckSize, opponent + 1, fullBoard, usedCards | card1 | card2,
+                                        heroValue, bestValue, noOfBest + 1, tally);
+                            } else {
+                                enumerateOpponents(deck, deckSize, opponent + 1, fullBoard, usedCards | card1 | card2,
+                                        heroValue, bestValue, noOfBest, tally);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of combinations of k out of n.
+     *
+     * @param n
+     *            The number of elements.
+     * @param k
+     *            The number of elements to choose.
+     *
+     * @return The number of combinations.
+     */
+    private static double combinations(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0.0;
+        }
+        double result = 1.0;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+}
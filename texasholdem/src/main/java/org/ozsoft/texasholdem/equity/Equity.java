@@ -0,0 +1,170 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+/**
+ * The result of an equity calculation. <br />
+ * <br />
+ *
+ * The equity is the expected share of the pot, where a tie between
+ * <i>n</i> players counts as 1/<i>n</i>. <br />
+ * <br />
+ *
+ * An exact result (from enumerating all outcomes) has a standard error of 0.
+ *
+ * @author Oscar Stigter
+ */
+public class Equity {
+
+    /** The z-score of the 95% confidence interval. */
+    private static final double Z_95 = 1.96;
+
+    /** Whether all outcomes have been enumerated. */
+    private final boolean exact;
+
+    /** The number of trials (or enumerated outcomes). */
+    private final long noOfTrials;
+
+    /** The number of trials won. */
+    private final long wins;
+
+    /** The number of trials tied. */
+    private final long ties;
+
+    /** The number of trials lost. */
+    private final long losses;
+
+    /** The equity. */
+    private final double equity;
+
+    /** The standard error of the equity. */
+    private final double standardError;
+
+    /**
+     * Constructor.
+     *
+     * @param tally
+     *            The accumulated outcomes.
+     * @param exact
+     *            Whether all outcomes have been enumerated.
+     */
+    Equity(Tally tally, boolean exact) {
+        this.exact = exact;
+        noOfTrials = tally.noOfTrials;
+        wins = tally.wins;
+        ties = tally.ties;
+        losses = tally.losses;
+        if (noOfTrials > 0) {
+            equity = tally.equity / noOfTrials;
+            double variance = tally.equitySquared / noOfTrials - equity * equity;
+            standardError = (!exact && noOfTrials > 1) ? Math.sqrt(Math.max(variance, 0.0) / (noOfTrials - 1)) : 0.0;
+        } else {
+            equity = 0.0;
+            standardError = 0.0;
+        }
+    }
+
+    /**
+     * Returns whether all outcomes have been enumerated.
+     *
+     * @return True if the result is exact, otherwise false.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Returns the number of trials (or enumerated outcomes).
+     *
+     * @return The number of trials.
+     */
+    public long getNoOfTrials() {
+        return noOfTrials;
+    }
+
+    /**
+     * Returns the fraction of trials won.
+     *
+     * @return The fraction of trials won.
+     */
+    public double getWin() {
+        return (noOfTrials > 0) ? (double) wins / noOfTrials : 0.0;
+    }
+
+    /**
+     * Returns the fraction of trials tied.
+     *
+     * @return The fraction of trials tied.
+     */
+    public double getTie() {
+        return (noOfTrials > 0) ? (double) ties / noOfTrials : 0.0;
+    }
+
+    /**
+     * Returns the fraction of trials lost.
+     *
+     * @return The fraction of trials lost.
+     */
+    public double getLoss() {
+        return (noOfTrials > 0) ? (double) losses / noOfTrials : 0.0;
+    }
+
+    /**
+     * Returns the equity (expected share of the pot).
+     *
+     * @return The equity.
+     */
+    public double getEquity() {
+        return equity;
+    }
+
+    /**
+     * Returns the standard error of the equity.
+     *
+     * @return The standard error.
+     */
+    public double getStandardError() {
+        return standardError;
+    }
+
+    /**
+     * Returns the lower bound of the 95% confidence interval of the equity.
+     *
+     * @return The lower bound.
+     */
+    public double getLowerBound() {
+        return Math.max(equity - Z_95 * standardError, 0.0);
+    }
+
+    /**
+     * Returns the upper bound of the 95% confidence interval of the equity.
+     *
+     * @return The upper bound.
+     */
+    public double getUpperBound() {
+        return Math.min(equity + Z_95 * standardError, 1.0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("Equity %.4f (+/- %.4f), win %.4f, tie %.4f, loss %.4f (%d %s)",
+                equity, Z_95 * standardError, getWin(), getTie(), getLoss(), noOfTrials, exact ? "outcomes" : "trials");
+    }
+
+}
@@ -0,0 +1,356 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Calculates the equity of a player's hole cards against a number of
+ * opponents with random hole cards, or of a range against another range. <br />
+ * <br />
+ *
+ * The calculation either runs Monte Carlo rollouts of the remaining board and
+ * the opponents' hole cards, or enumerates all of them for an exact result.
+ * Both are split over all threads of a fork/join pool. The cards are handled
+ * in their primitive encoding (see {@link CardUtils}), so the rollouts do not
+ * allocate any objects. <br />
+ * <br />
+ *
+ * Instances are thread-safe.
+ *
+ * @author Oscar Stigter
+ */
+public class EquityCalculator {
+
+    /** The number of hole cards per player. */
+    private static final int NO_OF_HOLE_CARDS = 2;
+
+    /** The maximum number of community cards. */
+    private static final int MAX_NO_OF_BOARD_CARDS = 5;
+
+    /** The default maximum number of outcomes to enumerate. */
+    private static final long DEFAULT_MAX_NO_OF_OUTCOMES = 2000000L;
+
+    /** The fork/join pool. */
+    private final ForkJoinPool pool;
+
+    /** The maximum number of outcomes to enumerate before falling back to sampling. */
+    private final long maxNoOfOutcomes;
+
+    /**
+     * Constructor using the common fork/join pool.
+     */
+    public EquityCalculator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor using a specific fork/join pool.
+     *
+     * @param pool
+     *            The fork/join pool.
+     */
+    public EquityCalculator(ForkJoinPool pool) {
+        this(pool, DEFAULT_MAX_NO_OF_OUTCOMES);
+    }
+
+    /**
+     * Constructor using a specific fork/join pool and maximum number of
+     * outcomes to enumerate.
+     *
+     * @param pool
+     *            The fork/join pool.
+     * @param maxNoOfOutcomes
+     *            The maximum number of outcomes to enumerate before falling
+     *            back to sampling (also used as the number of trials).
+     */
+    public EquityCalculator(ForkJoinPool pool, long maxNoOfOutcomes) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Null pool");
+        }
+        if (maxNoOfOutcomes < 1) {
+            throw new IllegalArgumentException("maxNoOfOutcomes < 1");
+        }
+        this.pool = pool;
+        this.maxNoOfOutcomes = maxNoOfOutcomes;
+    }
+
+    /**
+     * Calculates the equity of hole cards on a board against a number of
+     * opponents with random hole cards.
+     *
+     * @param holeCards
+     *            The hole cards.
+     * @param board
+     *            The community cards (0 to 5).
+     * @param noOfOpponents
+     *            The number of opponents.
+     * @param noOfTrials
+     *            The number of trials.
+     *
+     * @return The equity.
+     */
+    public Equity calculate(Card[] holeCards, List<Card> board, int noOfOpponents, long noOfTrials) {
+        return calculate(CardUtils.toMask(holeCards), CardUtils.toMask(board), noOfOpponents, noOfTrials);
+    }
+
+    /**
+     * Calculates the equity of hole cards on a board against a number of
+     * opponents with random hole cards.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask).
+     * @param noOfOpponents
+     *            The number of opponents.
+     * @param noOfTrials
+     *            The number of trials.
+     *
+     * @return The equity.
+     */
+    public Equity calculate(long holeCards, long board, int noOfOpponents, long noOfTrials) {
+        return calculate(holeCards, board, 0L, noOfOpponents, noOfTrials, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Calculates the equity of hole cards on a board against a number of
+     * opponents with random hole cards, with known dead cards and a fixed
+     * seed. <br />
+     * <br />
+     *
+     * The same seed always gives the same result, regardless of the number of
+     * threads.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask).
+     * @param deadCards
+     *            Any other cards no longer in the deck (card mask).
+     * @param noOfOpponents
+     *            The number of opponents.
+     * @param noOfTrials
+     *            The number of trials.
+     * @param seed
+     *            The seed of the random number generator.
+     *
+     * @return The equity.
+     *
+     * @throws IllegalArgumentException
+     *             If the cards overlap, or the number of cards, opponents or
+     *             trials is invalid.
+     */
+    public Equity calculate(long holeCards, long board, long deadCards, int noOfOpponents, long noOfTrials, long seed) {
+        checkCards(holeCards, board, deadCards, noOfOpponents);
+        if (noOfTrials < 1) {
+            throw new IllegalArgumentException("noOfTrials < 1");
+        }
+        RolloutTask task = new RolloutTask(holeCards, board, deadCards, noOfOpponents, noOfTrials, new SplittableRandom(seed));
+        return new Equity(pool.invoke(task), false);
+    }
+
+    /**
+     * Calculates the exact equity of hole cards on a board against a number of
+     * opponents, by enumerating all remaining board runouts and all opponent
+     * hole cards. <br />
+     * <br />
+     *
+     * If the number of outcomes exceeds the configured maximum, the equity is
+     * estimated by sampling that many trials instead (see
+     * {@link Equity#isExact()}).
+     *
+     * @param holeCards
+     *            The hole cards.
+     * @param board
+     *            The community cards (0 to 5).
+     * @param noOfOpponents
+     *            The number of opponents.
+     *
+     * @return The equity.
+     */
+    public Equity enumerate(Card[] holeCards, List<Card> board, int noOfOpponents) {
+        return enumerate(CardUtils.toMask(holeCards), CardUtils.toMask(board), 0L, noOfOpponents);
+    }
+
+    /**
+     * Calculates the exact equity of hole cards on a board against a number of
+     * opponents, by enumerating all remaining board runouts and all opponent
+     * hole cards. <br />
+     * <br />
+     *
+     * If the number of outcomes exceeds the configured maximum, the equity is
+     * estimated by sampling that many trials instead (see
+     * {@link Equity#isExact()}).
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask).
+     * @param deadCards
+     *            Any other cards no longer in the deck (card mask).
+     * @param noOfOpponents
+     *            The number of opponents.
+     *
+     * @return The equity.
+     *
+     * @throws IllegalArgumentException
+     *             If the cards overlap, or the number of cards or opponents is
+     *             invalid.
+     */
+    public Equity enumerate(long holeCards, long board, long deadCards, int noOfOpponents) {
+        checkCards(holeCards, board, deadCards, noOfOpponents);
+        if (EnumerationTask.getNoOfOutcomes(holeCards, board, deadCards, noOfOpponents) > maxNoOfOutcomes) {
+            return calculate(holeCards, board, deadCards, noOfOpponents, maxNoOfOutcomes, ThreadLocalRandom.current().nextLong());
+        } else {
+            EnumerationTask task = new EnumerationTask(holeCards, board, deadCards, noOfOpponents, -1);
+            return new Equity(pool.invoke(task), true);
+        }
+    }
+
+    /**
+     * Calculates the equity of a range against another range on a board.
+     *
+     * @param hero
+     *            The hero's range.
+     * @param villain
+     *            The villain's range.
+     * @param board
+     *            The community cards (card mask).
+     * @param noOfTrials
+     *            The number of trials.
+     *
+     * @return The equity of the hero's range.
+     */
+    public Equity calculate(Range hero, Range villain, long board, long noOfTrials) {
+        return calculate(hero, villain, board, 0L, noOfTrials, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Calculates the equity of a range against another range on a board, with
+     * known dead cards and a fixed seed. <br />
+     * <br />
+     *
+     * Combinations are weighted by the product of their weights in both
+     * ranges. Combinations containing a board or dead card, and pairs of
+     * combinations sharing a card, are left out.
+     *
+     * @param hero
+     *            The hero's range.
+     * @param villain
+     *            The villain's range.
+     * @param board
+     *            The community cards (card mask).
+     * @param deadCards
+     *            Any other cards no longer in the deck (card mask).
+     * @param noOfTrials
+     *            The number of trials.
+     * @param seed
+     *            The seed of the random number generator.
+     *
+     * @return The equity of the hero's range.
+     *
+     * @throws IllegalArgumentException
+     *             If the cards overlap, the number of cards or trials is
+     *             invalid, or the ranges have no combinations left without
+     *             conflicting cards.
+     */
+    public Equity calculate(Range hero, Range villain, long board, long deadCards, long noOfTrials, long seed) {
+        if (hero == null || villain == null) {
+            throw new IllegalArgumentException("Null range");
+        }
+        if (Long.bitCount(board) > MAX_NO_OF_BOARD_CARDS) {
+            throw new IllegalArgumentException("Too many board cards");
+        }
+        if ((board & deadCards) != 0L) {
+            throw new IllegalArgumentException("Duplicate cards");
+        }
+        if (((board | deadCards) & ~CardUtils.FULL_DECK) != 0L) {
+            throw new IllegalArgumentException("Invalid card mask");
+        }
+        if (noOfTrials < 1) {
+            throw new IllegalArgumentException("noOfTrials < 1");
+        }
+        int noOfCardsNeeded = MAX_NO_OF_BOARD_CARDS - Long.bitCount(board) + 2 * NO_OF_HOLE_CARDS;
+        if (noOfCardsNeeded > CardUtils.NO_OF_CARDS - Long.bitCount(board | deadCards)) {
+            throw new IllegalArgumentException("Not enough cards left in deck");
+        }
+        long[] heroCombos = hero.getCombos(board | deadCards);
+        long[] villainCombos = villain.getCombos(board | deadCards);
+        boolean valid = false;
+        for (int i = 0; i < heroCombos.length && !valid; i++) {
+            for (int j = 0; j < villainCombos.length && !valid; j++) {
+                valid = (heroCombos[i] & villainCombos[j]) == 0L;
+            }
+        }
+        if (!valid) {
+            throw new IllegalArgumentException("No combinations without conflicting cards");
+        }
+        double[] heroWeights = RangeRolloutTask.getCumulativeWeights(hero, heroCombos);
+        double[] villainWeights = RangeRolloutTask.getCumulativeWeights(villain, villainCombos);
+        RangeRolloutTask task = new RangeRolloutTask(heroCombos, heroWeights, villainCombos, villainWeights, board,
+                deadCards, noOfTrials, new SplittableRandom(seed));
+        return new Equity(pool.invoke(task), false);
+    }
+
+    /**
+     * Validates the known cards and the number of opponents.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask).
+     * @param deadCards
+     *            Any other cards no longer in the deck (card mask).
+     * @param noOfOpponents
+     *            The number of opponents.
+     *
+     * @throws IllegalArgumentException
+     *             If the cards overlap, or the number of cards or opponents is
+     *             invalid.
+     */
+    static void checkCards(long holeCards, long board, long deadCards, int noOfOpponents) {
+        if (Long.bitCount(holeCards) != NO_OF_HOLE_CARDS) {
+            throw new IllegalArgumentException("Invalid number of hole cards");
+        }
+        if (Long.bitCount(board) > MAX_NO_OF_BOARD_CARDS) {
+            throw new IllegalArgumentException("Too many board cards");
+        }
+        if ((holeCards & board) != 0L || ((holeCards | board) & deadCards) != 0L) {
+            throw new IllegalArgumentException("Duplicate cards");
+        }
+        if (((holeCards | board | deadCards) & ~CardUtils.FULL_DECK) != 0L) {
+            throw new IllegalArgumentException("Invalid card mask");
+        }
+        if (noOfOpponents < 1) {
+            throw new IllegalArgumentException("noOfOpponents < 1");
+        }
+        int noOfLiveCards = CardUtils.NO_OF_CARDS - Long.bitCount(holeCards | board | deadCards);
+        int noOfCardsNeeded = MAX_NO_OF_BOARD_CARDS - Long.bitCount(board) + NO_OF_HOLE_CARDS * noOfOpponents;
+        if (noOfCardsNeeded > noOfLiveCards) {
+            throw new IllegalArgumentException("Not enough cards left in deck");
+        }
+    }
+
+}
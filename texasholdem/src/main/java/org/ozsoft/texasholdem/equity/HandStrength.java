@@ -0,0 +1,137 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+/**
+ * The result of a hand strength calculation (see
+ * {@link HandStrengthCalculator}). <br />
+ * <br />
+ *
+ * The hand strength (HS) is the probability that the hand is currently the
+ * best against one opponent with random hole cards, where a tie counts as
+ * half. The positive potential (PPOT) is the probability that a hand which is
+ * behind will be ahead after the next card, and the negative potential (NPOT)
+ * the probability that a hand which is ahead will fall behind. <br />
+ * <br />
+ *
+ * The effective hand strength (EHS) combines them into the probability of
+ * ending up with the best hand:
+ * <code>HS<sup>n</sup> * (1 - NPOT) + (1 - HS<sup>n</sup>) * PPOT</code>
+ * against <i>n</i> opponents.
+ *
+ * @author Oscar Stigter
+ */
+public class HandStrength {
+
+    /** The hand strength against one opponent. */
+    private final double handStrength;
+
+    /** The positive potential. */
+    private final double positivePotential;
+
+    /** The negative potential. */
+    private final double negativePotential;
+
+    /**
+     * Constructor.
+     *
+     * @param handStrength
+     *            The hand strength against one opponent.
+     * @param positivePotential
+     *            The positive potential.
+     * @param negativePotential
+     *            The negative potential.
+     */
+    HandStrength(double handStrength, double positivePotential, double negativePotential) {
+        this.handStrength = handStrength;
+        this.positivePotential = positivePotential;
+        this.negativePotential = negativePotential;
+    }
+
+    /**
+     * Returns the hand strength against one opponent.
+     *
+     * @return The hand strength.
+     */
+    public double getHandStrength() {
+        return handStrength;
+    }
+
+    /**
+     * Returns the hand strength against a number of opponents.
+     *
+     * @param noOfOpponents
+     *            The number of opponents.
+     *
+     * @return The hand strength.
+     */
+    public double getHandStrength(int noOfOpponents) {
+        if (noOfOpponents < 1) {
+            throw new IllegalArgumentException("Invalid number of opponents: " + noOfOpponents);
+        }
+        return Math.pow(handStrength, noOfOpponents);
+    }
+
+    /**
+     * Returns the positive potential.
+     *
+     * @return The positive potential.
+     */
+    public double getPositivePotential() {
+        return positivePotential;
+    }
+
+    /**
+     * Returns the negative potential.
+     *
+     * @return The negative potential.
+     */
+    public double getNegativePotential() {
+        return negativePotential;
+    }
+
+    /**
+     * Returns the effective hand strength against one opponent.
+     *
+     * @return The effective hand strength.
+     */
+    public double getEffectiveHandStrength() {
+        return getEffectiveHandStrength(1);
+    }
+
+    /**
+     * Returns the effective hand strength against a number of opponents.
+     *
+     * @param noOfOpponents
+     *            The number of opponents.
+     *
+     * @return The effective hand strength.
+     */
+    public double getEffectiveHandStrength(int noOfOpponents) {
+        double hs = getHandStrength(noOfOpponents);
+        return hs * (1.0 - negativePotential) + (1.0 - hs) * positivePotential;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("HS %.4f, PPOT %.4f, NPOT %.4f, EHS %.4f", handStrength, positivePotential,
+                negativePotential, getEffectiveHandStrength());
+    }
+
+}
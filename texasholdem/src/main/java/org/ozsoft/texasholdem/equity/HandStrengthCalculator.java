@@ -0,0 +1,293 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.List;
+
+import org.ozsoft.texasholdem.BatchEvaluator;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Calculates the hand strength and the hand potential of hole cards on a
+ * board (see {@link HandStrength}), as used by the "chance to win" and the
+ * potential Straights and Flushes of a bot. <br />
+ * <br />
+ *
+ * On the Flop and the Turn, all opponent hole cards are enumerated, and for
+ * the potential also each possible next card (one card lookahead). The hands
+ * are evaluated in batches against the common board, so a calculation takes
+ * about a millisecond. On the River there is no potential. Pre-Flop the
+ * hand strength is the precomputed equity against one opponent (see
+ * {@link PreflopEquity}), which already includes the potential of the board.
+ * <br />
+ * <br />
+ *
+ * Calculating does not allocate any objects besides the result. Instances
+ * keep scratch arrays and are therefore <b>not</b> thread-safe; use one
+ * instance per thread (or bot).
+ *
+ * @author Oscar Stigter
+ */
+public class HandStrengthCalculator {
+
+    /** The number of hole cards per player. */
+    private static final int NO_OF_HOLE_CARDS = 2;
+
+    /** The maximum number of community cards. */
+    private static final int MAX_NO_OF_BOARD_CARDS = 5;
+
+    /** The maximum number of opponent hole cards (47 choose 2). */
+    private static final int MAX_NO_OF_HANDS = 1081;
+
+    /** Outcome index: ahead of the opponent. */
+    private static final int AHEAD = 0;
+
+    /** Outcome index: tied with the opponent. */
+    private static final int TIED = 1;
+
+    /** Outcome index: behind the opponent. */
+    private static final int BEHIND = 2;
+
+    /** The hand evaluator. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /** The batch evaluator. */
+    private final BatchEvaluator batchEvaluator = new BatchEvaluator();
+
+    /** The live cards. */
+    private final int[] deck = new int[CardUtils.NO_OF_CARDS];
+
+    /** All opponent hole cards (card masks). */
+    private final long[] hands = new long[MAX_NO_OF_HANDS];
+
+    /** The current outcome per opponent hole cards. */
+    private final int[] outcomes = new int[MAX_NO_OF_HANDS];
+
+    /** The opponent hole cards possible with the next card. */
+    private final long[] nextHands = new long[MAX_NO_OF_HANDS];
+
+    /** The current outcome per opponent hole cards possible with the next card. */
+    private final int[] nextOutcomes = new int[MAX_NO_OF_HANDS];
+
+    /** The hand values of the opponents. */
+    private final int[] values = new int[MAX_NO_OF_HANDS];
+
+    /** The number of outcomes (current outcome * 3 + outcome after the next card). */
+    private final long[] potentials = new long[9];
+
+    /** The number of cards left in the deck. */
+    private int deckSize;
+
+    /** The number of opponent hands. */
+    private int noOfHands;
+
+    /**
+     * Calculates the hand strength and potential of hole cards on a board.
+     *
+     * @param holeCards
+     *            The hole cards.
+     * @param board
+     *            The community cards (0, 3, 4 or 5).
+     *
+     * @return The hand strength.
+     */
+    public HandStrength calculate(Card[] holeCards, List<Card> board) {
+        return calculate(CardUtils.toMask(holeCards), CardUtils.toMask(board));
+    }
+
+    /**
+     * Calculates the hand strength and potential of hole cards on a board.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask with 0, 3, 4 or 5 cards).
+     *
+     * @return The hand strength.
+     */
+    public HandStrength calculate(long holeCards, long board) {
+        int noOfBoardCards = validate(holeCards, board);
+        if (noOfBoardCards == 0) {
+            return new HandStrength(getPreflopHandStrength(holeCards), 0.0, 0.0);
+        }
+        double handStrength = calculateHandStrength(holeCards, board);
+        if (noOfBoardCards == MAX_NO_OF_BOARD_CARDS) {
+            return new HandStrength(handStrength, 0.0, 0.0);
+        }
+
+        // Hand potential with each possible next card.
+        for (int i = 0; i < potentials.length; i++) {
+            potentials[i] = 0L;
+        }
+        for (int i = 0; i < deckSize; i++) {
+            long card = 1L << deck[i];
+            long nextBoard = board | card;
+            int n = 0;
+            for (int k = 0; k < noOfHands; k++) {
+                if ((hands[k] & card) == 0L) {
+                    nextHands[n] = hands[k];
+                    nextOutcomes[n] = outcomes[k];
+                    n++;
+                }
+            }
+            int nextHeroValue = EVALUATOR.getValue(holeCards | nextBoard);
+            batchEvaluator.evaluate(nextBoard, nextHands, values, 0, n);
+            for (int k = 0; k < n; k++) {
+                potentials[nextOutcomes[k] * 3 + getOutcome(nextHeroValue, values[k])]++;
+            }
+        }
+        double totalBehind = potentials[BEHIND * 3 + AHEAD] + potentials[BEHIND * 3 + TIED]
+                + potentials[BEHIND * 3 + BEHIND];
+        double totalTied = potentials[TIED * 3 + AHEAD] + potentials[TIED * 3 + TIED] + potentials[TIED * 3 + BEHIND];
+        double totalAhead = potentials[AHEAD * 3 + AHEAD] + potentials[AHEAD * 3 + TIED]
+                + potentials[AHEAD * 3 + BEHIND];
+        double positive = potentials[BEHIND * 3 + AHEAD] + potentials[BEHIND * 3 + TIED] / 2.0
+                + potentials[TIED * 3 + AHEAD] / 2.0;
+        double negative = potentials[AHEAD * 3 + BEHIND] + potentials[TIED * 3 + BEHIND] / 2.0
+                + potentials[AHEAD * 3 + TIED] / 2.0;
+        double positiveTotal = totalBehind + totalTied / 2.0;
+        double negativeTotal = totalAhead + totalTied / 2.0;
+        double positivePotential = (positiveTotal > 0.0) ? positive / positiveTotal : 0.0;
+        double negativePotential = (negativeTotal > 0.0) ? negative / negativeTotal : 0.0;
+        return new HandStrength(handStrength, positivePotential, negativePotential);
+    }
+
+    /**
+     * Calculates only the current hand strength of hole cards on a board,
+     * which is much faster than {@link #calculate(long, long)} before the
+     * River.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask with 0, 3, 4 or 5 cards).
+     *
+     * @return The hand strength.
+     */
+    public double getHandStrength(long holeCards, long board) {
+        if (validate(holeCards, board) == 0) {
+            return getPreflopHandStrength(holeCards);
+        }
+        return calculateHandStrength(holeCards, board);
+    }
+
+    /**
+     * Validates hole cards and a board.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask).
+     *
+     * @return The number of board cards.
+     */
+    private static int validate(long holeCards, long board) {
+        if (Long.bitCount(holeCards) != NO_OF_HOLE_CARDS) {
+            throw new IllegalArgumentException("Invalid number of hole cards");
+        }
+        int noOfBoardCards = Long.bitCount(board);
+        if ((noOfBoardCards > 0 && noOfBoardCards < 3) || noOfBoardCards > MAX_NO_OF_BOARD_CARDS) {
+            throw new IllegalArgumentException("Invalid number of board cards: " + noOfBoardCards);
+        }
+        if ((holeCards & board) != 0L) {
+            throw new IllegalArgumentException("Hole cards on the board");
+        }
+        return noOfBoardCards;
+    }
+
+    /**
+     * Returns the Pre-Flop hand strength (the equity against one opponent).
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     *
+     * @return The hand strength.
+     */
+    private static double getPreflopHandStrength(long holeCards) {
+        int card1 = Long.numberOfTrailingZeros(holeCards);
+        int card2 = 63 - Long.numberOfLeadingZeros(holeCards);
+        return PreflopEquity.getEquity(card1, card2, 1);
+    }
+
+    /**
+     * Calculates the current hand strength after the Flop, enumerating the
+     * opponent hole cards and their outcomes for the hand potential.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask with 3, 4 or 5 cards).
+     *
+     * @return The hand strength.
+     */
+    private double calculateHandStrength(long holeCards, long board) {
+        // Enumerate the opponent hole cards.
+        deckSize = 0;
+        long knownCards = holeCards | board;
+        for (int card = 0; card < CardUtils.NO_OF_CARDS; card++) {
+            if ((knownCards & (1L << card)) == 0L) {
+                deck[deckSize++] = card;
+            }
+        }
+        noOfHands = 0;
+        for (int i = 0; i < deckSize; i++) {
+            for (int j = i + 1; j < deckSize; j++) {
+                hands[noOfHands++] = (1L << deck[i]) | (1L << deck[j]);
+            }
+        }
+
+        // Current hand strength.
+        int heroValue = EVALUATOR.getValue(holeCards | board);
+        batchEvaluator.evaluate(board, hands, values, 0, noOfHands);
+        long ahead = 0L;
+        long tied = 0L;
+        for (int k = 0; k < noOfHands; k++) {
+            int outcome = getOutcome(heroValue, values[k]);
+            outcomes[k] = outcome;
+            if (outcome == AHEAD) {
+                ahead++;
+            } else if (outcome == TIED) {
+                tied++;
+            }
+        }
+        return (ahead + tied / 2.0) / noOfHands;
+    }
+
+    /**
+     * Returns the outcome of the hero against an opponent.
+     *
+     * @param heroValue
+     *            The hand value of the hero.
+     * @param value
+     *            The hand value of the opponent.
+     *
+     * @return The outcome (ahead, tied or behind).
+     */
+    private static int getOutcome(int heroValue, int value) {
+        if (heroValue > value) {
+            return AHEAD;
+        } else if (heroValue == value) {
+            return TIED;
+        } else {
+            return BEHIND;
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Precomputed all-in equity of the 169 canonical starting hands against 1 to
+ * 9 opponents with random hole cards. <br />
+ * <br />
+ *
+ * The equities are loaded once from a small binary resource (see
+ * {@link PreflopEquityGenerator}), so each lookup is a single array access. <br />
+ * <br />
+ *
+ * The canonical hands are numbered on a 13 x 13 grid: pairs on the diagonal
+ * (<code>rank * 13 + rank</code>), suited hands above it
+ * (<code>high * 13 + low</code>) and offsuit hands below it
+ * (<code>low * 13 + high</code>). The resource file is only loaded on the
+ * first lookup, so the generator can use the other methods without it.
+ *
+ * @author Oscar Stigter
+ */
+public abstract class PreflopEquity {
+
+    /** The number of canonical starting hands. */
+    public static final int NO_OF_HANDS = Card.NO_OF_RANKS * Card.NO_OF_RANKS;
+
+    /** The maximum number of opponents. */
+    public static final int MAX_NO_OF_OPPONENTS = 9;
+
+    /** The path of the resource file on the classpath. */
+    static final String RESOURCE_PATH = "/data/preflop_equity.dat";
+
+    /** The magic number identifying the resource file ("PFEQ"). */
+    static final int MAGIC = 0x50464551;
+
+    /** The version of the resource file format. */
+    static final int VERSION = 1;
+
+    /** The fixed-point scale of the stored equities. */
+    static final double SCALE = 65535.0;
+
+    /**
+     * Returns the canonical hand index of two hole cards.
+     *
+     * @param card1
+     *            The first encoded card.
+     * @param card2
+     *            The second encoded card.
+     *
+     * @return The canonical hand index (0 to 168).
+     */
+    public static int getHandIndex(int card1, int card2) {
+        int rank1 = CardUtils.getRank(card1);
+        int rank2 = CardUtils.getRank(card2);
+        int high = Math.max(rank1, rank2);
+        int low = Math.min(rank1, rank2);
+        if (CardUtils.getSuit(card1) == CardUtils.getSuit(card2)) {
+            return high * Card.NO_OF_RANKS + low;
+        } else {
+            return low * Card.NO_OF_RANKS + high;
+        }
+    }
+
+    /**
+     * Returns the name of a canonical hand, e.g. "AKs", "AKo" or "AA".
+     *
+     * @param handIndex
+     *            The canonical hand index.
+     *
+     * @return The name.
+     */
+    public static String getHandName(int handIndex) {
+        int row = handIndex / Card.NO_OF_RANKS;
+        int column = handIndex % Card.NO_OF_RANKS;
+        int high = Math.max(row, column);
+        int low = Math.min(row, column);
+        String name = Card.RANK_SYMBOLS[high] + Card.RANK_SYMBOLS[low];
+        if (row > column) {
+            name += 's';
+        } else if (row < column) {
+            name += 'o';
+        }
+        return name;
+    }
+
+    /**
+     * Returns a representative set of hole cards of a canonical hand.
+     *
+     * @param handIndex
+     *            The canonical hand index.
+     *
+     * @return The hole cards (card mask).
+     */
+    public static long getHoleCards(int handIndex) {
+        int row = handIndex / Card.NO_OF_RANKS;
+        int column = handIndex % Card.NO_OF_RANKS;
+        int suit2 = (row > column) ? Card.SPADES : Card.HEARTS;
+        return CardUtils.getMask(CardUtils.getCard(row, Card.SPADES)) | CardUtils.getMask(CardUtils.getCard(column, suit2));
+    }
+
+    /**
+     * Returns the equity of a canonical hand.
+     *
+     * @param handIndex
+     *            The canonical hand index.
+     * @param noOfOpponents
+     *            The number of opponents (1 to 9).
+     *
+     * @return The equity.
+     */
+    public static double getEquity(int handIndex, int noOfOpponents) {
+        if (noOfOpponents < 1 || noOfOpponents > MAX_NO_OF_OPPONENTS) {
+            throw new IllegalArgumentException("Invalid number of opponents: " + noOfOpponents);
+        }
+        return Holder.EQUITIES[handIndex * MAX_NO_OF_OPPONENTS + noOfOpponents - 1];
+    }
+
+    /**
+     * Returns the equity of two hole cards.
+     *
+     * @param card1
+     *            The first encoded card.
+     * @param card2
+     *            The second encoded card.
+     * @param noOfOpponents
+     *            The number of opponents (1 to 9).
+     *
+     * @return The equity.
+     */
+    public static double getEquity(int card1, int card2, int noOfOpponents) {
+        return getEquity(getHandIndex(card1, card2), noOfOpponents);
+    }
+
+    /**
+     * Returns the equity of two hole cards.
+     *
+     * @param cards
+     *            The hole cards.
+     * @param noOfOpponents
+     *            The number of opponents (1 to 9).
+     *
+     * @return The equity.
+     */
+    public static double getEquity(Card[] cards, int noOfOpponents) {
+        if (cards.length != 2) {
+            throw new IllegalArgumentException("Invalid number of cards: " + cards.length);
+        }
+        return getEquity(cards[0].hashCode(), cards[1].hashCode(), noOfOpponents);
+    }
+
+    /**
+     * Loads the equities from the resource file.
+     *
+     * @return The equities.
+     *
+     * @throws IllegalStateException
+     *             If the resource file could not be found or read.
+     */
+    private static double[] load() {
+        InputStream is = PreflopEquity.class.getResourceAsStream(RESOURCE_PATH);
+        if (is == null) {
+            throw new IllegalStateException("Resource file not found: " + RESOURCE_PATH);
+        }
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(is));
+        try {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION || dis.readInt() != NO_OF_HANDS
+                    || dis.readInt() != MAX_NO_OF_OPPONENTS) {
+                throw new IllegalStateException("Invalid resource file: " + RESOURCE_PATH);
+            }
+            dis.readLong(); // Number of trials per equity.
+            double[] equities = new double[NO_OF_HANDS * MAX_NO_OF_OPPONENTS];
+            for (int i = 0; i < equities.length; i++) {
+                equities[i] = dis.readUnsignedShort() / SCALE;
+            }
+            return equities;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read resource file: " + RESOURCE_PATH, e);
+        } finally {
+            try {
+                dis.close();
+            } catch (IOException e) {
+                // Ignore.
+            }
+        }
+    }
+
+    /**
+     * Holder of the equities, loaded on first use.
+     */
+    private static class Holder {
+
+        /** The equities, indexed by hand and number of opponents. */
+        private static final double[] EQUITIES = load();
+
+    }
+
+}
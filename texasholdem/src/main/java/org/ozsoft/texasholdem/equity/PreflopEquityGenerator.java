@@ -0,0 +1,110 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Generator of the resource file with the precomputed Pre-Flop equities (see
+ * {@link PreflopEquity}). <br />
+ * <br />
+ *
+ * Usage: <code>PreflopEquityGenerator &lt;file&gt; [trials]</code> <br />
+ * <br />
+ *
+ * The file starts with a header (magic number, version, number of hands,
+ * maximum number of opponents and the number of trials per equity), followed
+ * by the equity of each hand against 1 to 9 opponents as unsigned 16-bit
+ * fixed-point numbers.
+ *
+ * @author Oscar Stigter
+ */
+public class PreflopEquityGenerator {
+
+    /** The default number of trials per equity. */
+    private static final long DEFAULT_NO_OF_TRIALS = 1000000L;
+
+    /** The seed of the random number generator. */
+    private static final long SEED = 0x5eedL;
+
+    /**
+     * Generates the equities and writes them to a stream.
+     *
+     * @param os
+     *            The output stream.
+     * @param noOfTrials
+     *            The number of trials per equity.
+     * @param verbose
+     *            Whether to print each hand's equities.
+     *
+     * @throws IOException
+     *             If the equities could not be written.
+     */
+    public static void generate(OutputStream os, long noOfTrials, boolean verbose) throws IOException {
+        EquityCalculator calculator = new EquityCalculator();
+        DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os));
+        dos.writeInt(PreflopEquity.MAGIC);
+        dos.writeInt(PreflopEquity.VERSION);
+        dos.writeInt(PreflopEquity.NO_OF_HANDS);
+        dos.writeInt(PreflopEquity.MAX_NO_OF_OPPONENTS);
+        dos.writeLong(noOfTrials);
+        for (int hand = 0; hand < PreflopEquity.NO_OF_HANDS; hand++) {
+            long holeCards = PreflopEquity.getHoleCards(hand);
+            StringBuilder sb = new StringBuilder(PreflopEquity.getHandName(hand));
+            for (int noOfOpponents = 1; noOfOpponents <= PreflopEquity.MAX_NO_OF_OPPONENTS; noOfOpponents++) {
+                long seed = SEED + hand * PreflopEquity.MAX_NO_OF_OPPONENTS + noOfOpponents;
+                double equity = calculator.calculate(holeCards, 0L, 0L, noOfOpponents, noOfTrials, seed).getEquity();
+                dos.writeShort((int) Math.round(equity * PreflopEquity.SCALE));
+                sb.append(String.format(" %.4f", equity));
+            }
+            if (verbose) {
+                System.out.println(sb);
+            }
+        }
+        dos.flush();
+    }
+
+    /**
+     * The application's entry point.
+     *
+     * @param args
+     *            The command line arguments: the output file and optionally
+     *            the number of trials per equity.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: PreflopEquityGenerator <file> [trials]");
+            System.exit(1);
+        }
+        long noOfTrials = (args.length > 1) ? Long.parseLong(args[1]) : DEFAULT_NO_OF_TRIALS;
+        OutputStream os = new FileOutputStream(args[0]);
+        try {
+            generate(os, noOfTrials, true);
+        } finally {
+            os.close();
+        }
+    }
+
+}
@@ -0,0 +1,426 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * A range of hole cards, with a weight per combination. <br />
+ * <br />
+ *
+ * Each of the 1326 combinations of two cards has a weight between 0.0 (not in
+ * the range) and 1.0 (always in the range). A combination is identified by its
+ * index, which only depends on the two encoded cards (see
+ * {@link #getIndex(int, int)}). <br />
+ * <br />
+ *
+ * A range can be parsed from the standard notation, a comma-separated list of:
+ * <ul>
+ * <li>pairs: "QQ", "QQ+" (Queens or better) or "QQ-99";</li>
+ * <li>non-pairs: "AK" (suited and offsuit), "AKs" (suited) or "AKo"
+ * (offsuit), each optionally followed by "+" (e.g. "ATs+" for ATs to AKs) or
+ * a range with the same high card (e.g. "KQo-K9o");</li>
+ * <li>specific combinations, e.g. "AsKs".</li>
+ * </ul>
+ * Each part may be followed by a weight, e.g. "AKo:0.5". Later parts override
+ * the weights of earlier ones.
+ *
+ * @author Oscar Stigter
+ */
+public class Range {
+
+    /** The number of combinations of hole cards. */
+    public static final int NO_OF_COMBOS = CardUtils.NO_OF_CARDS * (CardUtils.NO_OF_CARDS - 1) / 2;
+
+    /** The card mask per combination index. */
+    private static final long[] COMBOS = new long[NO_OF_COMBOS];
+
+    /** The weight per combination index. */
+    private final double[] weights = new double[NO_OF_COMBOS];
+
+    static {
+        for (int card1 = 1; card1 < CardUtils.NO_OF_CARDS; card1++) {
+            for (int card2 = 0; card2 < card1; card2++) {
+                COMBOS[getIndex(card1, card2)] = (1L << card1) | (1L << card2);
+            }
+        }
+    }
+
+    /**
+     * Constructor for an empty range.
+     */
+    public Range() {
+        // Empty implementation.
+    }
+
+    /**
+     * Parses a range from the standard notation.
+     *
+     * @param s
+     *            The range, e.g. "QQ+, AKs, AKo:0.5".
+     *
+     * @return The range.
+     *
+     * @throws IllegalArgumentException
+     *             If the range could not be parsed.
+     */
+    public static Range parse(String s) {
+        if (s == null) {
+            throw new IllegalArgumentException("Null string");
+        }
+        Range range = new Range();
+        for (String part : s.split(",")) {
+            part = part.trim();
+            if (part.length() > 0) {
+                range.parsePart(part);
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Returns the combination index of two different cards.
+     *
+     * @param card1
+     *            The first encoded card.
+     * @param card2
+     *            The second encoded card.
+     *
+     * @return The combination index (0 to 1325).
+     */
+    public static int getIndex(int card1, int card2) {
+        int high = Math.max(card1, card2);
+        int low = Math.min(card1, card2);
+        return high * (high - 1) / 2 + low;
+    }
+
+    /**
+     * Returns the combination index of hole cards.
+     *
+     * @param holeCards
+     *            The hole cards (card mask with 2 cards).
+     *
+     * @return The combination index (0 to 1325).
+     *
+     * @throws IllegalArgumentException
+     *             If the mask does not have exactly 2 valid cards.
+     */
+    public static int getIndex(long holeCards) {
+        if (Long.bitCount(holeCards) != 2 || (holeCards & ~CardUtils.FULL_DECK) != 0L) {
+            throw new IllegalArgumentException("Invalid hole cards");
+        }
+        return getIndex(Long.numberOfTrailingZeros(holeCards), 63 - Long.numberOfLeadingZeros(holeCards));
+    }
+
+    /**
+     * Returns the hole cards of a combination index.
+     *
+     * @param index
+     *            The combination index.
+     *
+     * @return The hole cards (card mask).
+     */
+    public static long getCombo(int index) {
+        return COMBOS[index];
+    }
+
+    /**
+     * Returns the weight of a combination.
+     *
+     * @param index
+     *            The combination index.
+     *
+     * @return The weight.
+     */
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Returns the weight of hole cards.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     *
+     * @return The weight.
+     */
+    public double getWeight(long holeCards) {
+        return weights[getIndex(holeCards)];
+    }
+
+    /**
+     * Sets the weight of a combination.
+     *
+     * @param index
+     *            The combination index.
+     * @param weight
+     *            The weight (0.0 to 1.0).
+     *
+     * @throws IllegalArgumentException
+     *             If the weight is invalid.
+     */
+    public void setWeight(int index, double weight) {
+        if (!(weight >= 0.0 && weight <= 1.0)) {
+            throw new IllegalArgumentException("Invalid weight: " + weight);
+        }
+        weights[index] = weight;
+    }
+
+    /**
+     * Sets the weight of hole cards.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param weight
+     *            The weight (0.0 to 1.0).
+     *
+     * @throws IllegalArgumentException
+     *             If the hole cards or the weight are invalid.
+     */
+    public void setWeight(long holeCards, double weight) {
+        setWeight(getIndex(holeCards), weight);
+    }
+
+    /**
+     * Returns the number of combinations in this range (with a weight above
+     * 0).
+     *
+     * @return The number of combinations.
+     */
+    public int size() {
+        int size = 0;
+        for (double weight : weights) {
+            if (weight > 0.0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the sum of the weights of all combinations.
+     *
+     * @return The total weight.
+     */
+    public double getTotalWeight() {
+        double totalWeight = 0.0;
+        for (double weight : weights) {
+            totalWeight += weight;
+        }
+        return totalWeight;
+    }
+
+    /**
+     * Returns the combinations of this range not containing any of the given
+     * cards.
+     *
+     * @param deadCards
+     *            The cards to exclude (card mask).
+     *
+     * @return The combinations (card masks).
+     */
+    long[] getCombos(long deadCards) {
+        long[] combos = new long[NO_OF_COMBOS];
+        int count = 0;
+        for (int i = 0; i < NO_OF_COMBOS; i++) {
+            if (weights[i] > 0.0 && (COMBOS[i] & deadCards) == 0L) {
+                combos[count++] = COMBOS[i];
+            }
+        }
+        long[] result = new long[count];
+        System.arraycopy(combos, 0, result, 0, count);
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = NO_OF_COMBOS - 1; i >= 0; i--) {
+            if (weights[i] > 0.0) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(CardUtils.maskToString(COMBOS[i]).replace(" ", ""));
+                if (weights[i] < 1.0) {
+                    sb.append(':').append(weights[i]);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses a single part of a range and sets the weights of its
+     * combinations.
+     *
+     * @param part
+     *            The part, e.g. "ATs+:0.5".
+     */
+    private void parsePart(String part) {
+        double weight = 1.0;
+        int p = part.indexOf(':');
+        if (p != -1) {
+            try {
+                weight = Double.parseDouble(part.substring(p + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight: " + part);
+            }
+            part = part.substring(0, p).trim();
+        }
+        if (!(weight >= 0.0 && weight <= 1.0)) {
+            throw new IllegalArgumentException("Invalid weight: " + part);
+        }
+
+        // Specific combination, e.g. "AsKs".
+        if (part.length() == 4 && Character.isLowerCase(part.charAt(1))) {
+            int card1 = CardUtils.parseCard(part.substring(0, 2));
+            int card2 = CardUtils.parseCard(part.substring(2, 4));
+            if (card1 == card2) {
+                throw new IllegalArgumentException("Duplicate card: " + part);
+            }
+            weights[getIndex(card1, card2)] = weight;
+            return;
+        }
+
+        String first = part;
+        String last = null;
+        boolean plus = false;
+        p = part.indexOf('-');
+        if (p != -1) {
+            first = part.substring(0, p).trim();
+            last = part.substring(p + 1).trim();
+        } else if (part.endsWith("+")) {
+            first = part.substring(0, part.length() - 1);
+            plus = true;
+        }
+        int high = parseRank(first, 0);
+        int low = parseRank(first, 1);
+        int type = parseType(first);
+        if (high < low) {
+            int rank = high;
+            high = low;
+            low = rank;
+        }
+        if (high == low && type != 0) {
+            throw new IllegalArgumentException("Invalid range: " + part);
+        }
+
+        if (last != null) {
+            int lastHigh = parseRank(last, 0);
+            int lastLow = parseRank(last, 1);
+            if (parseType(last) != type || (high == low) != (lastHigh == lastLow)
+                    || (high != low && (lastHigh != high || lastLow >= high))) {
+                throw new IllegalArgumentException("Invalid range: " + part);
+            }
+            int min = Math.min(low, lastLow);
+            int max = Math.max(low, lastLow);
+            for (int rank = min; rank <= max; rank++) {
+                if (high == low) {
+                    setWeights(rank, rank, type, weight);
+                } else {
+                    setWeights(high, rank, type, weight);
+                }
+            }
+        } else if (plus) {
+            if (high == low) {
+                for (int rank = low; rank <= Card.ACE; rank++) {
+                    setWeights(rank, rank, type, weight);
+                }
+            } else {
+                for (int rank = low; rank < high; rank++) {
+                    setWeights(high, rank, type, weight);
+                }
+            }
+        } else {
+            setWeights(high, low, type, weight);
+        }
+    }
+
+    /**
+     * Sets the weights of all combinations of two ranks.
+     *
+     * @param high
+     *            The first rank.
+     * @param low
+     *            The second rank.
+     * @param type
+     *            1 for suited, -1 for offsuit or 0 for both.
+     * @param weight
+     *            The weight.
+     */
+    private void setWeights(int high, int low, int type, double weight) {
+        for (int suit1 = 0; suit1 < Card.NO_OF_SUITS; suit1++) {
+            for (int suit2 = 0; suit2 < Card.NO_OF_SUITS; suit2++) {
+                boolean suited = (suit1 == suit2);
+                if ((type == 0 || suited == (type > 0)) && !(high == low && suited)) {
+                    int card1 = CardUtils.getCard(high, suit1);
+                    int card2 = CardUtils.getCard(low, suit2);
+                    weights[getIndex(card1, card2)] = weight;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a rank symbol of a hand, e.g. "AKs".
+     *
+     * @param s
+     *            The hand.
+     * @param index
+     *            The index of the rank symbol (0 or 1).
+     *
+     * @return The rank.
+     */
+    private static int parseRank(String s, int index) {
+        if (s.length() < 2 || s.length() > 3) {
+            throw new IllegalArgumentException("Invalid hand: " + s);
+        }
+        String symbol = s.substring(index, index + 1).toUpperCase();
+        for (int rank = 0; rank < Card.NO_OF_RANKS; rank++) {
+            if (Card.RANK_SYMBOLS[rank].equals(symbol)) {
+                return rank;
+            }
+        }
+        throw new IllegalArgumentException("Invalid rank: " + s);
+    }
+
+    /**
+     * Parses the suitedness of a hand, e.g. "AKs".
+     *
+     * @param s
+     *            The hand.
+     *
+     * @return 1 for suited, -1 for offsuit or 0 for both.
+     */
+    private static int parseType(String s) {
+        if (s.length() == 2) {
+            return 0;
+        }
+        char c = s.charAt(2);
+        if (c == 's') {
+            return 1;
+        } else if (c == 'o') {
+            return -1;
+        } else {
+            throw new IllegalArgumentException("Invalid hand: " + s);
+        }
+    }
+
+}
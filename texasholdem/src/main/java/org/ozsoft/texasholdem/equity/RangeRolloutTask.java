@@ -0,0 +1,197 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.MaskDeck;
+
+/**
+ * Fork/join task running a number of Monte Carlo rollouts of a range against
+ * another range. <br />
+ * <br />
+ *
+ * Each trial draws a combination from both ranges in proportion to their
+ * weights, rejecting pairs of combinations that share a card, followed by a
+ * random board runout. The combinations are drawn with a binary search on the
+ * cumulative weights. Large tasks are split in half like {@link RolloutTask}.
+ *
+ * @author Oscar Stigter
+ */
+class RangeRolloutTask extends RecursiveTask<Tally> {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The maximum number of trials run without splitting the task. */
+    private static final int THRESHOLD = 4096;
+
+    /** The number of cards on a complete board. */
+    private static final int NO_OF_BOARD_CARDS = 5;
+
+    /** The hand evaluator. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /** The hero's combinations (card masks). */
+    private final long[] heroCombos;
+
+    /** The cumulative weights of the hero's combinations. */
+    private final double[] heroWeights;
+
+    /** The villain's combinations (card masks). */
+    private final long[] villainCombos;
+
+    /** The cumulative weights of the villain's combinations. */
+    private final double[] villainWeights;
+
+    /** The known community cards (card mask). */
+    private final long board;
+
+    /** Any other known cards no longer in the deck (card mask). */
+    private final long deadCards;
+
+    /** The number of trials to run. */
+    private final long noOfTrials;
+
+    /** The random number generator. */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor.
+     *
+     * @param heroCombos
+     *            The hero's combinations (card masks).
+     * @param heroWeights
+     *            The cumulative weights of the hero's combinations.
+     * @param villainCombos
+     *            The villain's combinations (card masks).
+     * @param villainWeights
+     *            The cumulative weights of the villain's combinations.
+     * @param board
+     *            The known community cards (card mask).
+     * @param deadCards
+     *            Any other known cards no longer in the deck (card mask).
+     * @param noOfTrials
+     *            The number of trials to run.
+     * @param random
+     *            The random number generator.
+     */
+    RangeRolloutTask(long[] heroCombos, double[] heroWeights, long[] villainCombos, double[] villainWeights, long board,
+            long deadCards, long noOfTrials, SplittableRandom random) {
+        this.heroCombos = heroCombos;
+        this.heroWeights = heroWeights;
+        this.villainCombos = villainCombos;
+        this.villainWeights = villainWeights;
+        this.board = board;
+        this.deadCards = deadCards;
+        this.noOfTrials = noOfTrials;
+        this.random = random;
+    }
+
+    /**
+     * Returns the cumulative weights of combinations of a range.
+     *
+     * @param range
+     *            The range.
+     * @param combos
+     *            The combinations (card masks).
+     *
+     * @return The cumulative weights.
+     */
+    static double[] getCumulativeWeights(Range range, long[] combos) {
+        double[] weights = new double[combos.length];
+        double total = 0.0;
+        for (int i = 0; i < combos.length; i++) {
+            total += range.getWeight(combos[i]);
+            weights[i] = total;
+        }
+        return weights;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Tally compute() {
+        if (noOfTrials > THRESHOLD) {
+            long half = noOfTrials / 2;
+            RangeRolloutTask left = new RangeRolloutTask(heroCombos, heroWeights, villainCombos, villainWeights, board,
+                    deadCards, half, random.split());
+            RangeRolloutTask right = new RangeRolloutTask(heroCombos, heroWeights, villainCombos, villainWeights, board,
+                    deadCards, noOfTrials - half, random);
+            left.fork();
+            return right.compute().add(left.join());
+        } else {
+            return rollout();
+        }
+    }
+
+    /**
+     * Runs the trials of this task.
+     *
+     * @return The outcomes.
+     */
+    private Tally rollout() {
+        MaskDeck deck = new MaskDeck(random);
+        long knownCards = board | deadCards;
+        int noOfBoardCards = NO_OF_BOARD_CARDS - Long.bitCount(board);
+
+        Tally tally = new Tally();
+        for (long trial = 0; trial < noOfTrials; trial++) {
+            // Draw a pair of combinations without conflicting cards.
+            long heroCards;
+            long villainCards;
+            do {
+                heroCards = heroCombos[draw(heroWeights)];
+                villainCards = villainCombos[draw(villainWeights)];
+            } while ((heroCards & villainCards) != 0L);
+
+            // Deal the rest of the board from the cards not in use.
+            deck.reset(knownCards | heroCards | villainCards);
+            long fullBoard = board | deck.deal(noOfBoardCards);
+            int heroValue = EVALUATOR.getValue(heroCards | fullBoard);
+            int villainValue = EVALUATOR.getValue(villainCards | fullBoard);
+            tally.add(heroValue, villainValue, 1);
+        }
+        return tally;
+    }
+
+    /**
+     * Draws a random combination in proportion to its weight.
+     *
+     * @param weights
+     *            The cumulative weights.
+     *
+     * @return The index of the combination.
+     */
+    private int draw(double[] weights) {
+        double r = random.nextDouble() * weights[weights.length - 1];
+        int low = 0;
+        int high = weights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (weights[mid] > r) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,156 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Fork/join task running a number of Monte Carlo rollouts. <br />
+ * <br />
+ *
+ * Large tasks are split in half, each half with its own random number
+ * generator, so the result only depends on the seed and not on the number of
+ * threads. Each leaf task uses its own deck buffer and does not allocate
+ * anything per trial.
+ *
+ * @author Oscar Stigter
+ */
+class RolloutTask extends RecursiveTask<Tally> {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The maximum number of trials run without splitting the task. */
+    private static final int THRESHOLD = 4096;
+
+    /** The number of cards on a complete board. */
+    private static final int NO_OF_BOARD_CARDS = 5;
+
+    /** The hand evaluator. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /** The hero's hole cards (card mask). */
+    private final long holeCards;
+
+    /** The known community cards (card mask). */
+    private final long board;
+
+    /** Any other known cards no longer in the deck (card mask). */
+    private final long deadCards;
+
+    /** The number of opponents. */
+    private final int noOfOpponents;
+
+    /** The number of trials to run. */
+    private final long noOfTrials;
+
+    /** The random number generator. */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor.
+     *
+     * @param holeCards
+     *            The hero's hole cards (card mask).
+     * @param board
+     *            The known community cards (card mask).
+     * @param deadCards
+     *            Any other known cards no longer in the deck (card mask).
+     * @param noOfOpponents
+     *            The number of opponents.
+     * @param noOfTrials
+     *            The number of trials to run.
+     * @param random
+     *            The random number generator.
+     */
+    RolloutTask(long holeCards, long board, long deadCards, int noOfOpponents, long noOfTrials, SplittableRandom random) {
+        this.holeCards = holeCards;
+        this.board = board;
+        this.deadCards = deadCards;
+        this.noOfOpponents = noOfOpponents;
+        this.noOfTrials = noOfTrials;
+        this.random = random;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Tally compute() {
+        if (noOfTrials > THRESHOLD) {
+            long half = noOfTrials / 2;
+            RolloutTask left = new RolloutTask(holeCards, board, deadCards, noOfOpponents, half, random.split());
+            RolloutTask right = new RolloutTask(holeCards, board, deadCards, noOfOpponents, noOfTrials - half, random);
+            left.fork();
+            return right.compute().add(left.join());
+        } else {
+            return rollout();
+        }
+    }
+
+    /**
+     * Runs the trials of this task.
+     *
+     * @return The outcomes.
+     */
+    private Tally rollout() {
+        // Fill the deck with the live cards.
+        int[] deck = new int[CardUtils.NO_OF_CARDS];
+        int deckSize = 0;
+        long knownCards = holeCards | board | deadCards;
+        for (int card = 0; card < CardUtils.NO_OF_CARDS; card++) {
+            if ((knownCards & (1L << card)) == 0L) {
+                deck[deckSize++] = card;
+            }
+        }
+        int noOfBoardCards = NO_OF_BOARD_CARDS - Long.bitCount(board);
+        int noOfCards = noOfBoardCards + 2 * noOfOpponents;
+
+        Tally tally = new Tally();
+        for (long trial = 0; trial < noOfTrials; trial++) {
+            // Deal only the cards needed (partial Fisher-Yates shuffle).
+            for (int i = 0; i < noOfCards; i++) {
+                int j = i + random.nextInt(deckSize - i);
+                int card = deck[j];
+                deck[j] = deck[i];
+                deck[i] = card;
+            }
+            long fullBoard = board;
+            for (int i = 0; i < noOfBoardCards; i++) {
+                fullBoard |= 1L << deck[i];
+            }
+            int heroValue = EVALUATOR.getValue(holeCards | fullBoard);
+            int bestValue = -1;
+            int noOfBest = 0;
+            for (int i = noOfBoardCards; i < noOfCards; i += 2) {
+                int value = EVALUATOR.getValue(fullBoard | (1L << deck[i]) | (1L << deck[i + 1]));
+                if (value > bestValue) {
+                    bestValue = value;
+                    noOfBest = 1;
+                } else if (value == bestValue) {
+                    noOfBest++;
+                }
+            }
+            tally.add(heroValue, bestValue, noOfBest);
+        }
+        return tally;
+    }
+
+}
@@ -0,0 +1,89 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+/**
+ * Mutable accumulator of showdown outcomes, owned by a single task.
+ *
+ * @author Oscar Stigter
+ */
+class Tally {
+
+    /** The number of trials. */
+    long noOfTrials;
+
+    /** The number of trials won. */
+    long wins;
+
+    /** The number of trials tied. */
+    long ties;
+
+    /** The number of trials lost. */
+    long losses;
+
+    /** The sum of the equity per trial. */
+    double equity;
+
+    /** The sum of the squared equity per trial. */
+    double equitySquared;
+
+    /**
+     * Adds the outcome of a single showdown.
+     *
+     * @param heroValue
+     *            The hand value of the hero.
+     * @param bestValue
+     *            The best hand value of the opponents.
+     * @param noOfBest
+     *            The number of opponents with the best hand value.
+     */
+    void add(int heroValue, int bestValue, int noOfBest) {
+        noOfTrials++;
+        if (heroValue > bestValue) {
+            wins++;
+            equity += 1.0;
+            equitySquared += 1.0;
+        } else if (heroValue == bestValue) {
+            ties++;
+            double share = 1.0 / (noOfBest + 1);
+            equity += share;
+            equitySquared += share * share;
+        } else {
+            losses++;
+        }
+    }
+
+    /**
+     * Adds the outcomes of another tally.
+     *
+     * @param tally
+     *            The other tally.
+     *
+     * @return This tally.
+     */
+    Tally add(Tally tally) {
+        noOfTrials += tally.noOfTrials;
+        wins += tally.wins;
+        ties += tally.ties;
+        losses += tally.losses;
+        equity += tally.equity;
+        equitySquared += tally.equitySquared;
+        return this;
+    }
+
+}
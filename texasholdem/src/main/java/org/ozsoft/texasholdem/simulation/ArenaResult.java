@@ -0,0 +1,219 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.simulation;
+
+/**
+ * The result of a heads-up duplicate match between two bots, from the
+ * perspective of the first bot. <br />
+ * <br />
+ * 
+ * Each duplicate hand is played twice with the same cards and the seats
+ * swapped; its result is the average of both. The win rate is reported in big
+ * blinds per 100 hands, with the standard error over all duplicate hands.
+ * 
+ * @author Oscar Stigter
+ */
+public class ArenaResult {
+    
+    /** The z-score of the 95% confidence interval. */
+    private static final double Z_95 = 1.96;
+    
+    /** The name of the first bot. */
+    private final String name1;
+    
+    /** The name of the second bot. */
+    private final String name2;
+    
+    /** The size of the big blind. */
+    private final int bigBlind;
+    
+    /** The number of matches played. */
+    private long noOfMatches;
+    
+    /** The number of matches won by the first bot. */
+    private long matchesWon;
+    
+    /** The number of matches lost by the first bot. */
+    private long matchesLost;
+    
+    /** The number of duplicate hands played. */
+    private long noOfHands;
+    
+    /** The sum of the chips won per duplicate hand (times 2). */
+    private long chipsWon;
+    
+    /** The sum of the squared chips won per duplicate hand (times 4). */
+    private double chipsWonSquared;
+    
+    /**
+     * Constructor for an empty result.
+     * 
+     * @param name1
+     *            The name of the first bot.
+     * @param name2
+     *            The name of the second bot.
+     * @param bigBlind
+     *            The size of the big blind.
+     */
+    ArenaResult(String name1, String name2, int bigBlind) {
+        this.name1 = name1;
+        this.name2 = name2;
+        this.bigBlind = bigBlind;
+    }
+    
+    /**
+     * Adds the result of a duplicate hand.
+     * 
+     * @param chipsWon
+     *            The chips won by the first bot at both tables together.
+     */
+    void addHand(long chipsWon) {
+        noOfHands++;
+        this.chipsWon += chipsWon;
+        chipsWonSquared += (double) chipsWon * chipsWon;
+    }
+    
+    /**
+     * Adds the result of a match.
+     * 
+     * @param chipsWon
+     *            The chips won by the first bot during the match.
+     */
+    void addMatch(long chipsWon) {
+        noOfMatches++;
+        if (chipsWon > 0) {
+            matchesWon++;
+        } else if (chipsWon < 0) {
+            matchesLost++;
+        }
+    }
+    
+    /**
+     * Adds another result.
+     * 
+     * @param result
+     *            The other result.
+     * 
+     * @return This result.
+     */
+    ArenaResult add(ArenaResult result) {
+        noOfMatches += result.noOfMatches;
+        matchesWon += result.matchesWon;
+        matchesLost += result.matchesLost;
+        noOfHands += result.noOfHands;
+        chipsWon += result.chipsWon;
+        chipsWonSquared += result.chipsWonSquared;
+        return this;
+    }
+    
+    /**
+     * Returns the name of the first bot.
+     * 
+     * @return The name.
+     */
+    public String getName1() {
+        return name1;
+    }
+    
+    /**
+     * Returns the name of the second bot.
+     * 
+     * @return The name.
+     */
+    public String getName2() {
+        return name2;
+    }
+    
+    /**
+     * Returns the number of matches played.
+     * 
+     * @return The number of matches.
+     */
+    public long getNoOfMatches() {
+        return noOfMatches;
+    }
+    
+    /**
+     * Returns the number of matches won by the first bot.
+     * 
+     * @return The number of matches won.
+     */
+    public long getMatchesWon() {
+        return matchesWon;
+    }
+    
+    /**
+     * Returns the number of matches lost by the first bot.
+     * 
+     * @return The number of matches lost.
+     */
+    public long getMatchesLost() {
+        return matchesLost;
+    }
+    
+    /**
+     * Returns the number of duplicate hands played (each hand is played twice).
+     * 
+     * @return The number of duplicate hands.
+     */
+    public long getNoOfHands() {
+        return noOfHands;
+    }
+    
+    /**
+     * Returns the average chips won by the first bot per hand.
+     * 
+     * @return The average chips won per hand.
+     */
+    public double getChipsWonPerHand() {
+        return (noOfHands > 0) ? chipsWon / 2.0 / noOfHands : 0.0;
+    }
+    
+    /**
+     * Returns the win rate of the first bot in big blinds per 100 hands.
+     * 
+     * @return The win rate in bb/100.
+     */
+    public double getBigBlindsPer100() {
+        return 100.0 * getChipsWonPerHand() / bigBlind;
+    }
+    
+    /**
+     * Returns the standard error of the win rate, in big blinds per 100
+     * hands.
+     * 
+     * @return The standard error in bb/100.
+     */
+    public double getStandardError() {
+        if (noOfHands < 2) {
+            return 0.0;
+        }
+        double mean = chipsWon / 2.0 / noOfHands;
+        double variance = (chipsWonSquared / 4.0 - noOfHands * mean * mean) / (noOfHands - 1);
+        return 100.0 * Math.sqrt(Math.max(variance, 0.0) / noOfHands) / bigBlind;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return String.format("%s vs %s: %.2f bb/100 (+/- %.2f), %d duplicate hands, matches won %d, lost %d of %d",
+                name1, name2, getBigBlindsPer100(), Z_95 * getStandardError(), noOfHands, matchesWon, matchesLost,
+                noOfMatches);
+    }
+    
+}
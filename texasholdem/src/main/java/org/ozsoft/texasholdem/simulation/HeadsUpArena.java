@@ -0,0 +1,191 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.ozsoft.texasholdem.TableType;
+
+/**
+ * Heads-up arena playing two bots against each other with duplicate
+ * dealing. <br />
+ * <br />
+ * 
+ * Each match is played at two tables with the same seeded deck, with the seats
+ * swapped at the second table. Both bots therefore get exactly the same cards
+ * and positions, which cancels out most of the luck: the number of hands
+ * needed for a meaningful result is typically an order of magnitude lower than
+ * without duplicate dealing. <br />
+ * <br />
+ * 
+ * The matches are played in parallel on a fork/join pool. As with the
+ * {@link MultiTableRunner}, each player starts each hand with the same stack.
+ * Bots must not use their own source of randomness for the duplicate
+ * dealing to be fully effective, but are still compared fairly if they do.
+ * 
+ * @author Oscar Stigter
+ */
+public class HeadsUpArena {
+    
+    /** The default stack size, in big blinds. */
+    private static final int DEFAULT_STACK = 100;
+    
+    /** The fork/join pool. */
+    private final ForkJoinPool pool;
+    
+    /** The table type. */
+    private final TableType tableType;
+    
+    /** The size of the big blind. */
+    private final int bigBlind;
+    
+    /** The stack each player starts each hand with. */
+    private final int stack;
+    
+    /** The name of the first bot. */
+    private String name1;
+    
+    /** The name of the second bot. */
+    private String name2;
+    
+    /**
+     * Constructor using the common fork/join pool and a stack of 100 big
+     * blinds.
+     * 
+     * @param tableType
+     *            The table type.
+     * @param bigBlind
+     *            The size of the big blind.
+     */
+    public HeadsUpArena(TableType tableType, int bigBlind) {
+        this(ForkJoinPool.commonPool(), tableType, bigBlind, DEFAULT_STACK * bigBlind);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param pool
+     *            The fork/join pool.
+     * @param tableType
+     *            The table type.
+     * @param bigBlind
+     *            The size of the big blind.
+     * @param stack
+     *            The stack each player starts each hand with.
+     */
+    public HeadsUpArena(ForkJoinPool pool, TableType tableType, int bigBlind, int stack) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Null pool");
+        }
+        if (tableType == null) {
+            throw new IllegalArgumentException("Null table type");
+        }
+        if (bigBlind < 2) {
+            throw new IllegalArgumentException("Invalid big blind");
+        }
+        if (stack < bigBlind) {
+            throw new IllegalArgumentException("Stack smaller than big blind");
+        }
+        this.pool = pool;
+        this.tableType = tableType;
+        this.bigBlind = bigBlind;
+        this.stack = stack;
+    }
+    
+    /**
+     * Plays a number of duplicate matches between two bots.
+     * 
+     * @param name1
+     *            The name of the first bot.
+     * @param factory1
+     *            The factory of the first bot.
+     * @param name2
+     *            The name of the second bot.
+     * @param factory2
+     *            The factory of the second bot.
+     * @param noOfMatches
+     *            The number of matches.
+     * @param noOfHands
+     *            The number of duplicate hands per match.
+     * @param seed
+     *            The seed of the random number generators of the decks.
+     * 
+     * @return The result, from the perspective of the first bot.
+     */
+    public synchronized ArenaResult run(String name1, BotFactory factory1, String name2, BotFactory factory2,
+            int noOfMatches, int noOfHands, long seed) {
+        if (name1 == null || name2 == null || factory1 == null || factory2 == null) {
+            throw new IllegalArgumentException("Null name or factory");
+        }
+        if (noOfMatches < 1) {
+            throw new IllegalArgumentException("noOfMatches < 1");
+        }
+        if (noOfHands < 1) {
+            throw new IllegalArgumentException("noOfHands < 1");
+        }
+        this.name1 = name1;
+        this.name2 = name2;
+        return pool.invoke(new MatchTask(this, factory1, factory2, 0, noOfMatches, noOfHands, seed));
+    }
+    
+    /**
+     * Returns the table type.
+     * 
+     * @return The table type.
+     */
+    TableType getTableType() {
+        return tableType;
+    }
+    
+    /**
+     * Returns the size of the big blind.
+     * 
+     * @return The size of the big blind.
+     */
+    int getBigBlind() {
+        return bigBlind;
+    }
+    
+    /**
+     * Returns the stack each player starts each hand with.
+     * 
+     * @return The stack.
+     */
+    int getStack() {
+        return stack;
+    }
+    
+    /**
+     * Returns the name of the first bot.
+     * 
+     * @return The name.
+     */
+    String getName1() {
+        return name1;
+    }
+    
+    /**
+     * Returns the name of the second bot.
+     * 
+     * @return The name.
+     */
+    String getName2() {
+        return name2;
+    }
+    
+}
@@ -0,0 +1,186 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+import org.ozsoft.texasholdem.Deck;
+import org.ozsoft.texasholdem.Evaluator;
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.Table;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.bots.Bot;
+
+/**
+ * Fork/join task playing a range of heads-up duplicate matches. <br />
+ * <br />
+ * 
+ * A match is played at two tables in lockstep, each with its own deck seeded
+ * with the same seed. The bots are seated in opposite order at both tables, so
+ * each bot gets the cards and position of the other bot at the other table.
+ * 
+ * @author Oscar Stigter
+ */
+class MatchTask extends RecursiveTask<ArenaResult> {
+    
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+    
+    /** Multiplier spreading the seeds of consecutive matches (golden ratio). */
+    private static final long SEED_INCREMENT = 0x9e3779b97f4a7c15L;
+    
+    /** The hand evaluator (stateless, so shared by all tables). */
+    private static final Evaluator EVALUATOR = new LookupEvaluator();
+    
+    /** The arena settings. */
+    private final HeadsUpArena arena;
+    
+    /** The factory of the first bot. */
+    private final BotFactory factory1;
+    
+    /** The factory of the second bot. */
+    private final BotFactory factory2;
+    
+    /** The index of the first match. */
+    private final int fromMatch;
+    
+    /** The index after the last match. */
+    private final int toMatch;
+    
+    /** The number of hands per match. */
+    private final int noOfHands;
+    
+    /** The arena seed. */
+    private final long seed;
+    
+    /**
+     * Constructor.
+     * 
+     * @param arena
+     *            The arena settings.
+     * @param factory1
+     *            The factory of the first bot.
+     * @param factory2
+     *            The factory of the second bot.
+     * @param fromMatch
+     *            The index of the first match.
+     * @param toMatch
+     *            The index after the last match.
+     * @param noOfHands
+     *            The number of hands per match.
+     * @param seed
+     *            The arena seed.
+     */
+    MatchTask(HeadsUpArena arena, BotFactory factory1, BotFactory factory2, int fromMatch, int toMatch, int noOfHands,
+            long seed) {
+        this.arena = arena;
+        this.factory1 = factory1;
+        this.factory2 = factory2;
+        this.fromMatch = fromMatch;
+        this.toMatch = toMatch;
+        this.noOfHands = noOfHands;
+        this.seed = seed;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    protected ArenaResult compute() {
+        if (toMatch - fromMatch > 1) {
+            int middle = (fromMatch + toMatch) >>> 1;
+            MatchTask left = new MatchTask(arena, factory1, factory2, fromMatch, middle, noOfHands, seed);
+            MatchTask right = new MatchTask(arena, factory1, factory2, middle, toMatch, noOfHands, seed);
+            left.fork();
+            return right.compute().add(left.join());
+        } else {
+            ArenaResult result = new ArenaResult(arena.getName1(), arena.getName2(), arena.getBigBlind());
+            for (int match = fromMatch; match < toMatch; match++) {
+                playMatch(match, result);
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Plays a single duplicate match.
+     * 
+     * @param match
+     *            The index of the match.
+     * @param result
+     *            The result to add the hands to.
+     */
+    private void playMatch(int match, ArenaResult result) {
+        long matchSeed = seed + SEED_INCREMENT * (match + 1);
+        int stack = arena.getStack();
+        
+        // The first bot is seated first at table 1 and last at table 2.
+        Player player11 = new Player(arena.getName1(), stack, factory1.createBot());
+        Player player12 = new Player(arena.getName2(), stack, factory2.createBot());
+        Table table1 = createTable(matchSeed, player11, player12);
+        Player player22 = new Player(arena.getName2(), stack, factory2.createBot());
+        Player player21 = new Player(arena.getName1(), stack, factory1.createBot());
+        Table table2 = createTable(matchSeed, player22, player21);
+        
+        long matchChipsWon = 0L;
+        for (int hand = 0; hand < noOfHands; hand++) {
+            table1.playHand();
+            table2.playHand();
+            long chipsWon = TableTask.settle(player11, stack) + TableTask.settle(player21, stack);
+            TableTask.settle(player12, stack);
+            TableTask.settle(player22, stack);
+            result.addHand(chipsWon);
+            matchChipsWon += chipsWon;
+        }
+        result.addMatch(matchChipsWon);
+    }
+    
+    /**
+     * Creates a heads-up table with a seeded deck.
+     * 
+     * @param seed
+     *            The seed of the deck.
+     * @param player1
+     *            The player in the first seat.
+     * @param player2
+     *            The player in the second seat.
+     * 
+     * @return The table.
+     */
+    private Table createTable(long seed, Player player1, Player player2) {
+        TableType tableType = arena.getTableType();
+        int bigBlind = arena.getBigBlind();
+        // An eagerly shuffled deck uses the same randomness each hand, no
+        // matter how many cards are dealt, keeping both tables in lockstep.
+        Table table = new Table(tableType, bigBlind, EVALUATOR, new Deck(new SplittableRandom(seed), false));
+        table.setSimulationMode(true);
+        List<Player> players = new ArrayList<Player>();
+        players.add(player1);
+        players.add(player2);
+        for (Player player : players) {
+            table.addPlayer(player, ((Bot) player.getClient()).getSubscribedEvents());
+        }
+        for (Player player : players) {
+            player.getClient().joinedTable(tableType, bigBlind, players);
+        }
+        return table;
+    }
+    
+}
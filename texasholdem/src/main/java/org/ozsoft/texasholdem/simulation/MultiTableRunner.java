@@ -0,0 +1,202 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.ozsoft.texasholdem.TableType;
+
+/**
+ * Runs a simulation of many independent tables with the same bots in
+ * parallel. <br />
+ * <br />
+ * 
+ * The tables are played in (headless) simulation mode and spread over the
+ * threads of a fork/join (work-stealing) pool. Since the tables share no
+ * state, the simulation scales with the number of cores. <br />
+ * <br />
+ * 
+ * Each table seats a new instance of every bot, in the order they were added.
+ * All players start each hand with the same stack, like in a cash game where
+ * players top up or take chips off the table after every hand. The result
+ * reports the chips won per bot over all tables.
+ * 
+ * @author Oscar Stigter
+ */
+public class MultiTableRunner {
+    
+    /** The maximum number of players per table. */
+    private static final int MAX_NO_OF_PLAYERS = 10;
+    
+    /** The default stack size, in big blinds. */
+    private static final int DEFAULT_STACK = 100;
+    
+    /** The fork/join pool. */
+    private final ForkJoinPool pool;
+    
+    /** The table type. */
+    private final TableType tableType;
+    
+    /** The size of the big blind. */
+    private final int bigBlind;
+    
+    /** The stack each player starts each hand with. */
+    private final int stack;
+    
+    /** The names of the bots. */
+    private final List<String> names = new ArrayList<String>();
+    
+    /** The bot factories. */
+    private final List<BotFactory> factories = new ArrayList<BotFactory>();
+    
+    /**
+     * Constructor using the common fork/join pool and a stack of 100 big
+     * blinds.
+     * 
+     * @param tableType
+     *            The table type.
+     * @param bigBlind
+     *            The size of the big blind.
+     */
+    public MultiTableRunner(TableType tableType, int bigBlind) {
+        this(ForkJoinPool.commonPool(), tableType, bigBlind, DEFAULT_STACK * bigBlind);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param pool
+     *            The fork/join pool.
+     * @param tableType
+     *            The table type.
+     * @param bigBlind
+     *            The size of the big blind.
+     * @param stack
+     *            The stack each player starts each hand with.
+     */
+    public MultiTableRunner(ForkJoinPool pool, TableType tableType, int bigBlind, int stack) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Null pool");
+        }
+        if (tableType == null) {
+            throw new IllegalArgumentException("Null table type");
+        }
+        if (bigBlind < 2) {
+            throw new IllegalArgumentException("Invalid big blind");
+        }
+        if (stack < bigBlind) {
+            throw new IllegalArgumentException("Stack smaller than big blind");
+        }
+        this.pool = pool;
+        this.tableType = tableType;
+        this.bigBlind = bigBlind;
+        this.stack = stack;
+    }
+    
+    /**
+     * Adds a bot, seated at every table.
+     * 
+     * @param name
+     *            The bot's name.
+     * @param factory
+     *            The factory creating the bot for each table.
+     */
+    public void addBot(String name, BotFactory factory) {
+        if (name == null || factory == null) {
+            throw new IllegalArgumentException("Null name or factory");
+        }
+        if (names.size() == MAX_NO_OF_PLAYERS) {
+            throw new IllegalStateException("Too many bots");
+        }
+        names.add(name);
+        factories.add(factory);
+    }
+    
+    /**
+     * Runs the simulation.
+     * 
+     * @param noOfTables
+     *            The number of tables.
+     * @param noOfHands
+     *            The number of hands per table.
+     * @param seed
+     *            The seed of the random number generators of the decks.
+     * 
+     * @return The aggregate result.
+     */
+    public SimulationResult run(int noOfTables, int noOfHands, long seed) {
+        if (names.size() < 2) {
+            throw new IllegalStateException("Not enough bots");
+        }
+        if (noOfTables < 1) {
+            throw new IllegalArgumentException("noOfTables < 1");
+        }
+        if (noOfHands < 1) {
+            throw new IllegalArgumentException("noOfHands < 1");
+        }
+        return pool.invoke(new TableTask(this, 0, noOfTables, noOfHands, seed));
+    }
+    
+    /**
+     * Returns the table type.
+     * 
+     * @return The table type.
+     */
+    TableType getTableType() {
+        return tableType;
+    }
+    
+    /**
+     * Returns the size of the big blind.
+     * 
+     * @return The size of the big blind.
+     */
+    int getBigBlind() {
+        return bigBlind;
+    }
+    
+    /**
+     * Returns the stack each player starts each hand with.
+     * 
+     * @return The stack.
+     */
+    int getStack() {
+        return stack;
+    }
+    
+    /**
+     * Returns the names of the bots.
+     * 
+     * @return The names.
+     */
+    String[] getNames() {
+        return names.toArray(new String[names.size()]);
+    }
+    
+    /**
+     * Returns the bot factories.
+     * 
+     * @return The bot factories.
+     */
+    BotFactory[] getFactories() {
+        return factories.toArray(new BotFactory[factories.size()]);
+    }
+    
+}
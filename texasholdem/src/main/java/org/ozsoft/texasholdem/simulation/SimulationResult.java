@@ -0,0 +1,164 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.simulation;
+
+/**
+ * The aggregate result of a simulation: the number of hands played and the
+ * chips won (or lost) per bot.
+ * 
+ * @author Oscar Stigter
+ */
+public class SimulationResult {
+    
+    /** The names of the bots, in seat order. */
+    private final String[] names;
+    
+    /** The size of the big blind. */
+    private final int bigBlind;
+    
+    /** The number of tables played. */
+    private long noOfTables;
+    
+    /** The number of hands played (per seat). */
+    private long noOfHands;
+    
+    /** The chips won per bot, in seat order. */
+    private final long[] chipsWon;
+    
+    /**
+     * Constructor for an empty result.
+     * 
+     * @param names
+     *            The names of the bots, in seat order.
+     * @param bigBlind
+     *            The size of the big blind.
+     */
+    SimulationResult(String[] names, int bigBlind) {
+        this.names = names;
+        this.bigBlind = bigBlind;
+        chipsWon = new long[names.length];
+    }
+    
+    /**
+     * Adds the result of a single table.
+     * 
+     * @param noOfHands
+     *            The number of hands played.
+     * @param chipsWon
+     *            The chips won per bot.
+     */
+    void addTable(long noOfHands, long[] chipsWon) {
+        noOfTables++;
+        this.noOfHands += noOfHands;
+        for (int i = 0; i < chipsWon.length; i++) {
+            this.chipsWon[i] += chipsWon[i];
+        }
+    }
+    
+    /**
+     * Adds another result.
+     * 
+     * @param result
+     *            The other result.
+     * 
+     * @return This result.
+     */
+    SimulationResult add(SimulationResult result) {
+        noOfTables += result.noOfTables;
+        noOfHands += result.noOfHands;
+        for (int i = 0; i < chipsWon.length; i++) {
+            chipsWon[i] += result.chipsWon[i];
+        }
+        return this;
+    }
+    
+    /**
+     * Returns the number of bots.
+     * 
+     * @return The number of bots.
+     */
+    public int getNoOfBots() {
+        return names.length;
+    }
+    
+    /**
+     * Returns the name of a bot.
+     * 
+     * @param seat
+     *            The bot's seat.
+     * 
+     * @return The name.
+     */
+    public String getName(int seat) {
+        return names[seat];
+    }
+    
+    /**
+     * Returns the number of tables played.
+     * 
+     * @return The number of tables.
+     */
+    public long getNoOfTables() {
+        return noOfTables;
+    }
+    
+    /**
+     * Returns the total number of hands played.
+     * 
+     * @return The number of hands.
+     */
+    public long getNoOfHands() {
+        return noOfHands;
+    }
+    
+    /**
+     * Returns the chips won (or lost, if negative) by a bot.
+     * 
+     * @param seat
+     *            The bot's seat.
+     * 
+     * @return The chips won.
+     */
+    public long getChipsWon(int seat) {
+        return chipsWon[seat];
+    }
+    
+    /**
+     * Returns the win rate of a bot in big blinds per 100 hands.
+     * 
+     * @param seat
+     *            The bot's seat.
+     * 
+     * @return The win rate in bb/100.
+     */
+    public double getBigBlindsPer100(int seat) {
+        return (noOfHands > 0) ? 100.0 * chipsWon[seat] / bigBlind / noOfHands : 0.0;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d hands at %d tables\n", noOfHands, noOfTables));
+        for (int i = 0; i < names.length; i++) {
+            sb.append(String.format("  %-20s %12d chips %10.2f bb/100\n", names[i], chipsWon[i], getBigBlindsPer100(i)));
+        }
+        return sb.toString();
+    }
+    
+}
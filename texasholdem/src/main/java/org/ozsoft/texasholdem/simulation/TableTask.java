@@ -0,0 +1,169 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+import org.ozsoft.texasholdem.Deck;
+import org.ozsoft.texasholdem.Evaluator;
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.Table;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.bots.Bot;
+
+/**
+ * Fork/join task playing a range of independent tables. <br />
+ * <br />
+ * 
+ * Ranges of more than one table are split in half, so idle threads can steal
+ * the other half. Each table has its own deck, seeded from the simulation seed
+ * and the table's index, so the result does not depend on the number of
+ * threads.
+ * 
+ * @author Oscar Stigter
+ */
+class TableTask extends RecursiveTask<SimulationResult> {
+    
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+    
+    /** Multiplier spreading the seeds of consecutive tables (golden ratio). */
+    private static final long SEED_INCREMENT = 0x9e3779b97f4a7c15L;
+    
+    /** The hand evaluator (stateless, so shared by all tables). */
+    private static final Evaluator EVALUATOR = new LookupEvaluator();
+    
+    /** The simulation settings. */
+    private final MultiTableRunner runner;
+    
+    /** The index of the first table. */
+    private final int fromTable;
+    
+    /** The index after the last table. */
+    private final int toTable;
+    
+    /** The number of hands per table. */
+    private final int noOfHands;
+    
+    /** The simulation seed. */
+    private final long seed;
+    
+    /**
+     * Constructor.
+     * 
+     * @param runner
+     *            The simulation settings.
+     * @param fromTable
+     *            The index of the first table.
+     * @param toTable
+     *            The index after the last table.
+     * @param noOfHands
+     *            The number of hands per table.
+     * @param seed
+     *            The simulation seed.
+     */
+    TableTask(MultiTableRunner runner, int fromTable, int toTable, int noOfHands, long seed) {
+        this.runner = runner;
+        this.fromTable = fromTable;
+        this.toTable = toTable;
+        this.noOfHands = noOfHands;
+        this.seed = seed;
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    protected SimulationResult compute() {
+        if (toTable - fromTable > 1) {
+            int middle = (fromTable + toTable) >>> 1;
+            TableTask left = new TableTask(runner, fromTable, middle, noOfHands, seed);
+            TableTask right = new TableTask(runner, middle, toTable, noOfHands, seed);
+            left.fork();
+            return right.compute().add(left.join());
+        } else {
+            SimulationResult result = new SimulationResult(runner.getNames(), runner.getBigBlind());
+            for (int table = fromTable; table < toTable; table++) {
+                result.addTable(noOfHands, playTable(table));
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Plays a single table.
+     * 
+     * @param tableIndex
+     *            The index of the table.
+     * 
+     * @return The chips won per bot.
+     */
+    private long[] playTable(int tableIndex) {
+        TableType tableType = runner.getTableType();
+        int bigBlind = runner.getBigBlind();
+        int stack = runner.getStack();
+        Deck deck = new Deck(new SplittableRandom(seed + SEED_INCREMENT * (tableIndex + 1)), true);
+        Table table = new Table(tableType, bigBlind, EVALUATOR, deck);
+        table.setSimulationMode(true);
+        List<Player> players = new ArrayList<Player>();
+        String[] names = runner.getNames();
+        BotFactory[] factories = runner.getFactories();
+        for (int i = 0; i < names.length; i++) {
+            Bot bot = factories[i].createBot();
+            Player player = new Player(names[i], stack, bot);
+            players.add(player);
+            table.addPlayer(player, bot.getSubscribedEvents());
+        }
+        for (Player player : players) {
+            player.getClient().joinedTable(tableType, bigBlind, players);
+        }
+        
+        long[] chipsWon = new long[players.size()];
+        for (int hand = 0; hand < noOfHands; hand++) {
+            table.playHand();
+            for (int i = 0; i < chipsWon.length; i++) {
+                chipsWon[i] += settle(players.get(i), stack);
+            }
+        }
+        return chipsWon;
+    }
+    
+    /**
+     * Books the result of a hand for a player, and restores the player's
+     * stack for the next hand.
+     * 
+     * @param player
+     *            The player.
+     * @param stack
+     *            The stack the player started the hand with.
+     * 
+     * @return The chips won (or lost, if negative).
+     */
+    static int settle(Player player, int stack) {
+        int cash = player.getCash();
+        if (cash > stack) {
+            player.payCash(cash - stack);
+        } else {
+            player.win(stack - cash);
+        }
+        return cash - stack;
+    }
+    
+}
@@ -0,0 +1,432 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * The betting rounds of a heads-up Fixed-Limit Texas Hold'em hand, following
+ * the betting rules of the <code>Table</code>. <br />
+ * <br />
+ *
+ * Player 0 is the dealer, who posts the small blind and acts first Pre-Flop;
+ * player 1 posts the big blind and acts first after the Flop. A bet or raise
+ * gives both players another turn, so after a bet and a call the bettor has
+ * the final option to check or raise. The number of raises per betting round
+ * is capped at {@link #MAX_RAISES} to keep the rounds finite. <br />
+ * <br />
+ *
+ * Rather than the full game tree (with almost a million River decisions, one
+ * per betting history), only the tree of each betting round is stored, and a
+ * round is identified by the contribution of each player to the pot before it
+ * (which is the same for both players). The strategy at a decision therefore
+ * only depends on the street, the pot before the street and the actions in
+ * the current round, which keeps the number of information sets small. <br />
+ * <br />
+ *
+ * The nodes are stored in primitive arrays. Each decision node has up to three
+ * actions ({@link #FOLD}, {@link #CALL} and {@link #RAISE}); folding is only
+ * allowed when facing a bet. Amounts are expressed in small blinds: the small
+ * blind is 1, the big blind and small bet 2, and the big bet (Turn and River)
+ * 4. <br />
+ * <br />
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author Oscar Stigter
+ */
+public class BettingTree {
+
+    /** The number of players. */
+    public static final int NO_OF_PLAYERS = 2;
+
+    /** The number of streets (Pre-Flop, Flop, Turn and River). */
+    public static final int NO_OF_STREETS = 4;
+
+    /** The number of actions per decision node. */
+    public static final int NO_OF_ACTIONS = 3;
+
+    /** Action: fold. */
+    public static final int FOLD = 0;
+
+    /** Action: check or call. */
+    public static final int CALL = 1;
+
+    /** Action: bet or raise. */
+    public static final int RAISE = 2;
+
+    /** The maximum number of raises per betting round. */
+    public static final int MAX_RAISES = 3;
+
+    /** Node type: decision. */
+    private static final byte DECISION = 0;
+
+    /** Node type: a player folded. */
+    private static final byte FOLDED = 1;
+
+    /** Node type: end of the betting round. */
+    private static final byte ROUND_END = 2;
+
+    /** The initial capacity of the node arrays. */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** The type of each node. */
+    private byte[] types = new byte[INITIAL_CAPACITY];
+
+    /** The acting player (decision) or folding player (fold) of each node. */
+    private byte[] players = new byte[INITIAL_CAPACITY];
+
+    /** The street of each node. */
+    private byte[] streets = new byte[INITIAL_CAPACITY];
+
+    /** The index among the decision nodes of the street of each node (or -1). */
+    private int[] decisionIndices = new int[INITIAL_CAPACITY];
+
+    /** The child nodes of each node per action (or -1). */
+    private int[] children = new int[INITIAL_CAPACITY * NO_OF_ACTIONS];
+
+    /** The bet in the betting round per player of each node. */
+    private int[] bets = new int[INITIAL_CAPACITY * NO_OF_PLAYERS];
+
+    /** The number of nodes. */
+    private int noOfNodes;
+
+    /** The root node of each street. */
+    private final int[] roots = new int[NO_OF_STREETS];
+
+    /** The number of decision nodes per street. */
+    private final int[] noOfDecisionNodes = new int[NO_OF_STREETS];
+
+    /** The possible contributions before each street, in ascending order. */
+    private final int[][] pots = new int[NO_OF_STREETS][];
+
+    /** The index of each contribution before each street (or -1). */
+    private final int[][] potIndices = new int[NO_OF_STREETS][];
+
+    /**
+     * Constructor.
+     */
+    public BettingTree() {
+        for (int street = 0; street < NO_OF_STREETS; street++) {
+            if (street == 0) {
+                // Pre-Flop: blinds posted, dealer (small blind) acts first.
+                roots[street] = build(street, 0, 1, 2, 2, 0, NO_OF_PLAYERS);
+            } else {
+                // After the Flop: big blind acts first.
+                roots[street] = build(street, 1, 0, 0, 0, 0, NO_OF_PLAYERS);
+            }
+        }
+        types = Arrays.copyOf(types, noOfNodes);
+        players = Arrays.copyOf(players, noOfNodes);
+        streets = Arrays.copyOf(streets, noOfNodes);
+        decisionIndices = Arrays.copyOf(decisionIndices, noOfNodes);
+        children = Arrays.copyOf(children, noOfNodes * NO_OF_ACTIONS);
+        bets = Arrays.copyOf(bets, noOfNodes * NO_OF_PLAYERS);
+
+        // The possible contributions before each street.
+        TreeSet<Integer> contributions = new TreeSet<Integer>();
+        contributions.add(0);
+        for (int street = 0; street < NO_OF_STREETS; street++) {
+            pots[street] = new int[contributions.size()];
+            int i = 0;
+            for (int contribution : contributions) {
+                pots[street][i++] = contribution;
+            }
+            potIndices[street] = new int[contributions.last() + 1];
+            Arrays.fill(potIndices[street], -1);
+            for (i = 0; i < pots[street].length; i++) {
+                potIndices[street][pots[street][i]] = i;
+            }
+            TreeSet<Integer> nextContributions = new TreeSet<Integer>();
+            for (int node = 0; node < noOfNodes; node++) {
+                if (streets[node] == street && types[node] == ROUND_END) {
+                    for (int contribution : contributions) {
+                        nextContributions.add(contribution + bets[node * NO_OF_PLAYERS]);
+                    }
+                }
+            }
+            contributions = nextContributions;
+        }
+    }
+
+    /**
+     * Returns the root node of a street.
+     *
+     * @param street
+     *            The street.
+     *
+     * @return The root node.
+     */
+    public int getRoot(int street) {
+        return roots[street];
+    }
+
+    /**
+     * Returns the total number of nodes.
+     *
+     * @return The number of nodes.
+     */
+    public int getNoOfNodes() {
+        return noOfNodes;
+    }
+
+    /**
+     * Returns the number of decision nodes of a street.
+     *
+     * @param street
+     *            The street.
+     *
+     * @return The number of decision nodes.
+     */
+    public int getNoOfDecisionNodes(int street) {
+        return noOfDecisionNodes[street];
+    }
+
+    /**
+     * Returns whether a node is a decision.
+     *
+     * @param node
+     *            The node.
+     *
+     * @return True if a decision, otherwise false.
+     */
+    public boolean isDecision(int node) {
+        return types[node] == DECISION;
+    }
+
+    /**
+     * Returns whether a node is a fold, ending the hand.
+     *
+     * @param node
+     *            The node.
+     *
+     * @return True if a fold, otherwise false.
+     */
+    public boolean isFold(int node) {
+        return types[node] == FOLDED;
+    }
+
+    /**
+     * Returns whether a node is the end of the betting round (followed by the
+     * next street or the showdown).
+     *
+     * @param node
+     *            The node.
+     *
+     * @return True if the end of the betting round, otherwise false.
+     */
+    public boolean isRoundEnd(int node) {
+        return types[node] == ROUND_END;
+    }
+
+    /**
+     * Returns the acting player of a decision node, or the folding player of a
+     * fold node.
+     *
+     * @param node
+     *            The node.
+     *
+     * @return The player (0 = dealer, 1 = big blind).
+     */
+    public int getPlayer(int node) {
+        return players[node];
+    }
+
+    /**
+     * Returns the street of a node.
+     *
+     * @param node
+     *            The node.
+     *
+     * @return The street (0 = Pre-Flop, 3 = River).
+     */
+    public int getStreet(int node) {
+        return streets[node];
+    }
+
+    /**
+     * Returns the index of a decision node among the decision nodes of its
+     * street.
+     *
+     * @param node
+     *            The node.
+     *
+     * @return The decision index, or -1 if not a decision.
+     */
+    public int getDecisionIndex(int node) {
+        return decisionIndices[node];
+    }
+
+    /**
+     * Returns the child node after an action.
+     *
+     * @param node
+     *            The decision node.
+     * @param action
+     *            The action.
+     *
+     * @return The child node, or -1 if the action is not allowed.
+     */
+    public int getChild(int node, int action) {
+        return children[node * NO_OF_ACTIONS + action];
+    }
+
+    /**
+     * Returns the bet of a player in the betting round of a node.
+     *
+     * @param node
+     *            The node.
+     * @param player
+     *            The player.
+     *
+     * @return The bet (in small blinds).
+     */
+    public int getBet(int node, int player) {
+        return bets[node * NO_OF_PLAYERS + player];
+    }
+
+    /**
+     * Returns the number of possible contributions of each player to the pot
+     * before a street.
+     *
+     * @param street
+     *            The street.
+     *
+     * @return The number of contributions.
+     */
+    public int getNoOfPots(int street) {
+        return pots[street].length;
+    }
+
+    /**
+     * Returns a possible contribution of each player to the pot before a
+     * street.
+     *
+     * @param street
+     *            The street.
+     * @param index
+     *            The index of the contribution.
+     *
+     * @return The contribution (in small blinds).
+     */
+    public int getPot(int street, int index) {
+        return pots[street][index];
+    }
+
+    /**
+     * Returns the index of a contribution of each player to the pot before a
+     * street.
+     *
+     * @param street
+     *            The street.
+     * @param contribution
+     *            The contribution (in small blinds).
+     *
+     * @return The index, or -1 if the contribution is not possible.
+     */
+    public int getPotIndex(int street, int contribution) {
+        int[] indices = potIndices[street];
+        return (contribution >= 0 && contribution < indices.length) ? indices[contribution] : -1;
+    }
+
+    /**
+     * Builds a node of a betting round recursively.
+     *
+     * @param street
+     *            The street.
+     * @param actor
+     *            The acting player.
+     * @param bet0
+     *            The bet of player 0.
+     * @param bet1
+     *            The bet of player 1.
+     * @param bet
+     *            The current bet.
+     * @param raises
+     *            The number of raises.
+     * @param playersToAct
+     *            The number of turns left.
+     *
+     * @return The node.
+     */
+    private int build(int street, int actor, int bet0, int bet1, int bet, int raises, int playersToAct) {
+        if (playersToAct == 0) {
+            return addNode(ROUND_END, 0, street, bet0, bet1);
+        }
+        int node = addNode(DECISION, actor, street, bet0, bet1);
+        decisionIndices[node] = noOfDecisionNodes[street]++;
+        int betSize = (street < 2) ? 2 : 4;
+        int actorBet = (actor == 0) ? bet0 : bet1;
+        int other = 1 - actor;
+        if (actorBet < bet) {
+            // Facing a bet: fold, call or raise.
+            children[node * NO_OF_ACTIONS + FOLD] = addNode(FOLDED, actor, street, bet0, bet1);
+            children[node * NO_OF_ACTIONS + CALL] = build(street, other, (actor == 0) ? bet : bet0,
+                    (actor == 1) ? bet : bet1, bet, raises, playersToAct - 1);
+        } else {
+            // Check.
+            children[node * NO_OF_ACTIONS + CALL] = build(street, other, bet0, bet1, bet, raises, playersToAct - 1);
+        }
+        if (bet == 0 || raises < MAX_RAISES) {
+            // Bet or raise; both players get another turn.
+            int newBet = bet + betSize;
+            children[node * NO_OF_ACTIONS + RAISE] = build(street, other, (actor == 0) ? newBet : bet0,
+                    (actor == 1) ? newBet : bet1, newBet, (bet == 0) ? raises : raises + 1, NO_OF_PLAYERS);
+        }
+        return node;
+    }
+
+    /**
+     * Adds a node.
+     *
+     * @param type
+     *            The node type.
+     * @param player
+     *            The player.
+     * @param street
+     *            The street.
+     * @param bet0
+     *            The bet of player 0.
+     * @param bet1
+     *            The bet of player 1.
+     *
+     * @return The node.
+     */
+    private int addNode(byte type, int player, int street, int bet0, int bet1) {
+        if (noOfNodes == types.length) {
+            int capacity = 2 * types.length;
+            types = Arrays.copyOf(types, capacity);
+            players = Arrays.copyOf(players, capacity);
+            streets = Arrays.copyOf(streets, capacity);
+            decisionIndices = Arrays.copyOf(decisionIndices, capacity);
+            children = Arrays.copyOf(children, capacity * NO_OF_ACTIONS);
+            bets = Arrays.copyOf(bets, capacity * NO_OF_PLAYERS);
+        }
+        int node = noOfNodes++;
+        types[node] = type;
+        players[node] = (byte) player;
+        streets[node] = (byte) street;
+        decisionIndices[node] = -1;
+        Arrays.fill(children, node * NO_OF_ACTIONS, (node + 1) * NO_OF_ACTIONS, -1);
+        bets[node * NO_OF_PLAYERS] = bet0;
+        bets[node * NO_OF_PLAYERS + 1] = bet1;
+        return node;
+    }
+
+}
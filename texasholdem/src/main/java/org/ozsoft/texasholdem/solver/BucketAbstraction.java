@@ -0,0 +1,94 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.ozsoft.texasholdem.util.HandIndexer;
+
+/**
+ * Card abstraction with the buckets computed by the {@link BucketingPipeline}.
+ * <br />
+ * <br />
+ *
+ * The bucket files of all streets are memory-mapped from a directory. Without
+ * a Pre-Flop bucket file each of the 169 strategically different starting
+ * hands has its own bucket. Looking up a bucket takes the canonical index of
+ * the hand (see {@link HandIndexer}) and a single read from the mapped file.
+ * <br />
+ * <br />
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author Oscar Stigter
+ */
+public class BucketAbstraction implements CardAbstraction {
+
+    /** The number of board cards per street. */
+    private static final int[] NO_OF_BOARD_CARDS = { 0, 3, 4, 5 };
+
+    /** The canonical indexer of each street. */
+    private static final HandIndexer[] INDEXERS = new HandIndexer[BettingTree.NO_OF_STREETS];
+
+    static {
+        for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+            INDEXERS[street] = HandIndexer.forStreet(NO_OF_BOARD_CARDS[street]);
+        }
+    }
+
+    /** The bucket file of each street (or null Pre-Flop without buckets). */
+    private final BucketFile[] files = new BucketFile[BettingTree.NO_OF_STREETS];
+
+    /**
+     * Constructor.
+     *
+     * @param directory
+     *            The directory with the bucket files.
+     *
+     * @throws IOException
+     *             If a bucket file could not be read.
+     */
+    public BucketAbstraction(File directory) throws IOException {
+        for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+            File file = BucketingPipeline.getBucketFile(directory, street);
+            if (file.exists()) {
+                files[street] = new BucketFile(file);
+                if (files[street].getStreet() != street || files[street].getSize() != INDEXERS[street].getSize()) {
+                    throw new IllegalStateException("Invalid bucket file: " + file);
+                }
+            } else if (street > 0) {
+                throw new IllegalStateException("Missing bucket file: " + file);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getNoOfBuckets(int street) {
+        return (files[street] != null) ? files[street].getNoOfBuckets() : (int) INDEXERS[street].getSize();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getBucket(int street, long holeCards, long board) {
+        long index = INDEXERS[street].index(holeCards, board);
+        return (files[street] != null) ? files[street].get(index) : (int) index;
+    }
+
+}
@@ -0,0 +1,237 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file with the bucket of each canonical hand of a street. <br />
+ * <br />
+ *
+ * The file starts with a header (magic number, version, street, number of
+ * buckets, number of hands, size of a bucket and the CRC-32 checksum of the
+ * buckets), followed by the bucket of each hand as a little-endian unsigned
+ * 8-bit (up to 256 buckets) or 16-bit integer. The file is mapped read-only,
+ * so it is shared through the operating system's page cache by all JVMs on
+ * the same host. <br />
+ * <br />
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author Oscar Stigter
+ */
+final class BucketFile {
+
+    /** The magic number identifying a bucket file ("BCKT"). */
+    private static final int MAGIC = 0x42434b54;
+
+    /** The version of the file format. */
+    private static final int VERSION = 1;
+
+    /** The size of the file header in bytes. */
+    private static final int HEADER_SIZE = 32;
+
+    /** The maximum number of buckets. */
+    static final int MAX_NO_OF_BUCKETS = 1 << 16;
+
+    /** The street. */
+    private final int street;
+
+    /** The number of buckets. */
+    private final int noOfBuckets;
+
+    /** The number of hands. */
+    private final long size;
+
+    /** The size of a bucket in bytes (1 or 2). */
+    private final int entrySize;
+
+    /** The mapped file. */
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructor, mapping and validating a file.
+     *
+     * @param file
+     *            The file.
+     *
+     * @throws IOException
+     *             If the file could not be read.
+     */
+    BucketFile(File file) throws IOException {
+        MappedByteBuffer mapped;
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            // The mapping remains valid after closing the channel.
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        } finally {
+            channel.close();
+        }
+        buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Invalid bucket file: " + file);
+        }
+        street = buffer.getInt(8);
+        noOfBuckets = buffer.getInt(12);
+        size = buffer.getLong(16);
+        entrySize = buffer.getInt(24);
+        if (street < 0 || street >= BettingTree.NO_OF_STREETS || noOfBuckets < 1 || noOfBuckets > MAX_NO_OF_BUCKETS
+                || entrySize != getEntrySize(noOfBuckets) || size < 0L
+                || HEADER_SIZE + size * entrySize != buffer.limit()) {
+            throw new IllegalStateException("Invalid bucket file: " + file);
+        }
+        if (getChecksum(buffer) != buffer.getInt(28)) {
+            throw new IllegalStateException("Corrupt bucket file (checksum mismatch): " + file);
+        }
+    }
+
+    /**
+     * Returns the street.
+     *
+     * @return The street.
+     */
+    int getStreet() {
+        return street;
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return The number of buckets.
+     */
+    int getNoOfBuckets() {
+        return noOfBuckets;
+    }
+
+    /**
+     * Returns the number of hands.
+     *
+     * @return The number of hands.
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the bucket of a hand.
+     *
+     * @param index
+     *            The canonical index of the hand.
+     *
+     * @return The bucket.
+     */
+    int get(long index) {
+        if (entrySize == 1) {
+            return buffer.get(HEADER_SIZE + (int) index) & 0xff;
+        } else {
+            return buffer.getShort(HEADER_SIZE + 2 * (int) index) & 0xffff;
+        }
+    }
+
+    /**
+     * Writes a bucket file, assigning each hand to the nearest centroid in
+     * parallel.
+     *
+     * @param pool
+     *            The fork/join pool.
+     * @param file
+     *            The file.
+     * @param street
+     *            The street.
+     * @param features
+     *            The features of the hands.
+     * @param centroids
+     *            The centroids (cluster * dimension + i).
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    static void write(ForkJoinPool pool, File file, int street, FeatureFile features, double[] centroids)
+            throws IOException {
+        int noOfBuckets = centroids.length / features.getDimension();
+        int entrySize = getEntrySize(noOfBuckets);
+        long size = features.getNoOfRows();
+        if (HEADER_SIZE + size * entrySize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many hands");
+        }
+        File tempFile = new File(file.getPath() + ".tmp");
+        RandomAccessFile raf = new RandomAccessFile(tempFile, "rw");
+        try {
+            raf.setLength(0L);
+            raf.setLength(HEADER_SIZE + size * entrySize);
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, raf.length());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            pool.invoke(new BucketTask(features, centroids, buffer, HEADER_SIZE, entrySize, 0L, size));
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, street).putInt(12, noOfBuckets);
+            buffer.putLong(16, size).putInt(24, entrySize).putInt(28, getChecksum(buffer));
+            buffer.force();
+        } finally {
+            raf.close();
+        }
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the size of a bucket in bytes.
+     *
+     * @param noOfBuckets
+     *            The number of buckets.
+     *
+     * @return The size in bytes (1 or 2).
+     */
+    private static int getEntrySize(int noOfBuckets) {
+        return (noOfBuckets <= 256) ? 1 : 2;
+    }
+
+    /**
+     * Returns the CRC-32 checksum of the buckets (everything after the header).
+     *
+     * @param buffer
+     *            The buffer with the header and the buckets.
+     *
+     * @return The checksum.
+     */
+    private static int getChecksum(ByteBuffer buffer) {
+        ByteBuffer buckets = buffer.duplicate();
+        // Cast to Buffer to stay compatible with the Java 8 runtime.
+        ((Buffer) buckets).clear();
+        ((Buffer) buckets).position(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(buckets);
+        return (int) crc.getValue();
+    }
+
+}
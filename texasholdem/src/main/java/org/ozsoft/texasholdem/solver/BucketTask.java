@@ -0,0 +1,109 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join task assigning a range of rows to the nearest centroid, writing
+ * the bucket of each row to a buffer.
+ *
+ * @author Oscar Stigter
+ */
+class BucketTask extends RecursiveAction {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The maximum number of rows processed without splitting the task. */
+    private static final int THRESHOLD = 16384;
+
+    /** The features. */
+    private final FeatureFile features;
+
+    /** The centroids (cluster * dimension + i). */
+    private final double[] centroids;
+
+    /** The buffer to write the buckets to. */
+    private final ByteBuffer buckets;
+
+    /** The offset of the first bucket in the buffer. */
+    private final int offset;
+
+    /** The size of a bucket in bytes (1 or 2). */
+    private final int entrySize;
+
+    /** The first row. */
+    private final long fromRow;
+
+    /** The row after the last row. */
+    private final long toRow;
+
+    /**
+     * Constructor.
+     *
+     * @param features
+     *            The features.
+     * @param centroids
+     *            The centroids.
+     * @param buckets
+     *            The buffer to write the buckets to.
+     * @param offset
+     *            The offset of the first bucket in the buffer.
+     * @param entrySize
+     *            The size of a bucket in bytes (1 or 2).
+     * @param fromRow
+     *            The first row.
+     * @param toRow
+     *            The row after the last row.
+     */
+    BucketTask(FeatureFile features, double[] centroids, ByteBuffer buckets, int offset, int entrySize, long fromRow,
+            long toRow) {
+        this.features = features;
+        this.centroids = centroids;
+        this.buckets = buckets;
+        this.offset = offset;
+        this.entrySize = entrySize;
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+        if (toRow - fromRow > THRESHOLD) {
+            long middle = (fromRow + toRow) >>> 1;
+            invokeAll(new BucketTask(features, centroids, buckets, offset, entrySize, fromRow, middle),
+                    new BucketTask(features, centroids, buckets, offset, entrySize, middle, toRow));
+        } else {
+            byte[] row = new byte[features.getDimension()];
+            for (long i = fromRow; i < toRow; i++) {
+                features.read(i, row);
+                int bucket = KMeans.getNearest(centroids, row);
+                int position = offset + (int) i * entrySize;
+                if (entrySize == 1) {
+                    buckets.put(position, (byte) bucket);
+                } else {
+                    buckets.putShort(position, (short) bucket);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,231 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.ozsoft.texasholdem.util.HandIndexer;
+
+/**
+ * Pipeline computing a card abstraction by clustering the equity distributions
+ * of all canonical hands of a street. <br />
+ * <br />
+ *
+ * The pipeline has three stages, each split over all threads of a fork/join
+ * pool:
+ * <ol>
+ * <li>The cumulative equity histogram (see {@link EquityHistogram}) of each
+ * canonical hand (see {@link HandIndexer}) is written to a memory-mapped
+ * feature file, in chunks.</li>
+ * <li>The histograms are clustered with k-means; comparing cumulative
+ * histograms by Euclidean distance approximates the earth mover's distance
+ * between the distributions.</li>
+ * <li>The bucket of each hand (the nearest cluster, ordered by equity) is
+ * written to a bucket file, loaded by the {@link BucketAbstraction}.</li>
+ * </ol>
+ *
+ * All files are kept in a working directory. The pipeline can be stopped at
+ * any time and resumed by running it again with the same settings: the
+ * features of finished chunks and the centroids of the last k-means iteration
+ * are kept, and a street with a bucket file is skipped. The feature file is
+ * kept after clustering, so a street can be clustered again into a different
+ * number of buckets without recalculating the features (after removing its
+ * bucket file). <br />
+ * <br />
+ *
+ * The work is dominated by the number of canonical hands (1.3 million on the
+ * Flop, 14 million on the Turn, 123 million on the River) times the number of
+ * runouts per hand.
+ *
+ * @author Oscar Stigter
+ */
+public class BucketingPipeline {
+
+    /** The default number of histogram bins. */
+    public static final int DEFAULT_NO_OF_BINS = 32;
+
+    /** The default maximum number of runouts per hand. */
+    public static final int DEFAULT_MAX_NO_OF_RUNOUTS = 100;
+
+    /** The maximum number of k-means iterations. */
+    private static final int MAX_NO_OF_ITERATIONS = 100;
+
+    /** The maximum distance a centroid may move in the last k-means iteration. */
+    private static final double TOLERANCE = 0.01;
+
+    /** The number of board cards per street. */
+    private static final int[] NO_OF_BOARD_CARDS = { 0, 3, 4, 5 };
+
+    /** The fork/join pool. */
+    private final ForkJoinPool pool;
+
+    /** The working directory. */
+    private final File directory;
+
+    /** The number of histogram bins. */
+    private final int noOfBins;
+
+    /** The maximum number of runouts per hand. */
+    private final int maxNoOfRunouts;
+
+    /** The seed. */
+    private final long seed;
+
+    /**
+     * Constructor using the common fork/join pool.
+     *
+     * @param directory
+     *            The working directory.
+     * @param noOfBins
+     *            The number of histogram bins.
+     * @param maxNoOfRunouts
+     *            The maximum number of runouts per hand (all runouts are
+     *            enumerated if there are not more).
+     * @param seed
+     *            The seed of the random number generator.
+     */
+    public BucketingPipeline(File directory, int noOfBins, int maxNoOfRunouts, long seed) {
+        this(ForkJoinPool.commonPool(), directory, noOfBins, maxNoOfRunouts, seed);
+    }
+
+    /**
+     * Constructor using a specific fork/join pool.
+     *
+     * @param pool
+     *            The fork/join pool.
+     * @param directory
+     *            The working directory.
+     * @param noOfBins
+     *            The number of histogram bins.
+     * @param maxNoOfRunouts
+     *            The maximum number of runouts per hand (all runouts are
+     *            enumerated if there are not more).
+     * @param seed
+     *            The seed of the random number generator.
+     */
+    public BucketingPipeline(ForkJoinPool pool, File directory, int noOfBins, int maxNoOfRunouts, long seed) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Null pool");
+        }
+        if (directory == null || !directory.isDirectory()) {
+            throw new IllegalArgumentException("Invalid directory: " + directory);
+        }
+        if (noOfBins < 2 || noOfBins > 256) {
+            throw new IllegalArgumentException("Invalid number of bins");
+        }
+        if (maxNoOfRunouts < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of runouts");
+        }
+        this.pool = pool;
+        this.directory = directory;
+        this.noOfBins = noOfBins;
+        this.maxNoOfRunouts = maxNoOfRunouts;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the bucket file of a street in a directory.
+     *
+     * @param directory
+     *            The directory.
+     * @param street
+     *            The street.
+     *
+     * @return The bucket file.
+     */
+    public static File getBucketFile(File directory, int street) {
+        return new File(directory, "street" + street + ".buckets");
+    }
+
+    /**
+     * Runs (or resumes) the pipeline for a street, unless its bucket file
+     * already exists.
+     *
+     * @param street
+     *            The street (0 = Pre-Flop, 3 = River).
+     * @param noOfBuckets
+     *            The number of buckets.
+     *
+     * @throws IOException
+     *             If a file could not be read or written.
+     */
+    public void run(int street, int noOfBuckets) throws IOException {
+        if (street < 0 || street >= BettingTree.NO_OF_STREETS) {
+            throw new IllegalArgumentException("Invalid street: " + street);
+        }
+        HandIndexer indexer = HandIndexer.forStreet(NO_OF_BOARD_CARDS[street]);
+        if (noOfBuckets < 1 || noOfBuckets > BucketFile.MAX_NO_OF_BUCKETS || noOfBuckets > indexer.getSize()) {
+            throw new IllegalArgumentException("Invalid number of buckets");
+        }
+        File bucketFile = getBucketFile(directory, street);
+        if (bucketFile.exists()) {
+            return;
+        }
+
+        // Features.
+        String prefix = "street" + street;
+        FeatureFile features = new FeatureFile(new File(directory, prefix + "-" + noOfBins + "x" + maxNoOfRunouts
+                + ".features"), indexer.getSize(), noOfBins - 1);
+        if (!features.isComplete()) {
+            pool.invoke(new FeatureTask(indexer, features, maxNoOfRunouts, seed, 0, features.getNoOfChunks()));
+            features.force();
+        }
+
+        // Clustering.
+        File centroidsFile = new File(directory, prefix + "-" + noOfBuckets + ".centroids");
+        double[] centroids = new KMeans(pool, features, noOfBuckets).run(centroidsFile, MAX_NO_OF_ITERATIONS,
+                TOLERANCE, seed);
+
+        // Buckets.
+        BucketFile.write(pool, bucketFile, street, features, centroids);
+    }
+
+    /**
+     * Runs the pipeline from the command line. <br />
+     * <br />
+     *
+     * Arguments: the working directory, the street, the number of buckets, and
+     * optionally the number of histogram bins and the maximum number of
+     * runouts per hand.
+     *
+     * @param args
+     *            The command line arguments.
+     *
+     * @throws IOException
+     *             If a file could not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 && args.length != 5) {
+            System.err.println("Usage: BucketingPipeline <directory> <street> <buckets> [<bins> <runouts>]");
+            System.exit(1);
+        }
+        File directory = new File(args[0]);
+        directory.mkdirs();
+        int street = Integer.parseInt(args[1]);
+        int noOfBuckets = Integer.parseInt(args[2]);
+        int noOfBins = (args.length == 5) ? Integer.parseInt(args[3]) : DEFAULT_NO_OF_BINS;
+        int maxNoOfRunouts = (args.length == 5) ? Integer.parseInt(args[4]) : DEFAULT_MAX_NO_OF_RUNOUTS;
+        long start = System.currentTimeMillis();
+        new BucketingPipeline(directory, noOfBins, maxNoOfRunouts, 0L).run(street, noOfBuckets);
+        System.out.format("Buckets written to '%s' in %d ms%n", getBucketFile(directory, street),
+                System.currentTimeMillis() - start);
+    }
+
+}
@@ -0,0 +1,58 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+/**
+ * Card abstraction, grouping the hole cards and community cards of a player on
+ * each street into a limited number of buckets. <br />
+ * <br />
+ *
+ * Hands in the same bucket are played with the same strategy. Implementations
+ * must be thread-safe, since the {@link CfrTrainer} calls them from all
+ * threads.
+ *
+ * @author Oscar Stigter
+ */
+public interface CardAbstraction {
+
+    /**
+     * Returns the number of buckets of a street.
+     *
+     * @param street
+     *            The street (0 = Pre-Flop, 3 = River).
+     *
+     * @return The number of buckets.
+     */
+    int getNoOfBuckets(int street);
+
+    /**
+     * Returns the bucket of hole cards on a board.
+     *
+     * @param street
+     *            The street (0 = Pre-Flop, 3 = River).
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards of the street (card mask with 0, 3, 4 or
+     *            5 cards).
+     *
+     * @return The bucket (from 0 to the number of buckets - 1).
+     */
+    int getBucket(int street, long holeCards, long board);
+
+}
@@ -0,0 +1,214 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The average strategy trained by the {@link CfrTrainer}. <br />
+ * <br />
+ *
+ * The probability of each action of each information set is stored in a flat
+ * array, so looking up the strategy of a decision takes constant time. An
+ * information set that was never reached during training plays uniformly
+ * random. <br />
+ * <br />
+ *
+ * Instances are immutable and thread-safe.
+ *
+ * @author Oscar Stigter
+ */
+public class CfrStrategy {
+
+    /** The betting tree. */
+    private final BettingTree tree;
+
+    /** The layout of the information sets. */
+    private final InformationSets infosets;
+
+    /** The probability of each action of each information set. */
+    private final float[] probabilities;
+
+    /**
+     * Constructor, normalizing the cumulative strategy.
+     *
+     * @param tree
+     *            The betting tree.
+     * @param infosets
+     *            The layout of the information sets.
+     * @param strategySums
+     *            The cumulative strategy (as raw double bits).
+     */
+    CfrStrategy(BettingTree tree, InformationSets infosets, AtomicLongArray strategySums) {
+        this.tree = tree;
+        this.infosets = infosets;
+        probabilities = new float[infosets.getSize()];
+        for (int index = 0; index < probabilities.length; index += BettingTree.NO_OF_ACTIONS) {
+            double total = 0.0;
+            for (int action = 0; action < BettingTree.NO_OF_ACTIONS; action++) {
+                total += Double.longBitsToDouble(strategySums.get(index + action));
+            }
+            for (int action = 0; action < BettingTree.NO_OF_ACTIONS; action++) {
+                double sum = Double.longBitsToDouble(strategySums.get(index + action));
+                probabilities[index + action] = (total > 0.0) ? (float) (sum / total) : Float.NaN;
+            }
+        }
+    }
+
+    /**
+     * Reads the average strategy from a checkpoint file of the
+     * {@link CfrTrainer}, skipping the regrets.
+     *
+     * @param file
+     *            The checkpoint file.
+     *
+     * @return The strategy.
+     *
+     * @throws IOException
+     *             If the file could not be read.
+     */
+    public static CfrStrategy read(File file) throws IOException {
+        CheckpointFile checkpoint = new CheckpointFile(file);
+        BettingTree tree = new BettingTree();
+        InformationSets infosets = new InformationSets(tree, checkpoint.getNoOfBuckets());
+        if (checkpoint.getSize() != infosets.getSize()) {
+            throw new IllegalStateException("Invalid checkpoint file: " + file);
+        }
+        AtomicLongArray strategySums = new AtomicLongArray(infosets.getSize());
+        checkpoint.read(CheckpointFile.STRATEGY_SUMS, strategySums);
+        return new CfrStrategy(tree, infosets, strategySums);
+    }
+
+    /**
+     * Returns the betting tree.
+     *
+     * @return The betting tree.
+     */
+    public BettingTree getTree() {
+        return tree;
+    }
+
+    /**
+     * Returns the number of buckets of a street.
+     *
+     * @param street
+     *            The street.
+     *
+     * @return The number of buckets.
+     */
+    public int getNoOfBuckets(int street) {
+        return infosets.getNoOfBuckets(street);
+    }
+
+    /**
+     * Returns the probability of an action.
+     *
+     * @param node
+     *            The decision node.
+     * @param contribution
+     *            The contribution of each player before the street (in small
+     *            blinds).
+     * @param bucket
+     *            The bucket of the acting player.
+     * @param action
+     *            The action.
+     *
+     * @return The probability.
+     */
+    public double getProbability(int node, int contribution, int bucket, int action) {
+        int index = getIndex(node, contribution, bucket);
+        if (tree.getChild(node, action) < 0) {
+            return 0.0;
+        }
+        float probability = probabilities[index + action];
+        if (Float.isNaN(probability)) {
+            // Never reached; uniformly random.
+            int noOfActions = 0;
+            for (int a = 0; a < BettingTree.NO_OF_ACTIONS; a++) {
+                if (tree.getChild(node, a) >= 0) {
+                    noOfActions++;
+                }
+            }
+            return 1.0 / noOfActions;
+        }
+        return probability;
+    }
+
+    /**
+     * Picks an action.
+     *
+     * @param node
+     *            The decision node.
+     * @param contribution
+     *            The contribution of each player before the street (in small
+     *            blinds).
+     * @param bucket
+     *            The bucket of the acting player.
+     * @param random
+     *            A uniformly distributed random number from 0 (inclusive) to
+     *            1 (exclusive).
+     *
+     * @return The action.
+     */
+    public int getAction(int node, int contribution, int bucket, double random) {
+        double cumulative = 0.0;
+        int lastAction = BettingTree.CALL;
+        for (int action = 0; action < BettingTree.NO_OF_ACTIONS; action++) {
+            double probability = getProbability(node, contribution, bucket, action);
+            if (probability > 0.0) {
+                cumulative += probability;
+                lastAction = action;
+                if (random < cumulative) {
+                    return action;
+                }
+            }
+        }
+        // Rounding error.
+        return lastAction;
+    }
+
+    /**
+     * Returns the index of the first entry of an information set.
+     *
+     * @param node
+     *            The decision node.
+     * @param contribution
+     *            The contribution of each player before the street.
+     * @param bucket
+     *            The bucket of the acting player.
+     *
+     * @return The index.
+     */
+    private int getIndex(int node, int contribution, int bucket) {
+        if (node < 0 || node >= tree.getNoOfNodes() || !tree.isDecision(node)) {
+            throw new IllegalArgumentException("Invalid node: " + node);
+        }
+        int street = tree.getStreet(node);
+        int potIndex = tree.getPotIndex(street, contribution);
+        if (potIndex < 0) {
+            throw new IllegalArgumentException("Invalid contribution: " + contribution);
+        }
+        if (bucket < 0 || bucket >= infosets.getNoOfBuckets(street)) {
+            throw new IllegalArgumentException("Invalid bucket: " + bucket);
+        }
+        return infosets.getIndex(node, potIndex, bucket);
+    }
+
+}
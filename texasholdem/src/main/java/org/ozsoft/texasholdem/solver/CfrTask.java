@@ -0,0 +1,82 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join task running a number of training iterations of the
+ * {@link CfrTrainer}. <br />
+ * <br />
+ *
+ * Large tasks are split in half, each half with its own random number
+ * generator. All tasks update the same tables, so unlike the other fork/join
+ * tasks the result does depend on the scheduling of the threads.
+ *
+ * @author Oscar Stigter
+ */
+class CfrTask extends RecursiveAction {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The maximum number of iterations run without splitting the task. */
+    private static final int THRESHOLD = 256;
+
+    /** The trainer. */
+    private final CfrTrainer trainer;
+
+    /** The number of iterations to run. */
+    private final long noOfIterations;
+
+    /** The random number generator. */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor.
+     *
+     * @param trainer
+     *            The trainer.
+     * @param noOfIterations
+     *            The number of iterations to run.
+     * @param random
+     *            The random number generator.
+     */
+    CfrTask(CfrTrainer trainer, long noOfIterations, SplittableRandom random) {
+        this.trainer = trainer;
+        this.noOfIterations = noOfIterations;
+        this.random = random;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+        if (noOfIterations > THRESHOLD) {
+            long half = noOfIterations / 2;
+            CfrTask left = new CfrTask(trainer, half, random.split());
+            CfrTask right = new CfrTask(trainer, noOfIterations - half, random);
+            left.fork();
+            right.compute();
+            left.join();
+        } else {
+            trainer.iterate(noOfIterations, random);
+        }
+    }
+
+}
@@ -0,0 +1,497 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Multithreaded Monte Carlo Counterfactual Regret Minimization (MCCFR) trainer
+ * for heads-up Fixed-Limit Texas Hold'em. <br />
+ * <br />
+ *
+ * Each iteration deals random hole cards and a random board, and traverses the
+ * betting rounds of the {@link BettingTree} once for each player with external
+ * sampling: all actions of the traversing player are explored, while a single
+ * action of the opponent is sampled from its current strategy. The current
+ * strategy follows from the cumulative regrets by regret matching; as with
+ * CFR+, negative regrets are reset to zero, so actions that turn out to be
+ * good again are picked up quickly. The average strategy, which converges to
+ * an equilibrium of the abstract game, is accumulated at the opponent's
+ * decisions, weighted by the iteration number (also as with CFR+), so the
+ * poor strategies of the first iterations soon stop mattering. <br />
+ * <br />
+ *
+ * The iterations are split over all threads of a fork/join pool. The regrets
+ * and the cumulative strategy are shared by all threads in flat arrays of raw
+ * double bits, updated lock-free with compare-and-set, so no update is lost.
+ * The memory use is fixed by the betting tree and the card abstraction: 16
+ * bytes per action of each information set (see {@link #getSize()}). <br />
+ * <br />
+ *
+ * Training can be checkpointed to a file periodically and resumed later; a
+ * {@link CfrStrategy} can be read directly from a checkpoint.
+ *
+ * @author Oscar Stigter
+ */
+public class CfrTrainer {
+
+    /** The number of cards dealt per iteration (two hands and the board). */
+    private static final int NO_OF_DEALT_CARDS = 9;
+
+    /** The number of board cards per street. */
+    private static final int[] NO_OF_BOARD_CARDS = { 0, 3, 4, 5 };
+
+    /** The hand evaluator. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /** The fork/join pool. */
+    private final ForkJoinPool pool;
+
+    /** The betting tree. */
+    private final BettingTree tree;
+
+    /** The card abstraction. */
+    private final CardAbstraction abstraction;
+
+    /** The layout of the information sets. */
+    private final InformationSets infosets;
+
+    /** The cumulative regrets, floored at zero (as raw double bits). */
+    private final AtomicLongArray regrets;
+
+    /** The cumulative strategy (as raw double bits). */
+    private final AtomicLongArray strategySums;
+
+    /** The number of iterations. */
+    private final AtomicLong noOfIterations = new AtomicLong();
+
+    /**
+     * Constructor using the common fork/join pool.
+     *
+     * @param tree
+     *            The betting tree.
+     * @param abstraction
+     *            The card abstraction.
+     */
+    public CfrTrainer(BettingTree tree, CardAbstraction abstraction) {
+        this(ForkJoinPool.commonPool(), tree, abstraction);
+    }
+
+    /**
+     * Constructor using a specific fork/join pool.
+     *
+     * @param pool
+     *            The fork/join pool.
+     * @param tree
+     *            The betting tree.
+     * @param abstraction
+     *            The card abstraction.
+     */
+    public CfrTrainer(ForkJoinPool pool, BettingTree tree, CardAbstraction abstraction) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Null pool");
+        }
+        if (tree == null) {
+            throw new IllegalArgumentException("Null tree");
+        }
+        if (abstraction == null) {
+            throw new IllegalArgumentException("Null abstraction");
+        }
+        this.pool = pool;
+        this.tree = tree;
+        this.abstraction = abstraction;
+        int[] noOfBuckets = new int[BettingTree.NO_OF_STREETS];
+        for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+            noOfBuckets[street] = abstraction.getNoOfBuckets(street);
+        }
+        infosets = new InformationSets(tree, noOfBuckets);
+        regrets = new AtomicLongArray(infosets.getSize());
+        strategySums = new AtomicLongArray(infosets.getSize());
+    }
+
+    /**
+     * Returns the number of entries per table (the number of information sets
+     * times the number of actions).
+     *
+     * @return The number of entries.
+     */
+    public int getSize() {
+        return infosets.getSize();
+    }
+
+    /**
+     * Returns the number of iterations trained so far.
+     *
+     * @return The number of iterations.
+     */
+    public long getNoOfIterations() {
+        return noOfIterations.get();
+    }
+
+    /**
+     * Runs a number of training iterations.
+     *
+     * @param noOfIterations
+     *            The number of iterations.
+     * @param seed
+     *            The seed of the random number generator.
+     */
+    public void train(long noOfIterations, long seed) {
+        if (noOfIterations < 1) {
+            throw new IllegalArgumentException("noOfIterations < 1");
+        }
+        pool.invoke(new CfrTask(this, noOfIterations, new SplittableRandom(seed)));
+    }
+
+    /**
+     * Runs a number of training iterations, writing a checkpoint after every
+     * interval and at the end.
+     *
+     * @param noOfIterations
+     *            The number of iterations.
+     * @param seed
+     *            The seed of the random number generator.
+     * @param checkpointFile
+     *            The checkpoint file.
+     * @param checkpointInterval
+     *            The number of iterations between checkpoints.
+     *
+     * @throws IOException
+     *             If a checkpoint could not be written.
+     */
+    public void train(long noOfIterations, long seed, File checkpointFile, long checkpointInterval)
+            throws IOException {
+        if (noOfIterations < 1) {
+            throw new IllegalArgumentException("noOfIterations < 1");
+        }
+        if (checkpointFile == null) {
+            throw new IllegalArgumentException("Null checkpoint file");
+        }
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("checkpointInterval < 1");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long done = 0L; done < noOfIterations; done += checkpointInterval) {
+            long iterations = Math.min(checkpointInterval, noOfIterations - done);
+            // All tasks are joined, so the checkpoint is consistent.
+            pool.invoke(new CfrTask(this, iterations, random.split()));
+            writeCheckpoint(checkpointFile);
+        }
+    }
+
+    /**
+     * Writes a checkpoint. <br />
+     * <br />
+     *
+     * Must not be called while training.
+     *
+     * @param file
+     *            The checkpoint file.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    public void writeCheckpoint(File file) throws IOException {
+        CheckpointFile.write(file, infosets.getNoOfBuckets(), noOfIterations.get(), strategySums, regrets);
+    }
+
+    /**
+     * Reads a checkpoint to resume training, replacing the current state. <br />
+     * <br />
+     *
+     * Must not be called while training.
+     *
+     * @param file
+     *            The checkpoint file.
+     *
+     * @throws IOException
+     *             If the file could not be read.
+     */
+    public void readCheckpoint(File file) throws IOException {
+        CheckpointFile checkpoint = new CheckpointFile(file);
+        if (!Arrays.equals(checkpoint.getNoOfBuckets(), infosets.getNoOfBuckets())
+                || checkpoint.getSize() != infosets.getSize()) {
+            throw new IllegalStateException("Checkpoint does not match the card abstraction: " + file);
+        }
+        checkpoint.read(CheckpointFile.STRATEGY_SUMS, strategySums);
+        checkpoint.read(CheckpointFile.REGRETS, regrets);
+        noOfIterations.set(checkpoint.getNoOfIterations());
+    }
+
+    /**
+     * Returns the average strategy. <br />
+     * <br />
+     *
+     * Must not be called while training.
+     *
+     * @return The average strategy.
+     */
+    public CfrStrategy getStrategy() {
+        return new CfrStrategy(tree, infosets, strategySums);
+    }
+
+    /**
+     * Runs a number of training iterations on the current thread.
+     *
+     * @param noOfIterations
+     *            The number of iterations.
+     * @param random
+     *            The random number generator.
+     */
+    void iterate(long noOfIterations, SplittableRandom random) {
+        int[] deck = new int[CardUtils.NO_OF_CARDS];
+        for (int i = 0; i < deck.length; i++) {
+            deck[i] = i;
+        }
+        long[] holeCards = new long[BettingTree.NO_OF_PLAYERS];
+        Sample sample = new Sample(random);
+        // The iteration number is approximate with multiple threads.
+        long firstIteration = this.noOfIterations.get() + 1L;
+        for (long iteration = 0L; iteration < noOfIterations; iteration++) {
+            sample.weight = firstIteration + iteration;
+            // Deal only the cards needed (partial Fisher-Yates shuffle).
+            for (int i = 0; i < NO_OF_DEALT_CARDS; i++) {
+                int j = i + random.nextInt(deck.length - i);
+                int card = deck[j];
+                deck[j] = deck[i];
+                deck[i] = card;
+            }
+            holeCards[0] = (1L << deck[0]) | (1L << deck[1]);
+            holeCards[1] = (1L << deck[2]) | (1L << deck[3]);
+            for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+                long board = 0L;
+                for (int i = 0; i < NO_OF_BOARD_CARDS[street]; i++) {
+                    board |= 1L << deck[4 + i];
+                }
+                for (int player = 0; player < BettingTree.NO_OF_PLAYERS; player++) {
+                    sample.buckets[player * BettingTree.NO_OF_STREETS + street] = abstraction.getBucket(street,
+                            holeCards[player], board);
+                }
+                if (street == BettingTree.NO_OF_STREETS - 1) {
+                    int value0 = EVALUATOR.getValue(holeCards[0] | board);
+                    int value1 = EVALUATOR.getValue(holeCards[1] | board);
+                    sample.winner = (value0 > value1) ? 0 : (value1 > value0) ? 1 : -1;
+                }
+            }
+            for (int traverser = 0; traverser < BettingTree.NO_OF_PLAYERS; traverser++) {
+                traverse(tree.getRoot(0), 0, traverser, sample);
+            }
+        }
+        this.noOfIterations.addAndGet(noOfIterations);
+    }
+
+    /**
+     * Traverses the betting rounds from a node with external sampling.
+     *
+     * @param node
+     *            The node.
+     * @param contribution
+     *            The contribution of each player before the street.
+     * @param traverser
+     *            The traversing player.
+     * @param sample
+     *            The sampled cards.
+     *
+     * @return The expected value for the traversing player (in small blinds).
+     */
+    private double traverse(int node, int contribution, int traverser, Sample sample) {
+        if (tree.isFold(node)) {
+            int folder = tree.getPlayer(node);
+            int loss = contribution + tree.getBet(node, folder);
+            return (folder == traverser) ? -loss : loss;
+        }
+        int street = tree.getStreet(node);
+        if (tree.isRoundEnd(node)) {
+            int total = contribution + tree.getBet(node, 0);
+            if (street == BettingTree.NO_OF_STREETS - 1) {
+                // Showdown.
+                return (sample.winner < 0) ? 0.0 : (sample.winner == traverser) ? total : -total;
+            }
+            return traverse(tree.getRoot(street + 1), total, traverser, sample);
+        }
+
+        int player = tree.getPlayer(node);
+        int index = infosets.getIndex(node, tree.getPotIndex(street, contribution),
+                sample.buckets[player * BettingTree.NO_OF_STREETS + street]);
+        int fold = tree.getChild(node, BettingTree.FOLD);
+        int call = tree.getChild(node, BettingTree.CALL);
+        int raise = tree.getChild(node, BettingTree.RAISE);
+
+        // Current strategy by regret matching.
+        double foldRegret = (fold < 0) ? 0.0 : Double.longBitsToDouble(regrets.get(index + BettingTree.FOLD));
+        double callRegret = Double.longBitsToDouble(regrets.get(index + BettingTree.CALL));
+        double raiseRegret = (raise < 0) ? 0.0 : Double.longBitsToDouble(regrets.get(index + BettingTree.RAISE));
+        double totalRegret = foldRegret + callRegret + raiseRegret;
+        double foldProbability;
+        double callProbability;
+        double raiseProbability;
+        if (totalRegret > 0.0) {
+            foldProbability = foldRegret / totalRegret;
+            callProbability = callRegret / totalRegret;
+            raiseProbability = raiseRegret / totalRegret;
+        } else {
+            double uniform = 1.0 / (1 + ((fold < 0) ? 0 : 1) + ((raise < 0) ? 0 : 1));
+            foldProbability = (fold < 0) ? 0.0 : uniform;
+            callProbability = uniform;
+            raiseProbability = (raise < 0) ? 0.0 : uniform;
+        }
+
+        if (player == traverser) {
+            // Explore all actions and update the regrets.
+            double foldValue = (fold < 0) ? 0.0 : traverse(fold, contribution, traverser, sample);
+            double callValue = traverse(call, contribution, traverser, sample);
+            double raiseValue = (raise < 0) ? 0.0 : traverse(raise, contribution, traverser, sample);
+            double value = foldProbability * foldValue + callProbability * callValue + raiseProbability * raiseValue;
+            if (fold >= 0) {
+                addRegret(index + BettingTree.FOLD, foldValue - value);
+            }
+            addRegret(index + BettingTree.CALL, callValue - value);
+            if (raise >= 0) {
+                addRegret(index + BettingTree.RAISE, raiseValue - value);
+            }
+            return value;
+        } else {
+            // Accumulate the average strategy and sample a single action.
+            add(strategySums, index + BettingTree.FOLD, sample.weight * foldProbability);
+            add(strategySums, index + BettingTree.CALL, sample.weight * callProbability);
+            add(strategySums, index + BettingTree.RAISE, sample.weight * raiseProbability);
+            double x = sample.random.nextDouble();
+            int child;
+            if (x < foldProbability) {
+                child = fold;
+            } else if (x < foldProbability + callProbability || raise < 0) {
+                child = call;
+            } else {
+                child = raise;
+            }
+            return traverse(child, contribution, traverser, sample);
+        }
+    }
+
+    /**
+     * Adds to a regret, flooring the result at zero (regret matching+).
+     *
+     * @param index
+     *            The index of the regret.
+     * @param delta
+     *            The regret to add.
+     */
+    private void addRegret(int index, double delta) {
+        long bits;
+        long newBits;
+        do {
+            bits = regrets.get(index);
+            newBits = Double.doubleToRawLongBits(Math.max(Double.longBitsToDouble(bits) + delta, 0.0));
+        } while (bits != newBits && !regrets.compareAndSet(index, bits, newBits));
+    }
+
+    /**
+     * Adds to a value in an array of raw double bits.
+     *
+     * @param values
+     *            The values.
+     * @param index
+     *            The index of the value.
+     * @param delta
+     *            The value to add.
+     */
+    private static void add(AtomicLongArray values, int index, double delta) {
+        if (delta == 0.0) {
+            return;
+        }
+        long bits;
+        do {
+            bits = values.get(index);
+        } while (!values.compareAndSet(index, bits,
+                Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + delta)));
+    }
+
+    /**
+     * Trains a strategy from the command line, resuming from the checkpoint
+     * file if it exists. <br />
+     * <br />
+     *
+     * Arguments: the checkpoint file, the number of iterations, and optionally
+     * the number of buckets on the Flop, Turn and River (default: 50 each).
+     *
+     * @param args
+     *            The command line arguments.
+     *
+     * @throws IOException
+     *             If the checkpoint file could not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 5) {
+            System.err.println("Usage: CfrTrainer <checkpoint file> <iterations> [<flop> <turn> <river> buckets]");
+            System.exit(1);
+        }
+        File file = new File(args[0]);
+        long iterations = Long.parseLong(args[1]);
+        CardAbstraction abstraction = (args.length == 5) ? new HandStrengthAbstraction(Integer.parseInt(args[2]),
+                Integer.parseInt(args[3]), Integer.parseInt(args[4])) : new HandStrengthAbstraction(50, 50, 50);
+        CfrTrainer trainer = new CfrTrainer(new BettingTree(), abstraction);
+        if (file.exists()) {
+            trainer.readCheckpoint(file);
+            System.out.format("Resumed after %d iterations%n", trainer.getNoOfIterations());
+        }
+        long interval = Math.max(iterations / 10L, 1L);
+        long start = System.currentTimeMillis();
+        trainer.train(iterations, System.nanoTime(), file, interval);
+        System.out.format("Trained %d iterations in %d ms (total %d)%n", iterations,
+                System.currentTimeMillis() - start, trainer.getNoOfIterations());
+    }
+
+    /**
+     * The cards sampled for an iteration.
+     */
+    private static final class Sample {
+
+        /** The random number generator. */
+        private final SplittableRandom random;
+
+        /** The bucket of each player on each street (player * 4 + street). */
+        private final int[] buckets = new int[BettingTree.NO_OF_PLAYERS * BettingTree.NO_OF_STREETS];
+
+        /** The player winning the showdown (or -1 for a tie). */
+        private int winner;
+
+        /** The weight of the iteration in the average strategy. */
+        private double weight;
+
+        /**
+         * Constructor.
+         *
+         * @param random
+         *            The random number generator.
+         */
+        private Sample(SplittableRandom random) {
+            this.random = random;
+        }
+
+    }
+
+}
@@ -0,0 +1,277 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32;
+
+/**
+ * Checkpoint file of the {@link CfrTrainer}. <br />
+ * <br />
+ *
+ * The file starts with a header (magic number, version, the number of buckets
+ * per street, the number of entries per table, the number of iterations and
+ * the CRC-32 checksum of each table), followed by the cumulative strategy and
+ * the cumulative regrets as little-endian 64-bit floating point numbers. The
+ * cumulative strategy comes first, so it can be read without the regrets. <br />
+ * <br />
+ *
+ * A checkpoint is first written to a temporary file, which then replaces the
+ * previous checkpoint, so an interrupted write never leaves a corrupt
+ * checkpoint behind.
+ *
+ * @author Oscar Stigter
+ */
+final class CheckpointFile {
+
+    /** The magic number identifying a checkpoint file ("CFRP"). */
+    private static final int MAGIC = 0x43465250;
+
+    /** The version of the file format. */
+    private static final int VERSION = 1;
+
+    /** The size of the file header in bytes. */
+    private static final int HEADER_SIZE = 48;
+
+    /** The number of entries per read or write. */
+    private static final int CHUNK_SIZE = 8192;
+
+    /** The number of tables. */
+    private static final int NO_OF_TABLES = 2;
+
+    /** Table: the cumulative strategy. */
+    static final int STRATEGY_SUMS = 0;
+
+    /** Table: the cumulative regrets. */
+    static final int REGRETS = 1;
+
+    /** The file. */
+    private final File file;
+
+    /** The number of buckets per street. */
+    private final int[] noOfBuckets = new int[BettingTree.NO_OF_STREETS];
+
+    /** The number of entries per table. */
+    private final int size;
+
+    /** The number of iterations. */
+    private final long noOfIterations;
+
+    /** The checksum of each table. */
+    private final int[] checksums = new int[NO_OF_TABLES];
+
+    /**
+     * Constructor, reading and validating the header.
+     *
+     * @param file
+     *            The file.
+     *
+     * @throws IOException
+     *             If the file could not be read.
+     */
+    CheckpointFile(File file) throws IOException {
+        this.file = file;
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading.
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IllegalStateException("Invalid checkpoint file: " + file);
+            }
+            for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+                noOfBuckets[street] = header.getInt(8 + 4 * street);
+            }
+            size = header.getInt(24);
+            noOfIterations = header.getLong(28);
+            checksums[STRATEGY_SUMS] = header.getInt(36);
+            checksums[REGRETS] = header.getInt(40);
+            if (size < 0 || noOfIterations < 0L || channel.size() != HEADER_SIZE + 8L * NO_OF_TABLES * size) {
+                throw new IllegalStateException("Invalid checkpoint file: " + file);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns the number of buckets per street.
+     *
+     * @return The number of buckets per street.
+     */
+    int[] getNoOfBuckets() {
+        return noOfBuckets.clone();
+    }
+
+    /**
+     * Returns the number of entries per table.
+     *
+     * @return The number of entries.
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of iterations.
+     *
+     * @return The number of iterations.
+     */
+    long getNoOfIterations() {
+        return noOfIterations;
+    }
+
+    /**
+     * Reads a table and verifies its checksum.
+     *
+     * @param table
+     *            The table ({@link #STRATEGY_SUMS} or {@link #REGRETS}).
+     * @param values
+     *            The array to read the values into (as raw double bits).
+     *
+     * @throws IOException
+     *             If the file could not be read.
+     */
+    void read(int table, AtomicLongArray values) throws IOException {
+        if (values.length() != size) {
+            throw new IllegalArgumentException("Invalid table size");
+        }
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            channel.position(HEADER_SIZE + 8L * table * size);
+            ByteBuffer buffer = ByteBuffer.allocate(8 * CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            for (int offset = 0; offset < size; offset += CHUNK_SIZE) {
+                int length = Math.min(CHUNK_SIZE, size - offset);
+                // Cast to Buffer to stay compatible with the Java 8 runtime.
+                ((Buffer) buffer).clear();
+                ((Buffer) buffer).limit(8 * length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IllegalStateException("Invalid checkpoint file: " + file);
+                    }
+                }
+                crc.update(buffer.array(), 0, 8 * length);
+                for (int i = 0; i < length; i++) {
+                    values.set(offset + i, buffer.getLong(8 * i));
+                }
+            }
+            if ((int) crc.getValue() != checksums[table]) {
+                throw new IllegalStateException("Corrupt checkpoint file (checksum mismatch): " + file);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes a checkpoint, replacing any existing file.
+     *
+     * @param file
+     *            The file.
+     * @param noOfBuckets
+     *            The number of buckets per street.
+     * @param noOfIterations
+     *            The number of iterations.
+     * @param strategySums
+     *            The cumulative strategy (as raw double bits).
+     * @param regrets
+     *            The cumulative regrets (as raw double bits).
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    static void write(File file, int[] noOfBuckets, long noOfIterations, AtomicLongArray strategySums,
+            AtomicLongArray regrets) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(8 * CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_SIZE);
+            int strategyChecksum = write(channel, buffer, strategySums);
+            int regretsChecksum = write(channel, buffer, regrets);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION);
+            for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+                header.putInt(noOfBuckets[street]);
+            }
+            header.putInt(strategySums.length()).putLong(noOfIterations);
+            header.putInt(strategyChecksum).putInt(regretsChecksum).putInt(0);
+            ((Buffer) header).flip();
+            channel.position(0L);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes a table.
+     *
+     * @param channel
+     *            The file channel.
+     * @param buffer
+     *            The buffer.
+     * @param values
+     *            The values (as raw double bits).
+     *
+     * @return The checksum of the table.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    private static int write(FileChannel channel, ByteBuffer buffer, AtomicLongArray values) throws IOException {
+        CRC32 crc = new CRC32();
+        int size = values.length();
+        for (int offset = 0; offset < size; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, size - offset);
+            ((Buffer) buffer).clear();
+            for (int i = 0; i < length; i++) {
+                buffer.putLong(values.get(offset + i));
+            }
+            crc.update(buffer.array(), 0, 8 * length);
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+}
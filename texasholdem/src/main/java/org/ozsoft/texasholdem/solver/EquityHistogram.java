@@ -0,0 +1,178 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.util.SplittableRandom;
+
+import org.ozsoft.texasholdem.equity.HandStrengthCalculator;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Calculator of the equity distribution of hole cards on a board. <br />
+ * <br />
+ *
+ * For each runout of the remaining community cards, the hand strength on the
+ * River (the share of opponent hole cards beaten) is counted in a histogram of
+ * equal-width bins. Two hands with the same average equity can have very
+ * different distributions (a made hand versus a draw), which makes the
+ * histogram a better basis for bucketing than the average alone. <br />
+ * <br />
+ *
+ * All runouts are enumerated if there are at most the maximum number of
+ * runouts, otherwise that number of runouts is sampled at random. <br />
+ * <br />
+ *
+ * Instances are not thread-safe.
+ *
+ * @author Oscar Stigter
+ */
+public class EquityHistogram {
+
+    /** The number of community cards on the River. */
+    private static final int NO_OF_BOARD_CARDS = 5;
+
+    /** The hand strength calculator. */
+    private final HandStrengthCalculator calculator = new HandStrengthCalculator();
+
+    /** The deck with the remaining cards. */
+    private final int[] deck = new int[CardUtils.NO_OF_CARDS];
+
+    /** The number of bins. */
+    private final int noOfBins;
+
+    /** The maximum number of runouts. */
+    private final int maxNoOfRunouts;
+
+    /** The random number generator. */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor.
+     *
+     * @param noOfBins
+     *            The number of bins.
+     * @param maxNoOfRunouts
+     *            The maximum number of runouts.
+     * @param random
+     *            The random number generator for sampling runouts.
+     */
+    public EquityHistogram(int noOfBins, int maxNoOfRunouts, SplittableRandom random) {
+        if (noOfBins < 2) {
+            throw new IllegalArgumentException("Invalid number of bins");
+        }
+        if (maxNoOfRunouts < 1) {
+            throw new IllegalArgumentException("Invalid maximum number of runouts");
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("Null random");
+        }
+        this.noOfBins = noOfBins;
+        this.maxNoOfRunouts = maxNoOfRunouts;
+        this.random = random;
+    }
+
+    /**
+     * Returns the number of bins.
+     *
+     * @return The number of bins.
+     */
+    public int getNoOfBins() {
+        return noOfBins;
+    }
+
+    /**
+     * Calculates the equity histogram of hole cards on a board.
+     *
+     * @param holeCards
+     *            The hole cards (card mask).
+     * @param board
+     *            The community cards (card mask with 0, 3, 4 or 5 cards).
+     * @param histogram
+     *            The histogram to fill with the share of runouts per bin.
+     */
+    public void calculate(long holeCards, long board, double[] histogram) {
+        if (histogram.length != noOfBins) {
+            throw new IllegalArgumentException("Invalid histogram size");
+        }
+        int noOfRemainingCards = NO_OF_BOARD_CARDS - Long.bitCount(board);
+        if (Long.bitCount(holeCards) != 2 || noOfRemainingCards < 0 || noOfRemainingCards == 3
+                || noOfRemainingCards == 4 || (holeCards & board) != 0L) {
+            throw new IllegalArgumentException("Invalid cards");
+        }
+        for (int i = 0; i < noOfBins; i++) {
+            histogram[i] = 0.0;
+        }
+        int deckSize = 0;
+        long knownCards = holeCards | board;
+        for (int card = 0; card < CardUtils.NO_OF_CARDS; card++) {
+            if ((knownCards & (1L << card)) == 0L) {
+                deck[deckSize++] = card;
+            }
+        }
+
+        int noOfRunouts = 0;
+        if (noOfRemainingCards == 0) {
+            add(holeCards, board, histogram);
+            noOfRunouts = 1;
+        } else if (noOfRemainingCards == 1 && deckSize <= maxNoOfRunouts) {
+            for (int i = 0; i < deckSize; i++) {
+                add(holeCards, board | (1L << deck[i]), histogram);
+            }
+            noOfRunouts = deckSize;
+        } else if (noOfRemainingCards == 2 && deckSize * (deckSize - 1) / 2 <= maxNoOfRunouts) {
+            for (int i = 0; i < deckSize; i++) {
+                for (int j = i + 1; j < deckSize; j++) {
+                    add(holeCards, board | (1L << deck[i]) | (1L << deck[j]), histogram);
+                }
+            }
+            noOfRunouts = deckSize * (deckSize - 1) / 2;
+        } else {
+            for (; noOfRunouts < maxNoOfRunouts; noOfRunouts++) {
+                // Deal only the cards needed (partial Fisher-Yates shuffle).
+                long fullBoard = board;
+                for (int i = 0; i < noOfRemainingCards; i++) {
+                    int j = i + random.nextInt(deckSize - i);
+                    int card = deck[j];
+                    deck[j] = deck[i];
+                    deck[i] = card;
+                    fullBoard |= 1L << card;
+                }
+                add(holeCards, fullBoard, histogram);
+            }
+        }
+        for (int i = 0; i < noOfBins; i++) {
+            histogram[i] /= noOfRunouts;
+        }
+    }
+
+    /**
+     * Counts the hand strength of a runout.
+     *
+     * @param holeCards
+     *            The hole cards.
+     * @param board
+     *            The complete board.
+     * @param histogram
+     *            The histogram.
+     */
+    private void add(long holeCards, long board, double[] histogram) {
+        double handStrength = calculator.getHandStrength(holeCards, board);
+        histogram[Math.min((int) (handStrength * noOfBins), noOfBins - 1)]++;
+    }
+
+}
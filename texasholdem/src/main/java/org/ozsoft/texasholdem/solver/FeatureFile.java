@@ -0,0 +1,235 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory-mapped file with a fixed-size feature vector (of bytes) per row,
+ * computed in chunks of rows. <br />
+ * <br />
+ *
+ * A second file (with the extension <code>.progress</code>) holds a flag per
+ * chunk, set once all rows of the chunk are written. Since both files are
+ * mapped, everything written survives the process being stopped, so the
+ * computation can be resumed with the chunks that are not done yet. <br />
+ * <br />
+ *
+ * The rows are spread over several mappings of at most 1 GB each. Rows may be
+ * read and written concurrently, as long as no row is written by more than
+ * one thread.
+ *
+ * @author Oscar Stigter
+ */
+final class FeatureFile {
+
+    /** The number of rows per chunk. */
+    static final int CHUNK_SIZE = 4096;
+
+    /** The maximum size of a mapping in bytes. */
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+    /** The number of rows. */
+    private final long noOfRows;
+
+    /** The size of a feature vector. */
+    private final int dimension;
+
+    /** The number of rows per mapping. */
+    private final long rowsPerSegment;
+
+    /** The mappings with the rows. */
+    private final MappedByteBuffer[] segments;
+
+    /** The mapping with the progress flags. */
+    private final MappedByteBuffer progress;
+
+    /**
+     * Constructor, creating the files if they do not exist.
+     *
+     * @param file
+     *            The file.
+     * @param noOfRows
+     *            The number of rows.
+     * @param dimension
+     *            The size of a feature vector.
+     *
+     * @throws IOException
+     *             If the file could not be created or mapped.
+     */
+    FeatureFile(File file, long noOfRows, int dimension) throws IOException {
+        this.noOfRows = noOfRows;
+        this.dimension = dimension;
+        rowsPerSegment = MAX_SEGMENT_SIZE / dimension;
+        segments = new MappedByteBuffer[(int) ((noOfRows + rowsPerSegment - 1) / rowsPerSegment)];
+        RandomAccessFile raf = open(file, noOfRows * dimension);
+        try {
+            FileChannel channel = raf.getChannel();
+            for (int i = 0; i < segments.length; i++) {
+                long offset = i * rowsPerSegment * dimension;
+                long size = Math.min(rowsPerSegment, noOfRows - i * rowsPerSegment) * dimension;
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset, size);
+            }
+        } finally {
+            // The mappings remain valid after closing the file.
+            raf.close();
+        }
+        int noOfChunks = (int) ((noOfRows + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        raf = open(new File(file.getPath() + ".progress"), noOfChunks);
+        try {
+            progress = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0L, noOfChunks);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The number of rows.
+     */
+    long getNoOfRows() {
+        return noOfRows;
+    }
+
+    /**
+     * Returns the size of a feature vector.
+     *
+     * @return The size of a feature vector.
+     */
+    int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of chunks.
+     *
+     * @return The number of chunks.
+     */
+    int getNoOfChunks() {
+        return progress.capacity();
+    }
+
+    /**
+     * Returns whether all rows of a chunk are written.
+     *
+     * @param chunk
+     *            The chunk.
+     *
+     * @return True if done, otherwise false.
+     */
+    boolean isDone(int chunk) {
+        return progress.get(chunk) != 0;
+    }
+
+    /**
+     * Marks a chunk as done, after all of its rows are written.
+     *
+     * @param chunk
+     *            The chunk.
+     */
+    void setDone(int chunk) {
+        progress.put(chunk, (byte) 1);
+    }
+
+    /**
+     * Returns whether all chunks are done.
+     *
+     * @return True if all chunks are done, otherwise false.
+     */
+    boolean isComplete() {
+        for (int chunk = 0; chunk < getNoOfChunks(); chunk++) {
+            if (!isDone(chunk)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a row.
+     *
+     * @param row
+     *            The row.
+     * @param features
+     *            The array to read the feature vector into.
+     */
+    void read(long row, byte[] features) {
+        MappedByteBuffer segment = segments[(int) (row / rowsPerSegment)];
+        int offset = (int) (row % rowsPerSegment) * dimension;
+        for (int i = 0; i < dimension; i++) {
+            features[i] = segment.get(offset + i);
+        }
+    }
+
+    /**
+     * Writes a row.
+     *
+     * @param row
+     *            The row.
+     * @param features
+     *            The feature vector.
+     */
+    void write(long row, byte[] features) {
+        MappedByteBuffer segment = segments[(int) (row / rowsPerSegment)];
+        int offset = (int) (row % rowsPerSegment) * dimension;
+        for (int i = 0; i < dimension; i++) {
+            segment.put(offset + i, features[i]);
+        }
+    }
+
+    /**
+     * Writes all changes to the storage device.
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        progress.force();
+    }
+
+    /**
+     * Opens a file with a specific size, creating it (filled with zeros) if it
+     * does not exist.
+     *
+     * @param file
+     *            The file.
+     * @param size
+     *            The size in bytes.
+     *
+     * @return The opened file.
+     *
+     * @throws IOException
+     *             If the file could not be opened.
+     */
+    private static RandomAccessFile open(File file, long size) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        long length = raf.length();
+        if (length != 0L && length != size) {
+            raf.close();
+            throw new IllegalStateException("File does not match the settings: " + file);
+        }
+        raf.setLength(size);
+        return raf;
+    }
+
+}
@@ -0,0 +1,124 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveAction;
+
+import org.ozsoft.texasholdem.util.HandIndexer;
+
+/**
+ * Fork/join task calculating the features of a range of chunks of canonical
+ * hands: the cumulative equity histogram (see {@link EquityHistogram}),
+ * quantized to bytes. <br />
+ * <br />
+ *
+ * Chunks that are already done are skipped. Each chunk has its own random
+ * number generator, seeded with the chunk, so the features only depend on the
+ * seed, not on the number of threads or on the chunks done earlier.
+ *
+ * @author Oscar Stigter
+ */
+class FeatureTask extends RecursiveAction {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** Multiplier spreading the seeds of consecutive chunks (golden ratio). */
+    private static final long SEED_INCREMENT = 0x9e3779b97f4a7c15L;
+
+    /** The indexer of the canonical hands. */
+    private final HandIndexer indexer;
+
+    /** The features. */
+    private final FeatureFile features;
+
+    /** The maximum number of runouts per hand. */
+    private final int maxNoOfRunouts;
+
+    /** The seed. */
+    private final long seed;
+
+    /** The first chunk. */
+    private final int fromChunk;
+
+    /** The chunk after the last chunk. */
+    private final int toChunk;
+
+    /**
+     * Constructor.
+     *
+     * @param indexer
+     *            The indexer of the canonical hands.
+     * @param features
+     *            The features.
+     * @param maxNoOfRunouts
+     *            The maximum number of runouts per hand.
+     * @param seed
+     *            The seed.
+     * @param fromChunk
+     *            The first chunk.
+     * @param toChunk
+     *            The chunk after the last chunk.
+     */
+    FeatureTask(HandIndexer indexer, FeatureFile features, int maxNoOfRunouts, long seed, int fromChunk, int toChunk) {
+        this.indexer = indexer;
+        this.features = features;
+        this.maxNoOfRunouts = maxNoOfRunouts;
+        this.seed = seed;
+        this.fromChunk = fromChunk;
+        this.toChunk = toChunk;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+        if (toChunk - fromChunk > 1) {
+            int middle = (fromChunk + toChunk) >>> 1;
+            invokeAll(new FeatureTask(indexer, features, maxNoOfRunouts, seed, fromChunk, middle), new FeatureTask(
+                    indexer, features, maxNoOfRunouts, seed, middle, toChunk));
+        } else if (!features.isDone(fromChunk)) {
+            int dimension = features.getDimension();
+            EquityHistogram equityHistogram = new EquityHistogram(dimension + 1, maxNoOfRunouts, new SplittableRandom(
+                    seed + SEED_INCREMENT * (fromChunk + 1)));
+            double[] histogram = new double[dimension + 1];
+            byte[] row = new byte[dimension];
+            int[] cards = new int[indexer.getNoOfCards()];
+            long fromRow = (long) fromChunk * FeatureFile.CHUNK_SIZE;
+            long toRow = Math.min(fromRow + FeatureFile.CHUNK_SIZE, features.getNoOfRows());
+            for (long index = fromRow; index < toRow; index++) {
+                indexer.unindex(index, cards);
+                long holeCards = (1L << cards[0]) | (1L << cards[1]);
+                long board = 0L;
+                for (int i = 2; i < cards.length; i++) {
+                    board |= 1L << cards[i];
+                }
+                equityHistogram.calculate(holeCards, board, histogram);
+                // Cumulative histogram; the last bin is always 1.
+                double cumulative = 0.0;
+                for (int i = 0; i < dimension; i++) {
+                    cumulative += histogram[i];
+                    row[i] = (byte) Math.round(Math.min(cumulative, 1.0) * 255.0);
+                }
+                features.write(index, row);
+            }
+            features.setDone(fromChunk);
+        }
+    }
+
+}
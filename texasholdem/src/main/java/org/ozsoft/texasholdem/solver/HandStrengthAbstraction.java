@@ -0,0 +1,88 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import org.ozsoft.texasholdem.equity.HandStrengthCalculator;
+import org.ozsoft.texasholdem.util.HandIndexer;
+
+/**
+ * Card abstraction based on the current hand strength. <br />
+ * <br />
+ *
+ * Pre-Flop each of the 169 strategically different starting hands has its own
+ * bucket (see {@link HandIndexer}). After the Flop the hand strength (the
+ * share of opponent hole cards beaten, see {@link HandStrengthCalculator}) is
+ * divided into buckets of equal width; since the hand strength is roughly
+ * uniformly distributed, the buckets are of similar size. <br />
+ * <br />
+ *
+ * Instances are thread-safe; each thread uses its own calculator.
+ *
+ * @author Oscar Stigter
+ */
+public class HandStrengthAbstraction implements CardAbstraction {
+
+    /** The canonical index of the hole cards. */
+    private static final HandIndexer PREFLOP_INDEXER = HandIndexer.forStreet(0);
+
+    /** The number of buckets per street. */
+    private final int[] noOfBuckets;
+
+    /** The hand strength calculator of each thread. */
+    private final ThreadLocal<HandStrengthCalculator> calculators = new ThreadLocal<HandStrengthCalculator>() {
+        @Override
+        protected HandStrengthCalculator initialValue() {
+            return new HandStrengthCalculator();
+        }
+    };
+
+    /**
+     * Constructor.
+     *
+     * @param noOfFlopBuckets
+     *            The number of buckets on the Flop.
+     * @param noOfTurnBuckets
+     *            The number of buckets on the Turn.
+     * @param noOfRiverBuckets
+     *            The number of buckets on the River.
+     */
+    public HandStrengthAbstraction(int noOfFlopBuckets, int noOfTurnBuckets, int noOfRiverBuckets) {
+        if (noOfFlopBuckets < 1 || noOfTurnBuckets < 1 || noOfRiverBuckets < 1) {
+            throw new IllegalArgumentException("Invalid number of buckets");
+        }
+        noOfBuckets = new int[] { (int) PREFLOP_INDEXER.getSize(), noOfFlopBuckets, noOfTurnBuckets,
+                noOfRiverBuckets };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getNoOfBuckets(int street) {
+        return noOfBuckets[street];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getBucket(int street, long holeCards, long board) {
+        if (street == 0) {
+            return (int) PREFLOP_INDEXER.index(holeCards, 0L);
+        }
+        double handStrength = calculators.get().getHandStrength(holeCards, board);
+        return Math.min((int) (handStrength * noOfBuckets[street]), noOfBuckets[street] - 1);
+    }
+
+}
@@ -0,0 +1,124 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+/**
+ * The layout of the information sets in the flat tables of the
+ * {@link CfrTrainer} and the {@link CfrStrategy}. <br />
+ * <br />
+ *
+ * An information set is a decision node of a street, the contribution of each
+ * player before the street and the bucket of the acting player. Each
+ * information set has one entry per action, so the index of an action is the
+ * index of its information set plus the action.
+ *
+ * @author Oscar Stigter
+ */
+final class InformationSets {
+
+    /** The maximum number of entries (the maximum size of a Java array). */
+    private static final long MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    /** The betting tree. */
+    private final BettingTree tree;
+
+    /** The number of buckets per street. */
+    private final int[] noOfBuckets;
+
+    /** The index of the first entry of each street. */
+    private final int[] offsets = new int[BettingTree.NO_OF_STREETS];
+
+    /** The total number of entries. */
+    private final int size;
+
+    /**
+     * Constructor.
+     *
+     * @param tree
+     *            The betting tree.
+     * @param noOfBuckets
+     *            The number of buckets per street.
+     */
+    InformationSets(BettingTree tree, int[] noOfBuckets) {
+        this.tree = tree;
+        this.noOfBuckets = noOfBuckets.clone();
+        long total = 0L;
+        for (int street = 0; street < BettingTree.NO_OF_STREETS; street++) {
+            if (noOfBuckets[street] < 1) {
+                throw new IllegalArgumentException("Invalid number of buckets");
+            }
+            offsets[street] = (int) total;
+            total += (long) tree.getNoOfPots(street) * tree.getNoOfDecisionNodes(street) * noOfBuckets[street]
+                    * BettingTree.NO_OF_ACTIONS;
+            if (total > MAX_SIZE) {
+                throw new IllegalArgumentException("Too many information sets");
+            }
+        }
+        size = (int) total;
+    }
+
+    /**
+     * Returns the number of buckets of a street.
+     *
+     * @param street
+     *            The street.
+     *
+     * @return The number of buckets.
+     */
+    int getNoOfBuckets(int street) {
+        return noOfBuckets[street];
+    }
+
+    /**
+     * Returns the number of buckets per street.
+     *
+     * @return The number of buckets per street.
+     */
+    int[] getNoOfBuckets() {
+        return noOfBuckets.clone();
+    }
+
+    /**
+     * Returns the total number of entries.
+     *
+     * @return The number of entries.
+     */
+    int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the first entry of an information set.
+     *
+     * @param node
+     *            The decision node.
+     * @param potIndex
+     *            The index of the contribution before the street.
+     * @param bucket
+     *            The bucket of the acting player.
+     *
+     * @return The index.
+     */
+    int getIndex(int node, int potIndex, int bucket) {
+        int street = tree.getStreet(node);
+        return offsets[street]
+                + ((potIndex * tree.getNoOfDecisionNodes(street) + tree.getDecisionIndex(node)) * noOfBuckets[street]
+                        + bucket) * BettingTree.NO_OF_ACTIONS;
+    }
+
+}
@@ -0,0 +1,341 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+
+/**
+ * Parallel k-means clustering of the rows of a {@link FeatureFile}. <br />
+ * <br />
+ *
+ * The centroids are initialized with k-means++ on a random sample of the rows,
+ * followed by Lloyd iterations until no centroid moves more than the
+ * tolerance. Each iteration is split over all threads of a fork/join pool
+ * (see {@link KMeansTask}). An empty cluster keeps its centroid. <br />
+ * <br />
+ *
+ * The centroids are written to a checkpoint file after each iteration, from
+ * which an interrupted clustering is resumed. When done, the clusters are
+ * sorted by ascending equity: the features are cumulative histograms, so the
+ * lower the sum of a centroid, the higher its equity.
+ *
+ * @author Oscar Stigter
+ */
+final class KMeans {
+
+    /** The magic number identifying a centroids file ("KMNS"). */
+    private static final int MAGIC = 0x4b4d4e53;
+
+    /** The version of the file format. */
+    private static final int VERSION = 1;
+
+    /** The size of the file header in bytes. */
+    private static final int HEADER_SIZE = 24;
+
+    /** The number of iterations stored in the checkpoint file once converged. */
+    private static final int CONVERGED = Integer.MAX_VALUE;
+
+    /** The minimum size of the k-means++ sample. */
+    private static final int MIN_SAMPLE_SIZE = 10000;
+
+    /** The size of the k-means++ sample per cluster. */
+    private static final int SAMPLE_SIZE_PER_CLUSTER = 10;
+
+    /** The fork/join pool. */
+    private final ForkJoinPool pool;
+
+    /** The features. */
+    private final FeatureFile features;
+
+    /** The number of clusters. */
+    private final int noOfClusters;
+
+    /**
+     * Constructor.
+     *
+     * @param pool
+     *            The fork/join pool.
+     * @param features
+     *            The features (complete).
+     * @param noOfClusters
+     *            The number of clusters.
+     */
+    KMeans(ForkJoinPool pool, FeatureFile features, int noOfClusters) {
+        this.pool = pool;
+        this.features = features;
+        this.noOfClusters = noOfClusters;
+    }
+
+    /**
+     * Runs the clustering, or resumes it from the checkpoint file if it
+     * exists.
+     *
+     * @param checkpointFile
+     *            The checkpoint file with the centroids.
+     * @param maxNoOfIterations
+     *            The maximum number of iterations.
+     * @param tolerance
+     *            The maximum distance a centroid may move in the last
+     *            iteration.
+     * @param seed
+     *            The seed of the random number generator for the
+     *            initialization.
+     *
+     * @return The centroids (cluster * dimension + i), sorted by ascending
+     *         equity.
+     *
+     * @throws IOException
+     *             If the checkpoint file could not be read or written.
+     */
+    double[] run(File checkpointFile, int maxNoOfIterations, double tolerance, long seed) throws IOException {
+        int dimension = features.getDimension();
+        double[] centroids;
+        int iteration;
+        if (checkpointFile.exists()) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpointFile.toPath())).order(
+                    ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() != HEADER_SIZE + 8 * noOfClusters * dimension || buffer.getInt(0) != MAGIC
+                    || buffer.getInt(4) != VERSION || buffer.getInt(8) != noOfClusters
+                    || buffer.getInt(12) != dimension || buffer.getInt(20) != getChecksum(buffer)) {
+                throw new IllegalStateException("Invalid centroids file: " + checkpointFile);
+            }
+            iteration = buffer.getInt(16);
+            centroids = new double[noOfClusters * dimension];
+            for (int i = 0; i < centroids.length; i++) {
+                centroids[i] = buffer.getDouble(HEADER_SIZE + 8 * i);
+            }
+        } else {
+            centroids = initialize(new SplittableRandom(seed));
+            iteration = 0;
+            write(checkpointFile, centroids, iteration);
+        }
+
+        while (iteration < maxNoOfIterations) {
+            double[] sums = pool.invoke(new KMeansTask(features, centroids, 0L, features.getNoOfRows()));
+            double maxShift = 0.0;
+            int countOffset = noOfClusters * dimension;
+            for (int cluster = 0; cluster < noOfClusters; cluster++) {
+                double count = sums[countOffset + cluster];
+                if (count > 0.0) {
+                    double shift = 0.0;
+                    for (int j = 0; j < dimension; j++) {
+                        double value = sums[cluster * dimension + j] / count;
+                        double delta = value - centroids[cluster * dimension + j];
+                        shift += delta * delta;
+                        centroids[cluster * dimension + j] = value;
+                    }
+                    maxShift = Math.max(maxShift, shift);
+                }
+            }
+            iteration++;
+            if (Math.sqrt(maxShift) <= tolerance) {
+                iteration = CONVERGED;
+            }
+            write(checkpointFile, centroids, iteration);
+        }
+
+        return sort(centroids);
+    }
+
+    /**
+     * Returns the nearest centroid of a row.
+     *
+     * @param centroids
+     *            The centroids.
+     * @param row
+     *            The feature vector.
+     *
+     * @return The cluster.
+     */
+    static int getNearest(double[] centroids, byte[] row) {
+        int noOfClusters = centroids.length / row.length;
+        int nearest = 0;
+        double minDistance = Double.MAX_VALUE;
+        for (int cluster = 0; cluster < noOfClusters; cluster++) {
+            double distance = getDistance(centroids, cluster, row);
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearest = cluster;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Returns the squared distance between a centroid and a row.
+     *
+     * @param centroids
+     *            The centroids.
+     * @param cluster
+     *            The cluster.
+     * @param row
+     *            The feature vector.
+     *
+     * @return The squared distance.
+     */
+    static double getDistance(double[] centroids, int cluster, byte[] row) {
+        int offset = cluster * row.length;
+        double distance = 0.0;
+        for (int j = 0; j < row.length; j++) {
+            double delta = (row[j] & 0xff) - centroids[offset + j];
+            distance += delta * delta;
+        }
+        return distance;
+    }
+
+    /**
+     * Initializes the centroids with k-means++ on a random sample of rows.
+     *
+     * @param random
+     *            The random number generator.
+     *
+     * @return The centroids.
+     */
+    private double[] initialize(SplittableRandom random) {
+        int dimension = features.getDimension();
+        long noOfRows = features.getNoOfRows();
+        int sampleSize = (int) Math.min(noOfRows, Math.max(MIN_SAMPLE_SIZE, (long) SAMPLE_SIZE_PER_CLUSTER
+                * noOfClusters));
+        byte[][] sample = new byte[sampleSize][dimension];
+        for (int i = 0; i < sampleSize; i++) {
+            // All rows if there are few, otherwise a random selection.
+            long row = (sampleSize == noOfRows) ? i : random.nextLong(noOfRows);
+            features.read(row, sample[i]);
+        }
+
+        double[] centroids = new double[noOfClusters * dimension];
+        double[] distances = new double[sampleSize];
+        Arrays.fill(distances, Double.MAX_VALUE);
+        int next = random.nextInt(sampleSize);
+        for (int cluster = 0; cluster < noOfClusters; cluster++) {
+            for (int j = 0; j < dimension; j++) {
+                centroids[cluster * dimension + j] = sample[next][j] & 0xff;
+            }
+            // Pick the next centroid with a probability proportional to the squared distance.
+            double total = 0.0;
+            for (int i = 0; i < sampleSize; i++) {
+                distances[i] = Math.min(distances[i], getDistance(centroids, cluster, sample[i]));
+                total += distances[i];
+            }
+            if (total > 0.0) {
+                double x = random.nextDouble() * total;
+                next = sampleSize - 1;
+                for (int i = 0; i < sampleSize; i++) {
+                    x -= distances[i];
+                    if (x < 0.0) {
+                        next = i;
+                        break;
+                    }
+                }
+            } else {
+                // Fewer distinct rows than clusters.
+                next = random.nextInt(sampleSize);
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Sorts the centroids by ascending equity (descending sum).
+     *
+     * @param centroids
+     *            The centroids.
+     *
+     * @return The sorted centroids.
+     */
+    private double[] sort(double[] centroids) {
+        final int dimension = features.getDimension();
+        final double[] sums = new double[noOfClusters];
+        Integer[] order = new Integer[noOfClusters];
+        for (int cluster = 0; cluster < noOfClusters; cluster++) {
+            order[cluster] = cluster;
+            for (int j = 0; j < dimension; j++) {
+                sums[cluster] += centroids[cluster * dimension + j];
+            }
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer cluster1, Integer cluster2) {
+                return Double.compare(sums[cluster2], sums[cluster1]);
+            }
+        });
+        double[] sorted = new double[centroids.length];
+        for (int i = 0; i < noOfClusters; i++) {
+            System.arraycopy(centroids, order[i] * dimension, sorted, i * dimension, dimension);
+        }
+        return sorted;
+    }
+
+    /**
+     * Writes the centroids to the checkpoint file.
+     *
+     * @param file
+     *            The checkpoint file.
+     * @param centroids
+     *            The centroids.
+     * @param iteration
+     *            The number of iterations done, or {@link #CONVERGED}.
+     *
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    private void write(File file, double[] centroids, int iteration) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 8 * centroids.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(noOfClusters).putInt(features.getDimension());
+        buffer.putInt(iteration).putInt(0);
+        for (double centroid : centroids) {
+            buffer.putDouble(centroid);
+        }
+        buffer.putInt(20, getChecksum(buffer));
+        File tempFile = new File(file.getPath() + ".tmp");
+        Files.write(tempFile.toPath(), buffer.array());
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the CRC-32 checksum of the centroids (everything after the
+     * header).
+     *
+     * @param buffer
+     *            The buffer with the header and the centroids.
+     *
+     * @return The checksum.
+     */
+    private static int getChecksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, buffer.limit() - HEADER_SIZE);
+        return (int) crc.getValue();
+    }
+
+}
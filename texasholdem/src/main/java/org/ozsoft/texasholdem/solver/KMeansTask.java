@@ -0,0 +1,106 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task running a k-means iteration over a range of rows: assigning
+ * each row to the nearest centroid, and summing the rows per cluster. <br />
+ * <br />
+ *
+ * The result holds the sums per cluster (cluster * dimension + i), followed by
+ * the number of rows per cluster, followed by the total squared distance. The
+ * halves are always added in the same order, so the result does not depend on
+ * the number of threads.
+ *
+ * @author Oscar Stigter
+ */
+class KMeansTask extends RecursiveTask<double[]> {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** The maximum number of rows processed without splitting the task. */
+    private static final int THRESHOLD = 16384;
+
+    /** The features. */
+    private final FeatureFile features;
+
+    /** The centroids (cluster * dimension + i). */
+    private final double[] centroids;
+
+    /** The first row. */
+    private final long fromRow;
+
+    /** The row after the last row. */
+    private final long toRow;
+
+    /**
+     * Constructor.
+     *
+     * @param features
+     *            The features.
+     * @param centroids
+     *            The centroids.
+     * @param fromRow
+     *            The first row.
+     * @param toRow
+     *            The row after the last row.
+     */
+    KMeansTask(FeatureFile features, double[] centroids, long fromRow, long toRow) {
+        this.features = features;
+        this.centroids = centroids;
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected double[] compute() {
+        if (toRow - fromRow > THRESHOLD) {
+            long middle = (fromRow + toRow) >>> 1;
+            KMeansTask left = new KMeansTask(features, centroids, fromRow, middle);
+            KMeansTask right = new KMeansTask(features, centroids, middle, toRow);
+            left.fork();
+            double[] rightResult = right.compute();
+            double[] result = left.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += rightResult[i];
+            }
+            return result;
+        } else {
+            int dimension = features.getDimension();
+            int noOfClusters = centroids.length / dimension;
+            double[] result = new double[noOfClusters * (dimension + 1) + 1];
+            byte[] row = new byte[dimension];
+            int countOffset = noOfClusters * dimension;
+            for (long i = fromRow; i < toRow; i++) {
+                features.read(i, row);
+                int cluster = KMeans.getNearest(centroids, row);
+                for (int j = 0; j < dimension; j++) {
+                    result[cluster * dimension + j] += row[j] & 0xff;
+                }
+                result[countOffset + cluster]++;
+                result[result.length - 1] += KMeans.getDistance(centroids, cluster, row);
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,292 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.util;
+
+import java.util.Collection;
+
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.Hand;
+
+/**
+ * Utility methods for the primitive card encoding. <br />
+ * <br />
+ *
+ * A card is encoded as an <code>int</code> from 0 to 51 (rank * 4 + suit, the
+ * same as {@link Card#hashCode()}). A set of cards is encoded as a
+ * <code>long</code> with bit <i>n</i> set for card <i>n</i>. <br />
+ * <br />
+ *
+ * Code working on the primitive encoding never has to allocate any objects.
+ *
+ * @author Oscar Stigter
+ */
+public abstract class CardUtils {
+
+    /** The number of cards in a deck. */
+    public static final int NO_OF_CARDS = Card.NO_OF_RANKS * Card.NO_OF_SUITS;
+
+    /** The card mask of a full deck. */
+    public static final long FULL_DECK = (1L << NO_OF_CARDS) - 1L;
+
+    /** Shared card objects, indexed by encoded card. */
+    private static final Card[] CARDS = new Card[NO_OF_CARDS];
+
+    static {
+        for (int card = 0; card < NO_OF_CARDS; card++) {
+            CARDS[card] = new Card(getRank(card), getSuit(card));
+        }
+    }
+
+    /**
+     * Returns the encoded card with a specific rank and suit.
+     *
+     * @param rank
+     *            The rank.
+     * @param suit
+     *            The suit.
+     *
+     * @return The encoded card.
+     */
+    public static int getCard(int rank, int suit) {
+        return rank * Card.NO_OF_SUITS + suit;
+    }
+
+    /**
+     * Returns the rank of an encoded card.
+     *
+     * @param card
+     *            The encoded card.
+     *
+     * @return The rank.
+     */
+    public static int getRank(int card) {
+        return card >> 2;
+    }
+
+    /**
+     * Returns the suit of an encoded card.
+     *
+     * @param card
+     *            The encoded card.
+     *
+     * @return The suit.
+     */
+    public static int getSuit(int card) {
+        return card & 3;
+    }
+
+    /**
+     * Returns the card mask with a single card.
+     *
+     * @param card
+     *            The encoded card.
+     *
+     * @return The card mask.
+     */
+    public static long getMask(int card) {
+        return 1L << card;
+    }
+
+    /**
+     * Returns the number of cards in a card mask.
+     *
+     * @param mask
+     *            The card mask.
+     *
+     * @return The number of cards.
+     */
+    public static int size(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Returns the encoded value of a card.
+     *
+     * @param card
+     *            The card.
+     *
+     * @return The encoded card.
+     */
+    public static int toInt(Card card) {
+        return card.hashCode();
+    }
+
+    /**
+     * Returns the card of an encoded card. <br />
+     * <br />
+     *
+     * Card objects are immutable, so the same instance is returned for each
+     * encoded card.
+     *
+     * @param card
+     *            The encoded card.
+     *
+     * @return The card.
+     *
+     * @throws IllegalArgumentException
+     *             If the encoded card is invalid.
+     */
+    public static Card toCard(int card) {
+        if (card < 0 || card >= NO_OF_CARDS) {
+            throw new IllegalArgumentException("Invalid card: " + card);
+        }
+        return CARDS[card];
+    }
+
+    /**
+     * Returns the card mask of an array of cards.
+     *
+     * @param cards
+     *            The cards.
+     *
+     * @return The card mask.
+     */
+    public static long toMask(Card[] cards) {
+        long mask = 0L;
+        for (Card card : cards) {
+            mask |= 1L << card.hashCode();
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the card mask of a collection of cards.
+     *
+     * @param cards
+     *            The cards.
+     *
+     * @return The card mask.
+     */
+    public static long toMask(Collection<Card> cards) {
+        long mask = 0L;
+        for (Card card : cards) {
+            mask |= 1L << card.hashCode();
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the cards of a card mask, highest card first.
+     *
+     * @param mask
+     *            The card mask.
+     *
+     * @return The cards.
+     */
+    public static Card[] toCards(long mask) {
+        Card[] cards = new Card[Long.bitCount(mask)];
+        int index = 0;
+        while (mask != 0L) {
+            int card = 63 - Long.numberOfLeadingZeros(mask);
+            cards[index++] = toCard(card);
+            mask &= ~(1L << card);
+        }
+        return cards;
+    }
+
+    /**
+     * Returns a hand with the cards of a card mask.
+     *
+     * @param mask
+     *            The card mask.
+     *
+     * @return The hand.
+     */
+    public static Hand toHand(long mask) {
+        return new Hand(toCards(mask));
+    }
+
+    /**
+     * Parses a single encoded card.
+     *
+     * @param s
+     *            The string representation of the card, e.g. "As", "Td", "7h".
+     *
+     * @return The encoded card.
+     *
+     * @throws IllegalArgumentException
+     *             If the card could not be parsed.
+     */
+    public static int parseCard(String s) {
+        return new Card(s).hashCode();
+    }
+
+    /**
+     * Parses a card mask.
+     *
+     * @param s
+     *            The cards, separated by a space character, e.g. "As Kd".
+     *
+     * @return The card mask.
+     *
+     * @throws IllegalArgumentException
+     *             If the string could not be parsed or contains the same card
+     *             twice.
+     */
+    public static long parseMask(String s) {
+        if (s == null) {
+            throw new IllegalArgumentException("Null string");
+        }
+        long mask = 0L;
+        s = s.trim();
+        if (s.length() > 0) {
+            for (String part : s.split("\\s+")) {
+                long cardMask = 1L << parseCard(part);
+                if ((mask & cardMask) != 0L) {
+                    throw new IllegalArgumentException("Duplicate card: " + part);
+                }
+                mask |= cardMask;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the string representation of an encoded card.
+     *
+     * @param card
+     *            The encoded card.
+     *
+     * @return The string representation, e.g. "As".
+     */
+    public static String cardToString(int card) {
+        return toCard(card).toString();
+    }
+
+    /**
+     * Returns the string representation of a card mask, highest card first.
+     *
+     * @param mask
+     *            The card mask.
+     *
+     * @return The string representation, e.g. "As Kd".
+     */
+    public static String maskToString(long mask) {
+        StringBuilder sb = new StringBuilder();
+        while (mask != 0L) {
+            int card = 63 - Long.numberOfLeadingZeros(mask);
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(cardToString(card));
+            mask &= ~(1L << card);
+        }
+        return sb.toString();
+    }
+
+}
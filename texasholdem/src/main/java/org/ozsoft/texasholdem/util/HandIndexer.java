@@ -0,0 +1,753 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.ozsoft.texasholdem.Card;
+
+/**
+ * Indexer mapping hands to a dense index over their suit-isomorphic classes.
+ * <br />
+ * <br />
+ *
+ * Hands that only differ by a permutation of the suits are strategically
+ * equivalent, e.g. there are only 169 distinct starting hands and 1,755
+ * distinct flops. This indexer maps each hand to a canonical index from 0 to
+ * {@link #getSize()} (exclusive), so precomputed tables only need one entry
+ * per class. Any index can be mapped back to a representative hand. <br />
+ * <br />
+ *
+ * A hand is dealt in rounds (e.g. the hole cards and the board), and the
+ * order of the cards within a round does not matter, but the round of each
+ * card does. The indices per street of Texas Hold'em (see
+ * {@link #forStreet(int)}) are:
+ *
+ * <ul>
+ * <li>Pre-Flop (2): 169</li>
+ * <li>Flop (2, 3): 1,286,792</li>
+ * <li>Turn (2, 4): 13,960,050</li>
+ * <li>River (2, 5): 123,156,254</li>
+ * </ul>
+ *
+ * Treating the Turn and River as separate rounds, i.e. (2, 3, 1) and
+ * (2, 3, 1, 1), gives 55,190,538 and 2,428,287,420 indices respectively.
+ *
+ * The algorithm follows Waugh, <i>A Fast and Optimal Hand Isomorphism
+ * Algorithm</i> (2013): the suits are sorted by the number of cards they have
+ * in each round (the configuration), the ranks of each suit are indexed as a
+ * combination per round, and suits with the same number of cards per round
+ * are indexed together as a multiset. <br />
+ * <br />
+ *
+ * Cards are encoded as <code>rank * 4 + suit</code> (see {@link CardUtils}).
+ * Instances are immutable and thread-safe. Indexing a hand only uses
+ * per-thread scratch arrays, so it does not allocate any objects.
+ *
+ * @author Oscar Stigter
+ */
+public class HandIndexer {
+
+    /** The maximum number of rounds. */
+    private static final int MAX_NO_OF_ROUNDS = 4;
+
+    /** The number of bits per card count in a configuration key. */
+    private static final int COUNT_BITS = 4;
+
+    /** The binomial coefficients of up to 13 ranks. */
+    private static final long[][] BINOMIALS = new long[Card.NO_OF_RANKS + 1][Card.NO_OF_RANKS + 1];
+
+    static {
+        for (int n = 0; n <= Card.NO_OF_RANKS; n++) {
+            BINOMIALS[n][0] = 1L;
+            for (int k = 1; k <= n; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    /** The number of cards per round. */
+    private final int[] cardsPerRound;
+
+    /** The total number of cards. */
+    private final int noOfCards;
+
+    /** The key of each configuration (sorted). */
+    private final long[] configKeys;
+
+    /** The number of cards per round of each suit of each configuration. */
+    private final int[][][] configCounts;
+
+    /** The first index of each configuration (and the total size at the end). */
+    private final long[] configOffsets;
+
+    /** The scratch arrays used for indexing, per thread. */
+    private final ThreadLocal<Scratch> scratches = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch(cardsPerRound.length);
+        }
+    };
+
+    /**
+     * Constructor.
+     *
+     * @param cardsPerRound
+     *            The number of cards dealt in each round (1 to 4 rounds).
+     */
+    public HandIndexer(int... cardsPerRound) {
+        if (cardsPerRound.length < 1 || cardsPerRound.length > MAX_NO_OF_ROUNDS) {
+            throw new IllegalArgumentException("Invalid number of rounds: " + cardsPerRound.length);
+        }
+        int total = 0;
+        for (int noOfCards : cardsPerRound) {
+            if (noOfCards < 1) {
+                throw new IllegalArgumentException("Invalid number of cards in round: " + noOfCards);
+            }
+            total += noOfCards;
+        }
+        if (total > CardUtils.NO_OF_CARDS) {
+            throw new IllegalArgumentException("Too many cards: " + total);
+        }
+        this.cardsPerRound = cardsPerRound.clone();
+        noOfCards = total;
+
+        // Enumerate the configurations, ordered by key.
+        List<int[][]> configs = new ArrayList<int[][]>();
+        enumerateConfigs(0, 0, cardsPerRound[0], new int[Card.NO_OF_SUITS][cardsPerRound.length], configs);
+        long[] keys = new long[configs.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = getKey(configs.get(i));
+        }
+        long[] sortedKeys = keys.clone();
+        Arrays.sort(sortedKeys);
+        configKeys = sortedKeys;
+        configCounts = new int[keys.length][][];
+        for (int i = 0; i < keys.length; i++) {
+            configCounts[Arrays.binarySearch(sortedKeys, keys[i])] = configs.get(i);
+        }
+
+        // Calculate the offset of each configuration.
+        configOffsets = new long[keys.length + 1];
+        for (int config = 0; config < keys.length; config++) {
+            long size = 1L;
+            int[][] counts = configCounts[config];
+            for (int first = 0, last; first < Card.NO_OF_SUITS; first = last + 1) {
+                last = getLastOfGroup(counts, first);
+                long groupSize = getMultisetCount(getSuitSize(counts[first]), last - first + 1);
+                size = Math.multiplyExact(size, groupSize);
+            }
+            configOffsets[config + 1] = Math.addExact(configOffsets[config], size);
+        }
+    }
+
+    /**
+     * Returns an indexer for a street of Texas Hold'em: the hole cards and the
+     * board so far, each as one round.
+     *
+     * @param noOfBoardCards
+     *            The number of board cards (0, 3, 4 or 5).
+     *
+     * @return The indexer.
+     */
+    public static HandIndexer forStreet(int noOfBoardCards) {
+        switch (noOfBoardCards) {
+            case 0:
+                return new HandIndexer(2);
+            case 3:
+            case 4:
+            case 5:
+                return new HandIndexer(2, noOfBoardCards);
+            default:
+                throw new IllegalArgumentException("Invalid number of board cards: " + noOfBoardCards);
+        }
+    }
+
+    /**
+     * Returns the number of rounds.
+     *
+     * @return The number of rounds.
+     */
+    public int getNoOfRounds() {
+        return cardsPerRound.length;
+    }
+
+    /**
+     * Returns the number of cards dealt in a round.
+     *
+     * @param round
+     *            The round.
+     *
+     * @return The number of cards.
+     */
+    public int getNoOfCards(int round) {
+        return cardsPerRound[round];
+    }
+
+    /**
+     * Returns the total number of cards.
+     *
+     * @return The number of cards.
+     */
+    public int getNoOfCards() {
+        return noOfCards;
+    }
+
+    /**
+     * Returns the number of indices (suit-isomorphic classes).
+     *
+     * @return The number of indices.
+     */
+    public long getSize() {
+        return configOffsets[configOffsets.length - 1];
+    }
+
+    /**
+     * Returns the canonical index of a hand.
+     *
+     * @param cards
+     *            The cards, in the order of the rounds.
+     *
+     * @return The index.
+     */
+    public long index(Card... cards) {
+        int[] encoded = new int[cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            encoded[i] = cards[i].hashCode();
+        }
+        return index(encoded);
+    }
+
+    /**
+     * Returns the canonical index of a hand.
+     *
+     * @param cards
+     *            The encoded cards, in the order of the rounds.
+     *
+     * @return The index.
+     *
+     * @throws IllegalArgumentException
+     *             If the number of cards is wrong, or a card is invalid or
+     *             duplicate.
+     */
+    public long index(int[] cards) {
+        if (cards.length != noOfCards) {
+            throw new IllegalArgumentException("Invalid number of cards: " + cards.length);
+        }
+        int noOfRounds = cardsPerRound.length;
+        Scratch scratch = scratches.get();
+
+        // Collect the ranks of each suit per round.
+        int[][] ranks = scratch.ranks;
+        for (int[] suitRanks : ranks) {
+            Arrays.fill(suitRanks, 0);
+        }
+        long mask = 0L;
+        int i = 0;
+        for (int round = 0; round < noOfRounds; round++) {
+            for (int j = 0; j < cardsPerRound[round]; j++) {
+                int card = cards[i++];
+                if (card < 0 || card >= CardUtils.NO_OF_CARDS || (mask & (1L << card)) != 0L) {
+                    throw new IllegalArgumentException("Invalid or duplicate card: " + card);
+                }
+                mask |= 1L << card;
+                ranks[card & 3][round] |= 1 << (card >> 2);
+            }
+        }
+        return index(scratch);
+    }
+
+    /**
+     * Returns the canonical index of a hand of one or two rounds, given as card
+     * masks (see {@link CardUtils}), e.g. the hole cards and the board of a
+     * street (see {@link #forStreet(int)}).
+     *
+     * @param round1
+     *            The cards of the first round.
+     * @param round2
+     *            The cards of the second round (0 with a single round).
+     *
+     * @return The index.
+     *
+     * @throws IllegalArgumentException
+     *             If the indexer has more than two rounds, the number of cards
+     *             is wrong, or the rounds share a card.
+     */
+    public long index(long round1, long round2) {
+        int noOfRounds = cardsPerRound.length;
+        if (noOfRounds > 2) {
+            throw new IllegalArgumentException("Too many rounds: " + noOfRounds);
+        }
+        if (Long.bitCount(round1) != cardsPerRound[0]
+                || Long.bitCount(round2) != ((noOfRounds == 2) ? cardsPerRound[1] : 0)) {
+            throw new IllegalArgumentException("Invalid number of cards");
+        }
+        if ((round1 & round2) != 0L || ((round1 | round2) >>> CardUtils.NO_OF_CARDS) != 0L) {
+            throw new IllegalArgumentException("Invalid or duplicate cards");
+        }
+        Scratch scratch = scratches.get();
+        int[][] ranks = scratch.ranks;
+        for (int suit = 0; suit < Card.NO_OF_SUITS; suit++) {
+            ranks[suit][0] = getRanks(round1, suit);
+            if (noOfRounds == 2) {
+                ranks[suit][1] = getRanks(round2, suit);
+            }
+        }
+        return index(scratch);
+    }
+
+    /**
+     * Returns the canonical index of a hand with the ranks of each suit per
+     * round in the scratch arrays.
+     *
+     * @param scratch
+     *            The scratch arrays.
+     *
+     * @return The index.
+     */
+    private long index(Scratch scratch) {
+        int noOfRounds = cardsPerRound.length;
+        int[][] ranks = scratch.ranks;
+
+        // Sort the suits by their number of cards per round (descending).
+        int[][] counts = scratch.counts;
+        for (int suit = 0; suit < Card.NO_OF_SUITS; suit++) {
+            for (int round = 0; round < noOfRounds; round++) {
+                counts[suit][round] = Integer.bitCount(ranks[suit][round]);
+            }
+        }
+        int[] suits = scratch.suits;
+        for (int j = 0; j < Card.NO_OF_SUITS; j++) {
+            suits[j] = j;
+        }
+        for (int j = 1; j < Card.NO_OF_SUITS; j++) {
+            int suit = suits[j];
+            int k = j;
+            while (k > 0 && compareCounts(counts[suits[k - 1]], counts[suit]) < 0) {
+                suits[k] = suits[k - 1];
+                k--;
+            }
+            suits[k] = suit;
+        }
+        int[][] sortedCounts = scratch.sortedCounts;
+        for (int j = 0; j < Card.NO_OF_SUITS; j++) {
+            sortedCounts[j] = counts[suits[j]];
+        }
+        int config = Arrays.binarySearch(configKeys, getKey(sortedCounts));
+
+        // Index each group of suits with the same number of cards per round.
+        long[] suitIndices = scratch.suitIndices;
+        for (int j = 0; j < Card.NO_OF_SUITS; j++) {
+            suitIndices[j] = getSuitIndex(ranks[suits[j]]);
+        }
+        long index = 0L;
+        for (int first = 0, last; first < Card.NO_OF_SUITS; first = last + 1) {
+            last = getLastOfGroup(sortedCounts, first);
+            int k = last - first + 1;
+            long groupSize = getMultisetCount(getSuitSize(sortedCounts[first]), k);
+            Arrays.sort(suitIndices, first, last + 1);
+            // Multiset rank of the suit indices (highest first).
+            long groupIndex = 0L;
+            for (int j = 0; j < k; j++) {
+                groupIndex += getBinomial(suitIndices[last - j] + k - 1 - j, k - j);
+            }
+            index = index * groupSize + groupIndex;
+        }
+        return configOffsets[config] + index;
+    }
+
+    /**
+     * Returns a representative hand of an index.
+     *
+     * @param index
+     *            The index.
+     *
+     * @return The cards, in the order of the rounds.
+     */
+    public Card[] unindex(long index) {
+        int[] encoded = new int[noOfCards];
+        unindex(index, encoded);
+        Card[] cards = new Card[noOfCards];
+        for (int i = 0; i < noOfCards; i++) {
+            cards[i] = CardUtils.toCard(encoded[i]);
+        }
+        return cards;
+    }
+
+    /**
+     * Returns a representative hand of an index.
+     *
+     * @param index
+     *            The index.
+     * @param cards
+     *            The array to store the encoded cards in, in the order of the
+     *            rounds.
+     *
+     * @throws IllegalArgumentException
+     *             If the index is out of range.
+     */
+    public void unindex(long index, int[] cards) {
+        if (index < 0L || index >= getSize()) {
+            throw new IllegalArgumentException("Invalid index: " + index);
+        }
+        if (cards.length < noOfCards) {
+            throw new IllegalArgumentException("Array too small");
+        }
+        int noOfRounds = cardsPerRound.length;
+
+        // Find the configuration (the offsets are strictly increasing).
+        int config = Arrays.binarySearch(configOffsets, index);
+        if (config < 0) {
+            config = -config - 2;
+        }
+        int[][] counts = configCounts[config];
+        long rest = index - configOffsets[config];
+
+        // Split the index into the group indices (last group first).
+        long[] suitIndices = new long[Card.NO_OF_SUITS];
+        for (int last = Card.NO_OF_SUITS - 1, first; last >= 0; last = first - 1) {
+            first = getFirstOfGroup(counts, last);
+            int k = last - first + 1;
+            long groupSize = getMultisetCount(getSuitSize(counts[first]), k);
+            long groupIndex = rest % groupSize;
+            rest /= groupSize;
+            // Unrank the multiset (highest first).
+            for (int j = 0; j < k; j++) {
+                int m = k - j;
+                long low = m - 1;
+                long high = getSuitSize(counts[first]) - 1 + k - 1 - j;
+                while (low < high) {
+                    long mid = (low + high + 1) >>> 1;
+                    if (getBinomial(mid, m) <= groupIndex) {
+                        low = mid;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                groupIndex -= getBinomial(low, m);
+                suitIndices[first + j] = low - (k - 1 - j);
+            }
+        }
+
+        // Deal the ranks of each suit per round, starting with Spades.
+        int[] positions = new int[noOfRounds];
+        for (int round = 1; round < noOfRounds; round++) {
+            positions[round] = positions[round - 1] + cardsPerRound[round - 1];
+        }
+        for (int j = 0; j < Card.NO_OF_SUITS; j++) {
+            int suit = Card.NO_OF_SUITS - 1 - j;
+            long suitIndex = suitIndices[j];
+            int used = 0;
+            for (int round = 0; round < noOfRounds; round++) {
+                int n = Card.NO_OF_RANKS - Integer.bitCount(used);
+                int k = counts[j][round];
+                long combination = suitIndex % BINOMIALS[n][k];
+                suitIndex /= BINOMIALS[n][k];
+                int set = 0;
+                int c = n;
+                for (int m = k; m > 0; m--) {
+                    do {
+                        c--;
+                    } while (BINOMIALS[c][m] > combination);
+                    combination -= BINOMIALS[c][m];
+                    int rank = selectUnused(used, c);
+                    set |= 1 << rank;
+                    cards[positions[round]++] = CardUtils.getCard(rank, suit);
+                }
+                used |= set;
+            }
+        }
+    }
+
+    /**
+     * Enumerates all configurations recursively: the number of cards of each
+     * suit per round, with the suits sorted in descending order.
+     *
+     * @param round
+     *            The current round.
+     * @param suit
+     *            The current suit.
+     * @param remaining
+     *            The number of cards of the current round not yet assigned.
+     * @param counts
+     *            The number of cards per suit and round so far.
+     * @param configs
+     *            The list to add the configurations to.
+     */
+    private void enumerateConfigs(int round, int suit, int remaining, int[][] counts, List<int[][]> configs) {
+        if (suit == Card.NO_OF_SUITS) {
+            if (remaining == 0) {
+                if (round == cardsPerRound.length - 1) {
+                    for (int i = 1; i < Card.NO_OF_SUITS; i++) {
+                        if (compareCounts(counts[i - 1], counts[i]) < 0) {
+                            return;
+                        }
+                    }
+                    int[][] config = new int[Card.NO_OF_SUITS][];
+                    for (int i = 0; i < Card.NO_OF_SUITS; i++) {
+                        config[i] = counts[i].clone();
+                    }
+                    configs.add(config);
+                } else {
+                    enumerateConfigs(round + 1, 0, cardsPerRound[round + 1], counts, configs);
+                }
+            }
+        } else {
+            int available = Card.NO_OF_RANKS;
+            for (int i = 0; i < round; i++) {
+                available -= counts[suit][i];
+            }
+            for (int n = 0; n <= Math.min(remaining, available); n++) {
+                counts[suit][round] = n;
+                enumerateConfigs(round, suit + 1, remaining - n, counts, configs);
+            }
+            counts[suit][round] = 0;
+        }
+    }
+
+    /**
+     * Returns the ranks of a suit in a card mask.
+     *
+     * @param mask
+     *            The card mask.
+     * @param suit
+     *            The suit.
+     *
+     * @return The rank mask.
+     */
+    private static int getRanks(long mask, int suit) {
+        int ranks = 0;
+        for (long rest = mask & (0x1111111111111L << suit); rest != 0L; rest &= rest - 1L) {
+            ranks |= 1 << (Long.numberOfTrailingZeros(rest) >> 2);
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the key of a configuration.
+     *
+     * @param counts
+     *            The number of cards per suit (sorted) and round.
+     *
+     * @return The key.
+     */
+    private static long getKey(int[][] counts) {
+        long key = 0L;
+        for (int[] suitCounts : counts) {
+            for (int count : suitCounts) {
+                key = (key << COUNT_BITS) | count;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Compares the number of cards per round of two suits.
+     *
+     * @param counts1
+     *            The number of cards per round of the first suit.
+     * @param counts2
+     *            The number of cards per round of the second suit.
+     *
+     * @return A negative number, zero or a positive number if the first suit
+     *         has less, the same or more cards (lexicographically).
+     */
+    private static int compareCounts(int[] counts1, int[] counts2) {
+        for (int round = 0; round < counts1.length; round++) {
+            if (counts1[round] != counts2[round]) {
+                return counts1[round] - counts2[round];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the last suit of a group of suits with the same number of cards
+     * per round.
+     *
+     * @param counts
+     *            The sorted number of cards per suit and round.
+     * @param first
+     *            The first suit of the group.
+     *
+     * @return The last suit of the group.
+     */
+    private static int getLastOfGroup(int[][] counts, int first) {
+        int last = first;
+        while (last + 1 < Card.NO_OF_SUITS && compareCounts(counts[first], counts[last + 1]) == 0) {
+            last++;
+        }
+        return last;
+    }
+
+    /**
+     * Returns the first suit of a group of suits with the same number of
+     * cards per round.
+     *
+     * @param counts
+     *            The sorted number of cards per suit and round.
+     * @param last
+     *            The last suit of the group.
+     *
+     * @return The first suit of the group.
+     */
+    private static int getFirstOfGroup(int[][] counts, int last) {
+        int first = last;
+        while (first > 0 && compareCounts(counts[first - 1], counts[last]) == 0) {
+            first--;
+        }
+        return first;
+    }
+
+    /**
+     * Returns the number of rank combinations of a suit.
+     *
+     * @param counts
+     *            The number of cards of the suit per round.
+     *
+     * @return The number of rank combinations.
+     */
+    private static long getSuitSize(int[] counts) {
+        long size = 1L;
+        int available = Card.NO_OF_RANKS;
+        for (int count : counts) {
+            size *= BINOMIALS[available][count];
+            available -= count;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the index of the ranks of a suit: per round the combination of
+     * ranks among the ranks not used in previous rounds.
+     *
+     * @param ranks
+     *            The rank masks of the suit per round.
+     *
+     * @return The index.
+     */
+    private static long getSuitIndex(int[] ranks) {
+        long index = 0L;
+        long multiplier = 1L;
+        int used = 0;
+        for (int set : ranks) {
+            int n = Card.NO_OF_RANKS - Integer.bitCount(used);
+            long combination = 0L;
+            int m = 1;
+            for (int rest = set; rest != 0; rest &= rest - 1) {
+                int rank = Integer.numberOfTrailingZeros(rest);
+                int position = rank - Integer.bitCount(used & ((1 << rank) - 1));
+                combination += BINOMIALS[position][m++];
+            }
+            index += multiplier * combination;
+            multiplier *= BINOMIALS[n][Integer.bitCount(set)];
+            used |= set;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the n-th rank not used yet.
+     *
+     * @param used
+     *            The mask of the used ranks.
+     * @param n
+     *            The index among the unused ranks.
+     *
+     * @return The rank.
+     */
+    private static int selectUnused(int used, int n) {
+        for (int rank = 0; rank < Card.NO_OF_RANKS; rank++) {
+            if ((used & (1 << rank)) == 0 && n-- == 0) {
+                return rank;
+            }
+        }
+        throw new IllegalStateException("No unused rank left");
+    }
+
+    /**
+     * Returns the number of multisets of k elements out of n.
+     *
+     * @param n
+     *            The number of elements.
+     * @param k
+     *            The size of the multisets.
+     *
+     * @return The number of multisets.
+     */
+    private static long getMultisetCount(long n, int k) {
+        return getBinomial(n + k - 1, k);
+    }
+
+    /**
+     * Returns the binomial coefficient (n choose k) of a small k.
+     *
+     * @param n
+     *            The number of elements.
+     * @param k
+     *            The number of elements to choose.
+     *
+     * @return The binomial coefficient.
+     */
+    private static long getBinomial(long n, int k) {
+        if (n < k) {
+            return 0L;
+        }
+        long result = 1L;
+        for (int i = 0; i < k; i++) {
+            result = Math.multiplyExact(result, n - i) / (i + 1);
+        }
+        return result;
+    }
+
+    /**
+     * The scratch arrays of a thread for indexing a hand.
+     */
+    private static final class Scratch {
+
+        /** The rank masks per suit and round. */
+        private final int[][] ranks;
+
+        /** The number of cards per suit and round. */
+        private final int[][] counts;
+
+        /** The number of cards per round of the sorted suits. */
+        private final int[][] sortedCounts = new int[Card.NO_OF_SUITS][];
+
+        /** The sorted suits. */
+        private final int[] suits = new int[Card.NO_OF_SUITS];
+
+        /** The rank index of each sorted suit. */
+        private final long[] suitIndices = new long[Card.NO_OF_SUITS];
+
+        /**
+         * Constructor.
+         *
+         * @param noOfRounds
+         *            The number of rounds.
+         */
+        private Scratch(int noOfRounds) {
+            ranks = new int[Card.NO_OF_SUITS][noOfRounds];
+            counts = new int[Card.NO_OF_SUITS][noOfRounds];
+        }
+
+    }
+
+}
@@ -0,0 +1,206 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * A deck of primitive cards backed by a card mask of the live cards, for
+ * simulation inner loops. <br />
+ * <br />
+ *
+ * Dealing a random card takes a single random number and a constant number of
+ * bit operations, regardless of the cards already removed. Known cards are
+ * removed with a single mask operation, and resetting the deck is a single
+ * assignment. Nothing is allocated after construction (see {@link CardUtils}
+ * for the card encoding). <br />
+ * <br />
+ *
+ * This class is not thread-safe; use a separate deck (and random number
+ * generator) per thread.
+ *
+ * @author Oscar Stigter
+ */
+public class MaskDeck {
+
+    /** The lowest bit of each byte. */
+    private static final long BYTES_LSB = 0x0101010101010101L;
+
+    /** The highest bit of each byte. */
+    private static final long BYTES_MSB = 0x8080808080808080L;
+
+    /** The position of the n-th set bit of each byte (see {@link #select(long, int)}). */
+    private static final byte[] SELECT_IN_BYTE = createSelectInByte();
+
+    /** The live cards (card mask). */
+    private long liveCards;
+
+    /** The random number generator. */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor, starting with a full deck.
+     *
+     * @param random
+     *            The random number generator.
+     */
+    public MaskDeck(SplittableRandom random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Null random number generator");
+        }
+        this.random = random;
+        liveCards = CardUtils.FULL_DECK;
+    }
+
+    /**
+     * Resets the deck to a full deck.
+     */
+    public void reset() {
+        liveCards = CardUtils.FULL_DECK;
+    }
+
+    /**
+     * Resets the deck to a full deck without some known cards.
+     *
+     * @param deadCards
+     *            The known cards (card mask).
+     */
+    public void reset(long deadCards) {
+        liveCards = CardUtils.FULL_DECK & ~deadCards;
+    }
+
+    /**
+     * Removes cards from the deck.
+     *
+     * @param cards
+     *            The cards to remove (card mask).
+     */
+    public void remove(long cards) {
+        liveCards &= ~cards;
+    }
+
+    /**
+     * Returns the live cards.
+     *
+     * @return The live cards (card mask).
+     */
+    public long getLiveCards() {
+        return liveCards;
+    }
+
+    /**
+     * Returns the number of live cards.
+     *
+     * @return The number of live cards.
+     */
+    public int size() {
+        return Long.bitCount(liveCards);
+    }
+
+    /**
+     * Deals a random live card.
+     *
+     * @return The encoded card.
+     *
+     * @throws IllegalStateException
+     *             If there are no cards left in the deck.
+     */
+    public int deal() {
+        int size = Long.bitCount(liveCards);
+        if (size == 0) {
+            throw new IllegalStateException("No cards left in deck");
+        }
+        int card = select(liveCards, random.nextInt(size));
+        liveCards &= ~(1L << card);
+        return card;
+    }
+
+    /**
+     * Deals multiple random live cards at once.
+     *
+     * @param noOfCards
+     *            The number of cards to deal.
+     *
+     * @return The cards (card mask).
+     *
+     * @throws IllegalStateException
+     *             If there are not enough cards left in the deck.
+     */
+    public long deal(int noOfCards) {
+        int size = Long.bitCount(liveCards);
+        if (noOfCards > size) {
+            throw new IllegalStateException("No cards left in deck");
+        }
+        long cards = 0L;
+        for (int i = 0; i < noOfCards; i++) {
+            long card = 1L << select(liveCards, random.nextInt(size - i));
+            liveCards &= ~card;
+            cards |= card;
+        }
+        return cards;
+    }
+
+    /**
+     * Returns the card of the n-th set bit of a card mask. <br />
+     * <br />
+     *
+     * Uses a branch-free broadword algorithm: the cumulative bit counts of all
+     * bytes are computed at once to find the byte with the n-th set bit, and
+     * the bit within that byte is looked up.
+     *
+     * @param mask
+     *            The card mask.
+     * @param n
+     *            The index of the set bit (zero-based, lowest first), less
+     *            than the number of cards in the mask.
+     *
+     * @return The encoded card.
+     */
+    public static int select(long mask, int n) {
+        // Bit counts per byte, then cumulative per byte (lowest byte first).
+        long counts = mask - ((mask >>> 1) & 0x5555555555555555L);
+        counts = (counts & 0x3333333333333333L) + ((counts >>> 2) & 0x3333333333333333L);
+        long cumulativeCounts = ((counts + (counts >>> 4)) & 0x0f0f0f0f0f0f0f0fL) * BYTES_LSB;
+        
+        // Number of bytes with all their bits up to n, times 8.
+        long atMostN = ((n * BYTES_LSB | BYTES_MSB) - cumulativeCounts) & BYTES_MSB;
+        int shift = Long.bitCount(atMostN) << 3;
+        
+        int index = n - (int) (((cumulativeCounts << 8) >>> shift) & 0xff);
+        return shift + SELECT_IN_BYTE[(index << 8) | (int) ((mask >>> shift) & 0xff)];
+    }
+
+    /**
+     * Returns the table with the position of the n-th set bit of each byte.
+     *
+     * @return The table, indexed by n * 256 + byte.
+     */
+    private static byte[] createSelectInByte() {
+        byte[] table = new byte[8 * 256];
+        for (int value = 0; value < 256; value++) {
+            int n = 0;
+            for (int bit = 0; bit < 8; bit++) {
+                if ((value & (1 << bit)) != 0) {
+                    table[(n++ << 8) | value] = (byte) bit;
+                }
+            }
+        }
+        return table;
+    }
+
+}
@@ -18,6 +18,7 @@
 package org.ozsoft.texasholdem.util;
 
 import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.equity.PreflopEquity;
 
 /**
  * Contains various utility methods.
@@ -103,5 +104,24 @@ public abstract class PokerUtils {
         // 6. Round half point scores up.
         return Math.round(score);        
     }
+    
+    /**
+     * Returns the precomputed all-in equity of the hole cards against a number
+     * of opponents with random hole cards. <br />
+     * <br />
+     * 
+     * This is a more accurate alternative to the Chen formula, at the cost of
+     * a single table lookup.
+     * 
+     * @param cards
+     *            The hole cards.
+     * @param noOfOpponents
+     *            The number of opponents (1 to 9).
+     * 
+     * @return The equity (0.0 to 1.0).
+     */
+    public static double getPreflopEquity(Card[] cards, int noOfOpponents) {
+        return PreflopEquity.getEquity(cards, noOfOpponents);
+    }
 
 }
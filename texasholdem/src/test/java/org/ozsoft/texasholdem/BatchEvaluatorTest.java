@@ -0,0 +1,141 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.util.MaskDeck;
+
+/**
+ * Test suite for the <code>BatchEvaluator</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class BatchEvaluatorTest {
+
+    /** The number of hands per batch (not a multiple of the block size). */
+    private static final int NO_OF_HANDS = 3 * BatchEvaluator.BLOCK_SIZE + 17;
+
+    /** The reference evaluator. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /**
+     * Tests evaluating card masks, including hands of different sizes.
+     */
+    @Test
+    public void masks() {
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        SplittableRandom random = new SplittableRandom(43L);
+        long[] masks = new long[NO_OF_HANDS];
+        for (int i = 0; i < NO_OF_HANDS; i++) {
+            deck.reset();
+            masks[i] = deck.deal((i < NO_OF_HANDS / 2) ? 7 : random.nextInt(8));
+        }
+        int[] values = new int[NO_OF_HANDS + 2];
+        new BatchEvaluator().evaluate(masks, values, 1, NO_OF_HANDS - 1);
+        Assert.assertEquals(0, values[0]);
+        for (int i = 1; i < NO_OF_HANDS; i++) {
+            Assert.assertEquals(EVALUATOR.getValue(masks[i]), values[i]);
+        }
+    }
+
+    /**
+     * Tests evaluating card columns.
+     */
+    @Test
+    public void columns() {
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        BatchEvaluator evaluator = new BatchEvaluator();
+        for (int noOfCards = 0; noOfCards <= 7; noOfCards++) {
+            int[][] cards = new int[noOfCards][NO_OF_HANDS];
+            int[] hand = new int[noOfCards];
+            for (int h = 0; h < NO_OF_HANDS; h++) {
+                deck.reset();
+                for (int i = 0; i < noOfCards; i++) {
+                    cards[i][h] = deck.deal();
+                }
+            }
+            int[] values = new int[NO_OF_HANDS];
+            evaluator.evaluate(cards, noOfCards, values, 0, NO_OF_HANDS);
+            for (int h = 0; h < NO_OF_HANDS; h++) {
+                for (int i = 0; i < noOfCards; i++) {
+                    hand[i] = cards[i][h];
+                }
+                Assert.assertEquals(EVALUATOR.getValue(hand, noOfCards), values[h]);
+            }
+        }
+    }
+
+    /**
+     * Tests evaluating hole cards against a common board.
+     */
+    @Test
+    public void board() {
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        BatchEvaluator evaluator = new BatchEvaluator();
+        for (int noOfBoardCards = 0; noOfBoardCards <= 5; noOfBoardCards++) {
+            deck.reset();
+            long board = deck.deal(noOfBoardCards);
+            long[] holeCards = new long[NO_OF_HANDS];
+            for (int h = 0; h < NO_OF_HANDS; h++) {
+                deck.reset(board);
+                holeCards[h] = deck.deal(2);
+            }
+            int[] values = new int[NO_OF_HANDS];
+            evaluator.evaluate(board, holeCards, values, 0, NO_OF_HANDS);
+            for (int h = 0; h < NO_OF_HANDS; h++) {
+                Assert.assertEquals(EVALUATOR.getValue(board | holeCards[h]), values[h]);
+            }
+        }
+    }
+
+    /**
+     * Tests invalid arguments.
+     */
+    @Test
+    public void invalid() {
+        BatchEvaluator evaluator = new BatchEvaluator();
+        try {
+            evaluator.evaluate(new long[] { 0xffL }, new int[1], 0, 1);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            evaluator.evaluate(new long[4], new int[2], 0, 3);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            evaluator.evaluate(0x3fL, new long[1], new int[1], 0, 1);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            evaluator.evaluate(new int[8][1], 8, new int[1], 0, 1);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.util.CardUtils;
+import org.ozsoft.texasholdem.util.MaskDeck;
+
+/**
+ * Test suite for the <code>CachingEvaluator</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class CachingEvaluatorTest {
+
+    /** The reference evaluator. */
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /**
+     * Tests the hit and miss counters.
+     */
+    @Test
+    public void hitsAndMisses() {
+        CachingEvaluator cache = new CachingEvaluator();
+        Assert.assertEquals(CachingEvaluator.DEFAULT_CAPACITY, cache.getCapacity());
+        Assert.assertEquals(0.0, cache.getHitRate(), 0.0);
+        Hand hand = new Hand("As Ks Qs Js Ts");
+        int value = new HandEvaluator(hand).getValue();
+        Assert.assertEquals(value, cache.getValue(hand));
+        Assert.assertEquals(0L, cache.getHits());
+        Assert.assertEquals(1L, cache.getMisses());
+        Assert.assertEquals(value, cache.getValue(hand));
+        Assert.assertEquals(value, cache.getValue(hand.getMask()));
+        Assert.assertEquals(2L, cache.getHits());
+        Assert.assertEquals(1L, cache.getMisses());
+        Assert.assertEquals(2.0 / 3.0, cache.getHitRate(), 1e-9);
+        Assert.assertEquals(1, cache.size());
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0L, cache.getHits() + cache.getMisses());
+    }
+
+    /**
+     * Tests that a small cache stays bounded and returns the correct values
+     * for hands of all sizes, while evicting entries.
+     */
+    @Test
+    public void eviction() {
+        CachingEvaluator cache = new CachingEvaluator(new BasicEvaluator(), 100);
+        Assert.assertEquals(128, cache.getCapacity());
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        SplittableRandom random = new SplittableRandom(43L);
+        long[] masks = new long[200];
+        for (int i = 0; i < masks.length; i++) {
+            deck.reset();
+            masks[i] = deck.deal(random.nextInt(8));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (long mask : masks) {
+                Assert.assertEquals(EVALUATOR.getValue(mask), cache.getValue(mask));
+                Assert.assertEquals(EVALUATOR.getValue(mask), cache.getValue(CardUtils.toHand(mask)));
+            }
+        }
+        Assert.assertTrue(cache.size() <= cache.getCapacity());
+        Assert.assertTrue(cache.getHits() > 0L);
+        Assert.assertTrue(cache.getMisses() > masks.length);
+    }
+
+    /**
+     * Tests sharing the cache between threads.
+     */
+    @Test
+    public void concurrent() throws Exception {
+        final CachingEvaluator cache = new CachingEvaluator(new LookupEvaluator(), 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 4; t++) {
+                final long seed = t;
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        MaskDeck deck = new MaskDeck(new SplittableRandom(seed));
+                        for (int i = 0; i < 100000; i++) {
+                            // A small pool of hands, so they repeat often.
+                            deck.reset(CardUtils.FULL_DECK & ~0x3ffL);
+                            long mask = deck.deal(7);
+                            if (cache.getValue(mask) != EVALUATOR.getValue(mask)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(400000L, cache.getHits() + cache.getMisses());
+    }
+
+    /**
+     * Tests invalid arguments.
+     */
+    @Test
+    public void invalid() {
+        try {
+            new CachingEvaluator(null, 16);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new CachingEvaluator(new BasicEvaluator(), 0);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+}
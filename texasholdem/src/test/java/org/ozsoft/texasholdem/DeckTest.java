@@ -0,0 +1,156 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test suite for the <code>Deck</code> class.
+ * 
+ * @author Oscar Stigter
+ */
+public class DeckTest {
+    
+    private static final int NO_OF_CARDS = 52;
+    
+    private static final int NO_OF_SHUFFLES = 52000;
+    
+    /**
+     * Tests dealing cards in eager and lazy mode.
+     */
+    @Test
+    public void deal() {
+        for (Deck deck : createDecks(42L)) {
+            deck.shuffle();
+            Set<Card> cards = new HashSet<Card>();
+            List<Card> hand = deck.deal(2);
+            Assert.assertEquals(2, hand.size());
+            cards.addAll(hand);
+            for (int i = 2; i < NO_OF_CARDS - 1; i++) {
+                Assert.assertTrue(cards.add(deck.deal()));
+            }
+            try {
+                deck.deal();
+                Assert.fail("No exception thrown");
+            } catch (IllegalStateException e) {
+                // OK.
+            }
+        }
+    }
+    
+    /**
+     * Tests dealing a specific card.
+     */
+    @Test
+    public void dealSpecific() {
+        for (Deck deck : createDecks(42L)) {
+            deck.shuffle();
+            Card card = deck.deal(Card.ACE, Card.SPADES);
+            Assert.assertEquals(new Card(Card.ACE, Card.SPADES), card);
+            for (int i = 1; i < NO_OF_CARDS - 1; i++) {
+                Assert.assertFalse(card.equals(deck.deal()));
+            }
+            deck.reset();
+            Assert.assertNotNull(deck.deal(Card.ACE, Card.SPADES));
+            Assert.assertNull(deck.deal(Card.ACE, Card.SPADES));
+        }
+    }
+    
+    /**
+     * Tests that the same seed deals the same cards.
+     */
+    @Test
+    public void seed() {
+        Deck[] decks1 = createDecks(42L);
+        Deck[] decks2 = createDecks(42L);
+        for (int i = 0; i < decks1.length; i++) {
+            for (int hand = 0; hand < 10; hand++) {
+                decks1[i].shuffle();
+                decks2[i].shuffle();
+                Assert.assertEquals(decks1[i].deal(9), decks2[i].deal(9));
+            }
+        }
+    }
+    
+    /**
+     * Tests that each card is dealt first equally often, and that each card
+     * lands on each position equally often (unbiased shuffle).
+     */
+    @Test
+    public void uniform() {
+        double expected = (double) NO_OF_SHUFFLES / NO_OF_CARDS;
+        for (Deck deck : createDecks(42L)) {
+            int[][] counts = new int[NO_OF_CARDS][NO_OF_CARDS];
+            for (int i = 0; i < NO_OF_SHUFFLES; i++) {
+                deck.shuffle();
+                for (int position = 0; position < NO_OF_CARDS - 1; position++) {
+                    counts[position][deck.deal().hashCode()]++;
+                }
+            }
+            // Chi-squared test per position (51 degrees of freedom, p < 0.001).
+            for (int position = 0; position < NO_OF_CARDS - 1; position++) {
+                double chiSquared = 0.0;
+                for (int card = 0; card < NO_OF_CARDS; card++) {
+                    double delta = counts[position][card] - expected;
+                    chiSquared += delta * delta / expected;
+                }
+                Assert.assertTrue("Biased position " + position + ": " + chiSquared, chiSquared < 87.0);
+            }
+        }
+    }
+    
+    /**
+     * Tests invalid arguments (bad-weather).
+     */
+    @Test
+    public void invalid() {
+        try {
+            new Deck((Random) null);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new Deck((SplittableRandom) null, true);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+    
+    /**
+     * Creates seeded decks in all modes.
+     * 
+     * @param seed
+     *            The seed.
+     * 
+     * @return The decks.
+     */
+    private static Deck[] createDecks(long seed) {
+        return new Deck[] { new Deck(new Random(seed)), new Deck(new Random(seed), true),
+                new Deck(new SplittableRandom(seed), false), new Deck(new SplittableRandom(seed), true), };
+    }
+    
+}
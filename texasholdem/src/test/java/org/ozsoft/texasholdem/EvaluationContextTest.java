@@ -0,0 +1,101 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.util.CardUtils;
+import org.ozsoft.texasholdem.util.MaskDeck;
+
+/**
+ * Test suite for the <code>EvaluationContext</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class EvaluationContextTest {
+
+    private static final int NO_OF_BOARDS = 2000;
+
+    private static final int NO_OF_PLAYERS = 4;
+
+    /**
+     * Tests layering hole cards on boards of all sizes against the
+     * {@link HandEvaluator}, with a lookup evaluator and a basic evaluator.
+     */
+    @Test
+    public void values() {
+        EvaluationContext[] contexts = { new EvaluationContext(), new EvaluationContext(new BasicEvaluator()) };
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        for (int i = 0; i < NO_OF_BOARDS; i++) {
+            deck.reset();
+            int noOfBoardCards = i % 6;
+            Card[] board = CardUtils.toCards(deck.deal(noOfBoardCards));
+            for (EvaluationContext context : contexts) {
+                context.setBoard(Arrays.asList(board));
+                Assert.assertEquals(noOfBoardCards, context.getBoardSize());
+            }
+            for (int player = 0; player < NO_OF_PLAYERS; player++) {
+                long holeCards = deck.deal(2);
+                Hand hand = new Hand(board);
+                hand.addCards(CardUtils.toCards(holeCards));
+                int expected = new HandEvaluator(hand).getValue();
+                Hand holeHand = CardUtils.toHand(holeCards);
+                for (EvaluationContext context : contexts) {
+                    Assert.assertEquals(expected, context.getValue(holeHand));
+                    Assert.assertEquals(expected, context.getValue(holeCards));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests adding board cards one by one and resetting the board.
+     */
+    @Test
+    public void board() {
+        EvaluationContext context = new EvaluationContext();
+        long holeCards = CardUtils.parseMask("As Ks");
+        context.addBoardCard(new Card("Qs"));
+        context.addBoardCard(new Card("Js"));
+        Assert.assertEquals(HandValueType.HIGH_CARD, HandValueType.forHandValue(context.getValue(holeCards)));
+        context.addBoardCard(new Card("Ts"));
+        Assert.assertEquals(HandValueType.ROYAL_FLUSH, HandValueType.forHandValue(context.getValue(holeCards)));
+        context.reset();
+        Assert.assertEquals(0, context.getBoardSize());
+        Assert.assertEquals(HandValueType.HIGH_CARD, HandValueType.forHandValue(context.getValue(holeCards)));
+        
+        // Bad-weather.
+        context.setBoard(Arrays.asList(new Hand("2d 3d 4d 5d 6d 7d").getCards()));
+        try {
+            context.getValue(holeCards);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new EvaluationContext(null);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+}
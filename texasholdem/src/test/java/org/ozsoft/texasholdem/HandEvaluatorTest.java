@@ -17,8 +17,12 @@
 
 package org.ozsoft.texasholdem;
 
+import java.util.SplittableRandom;
+
 import org.junit.Assert;
 import org.junit.Test;
+import org.ozsoft.texasholdem.util.CardUtils;
+import org.ozsoft.texasholdem.util.MaskDeck;
 
 /**
  * Test suite for the HandEvaluator class.
@@ -301,6 +305,12 @@ public class HandEvaluatorTest {
         Assert.assertEquals(HandValueType.FULL_HOUSE, evaluator.getType());
         value2 = evaluator.getValue();
         Assert.assertTrue(value1 == value2);
+
+        // Two triples (lower triple as pair).
+        evaluator = new HandEvaluator(new Hand("As Ah Ad Qs Qh Qc 4c"));
+        Assert.assertEquals(HandValueType.FULL_HOUSE, evaluator.getType());
+        value2 = evaluator.getValue();
+        Assert.assertEquals(new HandEvaluator(new Hand("As Ah Ad Qs Qh 4c")).getValue(), value2);
     }
 
     /**
@@ -371,6 +381,22 @@ public class HandEvaluatorTest {
         // Separate Flush and Straight (but no Straight Flush).
         evaluator = new HandEvaluator(new Hand("Kh Qs Jh Th 9h 4h 2c"));
         Assert.assertEquals(HandValueType.FLUSH, evaluator.getType());
+
+        // Separate Flush and Straight with a paired rank (but no Straight Flush).
+        evaluator = new HandEvaluator(new Hand("9h 8h 7h 6h 6c 5c 2h"));
+        Assert.assertEquals(HandValueType.FLUSH, evaluator.getType());
+
+        // Paired rank inside the Straight Flush.
+        evaluator = new HandEvaluator(new Hand("Qh Jh Th 9h 8h 9d 2c"));
+        Assert.assertEquals(HandValueType.STRAIGHT_FLUSH, evaluator.getType());
+        value2 = evaluator.getValue();
+        Assert.assertTrue(value1 > value2);
+
+        // Higher Straight on top of the Straight Flush.
+        evaluator = new HandEvaluator(new Hand("Ad Kc Qh Jh Th 9h 8h"));
+        Assert.assertEquals(HandValueType.STRAIGHT_FLUSH, evaluator.getType());
+        value2 = evaluator.getValue();
+        Assert.assertTrue(value1 > value2);
     }
 
     /**
@@ -395,6 +421,64 @@ public class HandEvaluatorTest {
         // Separate Flush and Straight, but no Straight Flush or Royal Flush.
         evaluator = new HandEvaluator(new Hand("As Kh Qs Js Ts 4s 2c"));
         Assert.assertEquals(HandValueType.FLUSH, evaluator.getType());
+
+        // Separate Flush and Straight with a paired rank (but no Royal Flush).
+        evaluator = new HandEvaluator(new Hand("Ah Kh Qh Jh Jc Tc 2h"));
+        Assert.assertEquals(HandValueType.FLUSH, evaluator.getType());
     }
 
+    /**
+     * Tests the cards that form the best combination.
+     */
+    @Test
+    public void bestCards() {
+        assertBestCards("As Qh Tc 8d 5d 4h 2c", "As Qh Tc 8d 5d");
+        assertBestCards("Qs 9c 7c Qh 5d 3s 2h", "Qs Qh 9c 7c 5d");
+        assertBestCards("Ks Qs Qh 5c 5d 3s 3h", "Qs Qh 5c 5d Ks");
+        assertBestCards("As Qs Qh Qc 5d 3s 2h", "Qs Qh Qc As 5d");
+        assertBestCards("Ks Qh Jc Td 9d 8h 2c", "Ks Qh Jc Td 9d");
+        assertBestCards("As Kh 5c 4d 3d 2h 2c", "5c 4d 3d 2h As");
+        assertBestCards("As Qs Ts 8s 5s 4s 2c", "As Qs Ts 8s 5s");
+        assertBestCards("As Ah Ad Qs Qh Qc 4c", "As Ah Ad Qs Qh");
+        assertBestCards("Ks Kh Kd Kc As Ah 4c", "Ks Kh Kc Kd As");
+        assertBestCards("Ah 9s 8s 7s 6s 5s 5h", "9s 8s 7s 6s 5s");
+        assertBestCards("As Ks Qs Js Ts 9s 5h", "As Ks Qs Js Ts");
+        assertBestCards("Ah 5h 4h 3h 2h 2c 2d", "5h 4h 3h 2h Ah");
+        assertBestCards("Ah Kh", "Ah Kh");
+        assertBestCards("Ah Ad Kh", "Ah Ad Kh");
+
+        // The best cards of random hands have the same value as the full hand.
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        for (int i = 0; i < 10000; i++) {
+            deck.reset();
+            Hand hand = CardUtils.toHand(deck.deal(7));
+            HandEvaluator evaluator = new HandEvaluator(hand);
+            Card[] bestCards = evaluator.getBestCards();
+            Assert.assertEquals(5, bestCards.length);
+            Assert.assertEquals(5, CardUtils.size(CardUtils.toMask(bestCards) & hand.getMask()));
+            Assert.assertEquals(evaluator.getValue(), new HandEvaluator(new Hand(bestCards)).getValue());
+            HandValue handValue = new HandValue(hand, new LookupEvaluator());
+            Assert.assertArrayEquals(bestCards, handValue.getBestCards());
+        }
+    }
+    
+    /**
+     * Asserts the cards that form the best combination of a hand.
+     * 
+     * @param hand
+     *            The hand.
+     * @param expected
+     *            The expected best cards, in order.
+     */
+    private static void assertBestCards(String hand, String expected) {
+        StringBuilder sb = new StringBuilder();
+        for (Card card : new HandValue(new Hand(hand)).getBestCards()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(card);
+        }
+        Assert.assertEquals(expected, sb.toString());
+    }
+    
 }
@@ -22,6 +22,7 @@ import java.util.Collection;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.ozsoft.texasholdem.util.CardUtils;
 
 /**
  * Test suite for the Hand class.
@@ -59,9 +60,12 @@ public class HandTest {
         Assert.assertEquals("Jc", cards[0].toString());
         Assert.assertEquals("Th", cards[1].toString());
         Assert.assertEquals("2d", cards[2].toString());
+        Assert.assertEquals("Jc", hand.getCard(0).toString());
+        Assert.assertEquals(CardUtils.parseMask("Th 2d Jc"), hand.getMask());
         
         hand.removeAllCards();
         Assert.assertEquals(0, hand.size());
+        Assert.assertEquals(0L, hand.getMask());
     }
     
     /**
@@ -0,0 +1,130 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Test suite for the <code>IncrementalEvaluator</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class IncrementalEvaluatorTest {
+
+    private static final int NO_OF_STEPS = 100000;
+
+    /**
+     * Tests a random walk of added and removed cards against the
+     * {@link HandEvaluator}.
+     */
+    @Test
+    public void randomWalk() {
+        SplittableRandom random = new SplittableRandom(42L);
+        IncrementalEvaluator evaluator = new IncrementalEvaluator();
+        int[] cards = new int[CardUtils.NO_OF_CARDS];
+        int noOfCards = 0;
+        for (int step = 0; step < NO_OF_STEPS; step++) {
+            if (noOfCards == 0 || (noOfCards < 7 && random.nextInt(3) > 0)) {
+                int card;
+                do {
+                    card = random.nextInt(CardUtils.NO_OF_CARDS);
+                } while ((evaluator.getMask() & (1L << card)) != 0L);
+                evaluator.addCard(card);
+                cards[noOfCards++] = card;
+            } else {
+                int index = random.nextInt(noOfCards);
+                evaluator.removeCard(cards[index]);
+                cards[index] = cards[--noOfCards];
+            }
+            Assert.assertEquals(noOfCards, evaluator.size());
+            HandEvaluator expected = new HandEvaluator(CardUtils.toHand(evaluator.getMask()));
+            Assert.assertEquals(expected.getType(), evaluator.getType());
+            Assert.assertEquals(expected.getValue(), evaluator.getValue());
+        }
+    }
+
+    /**
+     * Tests the distributions and the hand value types street by street.
+     */
+    @Test
+    public void streets() {
+        IncrementalEvaluator evaluator = new IncrementalEvaluator();
+        addCards(evaluator, "Ah 5h");
+        Assert.assertEquals(HandValueType.HIGH_CARD, evaluator.getType());
+        addCards(evaluator, "4h 3h Ad");
+        Assert.assertEquals(HandValueType.ONE_PAIR, evaluator.getType());
+        Assert.assertEquals(2, evaluator.getRankCount(Card.ACE));
+        Assert.assertEquals(4, evaluator.getSuitCount(Card.HEARTS));
+        Assert.assertEquals(-1, evaluator.getFlushSuit());
+        Assert.assertEquals(-1, evaluator.getStraightRank());
+        addCards(evaluator, "2c");
+        Assert.assertEquals(HandValueType.STRAIGHT, evaluator.getType());
+        Assert.assertEquals(Card.FIVE, evaluator.getStraightRank());
+        addCards(evaluator, "2h");
+        Assert.assertEquals(HandValueType.STRAIGHT_FLUSH, evaluator.getType());
+        Assert.assertEquals(Card.HEARTS, evaluator.getFlushSuit());
+        evaluator.removeCard(new Card("3h"));
+        Assert.assertEquals(HandValueType.TWO_PAIRS, evaluator.getType());
+        evaluator.reset();
+        Assert.assertEquals(0, evaluator.size());
+        Assert.assertEquals(0, evaluator.getRankMask());
+        addCards(evaluator, "As Ah Ad Ks Kh Kd 2c");
+        Assert.assertEquals(HandValueType.FULL_HOUSE, evaluator.getType());
+        addCards(evaluator, "Ac");
+        Assert.assertEquals(HandValueType.FOUR_OF_A_KIND, evaluator.getType());
+        try {
+            evaluator.getValue();
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+        
+        // Bad-weather.
+        try {
+            evaluator.addCard(new Card("Ac"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            evaluator.removeCard(new Card("Qc"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Adds cards to an evaluator.
+     *
+     * @param evaluator
+     *            The evaluator.
+     * @param s
+     *            The cards.
+     */
+    private static void addCards(IncrementalEvaluator evaluator, String s) {
+        for (Card card : new Hand(s).getCards()) {
+            evaluator.addCard(card);
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Test suite for the LookupEvaluator class.
+ *
+ * @author Oscar Stigter
+ */
+public class LookupEvaluatorTest {
+
+    /** The number of cards in a deck. */
+    private static final int NO_OF_CARDS = Card.NO_OF_RANKS * Card.NO_OF_SUITS;
+
+    /** The evaluator to test. */
+    private final LookupEvaluator evaluator = new LookupEvaluator();
+
+    /**
+     * Tests hands of different sizes against the HandEvaluator.
+     */
+    @Test
+    public void basics() {
+        String[] hands = {
+                "As",
+                "As Ah",
+                "Kh 7d 4c As Js",
+                "As Qh Tc 8d 5d 4h",
+                "Qs Qh 9c 7c 5d 3s 2h",
+                "As Ks Qs Js Ts 4d 2c",
+                "Ad Qc Th 5s 4d 3h 2c",
+                "As Qc Td 5s 4s 3s 2s",
+                "As Ah Ac Ad Qs Th 8c",
+                "As Ah Ac Kd Kh Ks 8c",
+                "9h 8h 7h 6h 6c 5c 2h",
+        };
+        for (String s : hands) {
+            Hand hand = new Hand(s);
+            HandEvaluator handEvaluator = new HandEvaluator(hand);
+            Assert.assertEquals(s, handEvaluator.getValue(), evaluator.getValue(hand));
+            Assert.assertEquals(s, handEvaluator.getValue(), evaluator.getValue(hand.getMask()));
+            HandValue handValue = new HandValue(hand, evaluator);
+            Assert.assertEquals(s, handEvaluator.getType(), handValue.getType());
+            Assert.assertEquals(s, handEvaluator.getValue(), handValue.getValue());
+        }
+    }
+
+    /**
+     * Tests all 5-card hands against the HandEvaluator.
+     */
+    @Test
+    public void allFiveCardHands() {
+        Assert.assertEquals(2598960, compareAllHands(5));
+    }
+
+    /**
+     * Tests all 7-card hands against the HandEvaluator. <br />
+     * <br />
+     *
+     * Takes a while, so only enabled with the system property 'exhaustive'.
+     */
+    @Test
+    public void allSevenCardHands() {
+        Assume.assumeTrue(Boolean.getBoolean("exhaustive"));
+        Assert.assertEquals(133784560, compareAllHands(7));
+    }
+
+    /**
+     * Compares the values of all hands of a specific size with the values
+     * calculated by the HandEvaluator.
+     *
+     * @param noOfCards
+     *            The number of cards in a hand.
+     *
+     * @return The number of hands compared.
+     */
+    private int compareAllHands(int noOfCards) {
+        Card[] deck = new Card[NO_OF_CARDS];
+        for (int i = 0; i < NO_OF_CARDS; i++) {
+            deck[i] = new Card(i / Card.NO_OF_SUITS, i % Card.NO_OF_SUITS);
+        }
+        int[] cards = new int[noOfCards];
+        for (int i = 0; i < noOfCards; i++) {
+            cards[i] = i;
+        }
+        Hand hand = new Hand();
+        int count = 0;
+        while (true) {
+            hand.removeAllCards();
+            for (int card : cards) {
+                hand.addCard(deck[card]);
+            }
+            int expected = new HandEvaluator(hand).getValue();
+            if (evaluator.getValue(cards, noOfCards) != expected) {
+                Assert.fail("Wrong value for hand: " + hand);
+            }
+            count++;
+
+            // Next combination.
+            int i = noOfCards - 1;
+            while (i >= 0 && cards[i] == NO_OF_CARDS - noOfCards + i) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            cards[i]++;
+            for (int j = i + 1; j < noOfCards; j++) {
+                cards[j] = cards[j - 1] + 1;
+            }
+        }
+        return count;
+    }
+
+}
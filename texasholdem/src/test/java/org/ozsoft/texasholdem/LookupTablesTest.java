@@ -0,0 +1,199 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test suite for the <code>LookupTables</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class LookupTablesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests writing the tables to a file and mapping them again.
+     */
+    @Test
+    public void writeAndLoad() throws Exception {
+        File file = folder.newFile("tables.dat");
+        LookupTableGenerator.generate(file);
+        LookupTables generated = LookupTables.generate();
+        LookupTables loaded = LookupTables.load(file);
+        Assert.assertEquals(LookupTables.HEADER_SIZE + 4L * (generated.rankStates.capacity()
+                + generated.rankValues.capacity() + generated.flushValues.capacity()), file.length());
+        assertEquals(generated.rankStates, loaded.rankStates);
+        assertEquals(generated.rankValues, loaded.rankValues);
+        assertEquals(generated.flushValues, loaded.flushValues);
+        Assert.assertTrue(loaded.rankStates.isDirect());
+        Assert.assertTrue(loaded.rankStates.isReadOnly());
+
+        // Rewriting a mapped file replaces it without touching the old mapping.
+        generated.write(file);
+        Assert.assertFalse(new File(file.getPath() + ".tmp").exists());
+        assertEquals(generated.rankValues, loaded.rankValues);
+        assertEquals(generated.rankValues, LookupTables.load(file).rankValues);
+    }
+
+    /**
+     * Tests that the tables are generated if the file does not exist.
+     */
+    @Test
+    public void missingFile() {
+        String oldValue = System.getProperty(LookupTables.FILE_PROPERTY);
+        try {
+            System.setProperty(LookupTables.FILE_PROPERTY, new File(folder.getRoot(), "missing.dat").getPath());
+            LookupTables tables = LookupTables.load();
+            assertEquals(LookupTables.generate().rankValues, tables.rankValues);
+        } finally {
+            if (oldValue != null) {
+                System.setProperty(LookupTables.FILE_PROPERTY, oldValue);
+            } else {
+                System.clearProperty(LookupTables.FILE_PROPERTY);
+            }
+        }
+    }
+
+    /**
+     * Tests that the generated tables match the checksum of this version. If
+     * this fails after changing the evaluator, update the checksum so files
+     * with outdated tables are rejected.
+     */
+    @Test
+    public void checksum() {
+        Assert.assertEquals(LookupTables.CHECKSUM, LookupTables.generate().checksum);
+    }
+
+    /**
+     * Tests that the tables are generated if the file is invalid.
+     */
+    @Test
+    public void invalidFileFallback() throws Exception {
+        File file = folder.newFile("invalid.dat");
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.write(new byte[LookupTables.HEADER_SIZE]);
+        } finally {
+            raf.close();
+        }
+        String oldValue = System.getProperty(LookupTables.FILE_PROPERTY);
+        PrintStream err = System.err;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            System.setProperty(LookupTables.FILE_PROPERTY, file.getPath());
+            System.setErr(new PrintStream(baos));
+            LookupTables tables = LookupTables.load();
+            assertEquals(LookupTables.generate().rankValues, tables.rankValues);
+        } finally {
+            System.setErr(err);
+            if (oldValue != null) {
+                System.setProperty(LookupTables.FILE_PROPERTY, oldValue);
+            } else {
+                System.clearProperty(LookupTables.FILE_PROPERTY);
+            }
+        }
+        Assert.assertTrue(baos.toString().contains("WARNING"));
+    }
+
+    /**
+     * Tests that corrupt or invalid files are rejected.
+     */
+    @Test
+    public void invalidFile() throws Exception {
+        File file = folder.newFile("tables.dat");
+        LookupTableGenerator.generate(file);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            // Flip a bit in the tables.
+            raf.seek(file.length() / 2);
+            int b = raf.read();
+            raf.seek(file.length() / 2);
+            raf.write(b ^ 1);
+        } finally {
+            raf.close();
+        }
+        try {
+            LookupTables.load(file);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+
+        raf = new RandomAccessFile(file, "rw");
+        try {
+            // Other version.
+            raf.seek(4L);
+            raf.write(LookupTables.VERSION + 1);
+        } finally {
+            raf.close();
+        }
+        try {
+            LookupTables.load(file);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+
+        try {
+            LookupTables.load(folder.newFile("empty.dat"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+
+        // Valid file with tables other than the generated ones (outdated).
+        file = folder.newFile("outdated.dat");
+        LookupTables generated = LookupTables.generate();
+        generated.rankValues.put(0, generated.rankValues.get(0) + 1);
+        generated.write(file);
+        try {
+            LookupTables.load(file);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Asserts that two tables are equal.
+     *
+     * @param expected
+     *            The expected table.
+     * @param actual
+     *            The actual table.
+     */
+    private static void assertEquals(IntBuffer expected, IntBuffer actual) {
+        Assert.assertEquals(expected.capacity(), actual.capacity());
+        for (int i = 0; i < expected.capacity(); i++) {
+            Assert.assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,403 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.bots.BasicBot;
+import org.ozsoft.texasholdem.bots.Bot;
+import org.ozsoft.texasholdem.bots.DummyBot;
+
+/**
+ * Test suite for the <code>Table</code> class.
+ * 
+ * @author Oscar Stigter
+ */
+public class TableTest {
+    
+    private static final int BIG_BLIND = 10;
+    
+    private static final int STARTING_CASH = 1000000;
+    
+    /**
+     * Tests the headless simulation mode.
+     */
+    @Test
+    public void simulationMode() {
+        Table table = new Table(TableType.FIXED_LIMIT, BIG_BLIND);
+        table.setSimulationMode(true);
+        Assert.assertTrue(table.isSimulationMode());
+        CountingBot countingBot = new CountingBot();
+        table.addPlayer(new Player("Counter", STARTING_CASH, countingBot), EnumSet.of(ClientEvent.PLAYER_ACTED));
+        Bot[] bots = new Bot[] { new BasicBot(0, 50), new BasicBot(50, 50), new DummyBot() };
+        for (int i = 0; i < bots.length; i++) {
+            table.addPlayer(new Player("Bot " + i, STARTING_CASH, bots[i]), bots[i].getSubscribedEvents());
+        }
+        
+        PrintStream out = System.out;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(baos));
+        try {
+            for (int i = 0; i < 1000; i++) {
+                table.playHand();
+            }
+        } finally {
+            System.setOut(out);
+        }
+        Assert.assertEquals(0, baos.size());
+        Assert.assertEquals(0, countingBot.noOfMessages);
+        Assert.assertEquals(0, countingBot.noOfPlayerUpdates);
+        Assert.assertTrue(countingBot.noOfPlayerActions > 0);
+        Assert.assertTrue(countingBot.noOfActs > 0);
+    }
+    
+    /**
+     * Tests that clients are notified of all events by default.
+     */
+    @Test
+    public void allEvents() {
+        Table table = new Table(TableType.FIXED_LIMIT, BIG_BLIND);
+        table.setSimulationMode(true);
+        CountingBot countingBot = new CountingBot();
+        Player player1 = new Player("Counter", STARTING_CASH, countingBot);
+        Player player2 = new Player("Bot", STARTING_CASH, new DummyBot());
+        table.addPlayer(player1);
+        table.addPlayer(player2);
+        for (int i = 0; i < 10; i++) {
+            table.playHand();
+        }
+        Assert.assertTrue(countingBot.noOfMessages > 0);
+        Assert.assertTrue(countingBot.noOfPlayerUpdates > 0);
+        Assert.assertTrue(countingBot.noOfPlayerActions > 0);
+        Assert.assertEquals(2 * STARTING_CASH, player1.getCash() + player2.getCash());
+    }
+    
+    /**
+     * Tests that a slow client does not hold up the table beyond its time
+     * limits.
+     */
+    @Test
+    public void timeLimits() throws InterruptedException {
+        Table table = new Table(TableType.FIXED_LIMIT, BIG_BLIND);
+        table.setSimulationMode(true);
+        table.setTimeLimits(20L, 100L);
+        Assert.assertEquals(20L, table.getDecisionTimeout());
+        Assert.assertEquals(100L, table.getTimeBank());
+        SlowBot slowBot = new SlowBot();
+        Player slow = new Player("Slow", STARTING_CASH, slowBot);
+        Player fast = new Player("Fast", STARTING_CASH, new DummyBot());
+        table.addPlayer(slow);
+        table.addPlayer(fast);
+        Assert.assertEquals(100L, slow.getTimeBank());
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 4; i++) {
+            table.playHand();
+        }
+        // Waiting for each action would take at least 4 seconds.
+        Assert.assertTrue(System.currentTimeMillis() - startTime < 2500L);
+        Assert.assertEquals(0L, slow.getTimeBank());
+        Assert.assertEquals(2 * STARTING_CASH, slow.getCash() + fast.getCash());
+        
+        // At most one action at a time, on a single thread.
+        Assert.assertEquals(1, getNoOfThreads("Client Slow"));
+        Assert.assertTrue(slowBot.noOfActs < 4);
+        
+        // The slow client is never called concurrently, and is notified of everything afterwards.
+        Assert.assertFalse(slowBot.concurrent);
+        Assert.assertTrue(slowBot.noOfPlayerActions > 0);
+        
+        // Cannot remove the time limits while a client is still acting.
+        try {
+            table.setTimeLimits(0L, 100L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+        try {
+            table.setTimeLimits(-1L, 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+    
+    /**
+     * Tests that a client that never returns from acting does not make the
+     * table hold on to ever more notifications.
+     */
+    @Test
+    public void hungClient() throws InterruptedException {
+        Table table = new Table(TableType.FIXED_LIMIT, BIG_BLIND);
+        table.setSimulationMode(true);
+        table.setTimeLimits(10L, 0L);
+        HungBot hungBot = new HungBot();
+        Player hung = new Player("Hung", STARTING_CASH, hungBot);
+        Player bot = new Player("Bot", STARTING_CASH, new DummyBot());
+        table.addPlayer(hung);
+        table.addPlayer(bot);
+        for (int i = 0; i < 500; i++) {
+            table.playHand();
+        }
+        Assert.assertEquals(2 * STARTING_CASH, hung.getCash() + bot.getCash());
+        
+        // Once released, the client only receives the notifications queued up to the limit.
+        hungBot.latch.countDown();
+        int noOfCalls;
+        do {
+            noOfCalls = hungBot.noOfCalls.get();
+            Thread.sleep(100L);
+        } while (hungBot.noOfCalls.get() != noOfCalls);
+        Assert.assertEquals(TimedClient.MAX_QUEUED_CALLS, noOfCalls - hungBot.noOfCallsBeforeAct);
+    }
+    
+    /**
+     * Tests asynchronous clients.
+     */
+    @Test
+    public void asyncClient() {
+        // Never responding, and without time limits.
+        Table table = new Table(TableType.FIXED_LIMIT, BIG_BLIND);
+        table.setSimulationMode(true);
+        AsyncBot asyncBot = new AsyncBot();
+        asyncBot.responding = false;
+        Player player1 = new Player("Async", STARTING_CASH, asyncBot);
+        Player player2 = new Player("Bot", STARTING_CASH, new DummyBot());
+        try {
+            table.addPlayer(player1, asyncBot.getSubscribedEvents());
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        
+        // Responding.
+        table.setTimeLimits(1000L, 0L);
+        table.addPlayer(player1, asyncBot.getSubscribedEvents());
+        table.addPlayer(player2);
+        asyncBot.responding = true;
+        for (int i = 0; i < 10; i++) {
+            table.playHand();
+        }
+        Assert.assertTrue(asyncBot.noOfActs > 0);
+        Assert.assertTrue(asyncBot.future.isDone() && !asyncBot.future.isCancelled());
+        try {
+            table.setTimeLimits(0L, 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        
+        // Never responding.
+        asyncBot.responding = false;
+        table.setTimeLimits(10L, 0L);
+        for (int i = 0; i < 4; i++) {
+            table.playHand();
+        }
+        Assert.assertTrue(asyncBot.future.isCancelled());
+        Assert.assertEquals(2 * STARTING_CASH, player1.getCash() + player2.getCash());
+    }
+    
+    /**
+     * Returns the number of live threads with a specific name.
+     */
+    private static int getNoOfThreads(String name) {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Bot taking a second to act, detecting concurrent calls.
+     */
+    private static class SlowBot extends DummyBot {
+        
+        private final AtomicInteger noOfCalls = new AtomicInteger();
+        
+        private volatile boolean concurrent;
+        
+        private volatile int noOfActs;
+        
+        private volatile int noOfPlayerActions;
+        
+        @Override
+        public void boardUpdated(List<Card> cards, int bet, int pot) {
+            enter();
+            exit();
+        }
+        
+        @Override
+        public void playerActed(Player player) {
+            enter();
+            noOfPlayerActions++;
+            exit();
+        }
+        
+        @Override
+        public Action act(int minBet, int currentBet, Set<Action> allowedActions) {
+            enter();
+            noOfActs++;
+            try {
+                Thread.sleep(1000L);
+            } catch (InterruptedException e) {
+                // Ignore.
+            }
+            exit();
+            return super.act(minBet, currentBet, allowedActions);
+        }
+        
+        private void enter() {
+            if (noOfCalls.incrementAndGet() > 1) {
+                concurrent = true;
+            }
+        }
+        
+        private void exit() {
+            noOfCalls.decrementAndGet();
+        }
+        
+    }
+    
+    /**
+     * Bot that does not return from acting until released, counting the
+     * notifications it receives (except joining the table).
+     */
+    private static class HungBot extends DummyBot {
+        
+        private final CountDownLatch latch = new CountDownLatch(1);
+        
+        private final AtomicInteger noOfCalls = new AtomicInteger();
+        
+        private volatile int noOfCallsBeforeAct;
+        
+        @Override
+        public void messageReceived(String message) {
+            noOfCalls.incrementAndGet();
+        }
+        
+        @Override
+        public void handStarted(Player dealer) {
+            noOfCalls.incrementAndGet();
+        }
+        
+        @Override
+        public void actorRotated(Player actor) {
+            noOfCalls.incrementAndGet();
+        }
+        
+        @Override
+        public void playerUpdated(Player player) {
+            noOfCalls.incrementAndGet();
+        }
+        
+        @Override
+        public void boardUpdated(List<Card> cards, int bet, int pot) {
+            noOfCalls.incrementAndGet();
+        }
+        
+        @Override
+        public void playerActed(Player player) {
+            noOfCalls.incrementAndGet();
+        }
+        
+        @Override
+        public Action act(int minBet, int currentBet, Set<Action> allowedActions) {
+            noOfCallsBeforeAct = noOfCalls.get();
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                // Ignore.
+            }
+            return super.act(minBet, currentBet, allowedActions);
+        }
+        
+    }
+    
+    /**
+     * Asynchronous bot that checks or calls, or never responds.
+     */
+    private static class AsyncBot extends DummyBot implements AsyncClient {
+        
+        private boolean responding = true;
+        
+        private int noOfActs;
+        
+        private CompletableFuture<Action> future;
+        
+        @Override
+        public CompletableFuture<Action> actAsync(int minBet, int currentBet, Set<Action> allowedActions) {
+            noOfActs++;
+            future = new CompletableFuture<Action>();
+            if (responding) {
+                future.complete(act(minBet, currentBet, allowedActions));
+            }
+            return future;
+        }
+        
+    }
+    
+    /**
+     * Bot that checks or calls, counting its notifications.
+     */
+    private static class CountingBot extends DummyBot {
+        
+        private int noOfMessages;
+        
+        private int noOfPlayerUpdates;
+        
+        private int noOfPlayerActions;
+        
+        private int noOfActs;
+        
+        
+        @Override
+        public void messageReceived(String message) {
+            noOfMessages++;
+        }
+        
+        @Override
+        public void playerUpdated(Player player) {
+            noOfPlayerUpdates++;
+        }
+        
+        @Override
+        public void playerActed(Player player) {
+            noOfPlayerActions++;
+        }
+        
+        @Override
+        public Action act(int minBet, int currentBet, Set<Action> allowedActions) {
+            noOfActs++;
+            return super.act(minBet, currentBet, allowedActions);
+        }
+        
+    }
+    
+}
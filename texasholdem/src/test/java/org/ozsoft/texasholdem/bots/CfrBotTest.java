@@ -0,0 +1,248 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.bots;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.BetAction;
+import org.ozsoft.texasholdem.actions.RaiseAction;
+import org.ozsoft.texasholdem.simulation.ArenaResult;
+import org.ozsoft.texasholdem.simulation.BotFactory;
+import org.ozsoft.texasholdem.simulation.HeadsUpArena;
+import org.ozsoft.texasholdem.solver.BettingTree;
+import org.ozsoft.texasholdem.solver.CardAbstraction;
+import org.ozsoft.texasholdem.solver.CfrStrategy;
+import org.ozsoft.texasholdem.solver.CfrTrainer;
+import org.ozsoft.texasholdem.solver.HandStrengthAbstraction;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Test suite for the <code>CfrBot</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class CfrBotTest {
+
+    private static final int BIG_BLIND = 10;
+
+    private static final Set<Action> CALL_ACTIONS = actions(Action.CALL, Action.RAISE, Action.FOLD);
+
+    private static final Set<Action> BET_ACTIONS = actions(Action.CHECK, Action.BET);
+
+    private static final CardAbstraction ABSTRACTION = new HandStrengthAbstraction(4, 4, 4);
+
+    private static CfrStrategy strategy;
+
+    @BeforeClass
+    public static void train() {
+        CfrTrainer trainer = new CfrTrainer(new BettingTree(), ABSTRACTION);
+        trainer.train(5000L, 42L);
+        strategy = trainer.getStrategy();
+    }
+
+    /**
+     * Tests following the betting tree across streets.
+     */
+    @Test
+    public void onTree() {
+        // The bot is the dealer with pocket Aces. Find a seed for which the strategy raises Pre-Flop, checks
+        // after being called, and bets the Flop after a check; off the betting tree the bot would only check or
+        // call.
+        long holeCards = CardUtils.parseMask("As Ah");
+        long flop = CardUtils.parseMask("Ac Ad 7h");
+        BettingTree tree = strategy.getTree();
+        int raiseNode = tree.getRoot(0);
+        int optionNode = tree.getChild(tree.getChild(raiseNode, BettingTree.RAISE), BettingTree.CALL);
+        int roundEnd = tree.getChild(optionNode, BettingTree.CALL);
+        Assert.assertTrue(tree.isRoundEnd(roundEnd));
+        int contribution = tree.getBet(roundEnd, 0);
+        int betNode = tree.getChild(tree.getRoot(1), BettingTree.CALL);
+        int preflopBucket = ABSTRACTION.getBucket(0, holeCards, 0L);
+        int flopBucket = ABSTRACTION.getBucket(1, holeCards, flop);
+        long seed = -1L;
+        for (long s = 0L; s < 100000L && seed < 0L; s++) {
+            SplittableRandom random = new SplittableRandom(s);
+            if (strategy.getAction(raiseNode, 0, preflopBucket, random.nextDouble()) == BettingTree.RAISE
+                    && strategy.getAction(optionNode, 0, preflopBucket, random.nextDouble()) == BettingTree.CALL
+                    && strategy.getAction(betNode, contribution, flopBucket,
+                            random.nextDouble()) == BettingTree.RAISE) {
+                seed = s;
+            }
+        }
+        Assert.assertTrue("No seed found", seed >= 0L);
+
+        CfrBot bot = new CfrBot(strategy, ABSTRACTION, seed);
+        Player player = new Player("Bot", 100 * BIG_BLIND, bot);
+        Player opponent = new Player("Opponent", 100 * BIG_BLIND, null);
+        startHand(bot, player, opponent, player, "As Ah");
+        act(bot, player, Action.SMALL_BLIND);
+        act(bot, opponent, Action.BIG_BLIND);
+        Action action = bot.act(BIG_BLIND, BIG_BLIND, CALL_ACTIONS);
+        Assert.assertTrue(action instanceof RaiseAction);
+        act(bot, player, action);
+        act(bot, opponent, Action.CALL);
+        Assert.assertEquals(Action.CHECK, bot.act(BIG_BLIND, 2 * BIG_BLIND, actions(Action.CHECK, Action.RAISE)));
+        act(bot, player, Action.CHECK);
+        bot.boardUpdated(Arrays.asList(CardUtils.toCards(flop)), 0, 4 * BIG_BLIND);
+        act(bot, opponent, Action.CHECK);
+        Assert.assertTrue(bot.act(BIG_BLIND, 0, BET_ACTIONS) instanceof BetAction);
+
+        // No choice.
+        Assert.assertEquals(Action.CHECK, bot.act(BIG_BLIND, 0, actions(Action.CHECK)));
+    }
+
+    /**
+     * Tests checking and calling after falling off the betting tree.
+     */
+    @Test
+    public void offTree() {
+        CfrBot bot = new CfrBot(strategy, ABSTRACTION, 42L);
+        Player player = new Player("Bot", 100 * BIG_BLIND, bot);
+        Player opponent = new Player("Opponent", 100 * BIG_BLIND, null);
+
+        // The bot is the big blind; the dealer raises 4 times, exceeding the betting tree.
+        startHand(bot, player, opponent, opponent, "7d 2c");
+        act(bot, opponent, Action.SMALL_BLIND);
+        act(bot, player, Action.BIG_BLIND);
+        act(bot, opponent, new RaiseAction(BIG_BLIND));
+        act(bot, player, Action.CALL);
+        act(bot, opponent, new RaiseAction(BIG_BLIND));
+        act(bot, player, new RaiseAction(BIG_BLIND));
+        act(bot, opponent, new RaiseAction(BIG_BLIND));
+        act(bot, player, Action.CALL);
+        act(bot, opponent, new RaiseAction(BIG_BLIND));
+        Assert.assertEquals(Action.CALL, bot.act(BIG_BLIND, 6 * BIG_BLIND, CALL_ACTIONS));
+        act(bot, player, Action.CALL);
+
+        // Still off the tree for the rest of the hand.
+        bot.boardUpdated(Arrays.asList(CardUtils.toCards(CardUtils.parseMask("Ac Ad 7h"))), 0, 12 * BIG_BLIND);
+        act(bot, player, Action.CHECK);
+        act(bot, opponent, new BetAction(BIG_BLIND));
+        Assert.assertEquals(Action.CALL, bot.act(BIG_BLIND, BIG_BLIND, CALL_ACTIONS));
+        act(bot, player, Action.CALL);
+        bot.boardUpdated(Arrays.asList(CardUtils.toCards(CardUtils.parseMask("Ac Ad 7h 8s"))), 0,
+                14 * BIG_BLIND);
+        Assert.assertEquals(Action.CHECK, bot.act(2 * BIG_BLIND, 0, BET_ACTIONS));
+
+        // Not heads-up Fixed-Limit: off the tree from the start.
+        bot = new CfrBot(strategy, ABSTRACTION, 42L);
+        player = new Player("Bot", 100 * BIG_BLIND, bot);
+        opponent = new Player("Opponent", 100 * BIG_BLIND, null);
+        List<Player> players = new ArrayList<Player>();
+        players.add(player);
+        players.add(opponent);
+        bot.joinedTable(TableType.NO_LIMIT, BIG_BLIND, players);
+        bot.handStarted(player);
+        player.setCards(Arrays.asList(CardUtils.toCards(CardUtils.parseMask("As Ah"))));
+        bot.playerUpdated(player);
+        act(bot, player, Action.SMALL_BLIND);
+        act(bot, opponent, Action.BIG_BLIND);
+        Assert.assertEquals(Action.CALL, bot.act(BIG_BLIND, BIG_BLIND, CALL_ACTIONS));
+    }
+
+    /**
+     * Tests that the bot beats a calling station heads-up, and only acts
+     * legally in both table types.
+     */
+    @Test
+    public void arena() {
+        BotFactory cfr = new BotFactory() {
+            @Override
+            public Bot createBot() {
+                return new CfrBot(strategy, ABSTRACTION, 42L);
+            }
+        };
+        BotFactory dummy = new BotFactory() {
+            @Override
+            public Bot createBot() {
+                return new DummyBot();
+            }
+        };
+        HeadsUpArena arena = new HeadsUpArena(ForkJoinPool.commonPool(), TableType.FIXED_LIMIT, BIG_BLIND,
+                100 * BIG_BLIND);
+        ArenaResult result = arena.run("Cfr", cfr, "Dummy", dummy, 4, 250, 42L);
+        Assert.assertTrue(result.toString(), result.getBigBlindsPer100() > 0.0);
+
+        // Not heads-up Fixed-Limit: checks and calls.
+        arena = new HeadsUpArena(ForkJoinPool.commonPool(), TableType.NO_LIMIT, BIG_BLIND, 100 * BIG_BLIND);
+        arena.run("Cfr", cfr, "Dummy", dummy, 1, 50, 42L);
+    }
+
+    /**
+     * Tests invalid arguments.
+     */
+    @Test
+    public void invalid() {
+        try {
+            new CfrBot(null, ABSTRACTION);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new CfrBot(strategy, new HandStrengthAbstraction(4, 4, 5));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Returns a set of allowed actions.
+     */
+    private static Set<Action> actions(Action... actions) {
+        return new HashSet<Action>(Arrays.asList(actions));
+    }
+
+    /**
+     * Seats a bot heads-up at a Fixed-Limit table and starts a hand with
+     * specific hole cards.
+     */
+    private static void startHand(CfrBot bot, Player player, Player opponent, Player dealer, String holeCards) {
+        List<Player> players = new ArrayList<Player>();
+        players.add(player);
+        players.add(opponent);
+        bot.joinedTable(TableType.FIXED_LIMIT, BIG_BLIND, players);
+        bot.handStarted(dealer);
+        player.setCards(Arrays.asList(CardUtils.toCards(CardUtils.parseMask(holeCards))));
+        bot.playerUpdated(player);
+        bot.boardUpdated(new ArrayList<Card>(), BIG_BLIND, 3 * BIG_BLIND / 2);
+    }
+
+    /**
+     * Notifies a bot of an action.
+     */
+    private static void act(Bot bot, Player player, Action action) {
+        player.setAction(action);
+        bot.playerActed(player.publicClone());
+    }
+
+}
@@ -0,0 +1,215 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.bots;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.BetAction;
+import org.ozsoft.texasholdem.actions.RaiseAction;
+import org.ozsoft.texasholdem.simulation.ArenaResult;
+import org.ozsoft.texasholdem.simulation.BotFactory;
+import org.ozsoft.texasholdem.simulation.HeadsUpArena;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Test suite for the <code>MonteCarloBot</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class MonteCarloBotTest {
+
+    private static final int BIG_BLIND = 10;
+
+    private static final Set<Action> BET_ACTIONS = actions(Action.CHECK, Action.BET);
+
+    private static final Set<Action> CALL_ACTIONS = actions(Action.CALL, Action.RAISE, Action.FOLD);
+
+    /**
+     * Tests the decisions based on equity and pot odds.
+     */
+    @Test
+    public void decisions() {
+        // The nuts on the River: bet, or raise a bet.
+        MonteCarloBot bot = createBot("As Ks", "Qs Js Ts 2d 3c", 100);
+        Assert.assertTrue(bot.act(BIG_BLIND, 0, BET_ACTIONS) instanceof BetAction);
+        Assert.assertEquals(1.0, bot.getEquity(), 0.0);
+        Assert.assertTrue(bot.act(BIG_BLIND, 50, CALL_ACTIONS) instanceof RaiseAction);
+
+        // Nothing on the River facing a pot-sized bet: fold, but check for free.
+        bot = createBot("7d 2c", "Ks Qh 9s 5d 4c", 100);
+        Assert.assertEquals(Action.FOLD, bot.act(BIG_BLIND, 100, CALL_ACTIONS));
+        Assert.assertEquals(Action.CHECK, bot.act(BIG_BLIND, 0, BET_ACTIONS));
+
+        // A Flush draw with good pot odds: call.
+        bot = createBot("6h 5h", "Kh 9h 2c", 200);
+        Assert.assertEquals(Action.CALL, bot.act(BIG_BLIND, 20, CALL_ACTIONS));
+        Assert.assertTrue(bot.getEquity() > 20.0 / 220.0);
+
+        // No choice.
+        Assert.assertEquals(Action.CHECK, bot.act(BIG_BLIND, 0, actions(Action.CHECK)));
+    }
+
+    /**
+     * Tests that the bot's own bet and cash follow the events when these carry
+     * snapshots of its player rather than the live player.
+     */
+    @Test
+    public void snapshots() {
+        MonteCarloBot bot = new MonteCarloBot(1000L, 20000, 42L);
+        Player player = new Player("Bot", 100 * BIG_BLIND, bot);
+        Player opponent = new Player("Opponent", 100 * BIG_BLIND, null);
+        bot.joinedTable(TableType.NO_LIMIT, BIG_BLIND, Arrays.asList(player, opponent));
+        bot.handStarted(player);
+        player.setCards(Arrays.asList(CardUtils.toCards(CardUtils.parseMask("6h 5h"))));
+        opponent.setCards(Arrays.asList(new Card(Card.DEUCE, Card.DIAMONDS), new Card(Card.THREE, Card.CLUBS)));
+        bot.playerUpdated(snapshot(player));
+        bot.playerUpdated(opponent.publicClone());
+        bot.boardUpdated(Arrays.asList(CardUtils.toCards(CardUtils.parseMask("Kh 9h 2c"))), 0, 200);
+
+        // The bot bets 200, and faces a min-raise: a cheap call with a Flush draw.
+        player.payCash(200);
+        player.setBet(200);
+        bot.playerActed(snapshot(player));
+        opponent.payCash(220);
+        opponent.setBet(220);
+        bot.playerActed(opponent.publicClone());
+        Assert.assertEquals(Action.CALL, bot.act(BIG_BLIND, 220, CALL_ACTIONS));
+    }
+
+    /**
+     * Tests that the time budget caps the decision time.
+     */
+    @Test
+    public void latency() {
+        MonteCarloBot bot = new MonteCarloBot(5L, Integer.MAX_VALUE, 42L);
+        initBot(bot, "Ah Kd", "", 30, 3);
+        // Warm up.
+        bot.act(BIG_BLIND, BIG_BLIND, CALL_ACTIONS);
+        long startTime = System.nanoTime();
+        bot.act(BIG_BLIND, BIG_BLIND, CALL_ACTIONS);
+        long duration = System.nanoTime() - startTime;
+        Assert.assertTrue(bot.getNoOfTrials() > 0);
+        Assert.assertTrue("Decision took " + duration + " ns", duration < 100000000L);
+    }
+
+    /**
+     * Tests that the bot beats a calling station heads-up, and only acts
+     * legally in both table types.
+     */
+    @Test
+    public void arena() {
+        BotFactory monteCarlo = new BotFactory() {
+            @Override
+            public Bot createBot() {
+                return new MonteCarloBot(1000L, 200, 42L);
+            }
+        };
+        BotFactory dummy = new BotFactory() {
+            @Override
+            public Bot createBot() {
+                return new DummyBot();
+            }
+        };
+        for (TableType tableType : TableType.values()) {
+            HeadsUpArena arena = new HeadsUpArena(ForkJoinPool.commonPool(), tableType, BIG_BLIND, 100 * BIG_BLIND);
+            ArenaResult result = arena.run("MonteCarlo", monteCarlo, "Dummy", dummy, 2, 200, 42L);
+            Assert.assertTrue(result.toString(), result.getBigBlindsPer100() > 0.0);
+        }
+    }
+
+    /**
+     * Tests invalid arguments.
+     */
+    @Test
+    public void invalid() {
+        try {
+            new MonteCarloBot(0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new MonteCarloBot(10L, 0, 42L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Returns a set of allowed actions.
+     */
+    private static Set<Action> actions(Action... actions) {
+        return new HashSet<Action>(Arrays.asList(actions));
+    }
+
+    /**
+     * Returns a snapshot of a player, including the hole cards.
+     */
+    private static Player snapshot(Player player) {
+        Player snapshot = player.publicClone();
+        snapshot.setCards(Arrays.asList(player.getCards()));
+        return snapshot;
+    }
+
+    /**
+     * Creates a bot heads-up with a specific hand.
+     */
+    private static MonteCarloBot createBot(String holeCards, String board, int pot) {
+        MonteCarloBot bot = new MonteCarloBot(1000L, 20000, 42L);
+        initBot(bot, holeCards, board, pot, 1);
+        return bot;
+    }
+
+    /**
+     * Sends the events of a hand to a bot.
+     */
+    private static void initBot(MonteCarloBot bot, String holeCards, String board, int pot, int noOfOpponents) {
+        Player player = new Player("Bot", 100 * BIG_BLIND, bot);
+        List<Player> players = new ArrayList<Player>();
+        players.add(player);
+        for (int i = 0; i < noOfOpponents; i++) {
+            players.add(new Player("Opponent" + i, 100 * BIG_BLIND, null));
+        }
+        bot.joinedTable(TableType.NO_LIMIT, BIG_BLIND, players);
+        bot.handStarted(player);
+        player.setCards(Arrays.asList(CardUtils.toCards(CardUtils.parseMask(holeCards))));
+        for (int i = 1; i < players.size(); i++) {
+            Player opponent = players.get(i);
+            // Any cards, hidden in the public clone.
+            opponent.setCards(Arrays.asList(new Card(i, Card.DIAMONDS), new Card(i, Card.CLUBS)));
+            bot.playerUpdated(opponent.publicClone());
+        }
+        bot.playerUpdated(player);
+        List<Card> boardCards = board.isEmpty() ? new ArrayList<Card>()
+                : Arrays.asList(CardUtils.toCards(CardUtils.parseMask(board)));
+        bot.boardUpdated(boardCards, 0, pot);
+    }
+
+}
@@ -0,0 +1,235 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.bots;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.ClientEvent;
+import org.ozsoft.texasholdem.Player;
+import org.ozsoft.texasholdem.Table;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.actions.Action;
+import org.ozsoft.texasholdem.actions.BetAction;
+import org.ozsoft.texasholdem.actions.RaiseAction;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Test suite for the <code>OpponentStats</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class OpponentStatsTest {
+
+    private static final int BIG_BLIND = 10;
+
+    private static final int STARTING_CASH = 1000000;
+
+    private static final List<Card> PRE_FLOP = new ArrayList<Card>();
+
+    private static final List<Card> FLOP = Arrays.asList(CardUtils.toCards(CardUtils.parseMask("Ac Kd 7h")));
+
+    private static final List<Card> TURN = Arrays.asList(CardUtils.toCards(CardUtils.parseMask("Ac Kd 7h 2s")));
+
+    private static final List<Card> RIVER = Arrays.asList(CardUtils.toCards(CardUtils.parseMask("Ac Kd 7h 2s 9c")));
+
+    /**
+     * Tests the statistics of scripted hands.
+     */
+    @Test
+    public void stats() {
+        OpponentStats stats = new OpponentStats();
+        Player a = new Player("A", 1000, null);
+        Player b = new Player("B", 1000, null);
+        Player c = new Player("C", 1000, null);
+        stats.joinedTable(Arrays.asList(a, b, c));
+
+        // A raises, gets called by C, and wins at the showdown.
+        stats.handStarted();
+        stats.boardUpdated(PRE_FLOP);
+        act(stats, b, Action.SMALL_BLIND);
+        act(stats, c, Action.BIG_BLIND);
+        act(stats, a, new RaiseAction(BIG_BLIND));
+        act(stats, b, Action.FOLD);
+        act(stats, c, Action.CALL);
+        stats.boardUpdated(FLOP);
+        act(stats, c, Action.CHECK);
+        act(stats, a, new BetAction(BIG_BLIND));
+        act(stats, c, Action.CALL);
+        stats.boardUpdated(TURN);
+        act(stats, c, Action.CHECK);
+        act(stats, a, Action.CHECK);
+        stats.boardUpdated(RIVER);
+        act(stats, c, new BetAction(BIG_BLIND));
+        act(stats, a, new RaiseAction(BIG_BLIND));
+        act(stats, c, Action.CALL);
+        a.win(100);
+        stats.playerUpdated(a);
+        Assert.assertEquals(0.0, stats.getWentToShowdown(a), 0.0);
+
+        // C bets the Flop and A folds.
+        stats.handStarted();
+        stats.boardUpdated(PRE_FLOP);
+        act(stats, c, Action.SMALL_BLIND);
+        act(stats, a, Action.BIG_BLIND);
+        act(stats, b, Action.FOLD);
+        act(stats, c, Action.CALL);
+        act(stats, a, Action.CHECK);
+        stats.boardUpdated(FLOP);
+        act(stats, c, new BetAction(BIG_BLIND));
+        act(stats, a, Action.FOLD);
+        stats.handStarted();
+
+        Assert.assertEquals(2, stats.getNoOfHands(a));
+        Assert.assertEquals(0.5, stats.getVpip(a), 0.0);
+        Assert.assertEquals(0.5, stats.getPfr(a), 0.0);
+        Assert.assertEquals(2.0, stats.getAggressionFactor(a), 0.0);
+        Assert.assertEquals(0.5, stats.getFoldToBet(a), 0.0);
+        Assert.assertEquals(0.5, stats.getWentToShowdown(a), 0.0);
+        Assert.assertEquals(1.0, stats.getWonAtShowdown(a), 0.0);
+
+        Assert.assertEquals(2, stats.getNoOfHands(b));
+        Assert.assertEquals(0.0, stats.getVpip(b), 0.0);
+        Assert.assertEquals(0.0, stats.getAggressionFactor(b), 0.0);
+        Assert.assertEquals(0.0, stats.getWentToShowdown(b), 0.0);
+
+        Assert.assertEquals(2, stats.getNoOfHands(c));
+        Assert.assertEquals(1.0, stats.getVpip(c), 0.0);
+        Assert.assertEquals(0.0, stats.getPfr(c), 0.0);
+        Assert.assertEquals(1.0, stats.getAggressionFactor(c), 0.0);
+        Assert.assertEquals(0.0, stats.getFoldToBet(c), 0.0);
+        Assert.assertEquals(0.5, stats.getWentToShowdown(c), 0.0);
+        Assert.assertEquals(0.0, stats.getWonAtShowdown(c), 0.0);
+
+        try {
+            stats.getVpip(new Player("D", 1000, null));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests that players all-in before the Flop are counted as seeing it.
+     */
+    @Test
+    public void allIn() {
+        OpponentStats stats = new OpponentStats();
+        Player a = new Player("A", 1000, null);
+        Player b = new Player("B", 1000, null);
+        stats.joinedTable(Arrays.asList(a, b));
+        stats.handStarted();
+        stats.boardUpdated(PRE_FLOP);
+        act(stats, a, Action.SMALL_BLIND);
+        act(stats, b, Action.BIG_BLIND);
+        act(stats, a, new RaiseAction(990));
+        act(stats, b, Action.CALL);
+        stats.boardUpdated(FLOP);
+        stats.boardUpdated(TURN);
+        stats.boardUpdated(RIVER);
+        a.win(1000);
+        stats.playerUpdated(a);
+        stats.handStarted();
+        Assert.assertEquals(1.0, stats.getWentToShowdown(a), 0.0);
+        Assert.assertEquals(1.0, stats.getWentToShowdown(b), 0.0);
+        Assert.assertEquals(1.0, stats.getWonAtShowdown(a), 0.0);
+        Assert.assertEquals(0.0, stats.getWonAtShowdown(b), 0.0);
+    }
+
+    /**
+     * Tests the statistics collected at a table.
+     */
+    @Test
+    public void table() {
+        Table table = new Table(TableType.FIXED_LIMIT, BIG_BLIND);
+        table.setSimulationMode(true);
+        TrackingBot trackingBot = new TrackingBot();
+        Player tracker = new Player("Tracker", STARTING_CASH, trackingBot);
+        Player dummy = new Player("Dummy", STARTING_CASH, new DummyBot());
+        BasicBot basicBot = new BasicBot(0, 100);
+        Player basic = new Player("Basic", STARTING_CASH, basicBot);
+        table.addPlayer(tracker, trackingBot.getSubscribedEvents());
+        table.addPlayer(dummy, EnumSet.noneOf(ClientEvent.class));
+        table.addPlayer(basic, basicBot.getSubscribedEvents());
+        trackingBot.stats.joinedTable(Arrays.asList(tracker, dummy, basic));
+        for (int i = 0; i < 500; i++) {
+            table.playHand();
+        }
+        OpponentStats stats = trackingBot.stats;
+        Assert.assertEquals(500, stats.getNoOfHands(dummy));
+        Assert.assertEquals(0.0, stats.getPfr(dummy), 0.0);
+        Assert.assertEquals(0.0, stats.getAggressionFactor(dummy), 0.0);
+        Assert.assertEquals(0.0, stats.getFoldToBet(dummy), 0.0);
+        Assert.assertTrue(stats.getVpip(dummy) > 0.5);
+        Assert.assertTrue(stats.getWentToShowdown(dummy) > 0.0 && stats.getWentToShowdown(dummy) <= 1.0);
+        Assert.assertTrue(stats.getWentToShowdown(basic) <= 1.0);
+        Assert.assertTrue(stats.getPfr(basic) > 0.0);
+        Assert.assertTrue(stats.getAggressionFactor(basic) > 0.0);
+        Assert.assertTrue(stats.getWonAtShowdown(dummy) > 0.0 && stats.getWonAtShowdown(dummy) < 1.0);
+    }
+
+    /**
+     * Lets a player act.
+     */
+    private static void act(OpponentStats stats, Player player, Action action) {
+        player.setAction(action);
+        stats.playerActed(player);
+    }
+
+    /**
+     * Bot that checks or calls, tracking the statistics of all players.
+     */
+    private static class TrackingBot extends DummyBot {
+
+        private final OpponentStats stats = new OpponentStats();
+
+        @Override
+        public Set<ClientEvent> getSubscribedEvents() {
+            return EnumSet.of(ClientEvent.HAND_STARTED, ClientEvent.PLAYER_UPDATED, ClientEvent.BOARD_UPDATED,
+                    ClientEvent.PLAYER_ACTED);
+        }
+
+        @Override
+        public void handStarted(Player dealer) {
+            stats.handStarted();
+        }
+
+        @Override
+        public void playerUpdated(Player player) {
+            stats.playerUpdated(player);
+        }
+
+        @Override
+        public void boardUpdated(List<Card> cards, int bet, int pot) {
+            stats.boardUpdated(cards);
+        }
+
+        @Override
+        public void playerActed(Player player) {
+            stats.playerActed(player);
+        }
+
+    }
+
+}
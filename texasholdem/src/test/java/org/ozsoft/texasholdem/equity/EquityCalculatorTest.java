@@ -0,0 +1,221 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.Hand;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Test suite for the <code>EquityCalculator</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class EquityCalculatorTest {
+
+    private static final double DELTA = 1e-08;
+
+    private static final int NO_OF_TRIALS = 200000;
+
+    private final EquityCalculator calculator = new EquityCalculator();
+
+    /**
+     * Tests well-known Pre-Flop equities against random hands.
+     */
+    @Test
+    public void preFlop() {
+        // Pocket Aces against one opponent: 85.2%.
+        Equity equity = calculator.calculate(new Hand("As Ah").getCards(), new ArrayList<Card>(), 1, NO_OF_TRIALS);
+        Assert.assertEquals(NO_OF_TRIALS, equity.getNoOfTrials());
+        Assert.assertEquals(0.852, equity.getEquity(), 0.01);
+        Assert.assertTrue(equity.getLowerBound() < 0.852 + 0.005 && equity.getUpperBound() > 0.852 - 0.005);
+        Assert.assertEquals(1.0, equity.getWin() + equity.getTie() + equity.getLoss(), DELTA);
+
+        // Seven-Deuce offsuit against one opponent: 34.6%.
+        equity = calculator.calculate(CardUtils.parseMask("7h 2c"), 0L, 1, NO_OF_TRIALS);
+        Assert.assertEquals(0.346, equity.getEquity(), 0.01);
+
+        // Pocket Aces against three opponents: 64.3%.
+        equity = calculator.calculate(CardUtils.parseMask("As Ah"), 0L, 3, NO_OF_TRIALS);
+        Assert.assertEquals(0.643, equity.getEquity(), 0.01);
+    }
+
+    /**
+     * Tests a board that plays for everybody.
+     */
+    @Test
+    public void boardPlays() {
+        Equity equity = calculator.calculate(CardUtils.parseMask("2c 3d"), CardUtils.parseMask("As Ks Qs Js Ts"), 2, 1000);
+        Assert.assertEquals(1.0, equity.getTie(), DELTA);
+        Assert.assertEquals(1.0 / 3.0, equity.getEquity(), DELTA);
+        Assert.assertEquals(0.0, equity.getStandardError(), DELTA);
+    }
+
+    /**
+     * Tests that the same seed gives the same result.
+     */
+    @Test
+    public void seed() {
+        long holeCards = CardUtils.parseMask("Kh Qh");
+        long board = CardUtils.parseMask("Jh 7h 2c");
+        Equity equity1 = calculator.calculate(holeCards, board, 0L, 2, 50000, 42L);
+        Equity equity2 = calculator.calculate(holeCards, board, 0L, 2, 50000, 42L);
+        Assert.assertEquals(equity1.getEquity(), equity2.getEquity(), 0.0);
+        Assert.assertEquals(equity1.getWin(), equity2.getWin(), 0.0);
+    }
+
+    /**
+     * Tests exact enumeration on the River.
+     */
+    @Test
+    public void enumerateRiver() {
+        Equity equity = calculator.enumerate(CardUtils.parseMask("As Ah"), CardUtils.parseMask("Kd 7c 2h 3s 9d"), 0L, 1);
+        Assert.assertTrue(equity.isExact());
+        Assert.assertEquals(990, equity.getNoOfTrials());
+        Assert.assertEquals(884.0 / 990.0, equity.getWin(), DELTA);
+        Assert.assertEquals(1.0 / 990.0, equity.getTie(), DELTA);
+        Assert.assertEquals(105.0 / 990.0, equity.getLoss(), DELTA);
+        Assert.assertEquals(884.5 / 990.0, equity.getEquity(), DELTA);
+        Assert.assertEquals(0.0, equity.getStandardError(), DELTA);
+
+        // Two opponents, each pair of hole cards counted in both seat orders.
+        equity = calculator.enumerate(CardUtils.parseMask("2c 3d"), CardUtils.parseMask("As Ks Qs Js Ts"), 0L, 2);
+        Assert.assertEquals(990 * 903, equity.getNoOfTrials());
+        Assert.assertEquals(1.0 / 3.0, equity.getEquity(), DELTA);
+    }
+
+    /**
+     * Tests exact enumeration on the Turn and Flop against sampling.
+     */
+    @Test
+    public void enumerateFlop() {
+        long holeCards = CardUtils.parseMask("Kh Qh");
+        long board = CardUtils.parseMask("Jh 7h 2c 3d");
+        Equity exact = calculator.enumerate(holeCards, board, 0L, 1);
+        Assert.assertEquals(46 * 990, exact.getNoOfTrials());
+        Equity sampled = calculator.calculate(holeCards, board, 0L, 1, NO_OF_TRIALS, 42L);
+        Assert.assertEquals(exact.getEquity(), sampled.getEquity(), 0.01);
+
+        // Same result on every run.
+        Assert.assertEquals(exact.getEquity(), calculator.enumerate(holeCards, board, 0L, 1).getEquity(), 0.0);
+
+        board = CardUtils.parseMask("Jh 7h 2c");
+        exact = calculator.enumerate(holeCards, board, 0L, 1);
+        Assert.assertTrue(exact.isExact());
+        Assert.assertEquals(1081 * 990, exact.getNoOfTrials());
+        sampled = calculator.calculate(holeCards, board, 0L, 1, NO_OF_TRIALS, 42L);
+        Assert.assertEquals(exact.getEquity(), sampled.getEquity(), 0.01);
+    }
+
+    /**
+     * Tests the fallback to sampling when there are too many outcomes.
+     */
+    @Test
+    public void enumerateFallback() {
+        EquityCalculator calculator = new EquityCalculator(ForkJoinPool.commonPool(), 100000);
+        Equity equity = calculator.enumerate(CardUtils.parseMask("As Ah"), 0L, 0L, 1);
+        Assert.assertFalse(equity.isExact());
+        Assert.assertEquals(100000, equity.getNoOfTrials());
+        Assert.assertEquals(0.852, equity.getEquity(), 0.01);
+
+        equity = calculator.enumerate(CardUtils.parseMask("As Ah"), CardUtils.parseMask("Kd 7c 2h 3s"), 0L, 1);
+        Assert.assertTrue(equity.isExact());
+    }
+
+    /**
+     * Tests range-vs-range equity.
+     */
+    @Test
+    public void ranges() {
+        // Pocket Aces against Kings: 81.9%.
+        Equity equity = calculator.calculate(Range.parse("AA"), Range.parse("KK"), 0L, NO_OF_TRIALS);
+        Assert.assertEquals(0.819, equity.getEquity(), 0.01);
+
+        // Against a random hand, with conflicting combinations removed.
+        Range any = Range.parse("22+, A2+, K2+, Q2+, J2+, T2+, 92+, 82+, 72+, 62+, 52+, 42+, 32");
+        equity = calculator.calculate(Range.parse("AsAh"), any, 0L, NO_OF_TRIALS);
+        Assert.assertEquals(0.852, equity.getEquity(), 0.01);
+
+        // Combinations with weight 0 are left out.
+        equity = calculator.calculate(Range.parse("AA"), Range.parse("KK, QQ:0"), 0L, NO_OF_TRIALS);
+        Assert.assertEquals(0.819, equity.getEquity(), 0.01);
+
+        // Combinations conflicting with the board are left out.
+        long board = CardUtils.parseMask("Kh Kd 2c");
+        equity = calculator.calculate(Range.parse("AA"), Range.parse("KK, QQ"), board, 0L, NO_OF_TRIALS, 42L);
+        Equity kingsOnly = calculator.calculate(CardUtils.parseMask("As Ah"), board, CardUtils.parseMask("Ks Kc"), 1, 1000, 42L);
+        Assert.assertTrue(equity.getEquity() > 0.2 && equity.getEquity() < kingsOnly.getEquity());
+        equity = calculator.calculate(Range.parse("AA"), Range.parse("KhKd"), 0L, 0L, NO_OF_TRIALS, 42L);
+        Assert.assertEquals(0.819, equity.getEquity(), 0.01);
+
+        // Same seed, same result.
+        Equity equity1 = calculator.calculate(Range.parse("QQ+, AKs"), Range.parse("JJ-99, AQ+:0.5"), 0L, 0L, 50000, 42L);
+        Equity equity2 = calculator.calculate(Range.parse("QQ+, AKs"), Range.parse("JJ-99, AQ+:0.5"), 0L, 0L, 50000, 42L);
+        Assert.assertEquals(equity1.getEquity(), equity2.getEquity(), 0.0);
+
+        try {
+            calculator.calculate(Range.parse("AsAh"), Range.parse("AsAh"), 0L, 1000);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            calculator.calculate(Range.parse("AA"), Range.parse("KK"), CardUtils.parseMask("Ks Kh Kd Kc"), 1000);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests invalid input (bad-weather).
+     */
+    @Test
+    public void invalid() {
+        try {
+            calculator.calculate(CardUtils.parseMask("As"), 0L, 1, 1000);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            calculator.calculate(CardUtils.parseMask("As Ah"), CardUtils.parseMask("As Kd 2c"), 1, 1000);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            calculator.calculate(CardUtils.parseMask("As Ah"), 0L, 0, 1000);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            calculator.calculate(CardUtils.parseMask("As Ah"), 0L, 23, 1000);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.util.Collections;
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.LookupEvaluator;
+import org.ozsoft.texasholdem.util.CardUtils;
+import org.ozsoft.texasholdem.util.MaskDeck;
+
+/**
+ * Test suite for the <code>HandStrengthCalculator</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class HandStrengthCalculatorTest {
+
+    private static final double DELTA = 1e-12;
+
+    private static final LookupEvaluator EVALUATOR = new LookupEvaluator();
+
+    /**
+     * Tests the hand strength and potential against a straightforward
+     * calculation, on random Flops, Turns and Rivers.
+     */
+    @Test
+    public void reference() {
+        HandStrengthCalculator calculator = new HandStrengthCalculator();
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        for (int noOfBoardCards = 3; noOfBoardCards <= 5; noOfBoardCards++) {
+            for (int i = 0; i < 5; i++) {
+                deck.reset();
+                long holeCards = deck.deal(2);
+                long board = deck.deal(noOfBoardCards);
+                HandStrength expected = calculate(holeCards, board);
+                HandStrength actual = calculator.calculate(holeCards, board);
+                Assert.assertEquals(expected.getHandStrength(), actual.getHandStrength(), DELTA);
+                Assert.assertEquals(expected.getPositivePotential(), actual.getPositivePotential(), DELTA);
+                Assert.assertEquals(expected.getNegativePotential(), actual.getNegativePotential(), DELTA);
+            }
+        }
+    }
+
+    /**
+     * Tests some typical hands.
+     */
+    @Test
+    public void hands() {
+        HandStrengthCalculator calculator = new HandStrengthCalculator();
+
+        // The nuts on the River.
+        HandStrength hs = calculator.calculate(CardUtils.parseMask("As Ks"), CardUtils.parseMask("Qs Js Ts 2d 3c"));
+        Assert.assertEquals(1.0, hs.getHandStrength(), DELTA);
+        Assert.assertEquals(0.0, hs.getPositivePotential(), DELTA);
+        Assert.assertEquals(1.0, hs.getEffectiveHandStrength(3), DELTA);
+
+        // A Flush draw has more potential than a weak made hand.
+        HandStrength draw = calculator.calculate(CardUtils.parseMask("Ah 5h"), CardUtils.parseMask("Kh 9h 2c"));
+        HandStrength weak = calculator.calculate(CardUtils.parseMask("2d 3s"), CardUtils.parseMask("Kh 9h 2c"));
+        Assert.assertTrue(draw.getPositivePotential() > weak.getPositivePotential());
+        Assert.assertTrue(draw.getEffectiveHandStrength() > draw.getHandStrength());
+
+        // An overpair is vulnerable on a coordinated board.
+        HandStrength overpair = calculator.calculate(CardUtils.parseMask("Qd Qc"), CardUtils.parseMask("Jh Th 8h"));
+        Assert.assertTrue(overpair.getHandStrength() > 0.7);
+        Assert.assertTrue(overpair.getNegativePotential() > 0.1);
+        Assert.assertTrue(overpair.getEffectiveHandStrength() < overpair.getHandStrength());
+        Assert.assertTrue(overpair.getHandStrength(2) < overpair.getHandStrength());
+    }
+
+    /**
+     * Tests Pre-Flop, using the precomputed equities.
+     */
+    @Test
+    public void preflop() {
+        HandStrengthCalculator calculator = new HandStrengthCalculator();
+        Card[] holeCards = CardUtils.toCards(CardUtils.parseMask("As Ah"));
+        HandStrength hs = calculator.calculate(holeCards, Collections.<Card> emptyList());
+        Assert.assertEquals(PreflopEquity.getEquity(holeCards, 1), hs.getHandStrength(), DELTA);
+        Assert.assertEquals(hs.getHandStrength(), hs.getEffectiveHandStrength(), DELTA);
+    }
+
+    /**
+     * Tests invalid arguments.
+     */
+    @Test
+    public void invalid() {
+        HandStrengthCalculator calculator = new HandStrengthCalculator();
+        try {
+            calculator.calculate(CardUtils.parseMask("As"), CardUtils.parseMask("Qs Js Ts"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            calculator.calculate(CardUtils.parseMask("As Ks"), CardUtils.parseMask("Qs Js"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            calculator.calculate(CardUtils.parseMask("As Ks"), CardUtils.parseMask("As Js Ts"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Calculates the hand strength and potential in a straightforward way.
+     *
+     * @param holeCards
+     *            The hole cards.
+     * @param board
+     *            The board.
+     *
+     * @return The hand strength.
+     */
+    private static HandStrength calculate(long holeCards, long board) {
+        long live = CardUtils.FULL_DECK & ~(holeCards | board);
+        long[][] hp = new long[3][3];
+        long[] hs = new long[3];
+        int heroValue = EVALUATOR.getValue(holeCards | board);
+        for (int card1 = 0; card1 < CardUtils.NO_OF_CARDS; card1++) {
+            for (int card2 = card1 + 1; card2 < CardUtils.NO_OF_CARDS; card2++) {
+                long opponent = (1L << card1) | (1L << card2);
+                if ((opponent & live) != opponent) {
+                    continue;
+                }
+                int index = compare(heroValue, EVALUATOR.getValue(opponent | board));
+                hs[index]++;
+                if (Long.bitCount(board) < 5) {
+                    for (int card = 0; card < CardUtils.NO_OF_CARDS; card++) {
+                        long next = 1L << card;
+                        if ((next & live & ~opponent) != 0L) {
+                            int nextIndex = compare(EVALUATOR.getValue(holeCards | board | next),
+                                    EVALUATOR.getValue(opponent | board | next));
+                            hp[index][nextIndex]++;
+                        }
+                    }
+                }
+            }
+        }
+        double handStrength = (hs[0] + hs[1] / 2.0) / (hs[0] + hs[1] + hs[2]);
+        double[] total = new double[3];
+        for (int i = 0; i < 3; i++) {
+            total[i] = hp[i][0] + hp[i][1] + hp[i][2];
+        }
+        double ppotTotal = total[2] + total[1] / 2.0;
+        double npotTotal = total[0] + total[1] / 2.0;
+        double ppot = (ppotTotal > 0.0) ? (hp[2][0] + hp[2][1] / 2.0 + hp[1][0] / 2.0) / ppotTotal : 0.0;
+        double npot = (npotTotal > 0.0) ? (hp[0][2] + hp[1][2] / 2.0 + hp[0][1] / 2.0) / npotTotal : 0.0;
+        return new HandStrength(handStrength, ppot, npot);
+    }
+
+    /**
+     * Compares two hand values.
+     *
+     * @return 0 if ahead, 1 if tied, 2 if behind.
+     */
+    private static int compare(int heroValue, int value) {
+        return (heroValue > value) ? 0 : (heroValue == value) ? 1 : 2;
+    }
+
+}
@@ -0,0 +1,110 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Test suite for the <code>PreflopEquity</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class PreflopEquityTest {
+
+    /**
+     * Tests the canonical hand indices.
+     */
+    @Test
+    public void handIndices() {
+        int[] counts = new int[PreflopEquity.NO_OF_HANDS];
+        for (int card1 = 1; card1 < CardUtils.NO_OF_CARDS; card1++) {
+            for (int card2 = 0; card2 < card1; card2++) {
+                int index = PreflopEquity.getHandIndex(card1, card2);
+                Assert.assertEquals(index, PreflopEquity.getHandIndex(card2, card1));
+                counts[index]++;
+            }
+        }
+        int noOfCombos = 0;
+        for (int hand = 0; hand < PreflopEquity.NO_OF_HANDS; hand++) {
+            String name = PreflopEquity.getHandName(hand);
+            int expected = (name.length() == 2) ? 6 : (name.endsWith("s") ? 4 : 12);
+            Assert.assertEquals(name, expected, counts[hand]);
+            Assert.assertEquals(expected, Range.parse(name).size());
+            long holeCards = PreflopEquity.getHoleCards(hand);
+            int card1 = Long.numberOfTrailingZeros(holeCards);
+            int card2 = 63 - Long.numberOfLeadingZeros(holeCards);
+            Assert.assertEquals(hand, PreflopEquity.getHandIndex(card1, card2));
+            noOfCombos += counts[hand];
+        }
+        Assert.assertEquals(Range.NO_OF_COMBOS, noOfCombos);
+        Assert.assertEquals("AA", PreflopEquity.getHandName(PreflopEquity.getHandIndex(CardUtils.parseCard("As"), CardUtils.parseCard("Ad"))));
+        Assert.assertEquals("AKs", PreflopEquity.getHandName(PreflopEquity.getHandIndex(CardUtils.parseCard("Kh"), CardUtils.parseCard("Ah"))));
+        Assert.assertEquals("72o", PreflopEquity.getHandName(PreflopEquity.getHandIndex(CardUtils.parseCard("7h"), CardUtils.parseCard("2c"))));
+    }
+
+    /**
+     * Tests the precomputed equities against well-known values.
+     */
+    @Test
+    public void equities() {
+        Card[] aces = new Card[] { new Card("As"), new Card("Ah") };
+        Assert.assertEquals(0.852, PreflopEquity.getEquity(aces, 1), 0.005);
+        Assert.assertEquals(0.639, PreflopEquity.getEquity(aces, 3), 0.005);
+        Assert.assertEquals(0.346, PreflopEquity.getEquity(CardUtils.parseCard("7h"), CardUtils.parseCard("2c"), 1), 0.005);
+
+        // Each hand is worth less against more opponents.
+        for (int hand = 0; hand < PreflopEquity.NO_OF_HANDS; hand++) {
+            for (int noOfOpponents = 2; noOfOpponents <= PreflopEquity.MAX_NO_OF_OPPONENTS; noOfOpponents++) {
+                Assert.assertTrue(PreflopEquity.getEquity(hand, noOfOpponents) < PreflopEquity.getEquity(hand, noOfOpponents - 1));
+            }
+        }
+
+        try {
+            PreflopEquity.getEquity(aces, 0);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            PreflopEquity.getEquity(aces, 10);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests the format written by the generator.
+     *
+     * @throws IOException
+     *             If the equities could not be written.
+     */
+    @Test
+    public void generator() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PreflopEquityGenerator.generate(baos, 100, false);
+        Assert.assertEquals(4 * 4 + 8 + PreflopEquity.NO_OF_HANDS * PreflopEquity.MAX_NO_OF_OPPONENTS * 2, baos.size());
+    }
+
+}
@@ -0,0 +1,120 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.equity;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.util.CardUtils;
+
+/**
+ * Test suite for the <code>Range</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class RangeTest {
+
+    private static final double DELTA = 1e-08;
+
+    /**
+     * Tests the combination indices.
+     */
+    @Test
+    public void indices() {
+        Assert.assertEquals(1326, Range.NO_OF_COMBOS);
+        for (int i = 0; i < Range.NO_OF_COMBOS; i++) {
+            long combo = Range.getCombo(i);
+            Assert.assertEquals(2, Long.bitCount(combo));
+            Assert.assertEquals(i, Range.getIndex(combo));
+        }
+        Assert.assertEquals(Range.getIndex(CardUtils.parseMask("As Kd")), Range.getIndex(CardUtils.parseCard("Kd"), CardUtils.parseCard("As")));
+    }
+
+    /**
+     * Tests parsing of the standard range notation.
+     */
+    @Test
+    public void parse() {
+        Assert.assertEquals(0, Range.parse("").size());
+        Assert.assertEquals(6, Range.parse("AA").size());
+        Assert.assertEquals(18, Range.parse("QQ+").size());
+        Assert.assertEquals(24, Range.parse("QQ-99").size());
+        Assert.assertEquals(24, Range.parse("99-QQ").size());
+        Assert.assertEquals(4, Range.parse("AKs").size());
+        Assert.assertEquals(12, Range.parse("AKo").size());
+        Assert.assertEquals(16, Range.parse("AK").size());
+        Assert.assertEquals(16, Range.parse("KA").size());
+        Assert.assertEquals(16, Range.parse("ATs+").size());
+        Assert.assertEquals(48, Range.parse("KQo-K9o").size());
+        Assert.assertEquals(1, Range.parse("AsKs").size());
+        Assert.assertEquals(22, Range.parse("QQ+, AKs").size());
+        Assert.assertEquals(16, Range.parse("AKs, AKs, AKo").size());
+        Assert.assertEquals(1326, Range.parse("22+, A2+, K2+, Q2+, J2+, T2+, 92+, 82+, 72+, 62+, 52+, 42+, 32").size());
+
+        Range range = Range.parse("QQ+, AKs, AKo:0.5");
+        Assert.assertEquals(1.0, range.getWeight(CardUtils.parseMask("As Ah")), DELTA);
+        Assert.assertEquals(1.0, range.getWeight(CardUtils.parseMask("Ks Kh")), DELTA);
+        Assert.assertEquals(0.0, range.getWeight(CardUtils.parseMask("Js Jh")), DELTA);
+        Assert.assertEquals(1.0, range.getWeight(CardUtils.parseMask("Ac Kc")), DELTA);
+        Assert.assertEquals(0.5, range.getWeight(CardUtils.parseMask("Ac Kd")), DELTA);
+        Assert.assertEquals(22.0 + 6.0, range.getTotalWeight(), DELTA);
+
+        // Later parts override earlier ones.
+        range = Range.parse("AA, AsAh:0.25");
+        Assert.assertEquals(0.25, range.getWeight(CardUtils.parseMask("As Ah")), DELTA);
+        Assert.assertEquals(1.0, range.getWeight(CardUtils.parseMask("As Ad")), DELTA);
+        Assert.assertEquals("AsAh:0.25, AsAc, AsAd, AhAc, AhAd, AcAd", range.toString());
+    }
+
+    /**
+     * Tests setting weights.
+     */
+    @Test
+    public void weights() {
+        Range range = new Range();
+        long holeCards = CardUtils.parseMask("7h 2c");
+        range.setWeight(holeCards, 0.75);
+        Assert.assertEquals(0.75, range.getWeight(holeCards), DELTA);
+        Assert.assertEquals(0.75, range.getWeight(Range.getIndex(holeCards)), DELTA);
+        Assert.assertEquals(1, range.size());
+        Assert.assertEquals(1, range.getCombos(0L).length);
+        Assert.assertEquals(0, range.getCombos(CardUtils.parseMask("2c")).length);
+        try {
+            range.setWeight(holeCards, 1.5);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests invalid notation (bad-weather).
+     */
+    @Test
+    public void invalid() {
+        String[] ranges = { "A", "AAs", "AKx", "AK+s", "QQ-AK", "AKs-QJs", "AKs-ATo", "AsAs", "AA:2", "AA:x", "1A" };
+        for (String s : ranges) {
+            try {
+                Range.parse(s);
+                Assert.fail("No exception thrown for " + s);
+            } catch (IllegalArgumentException e) {
+                // OK.
+            }
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.bots.BasicBot;
+import org.ozsoft.texasholdem.bots.Bot;
+import org.ozsoft.texasholdem.bots.DummyBot;
+
+/**
+ * Test suite for the <code>HeadsUpArena</code> class.
+ * 
+ * @author Oscar Stigter
+ */
+public class HeadsUpArenaTest {
+    
+    private static final int BIG_BLIND = 10;
+    
+    private static final int NO_OF_MATCHES = 8;
+    
+    private static final int NO_OF_HANDS = 250;
+    
+    private static final BotFactory DUMMY = new BotFactory() {
+        @Override
+        public Bot createBot() {
+            return new DummyBot();
+        }
+    };
+    
+    private static final BotFactory TIGHT = new BotFactory() {
+        @Override
+        public Bot createBot() {
+            return new BasicBot(80, 50);
+        }
+    };
+    
+    /**
+     * Tests that identical bots break exactly even, since each gets the same
+     * cards and positions as the other.
+     */
+    @Test
+    public void mirror() {
+        HeadsUpArena arena = new HeadsUpArena(ForkJoinPool.commonPool(), TableType.FIXED_LIMIT, BIG_BLIND, 100 * BIG_BLIND);
+        ArenaResult result = arena.run("Tight1", TIGHT, "Tight2", TIGHT, NO_OF_MATCHES, NO_OF_HANDS, 42L);
+        Assert.assertEquals("Tight1", result.getName1());
+        Assert.assertEquals("Tight2", result.getName2());
+        Assert.assertEquals(NO_OF_MATCHES, result.getNoOfMatches());
+        Assert.assertEquals(NO_OF_MATCHES * NO_OF_HANDS, result.getNoOfHands());
+        Assert.assertEquals(0.0, result.getBigBlindsPer100(), 0.0);
+        Assert.assertEquals(0.0, result.getStandardError(), 0.0);
+        Assert.assertEquals(0L, result.getMatchesWon());
+        Assert.assertEquals(0L, result.getMatchesLost());
+    }
+    
+    /**
+     * Tests a match between different bots.
+     */
+    @Test
+    public void run() {
+        HeadsUpArena arena = new HeadsUpArena(ForkJoinPool.commonPool(), TableType.FIXED_LIMIT, BIG_BLIND, 100 * BIG_BLIND);
+        ArenaResult result = arena.run("Tight", TIGHT, "Dummy", DUMMY, NO_OF_MATCHES, NO_OF_HANDS, 42L);
+        Assert.assertTrue(result.getStandardError() > 0.0);
+        Assert.assertEquals(100.0 * result.getChipsWonPerHand() / BIG_BLIND, result.getBigBlindsPer100(), 1e-08);
+        Assert.assertEquals(NO_OF_MATCHES, result.getMatchesWon() + result.getMatchesLost(), 1);
+        
+        // Swapping the bots mirrors the result.
+        ArenaResult swapped = arena.run("Dummy", DUMMY, "Tight", TIGHT, NO_OF_MATCHES, NO_OF_HANDS, 42L);
+        Assert.assertEquals(-result.getBigBlindsPer100(), swapped.getBigBlindsPer100(), 1e-08);
+        Assert.assertEquals(result.getStandardError(), swapped.getStandardError(), 1e-08);
+    }
+    
+    /**
+     * Tests that the result only depends on the seed, not on the number of
+     * threads.
+     */
+    @Test
+    public void seed() {
+        ArenaResult result1 = new HeadsUpArena(new ForkJoinPool(1), TableType.NO_LIMIT, BIG_BLIND, 100 * BIG_BLIND)
+                .run("Tight", TIGHT, "Dummy", DUMMY, NO_OF_MATCHES, NO_OF_HANDS, 42L);
+        ArenaResult result2 = new HeadsUpArena(new ForkJoinPool(4), TableType.NO_LIMIT, BIG_BLIND, 100 * BIG_BLIND)
+                .run("Tight", TIGHT, "Dummy", DUMMY, NO_OF_MATCHES, NO_OF_HANDS, 42L);
+        Assert.assertEquals(result1.getBigBlindsPer100(), result2.getBigBlindsPer100(), 0.0);
+        Assert.assertEquals(result1.getStandardError(), result2.getStandardError(), 0.0);
+    }
+    
+    /**
+     * Tests invalid settings (bad-weather).
+     */
+    @Test
+    public void invalid() {
+        HeadsUpArena arena = new HeadsUpArena(TableType.NO_LIMIT, BIG_BLIND);
+        try {
+            arena.run("Dummy", DUMMY, "Dummy", DUMMY, 0, NO_OF_HANDS, 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            arena.run("Dummy", null, "Dummy", DUMMY, 1, NO_OF_HANDS, 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+    
+}
@@ -0,0 +1,138 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.TableType;
+import org.ozsoft.texasholdem.bots.BasicBot;
+import org.ozsoft.texasholdem.bots.Bot;
+import org.ozsoft.texasholdem.bots.DummyBot;
+
+/**
+ * Test suite for the <code>MultiTableRunner</code> class.
+ * 
+ * @author Oscar Stigter
+ */
+public class MultiTableRunnerTest {
+    
+    private static final int BIG_BLIND = 10;
+    
+    private static final int NO_OF_TABLES = 20;
+    
+    private static final int NO_OF_HANDS = 500;
+    
+    /**
+     * Tests a simulation with multiple tables.
+     */
+    @Test
+    public void run() {
+        MultiTableRunner runner = createRunner(ForkJoinPool.commonPool());
+        SimulationResult result = runner.run(NO_OF_TABLES, NO_OF_HANDS, 42L);
+        Assert.assertEquals(3, result.getNoOfBots());
+        Assert.assertEquals("Tight", result.getName(1));
+        Assert.assertEquals(NO_OF_TABLES, result.getNoOfTables());
+        Assert.assertEquals(NO_OF_TABLES * NO_OF_HANDS, result.getNoOfHands());
+        
+        // Zero-sum game.
+        long totalChipsWon = 0L;
+        double totalBigBlindsPer100 = 0.0;
+        for (int i = 0; i < result.getNoOfBots(); i++) {
+            totalChipsWon += result.getChipsWon(i);
+            totalBigBlindsPer100 += result.getBigBlindsPer100(i);
+        }
+        Assert.assertEquals(0L, totalChipsWon);
+        Assert.assertEquals(0.0, totalBigBlindsPer100, 1e-08);
+        Assert.assertEquals(100.0 * result.getChipsWon(0) / BIG_BLIND / result.getNoOfHands(), result.getBigBlindsPer100(0), 1e-08);
+    }
+    
+    /**
+     * Tests that the result only depends on the seed, not on the number of
+     * threads.
+     */
+    @Test
+    public void seed() {
+        SimulationResult result1 = createRunner(new ForkJoinPool(1)).run(NO_OF_TABLES, NO_OF_HANDS, 42L);
+        SimulationResult result2 = createRunner(new ForkJoinPool(4)).run(NO_OF_TABLES, NO_OF_HANDS, 42L);
+        SimulationResult result3 = createRunner(new ForkJoinPool(4)).run(NO_OF_TABLES, NO_OF_HANDS, 43L);
+        for (int i = 0; i < result1.getNoOfBots(); i++) {
+            Assert.assertEquals(result1.getChipsWon(i), result2.getChipsWon(i));
+        }
+        Assert.assertTrue(result1.getChipsWon(0) != result3.getChipsWon(0));
+    }
+    
+    /**
+     * Tests invalid settings (bad-weather).
+     */
+    @Test
+    public void invalid() {
+        MultiTableRunner runner = new MultiTableRunner(TableType.NO_LIMIT, BIG_BLIND);
+        runner.addBot("Dummy", new BotFactory() {
+            @Override
+            public Bot createBot() {
+                return new DummyBot();
+            }
+        });
+        try {
+            runner.run(1, 1, 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+        try {
+            new MultiTableRunner(ForkJoinPool.commonPool(), TableType.NO_LIMIT, BIG_BLIND, BIG_BLIND - 1);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+    
+    /**
+     * Creates a runner with three different bots.
+     * 
+     * @param pool
+     *            The fork/join pool.
+     * 
+     * @return The runner.
+     */
+    private static MultiTableRunner createRunner(ForkJoinPool pool) {
+        MultiTableRunner runner = new MultiTableRunner(pool, TableType.FIXED_LIMIT, BIG_BLIND, 100 * BIG_BLIND);
+        runner.addBot("Loose", new BotFactory() {
+            @Override
+            public Bot createBot() {
+                return new BasicBot(0, 50);
+            }
+        });
+        runner.addBot("Tight", new BotFactory() {
+            @Override
+            public Bot createBot() {
+                return new BasicBot(80, 50);
+            }
+        });
+        runner.addBot("Dummy", new BotFactory() {
+            @Override
+            public Bot createBot() {
+                return new DummyBot();
+            }
+        });
+        return runner;
+    }
+    
+}
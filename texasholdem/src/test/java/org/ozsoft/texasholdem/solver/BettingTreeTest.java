@@ -0,0 +1,126 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test suite for the <code>BettingTree</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class BettingTreeTest {
+
+    private final BettingTree tree = new BettingTree();
+
+    /**
+     * Tests the size of the betting rounds.
+     */
+    @Test
+    public void size() {
+        Assert.assertEquals(30, tree.getNoOfDecisionNodes(0));
+        for (int street = 1; street < BettingTree.NO_OF_STREETS; street++) {
+            Assert.assertEquals(62, tree.getNoOfDecisionNodes(street));
+        }
+        Assert.assertEquals(1, tree.getNoOfPots(0));
+        Assert.assertEquals(4, tree.getNoOfPots(1));
+        Assert.assertEquals(8, tree.getNoOfPots(2));
+        Assert.assertEquals(16, tree.getNoOfPots(3));
+        Assert.assertEquals(2, tree.getPot(1, 0));
+        Assert.assertEquals(8, tree.getPot(1, 3));
+        Assert.assertEquals(32, tree.getPot(3, 15));
+        Assert.assertEquals(3, tree.getPotIndex(2, 8));
+        Assert.assertEquals(-1, tree.getPotIndex(2, 7));
+        Assert.assertEquals(-1, tree.getPotIndex(2, 100));
+    }
+
+    /**
+     * Tests the Pre-Flop betting round.
+     */
+    @Test
+    public void preflop() {
+        // Dealer (small blind) acts first, facing the big blind.
+        int root = tree.getRoot(0);
+        Assert.assertTrue(tree.isDecision(root));
+        Assert.assertEquals(0, tree.getPlayer(root));
+        Assert.assertEquals(0, tree.getStreet(root));
+        Assert.assertEquals(1, tree.getBet(root, 0));
+        Assert.assertEquals(2, tree.getBet(root, 1));
+        int fold = tree.getChild(root, BettingTree.FOLD);
+        Assert.assertTrue(tree.isFold(fold));
+        Assert.assertEquals(0, tree.getPlayer(fold));
+
+        // Call; big blind may check (no fold) or raise.
+        int call = tree.getChild(root, BettingTree.CALL);
+        Assert.assertEquals(1, tree.getPlayer(call));
+        Assert.assertEquals(2, tree.getBet(call, 0));
+        Assert.assertEquals(-1, tree.getChild(call, BettingTree.FOLD));
+        int check = tree.getChild(call, BettingTree.CALL);
+        Assert.assertTrue(tree.isRoundEnd(check));
+        Assert.assertEquals(2, tree.getBet(check, 0));
+        Assert.assertEquals(2, tree.getBet(check, 1));
+
+        // Raise, call: the raiser has the final option.
+        int raise = tree.getChild(root, BettingTree.RAISE);
+        Assert.assertEquals(4, tree.getBet(raise, 0));
+        int reraise = tree.getChild(raise, BettingTree.RAISE);
+        int option = tree.getChild(raise, BettingTree.CALL);
+        Assert.assertEquals(0, tree.getPlayer(option));
+        Assert.assertEquals(-1, tree.getChild(option, BettingTree.FOLD));
+        Assert.assertTrue(tree.isRoundEnd(tree.getChild(option, BettingTree.CALL)));
+
+        // Capped after three raises (four bets).
+        int capped = tree.getChild(tree.getChild(reraise, BettingTree.RAISE), BettingTree.CALL);
+        Assert.assertEquals(8, tree.getBet(capped, 0));
+        Assert.assertEquals(8, tree.getBet(capped, 1));
+        Assert.assertEquals(0, tree.getPlayer(capped));
+        Assert.assertEquals(-1, tree.getChild(capped, BettingTree.RAISE));
+    }
+
+    /**
+     * Tests a betting round after the Flop.
+     */
+    @Test
+    public void postflop() {
+        // Big blind acts first, without a bet.
+        int root = tree.getRoot(3);
+        Assert.assertEquals(1, tree.getPlayer(root));
+        Assert.assertEquals(3, tree.getStreet(root));
+        Assert.assertEquals(-1, tree.getChild(root, BettingTree.FOLD));
+        int check = tree.getChild(root, BettingTree.CALL);
+        Assert.assertEquals(0, tree.getPlayer(check));
+        Assert.assertTrue(tree.isRoundEnd(tree.getChild(check, BettingTree.CALL)));
+
+        // Big bets; a bet is not a raise.
+        int bet = tree.getChild(check, BettingTree.RAISE);
+        Assert.assertEquals(4, tree.getBet(bet, 0));
+        Assert.assertEquals(0, tree.getBet(bet, 1));
+        int node = bet;
+        for (int raise = 0; raise < BettingTree.MAX_RAISES; raise++) {
+            node = tree.getChild(node, BettingTree.RAISE);
+        }
+        Assert.assertEquals(12, tree.getBet(node, 0));
+        Assert.assertEquals(16, tree.getBet(node, 1));
+        Assert.assertEquals(-1, tree.getChild(node, BettingTree.RAISE));
+        Assert.assertTrue(tree.getDecisionIndex(node) >= 0);
+        Assert.assertTrue(tree.getDecisionIndex(node) < tree.getNoOfDecisionNodes(3));
+        Assert.assertEquals(-1, tree.getDecisionIndex(tree.getChild(node, BettingTree.FOLD)));
+    }
+
+}
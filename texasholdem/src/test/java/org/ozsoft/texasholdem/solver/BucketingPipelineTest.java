@@ -0,0 +1,220 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ozsoft.texasholdem.util.CardUtils;
+import org.ozsoft.texasholdem.util.HandIndexer;
+
+/**
+ * Test suite for the <code>BucketingPipeline</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class BucketingPipelineTest {
+
+    private static final int NO_OF_BINS = 8;
+
+    private static final int NO_OF_RUNOUTS = 50;
+
+    private static final int NO_OF_BUCKETS = 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests the equity histograms.
+     */
+    @Test
+    public void histogram() {
+        EquityHistogram equityHistogram = new EquityHistogram(NO_OF_BINS, NO_OF_RUNOUTS, new SplittableRandom(42L));
+        Assert.assertEquals(NO_OF_BINS, equityHistogram.getNoOfBins());
+        double[] histogram = new double[NO_OF_BINS];
+
+        // River: the nuts.
+        equityHistogram.calculate(CardUtils.parseMask("As Ks"), CardUtils.parseMask("Qs Js Ts 2h 3d"), histogram);
+        Assert.assertEquals(1.0, histogram[NO_OF_BINS - 1], 0.0);
+
+        // Turn: a Flush draw completes on 9 of 46 cards.
+        equityHistogram.calculate(CardUtils.parseMask("As Ks"), CardUtils.parseMask("Qs 7s 2h 3d"), histogram);
+        double total = 0.0;
+        for (double share : histogram) {
+            total += share;
+        }
+        Assert.assertEquals(1.0, total, 1e-9);
+        Assert.assertTrue(histogram[NO_OF_BINS - 1] >= 9.0 / 46.0);
+
+        try {
+            equityHistogram.calculate(CardUtils.parseMask("As Ks"), CardUtils.parseMask("As 7s 2h"), histogram);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests the Pre-Flop buckets.
+     */
+    @Test
+    public void run() throws IOException {
+        File directory = folder.getRoot();
+        BucketingPipeline pipeline = new BucketingPipeline(new ForkJoinPool(2), directory, NO_OF_BINS, NO_OF_RUNOUTS,
+                42L);
+        pipeline.run(0, NO_OF_BUCKETS);
+        File file = BucketingPipeline.getBucketFile(directory, 0);
+        Assert.assertTrue(file.isFile());
+        Assert.assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        BucketFile buckets = new BucketFile(file);
+        Assert.assertEquals(0, buckets.getStreet());
+        Assert.assertEquals(NO_OF_BUCKETS, buckets.getNoOfBuckets());
+        Assert.assertEquals(169L, buckets.getSize());
+        int aces = getBucket(buckets, "As Ah");
+        int sevenDeuce = getBucket(buckets, "7c 2d");
+        Assert.assertEquals(NO_OF_BUCKETS - 1, aces);
+        Assert.assertTrue(sevenDeuce < aces);
+        Assert.assertEquals(sevenDeuce, getBucket(buckets, "7s 2h"));
+        boolean[] used = new boolean[NO_OF_BUCKETS];
+        for (long index = 0L; index < buckets.getSize(); index++) {
+            used[buckets.get(index)] = true;
+        }
+        for (boolean isUsed : used) {
+            Assert.assertTrue(isUsed);
+        }
+
+        // Existing bucket file is kept.
+        long modified = file.lastModified();
+        pipeline.run(0, NO_OF_BUCKETS);
+        Assert.assertEquals(modified, file.lastModified());
+
+        // Resume from partial features and without centroids: same buckets.
+        byte[] expected = Files.readAllBytes(file.toPath());
+        Assert.assertTrue(file.delete());
+        Assert.assertTrue(new File(directory, "street0-" + NO_OF_BUCKETS + ".centroids").delete());
+        File featureFile = new File(directory, "street0-" + NO_OF_BINS + "x" + NO_OF_RUNOUTS + ".features");
+        RandomAccessFile raf = new RandomAccessFile(featureFile, "rw");
+        try {
+            raf.write(new byte[(int) raf.length()]);
+        } finally {
+            raf.close();
+        }
+        raf = new RandomAccessFile(new File(featureFile.getPath() + ".progress"), "rw");
+        try {
+            raf.write(0);
+        } finally {
+            raf.close();
+        }
+        new BucketingPipeline(new ForkJoinPool(1), directory, NO_OF_BINS, NO_OF_RUNOUTS, 42L).run(0, NO_OF_BUCKETS);
+        Assert.assertTrue(Arrays.equals(expected, Files.readAllBytes(file.toPath())));
+
+        // Without the other streets.
+        try {
+            new BucketAbstraction(directory);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+
+        // Corrupt file.
+        raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(raf.length() - 1);
+            raf.write(raf.read() ^ 0xff);
+        } finally {
+            raf.close();
+        }
+        try {
+            new BucketFile(file);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+        try {
+            new BucketFile(folder.newFile());
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests invalid arguments (bad-weather).
+     */
+    @Test
+    public void invalid() throws IOException {
+        File directory = folder.getRoot();
+        try {
+            new BucketingPipeline(new File(directory, "missing"), NO_OF_BINS, NO_OF_RUNOUTS, 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new BucketingPipeline(directory, 1, NO_OF_RUNOUTS, 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new BucketingPipeline(directory, NO_OF_BINS, 0, 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        BucketingPipeline pipeline = new BucketingPipeline(directory, NO_OF_BINS, NO_OF_RUNOUTS, 0L);
+        try {
+            pipeline.run(4, NO_OF_BUCKETS);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            pipeline.run(0, 170);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            pipeline.run(1, 0);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Returns the Pre-Flop bucket of a hand.
+     */
+    private static int getBucket(BucketFile buckets, String holeCards) {
+        long mask = CardUtils.parseMask(holeCards);
+        int[] cards = { Long.numberOfTrailingZeros(mask), 63 - Long.numberOfLeadingZeros(mask) };
+        return buckets.get(HandIndexer.forStreet(0).index(cards));
+    }
+
+}
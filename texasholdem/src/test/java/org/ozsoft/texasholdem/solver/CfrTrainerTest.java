@@ -0,0 +1,252 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ozsoft.texasholdem.equity.PreflopEquity;
+
+/**
+ * Test suite for the <code>CfrTrainer</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class CfrTrainerTest {
+
+    private final BettingTree tree = new BettingTree();
+
+    private final CardAbstraction abstraction = new HandStrengthAbstraction(4, 4, 4);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests the size of the tables.
+     */
+    @Test
+    public void size() {
+        CfrTrainer trainer = new CfrTrainer(tree, abstraction);
+        Assert.assertEquals(3 * (30 * 169 + (4 + 8 + 16) * 62 * 4), trainer.getSize());
+        Assert.assertEquals(0L, trainer.getNoOfIterations());
+
+        // Untrained: uniformly random.
+        CfrStrategy strategy = trainer.getStrategy();
+        int root = tree.getRoot(0);
+        for (int action = 0; action < BettingTree.NO_OF_ACTIONS; action++) {
+            Assert.assertEquals(1.0 / 3.0, strategy.getProbability(root, 0, 0, action), 1e-6);
+        }
+        int check = tree.getChild(root, BettingTree.CALL);
+        Assert.assertEquals(0.0, strategy.getProbability(check, 0, 0, BettingTree.FOLD), 0.0);
+        Assert.assertEquals(0.5, strategy.getProbability(check, 0, 0, BettingTree.CALL), 1e-6);
+    }
+
+    /**
+     * Tests that training leads to a sensible Pre-Flop strategy.
+     */
+    @Test
+    public void train() {
+        CardAbstraction coarse = new PreflopEquityAbstraction(abstraction);
+        CfrTrainer trainer = new CfrTrainer(new ForkJoinPool(2), tree, coarse);
+        trainer.train(10000L, 42L);
+        Assert.assertEquals(10000L, trainer.getNoOfIterations());
+        CfrStrategy strategy = trainer.getStrategy();
+
+        // Facing a raise, the best hands hardly fold and raise more than the worst.
+        int node = tree.getChild(tree.getRoot(0), BettingTree.RAISE);
+        int best = PreflopEquityAbstraction.NO_OF_BUCKETS - 1;
+        int worst = 0;
+        double total = 0.0;
+        for (int action = 0; action < BettingTree.NO_OF_ACTIONS; action++) {
+            total += strategy.getProbability(node, 0, best, action);
+        }
+        Assert.assertEquals(1.0, total, 1e-6);
+        Assert.assertTrue(strategy.getProbability(node, 0, best, BettingTree.FOLD) < 0.15);
+        Assert.assertTrue(strategy.getProbability(node, 0, worst, BettingTree.FOLD) > 0.3);
+        Assert.assertTrue(strategy.getProbability(node, 0, best, BettingTree.RAISE) > strategy.getProbability(node,
+                0, worst, BettingTree.RAISE));
+
+        // Picking actions follows the probabilities.
+        double fold = strategy.getProbability(node, 0, worst, BettingTree.FOLD);
+        Assert.assertEquals(BettingTree.FOLD, strategy.getAction(node, 0, worst, 0.0));
+        Assert.assertEquals(BettingTree.FOLD, strategy.getAction(node, 0, worst, fold - 1e-6));
+        Assert.assertEquals(BettingTree.CALL, strategy.getAction(node, 0, worst, fold + 1e-6));
+        Assert.assertEquals(BettingTree.RAISE, strategy.getAction(node, 0, worst, 0.999999));
+    }
+
+    /**
+     * Tests checkpointing and resuming the training.
+     */
+    @Test
+    public void checkpoint() throws IOException {
+        File file = new File(folder.getRoot(), "strategy.cfr");
+        CfrTrainer trainer = new CfrTrainer(tree, abstraction);
+        trainer.train(1000L, 42L, file, 400L);
+        Assert.assertTrue(file.isFile());
+        Assert.assertFalse(new File(file.getPath() + ".tmp").exists());
+        Assert.assertEquals(1000L, trainer.getNoOfIterations());
+
+        // Resume with a new trainer.
+        CfrTrainer resumed = new CfrTrainer(tree, abstraction);
+        resumed.readCheckpoint(file);
+        Assert.assertEquals(1000L, resumed.getNoOfIterations());
+        assertEquals(trainer.getStrategy(), resumed.getStrategy());
+        assertEquals(trainer.getStrategy(), CfrStrategy.read(file));
+        resumed.train(500L, 43L);
+        Assert.assertEquals(1500L, resumed.getNoOfIterations());
+
+        // Different abstraction.
+        try {
+            new CfrTrainer(tree, new HandStrengthAbstraction(4, 4, 5)).readCheckpoint(file);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+
+        // Corrupt file.
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(raf.length() - 3);
+            raf.write(raf.read() ^ 0xff);
+        } finally {
+            raf.close();
+        }
+        CfrStrategy.read(file);
+        try {
+            resumed.readCheckpoint(file);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests invalid arguments (bad-weather).
+     */
+    @Test
+    public void invalid() throws IOException {
+        try {
+            new CfrTrainer(null, abstraction);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new HandStrengthAbstraction(0, 4, 4);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        CfrTrainer trainer = new CfrTrainer(tree, abstraction);
+        try {
+            trainer.train(0L, 42L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            trainer.train(10L, 42L, new File(folder.getRoot(), "strategy.cfr"), 0L);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        CfrStrategy strategy = trainer.getStrategy();
+        try {
+            strategy.getProbability(tree.getChild(tree.getRoot(0), BettingTree.FOLD), 0, 0, 0);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            strategy.getProbability(tree.getRoot(1), 3, 0, 0);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            strategy.getProbability(tree.getRoot(1), 2, 4, 0);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            CfrStrategy.read(folder.newFile());
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Asserts that two strategies are equal.
+     */
+    private void assertEquals(CfrStrategy expected, CfrStrategy actual) {
+        for (int node = 0; node < tree.getNoOfNodes(); node++) {
+            if (tree.isDecision(node)) {
+                int street = tree.getStreet(node);
+                for (int pot = 0; pot < tree.getNoOfPots(street); pot++) {
+                    int contribution = tree.getPot(street, pot);
+                    for (int bucket = 0; bucket < abstraction.getNoOfBuckets(street); bucket++) {
+                        for (int action = 0; action < BettingTree.NO_OF_ACTIONS; action++) {
+                            Assert.assertEquals(expected.getProbability(node, contribution, bucket, action),
+                                    actual.getProbability(node, contribution, bucket, action), 0.0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Card abstraction with a few Pre-Flop buckets by equity, for fast
+     * convergence.
+     */
+    private static class PreflopEquityAbstraction implements CardAbstraction {
+
+        private static final int NO_OF_BUCKETS = 4;
+
+        private final CardAbstraction postflop;
+
+        public PreflopEquityAbstraction(CardAbstraction postflop) {
+            this.postflop = postflop;
+        }
+
+        @Override
+        public int getNoOfBuckets(int street) {
+            return (street == 0) ? NO_OF_BUCKETS : postflop.getNoOfBuckets(street);
+        }
+
+        @Override
+        public int getBucket(int street, long holeCards, long board) {
+            if (street > 0) {
+                return postflop.getBucket(street, holeCards, board);
+            }
+            double equity = PreflopEquity.getEquity(Long.numberOfTrailingZeros(holeCards),
+                    63 - Long.numberOfLeadingZeros(holeCards), 1);
+            return Math.max(0, Math.min((int) ((equity - 0.3) / 0.55 * NO_OF_BUCKETS), NO_OF_BUCKETS - 1));
+        }
+
+    }
+
+}
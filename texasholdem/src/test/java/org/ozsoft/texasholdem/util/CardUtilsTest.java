@@ -0,0 +1,104 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.Hand;
+
+/**
+ * Test suite for the <code>CardUtils</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class CardUtilsTest {
+
+    /**
+     * Tests the conversions of single cards.
+     */
+    @Test
+    public void cards() {
+        for (int rank = 0; rank < Card.NO_OF_RANKS; rank++) {
+            for (int suit = 0; suit < Card.NO_OF_SUITS; suit++) {
+                Card card = new Card(rank, suit);
+                int encoded = CardUtils.toInt(card);
+                Assert.assertEquals(CardUtils.getCard(rank, suit), encoded);
+                Assert.assertEquals(rank, CardUtils.getRank(encoded));
+                Assert.assertEquals(suit, CardUtils.getSuit(encoded));
+                Assert.assertEquals(card, CardUtils.toCard(encoded));
+                Assert.assertEquals(encoded, CardUtils.parseCard(card.toString()));
+                Assert.assertEquals(card.toString(), CardUtils.cardToString(encoded));
+            }
+        }
+        Assert.assertEquals(0, CardUtils.parseCard("2d"));
+        Assert.assertEquals(51, CardUtils.parseCard("As"));
+        Assert.assertSame(CardUtils.toCard(51), CardUtils.toCard(51));
+    }
+
+    /**
+     * Tests the conversions of card masks.
+     */
+    @Test
+    public void masks() {
+        long mask = CardUtils.parseMask("As Kd 2d");
+        Assert.assertEquals((1L << 51) | (1L << 44) | 1L, mask);
+        Assert.assertEquals(3, CardUtils.size(mask));
+        Assert.assertEquals("As Kd 2d", CardUtils.maskToString(mask));
+        Assert.assertEquals(mask, CardUtils.parseMask(" 2d  As Kd "));
+        Assert.assertEquals(0L, CardUtils.parseMask(""));
+        Assert.assertEquals("", CardUtils.maskToString(0L));
+        Assert.assertEquals(52, CardUtils.size(CardUtils.FULL_DECK));
+
+        Card[] cards = CardUtils.toCards(mask);
+        Assert.assertEquals(3, cards.length);
+        Assert.assertEquals("As", cards[0].toString());
+        Assert.assertEquals("2d", cards[2].toString());
+        Assert.assertEquals(mask, CardUtils.toMask(cards));
+
+        Hand hand = CardUtils.toHand(mask);
+        Assert.assertEquals("As Kd 2d", hand.toString());
+        Assert.assertEquals(mask, hand.getMask());
+    }
+
+    /**
+     * Tests invalid input (bad-weather).
+     */
+    @Test
+    public void invalid() {
+        try {
+            CardUtils.parseMask("As As");
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            CardUtils.parseMask("As Xx");
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            CardUtils.toCard(52);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+}
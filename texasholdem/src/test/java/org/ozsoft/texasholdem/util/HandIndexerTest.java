@@ -0,0 +1,253 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.ozsoft.texasholdem.Card;
+import org.ozsoft.texasholdem.equity.PreflopEquity;
+
+/**
+ * Test suite for the <code>HandIndexer</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class HandIndexerTest {
+
+    /**
+     * Tests the number of indices per street.
+     */
+    @Test
+    public void size() {
+        Assert.assertEquals(169L, HandIndexer.forStreet(0).getSize());
+        Assert.assertEquals(1286792L, HandIndexer.forStreet(3).getSize());
+        Assert.assertEquals(13960050L, HandIndexer.forStreet(4).getSize());
+        Assert.assertEquals(123156254L, HandIndexer.forStreet(5).getSize());
+        Assert.assertEquals(1755L, new HandIndexer(3).getSize());
+        Assert.assertEquals(134459L, new HandIndexer(5).getSize());
+        Assert.assertEquals(55190538L, new HandIndexer(2, 3, 1).getSize());
+        Assert.assertEquals(2428287420L, new HandIndexer(2, 3, 1, 1).getSize());
+    }
+
+    /**
+     * Tests that all Pre-Flop hands map to the same classes as the canonical
+     * starting hands.
+     */
+    @Test
+    public void preflop() {
+        HandIndexer indexer = HandIndexer.forStreet(0);
+        long[] handIndices = new long[PreflopEquity.NO_OF_HANDS];
+        for (int i = 0; i < handIndices.length; i++) {
+            handIndices[i] = -1L;
+        }
+        for (int card1 = 0; card1 < CardUtils.NO_OF_CARDS; card1++) {
+            for (int card2 = 0; card2 < CardUtils.NO_OF_CARDS; card2++) {
+                if (card1 != card2) {
+                    long index = indexer.index(new int[] { card1, card2 });
+                    Assert.assertTrue(index >= 0L && index < 169L);
+                    int handIndex = PreflopEquity.getHandIndex(card1, card2);
+                    if (handIndices[handIndex] < 0L) {
+                        handIndices[handIndex] = index;
+                    } else {
+                        Assert.assertEquals(handIndices[handIndex], index);
+                    }
+                }
+            }
+        }
+        Set<Long> indices = new HashSet<Long>();
+        for (long index : handIndices) {
+            indices.add(index);
+        }
+        Assert.assertEquals(169, indices.size());
+    }
+
+    /**
+     * Tests that all flops map to 1,755 distinct indices.
+     */
+    @Test
+    public void flops() {
+        HandIndexer indexer = new HandIndexer(3);
+        boolean[] found = new boolean[(int) indexer.getSize()];
+        for (int card1 = 0; card1 < CardUtils.NO_OF_CARDS; card1++) {
+            for (int card2 = card1 + 1; card2 < CardUtils.NO_OF_CARDS; card2++) {
+                for (int card3 = card2 + 1; card3 < CardUtils.NO_OF_CARDS; card3++) {
+                    long index = indexer.index(new int[] { card3, card1, card2 });
+                    Assert.assertEquals(index, indexer.index(new int[] { card1, card2, card3 }));
+                    found[(int) index] = true;
+                }
+            }
+        }
+        for (boolean f : found) {
+            Assert.assertTrue(f);
+        }
+    }
+
+    /**
+     * Tests that unindexing and indexing again gives the same index for each
+     * index of the Flop.
+     */
+    @Test
+    public void roundTrip() {
+        HandIndexer indexer = HandIndexer.forStreet(3);
+        int[] cards = new int[indexer.getNoOfCards()];
+        for (long index = 0L; index < indexer.getSize(); index++) {
+            indexer.unindex(index, cards);
+            Assert.assertEquals(index, indexer.index(cards));
+        }
+    }
+
+    /**
+     * Tests that hands with permuted suits have the same index and that the
+     * representative is isomorphic, on random River hands with the Turn and
+     * River as separate rounds.
+     */
+    @Test
+    public void isomorphic() {
+        HandIndexer indexer = new HandIndexer(2, 3, 1, 1);
+        SplittableRandom random = new SplittableRandom(42L);
+        MaskDeck deck = new MaskDeck(random);
+        int[] cards = new int[7];
+        int[] permuted = new int[7];
+        int[] representative = new int[7];
+        for (int i = 0; i < 100000; i++) {
+            deck.reset();
+            for (int j = 0; j < cards.length; j++) {
+                cards[j] = deck.deal();
+            }
+            int[] suits = { 0, 1, 2, 3 };
+            for (int j = 3; j > 0; j--) {
+                int k = random.nextInt(j + 1);
+                int suit = suits[j];
+                suits[j] = suits[k];
+                suits[k] = suit;
+            }
+            for (int j = 0; j < cards.length; j++) {
+                permuted[j] = CardUtils.getCard(CardUtils.getRank(cards[j]), suits[CardUtils.getSuit(cards[j])]);
+            }
+            long index = indexer.index(cards);
+            Assert.assertTrue(index >= 0L && index < indexer.getSize());
+            Assert.assertEquals(index, indexer.index(permuted));
+            indexer.unindex(index, representative);
+            Assert.assertEquals(index, indexer.index(representative));
+        }
+    }
+
+    /**
+     * Tests the <code>Card</code> based methods.
+     */
+    @Test
+    public void cards() {
+        HandIndexer indexer = HandIndexer.forStreet(3);
+        Card[] hand = CardUtils.toCards(CardUtils.parseMask("As Ks Qs Js Ts"));
+        long index = indexer.index(hand);
+        Assert.assertEquals(index, indexer.index(CardUtils.toCards(CardUtils.parseMask("Ah Kh Qh Jh Th"))));
+        Card[] representative = indexer.unindex(index);
+        Assert.assertEquals(5, representative.length);
+        Assert.assertEquals(index, indexer.index(representative));
+        for (Card card : representative) {
+            Assert.assertEquals(representative[0].getSuit(), card.getSuit());
+        }
+    }
+
+    /**
+     * Tests indexing card masks, which gives the same indices as cards.
+     */
+    @Test
+    public void masks() {
+        SplittableRandom random = new SplittableRandom(42L);
+        MaskDeck deck = new MaskDeck(random);
+        for (int noOfBoardCards : new int[] { 0, 3, 4, 5 }) {
+            HandIndexer indexer = HandIndexer.forStreet(noOfBoardCards);
+            for (int i = 0; i < 1000; i++) {
+                deck.reset(0L);
+                long holeCards = deck.deal(2);
+                long board = (noOfBoardCards > 0) ? deck.deal(noOfBoardCards) : 0L;
+                int[] cards = new int[2 + noOfBoardCards];
+                int j = 0;
+                for (long mask : new long[] { holeCards, board }) {
+                    for (; mask != 0L; mask &= mask - 1L) {
+                        cards[j++] = Long.numberOfTrailingZeros(mask);
+                    }
+                }
+                Assert.assertEquals(indexer.index(cards), indexer.index(holeCards, board));
+            }
+        }
+        HandIndexer indexer = HandIndexer.forStreet(3);
+        try {
+            indexer.index(CardUtils.parseMask("As Ks"), CardUtils.parseMask("As Qs Js"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            indexer.index(CardUtils.parseMask("As Ks"), CardUtils.parseMask("Qs Js"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new HandIndexer(2, 3, 1).index(CardUtils.parseMask("As Ks"), CardUtils.parseMask("Qs Js Ts"));
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests invalid arguments.
+     */
+    @Test
+    public void invalid() {
+        HandIndexer indexer = HandIndexer.forStreet(3);
+        try {
+            indexer.index(new int[] { 0, 1, 2, 3 });
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            indexer.index(new int[] { 0, 1, 2, 3, 3 });
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            indexer.unindex(indexer.getSize(), new int[5]);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            HandIndexer.forStreet(2);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+        try {
+            new HandIndexer(2, 3, 1, 1, 1);
+            Assert.fail("No exception thrown");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+// This file is part of the 'texasholdem' project, an open source
+// Texas Hold'em poker application written in Java.
+//
+// Copyright 2009 Oscar Stigter
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package org.ozsoft.texasholdem.util;
+
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test suite for the <code>MaskDeck</code> class.
+ *
+ * @author Oscar Stigter
+ */
+public class MaskDeckTest {
+
+    private static final int NO_OF_DRAWS = 52000;
+
+    /**
+     * Tests selecting the n-th set bit against a straightforward scan.
+     */
+    @Test
+    public void select() {
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < 10000; i++) {
+            long mask = random.nextLong() & CardUtils.FULL_DECK;
+            int n = 0;
+            for (int card = 0; card < CardUtils.NO_OF_CARDS; card++) {
+                if ((mask & (1L << card)) != 0L) {
+                    Assert.assertEquals(card, MaskDeck.select(mask, n++));
+                }
+            }
+        }
+        Assert.assertEquals(51, MaskDeck.select(1L << 51, 0));
+        Assert.assertEquals(51, MaskDeck.select(CardUtils.FULL_DECK, 51));
+    }
+
+    /**
+     * Tests dealing cards with dead cards removed.
+     */
+    @Test
+    public void deal() {
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        Assert.assertEquals(CardUtils.NO_OF_CARDS, deck.size());
+        long deadCards = CardUtils.parseMask("As Ks Qh");
+        deck.reset(deadCards);
+        Assert.assertEquals(49, deck.size());
+        long cards = 0L;
+        for (int i = 0; i < 40; i++) {
+            long card = CardUtils.getMask(deck.deal());
+            Assert.assertEquals(0L, card & (cards | deadCards));
+            cards |= card;
+        }
+        long rest = deck.deal(9);
+        Assert.assertEquals(9, CardUtils.size(rest));
+        Assert.assertEquals(CardUtils.FULL_DECK, cards | rest | deadCards);
+        Assert.assertEquals(0L, deck.getLiveCards());
+        try {
+            deck.deal();
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+        deck.reset();
+        deck.remove(deadCards);
+        Assert.assertEquals(CardUtils.FULL_DECK & ~deadCards, deck.getLiveCards());
+        try {
+            deck.deal(50);
+            Assert.fail("No exception thrown");
+        } catch (IllegalStateException e) {
+            // OK.
+        }
+    }
+
+    /**
+     * Tests that each live card is dealt equally often.
+     */
+    @Test
+    public void uniform() {
+        MaskDeck deck = new MaskDeck(new SplittableRandom(42L));
+        long deadCards = CardUtils.parseMask("2d 7c Th Ts");
+        int noOfLiveCards = CardUtils.NO_OF_CARDS - 4;
+        int[] counts = new int[CardUtils.NO_OF_CARDS];
+        for (int i = 0; i < NO_OF_DRAWS; i++) {
+            deck.reset(deadCards);
+            counts[deck.deal()]++;
+        }
+        double expected = (double) NO_OF_DRAWS / noOfLiveCards;
+        double chiSquared = 0.0;
+        for (int card = 0; card < CardUtils.NO_OF_CARDS; card++) {
+            if ((deadCards & (1L << card)) != 0L) {
+                Assert.assertEquals(0, counts[card]);
+            } else {
+                double delta = counts[card] - expected;
+                chiSquared += delta * delta / expected;
+            }
+        }
+        // 47 degrees of freedom, p < 0.001.
+        Assert.assertTrue("Biased deck: " + chiSquared, chiSquared < 82.7);
+    }
+
+}
@@ -63,4 +63,18 @@ public class PokerUtilsTest {
         Assert.assertEquals(0.0, PokerUtils.getChenScore(new Card[] {card1, card2}), DELTA);
     }
     
+    /**
+     * Tests the precomputed Pre-Flop equity.
+     */
+    @Test
+    public void preflopEquity() {
+        Card[] aces = new Card[] {new Card(Card.ACE, Card.SPADES), new Card(Card.ACE, Card.HEARTS)};
+        Card[] kings = new Card[] {new Card(Card.KING, Card.CLUBS), new Card(Card.KING, Card.DIAMONDS)};
+        Card[] trash = new Card[] {new Card(Card.SEVEN, Card.CLUBS), new Card(Card.DEUCE, Card.DIAMONDS)};
+        Assert.assertEquals(0.852, PokerUtils.getPreflopEquity(aces, 1), 0.005);
+        Assert.assertTrue(PokerUtils.getPreflopEquity(aces, 1) > PokerUtils.getPreflopEquity(kings, 1));
+        Assert.assertTrue(PokerUtils.getPreflopEquity(kings, 1) > PokerUtils.getPreflopEquity(trash, 1));
+        Assert.assertTrue(PokerUtils.getPreflopEquity(aces, 9) < PokerUtils.getPreflopEquity(aces, 1));
+    }
+    
 }